@@ -0,0 +1,64 @@
+package com.pichillilorenzo.flutter_inappwebview;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records, for each page, the time from the start of the navigation to the moment the JavaScript bridge was ready,
+ * split by how the AT_DOCUMENT_START scripts were injected.
+ * It is only used from the WebView looper thread.
+ */
+public class BridgeReadyMetrics {
+  private final Timing nativeTiming = new Timing();
+  private final Timing evaluatedTiming = new Timing();
+  private long notReadyCount = 0;
+
+  public void recordReady(boolean nativeDocumentStartScripts, double millis) {
+    (nativeDocumentStartScripts ? nativeTiming : evaluatedTiming).record(millis);
+  }
+
+  /**
+   * The bridge was still not ready when the page finished loading.
+   */
+  public void recordNotReady() {
+    notReadyCount++;
+  }
+
+  public void reset() {
+    nativeTiming.reset();
+    evaluatedTiming.reset();
+    notReadyCount = 0;
+  }
+
+  public Map<String, Object> toMap() {
+    Map<String, Object> metricsMap = new HashMap<>();
+    nativeTiming.putInto(metricsMap, "native");
+    evaluatedTiming.putInto(metricsMap, "evaluated");
+    metricsMap.put("notReadyCount", notReadyCount);
+    return metricsMap;
+  }
+
+  private static class Timing {
+    private long count = 0;
+    private double totalMillis = 0;
+    private double maxMillis = 0;
+
+    void record(double millis) {
+      count++;
+      totalMillis += millis;
+      maxMillis = Math.max(maxMillis, millis);
+    }
+
+    void reset() {
+      count = 0;
+      totalMillis = 0;
+      maxMillis = 0;
+    }
+
+    void putInto(Map<String, Object> metricsMap, String prefix) {
+      metricsMap.put(prefix + "Count", count);
+      metricsMap.put(prefix + "AverageMillis", count > 0 ? totalMillis / count : 0.0);
+      metricsMap.put(prefix + "MaxMillis", maxMillis);
+    }
+  }
+}
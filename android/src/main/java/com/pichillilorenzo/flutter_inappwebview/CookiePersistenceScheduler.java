@@ -0,0 +1,223 @@
+package com.pichillilorenzo.flutter_inappwebview;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.webkit.CookieManager;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the cookies of the WebView to disk with CookieManager.flush() on a background thread,
+ * instead of doing it on the UI thread after each page load or cookie change.
+ *
+ * With the DEBOUNCED policy, the flush requests are batched and the cookies are written at most once every interval,
+ * and also when the app goes to the background or a WebView is disposed.
+ * With the IMMEDIATE policy, every request is written right away, still on the background thread.
+ */
+public class CookiePersistenceScheduler implements ComponentCallbacks2 {
+
+  protected static final String LOG_TAG = "CookiePersistence";
+
+  public static final String POLICY_DEBOUNCED = "DEBOUNCED";
+  public static final String POLICY_IMMEDIATE = "IMMEDIATE";
+  public static final long DEFAULT_INTERVAL_MILLIS = 1000;
+
+  @Nullable
+  private Context applicationContext;
+  @Nullable
+  private HandlerThread thread;
+  @Nullable
+  private Handler handler;
+  @NonNull
+  private String policy = POLICY_DEBOUNCED;
+  private long intervalMillis = DEFAULT_INTERVAL_MILLIS;
+  private boolean flushScheduled = false;
+  private long pendingRequestCount = 0;
+
+  private long requestCount = 0;
+  private long flushCount = 0;
+  private long failedFlushCount = 0;
+  private long totalFlushNanos = 0;
+  private long maxFlushNanos = 0;
+  private long lastFlushNanos = 0;
+
+  private final Runnable flushRunnable = new Runnable() {
+    @Override
+    public void run() {
+      runFlush();
+    }
+  };
+
+  public CookiePersistenceScheduler(@NonNull Context applicationContext) {
+    this.applicationContext = applicationContext;
+    thread = new HandlerThread(LOG_TAG, Process.THREAD_PRIORITY_BACKGROUND);
+    thread.start();
+    handler = new Handler(thread.getLooper());
+    applicationContext.registerComponentCallbacks(this);
+  }
+
+  public synchronized void configure(@Nullable String policy, @Nullable Long intervalMillis) {
+    if (policy != null) {
+      this.policy = POLICY_IMMEDIATE.equals(policy) ? POLICY_IMMEDIATE : POLICY_DEBOUNCED;
+    }
+    if (intervalMillis != null) {
+      this.intervalMillis = Math.max(0, intervalMillis);
+    }
+    if (pendingRequestCount > 0) {
+      reschedule(POLICY_IMMEDIATE.equals(this.policy) ? 0 : this.intervalMillis);
+    }
+  }
+
+  /**
+   * Asks for the cookies to be written to disk, according to the current policy.
+   */
+  public synchronized void requestFlush() {
+    requestCount++;
+    pendingRequestCount++;
+    if (POLICY_IMMEDIATE.equals(policy)) {
+      reschedule(0);
+    } else if (!flushScheduled && handler != null) {
+      flushScheduled = true;
+      handler.postDelayed(flushRunnable, intervalMillis);
+    }
+  }
+
+  /**
+   * Writes the requested changes now, if any, without waiting for the end of the interval.
+   */
+  public synchronized void flushPending() {
+    if (pendingRequestCount > 0) {
+      reschedule(0);
+    }
+  }
+
+  /**
+   * Writes the cookies now, even if no flush was requested, and calls the callback on the main thread when done.
+   */
+  public synchronized void flushNow(@Nullable final Runnable callback) {
+    if (handler == null) {
+      if (callback != null) {
+        callback.run();
+      }
+      return;
+    }
+    pendingRequestCount++;
+    handler.removeCallbacks(flushRunnable);
+    flushScheduled = false;
+    handler.post(new Runnable() {
+      @Override
+      public void run() {
+        runFlush();
+        if (callback != null) {
+          new Handler(Looper.getMainLooper()).post(callback);
+        }
+      }
+    });
+  }
+
+  private void reschedule(long delayMillis) {
+    if (handler == null) {
+      return;
+    }
+    handler.removeCallbacks(flushRunnable);
+    flushScheduled = true;
+    handler.postDelayed(flushRunnable, delayMillis);
+  }
+
+  private void runFlush() {
+    synchronized (this) {
+      flushScheduled = false;
+      if (pendingRequestCount == 0) {
+        return;
+      }
+      pendingRequestCount = 0;
+    }
+
+    long start = System.nanoTime();
+    boolean flushed = false;
+    try {
+      CookieManager.getInstance().flush();
+      flushed = true;
+    } catch (Exception e) {
+      // the WebView package could be missing or updating
+      Log.e(LOG_TAG, "", e);
+    }
+    long flushNanos = System.nanoTime() - start;
+
+    synchronized (this) {
+      if (!flushed) {
+        failedFlushCount++;
+        return;
+      }
+      flushCount++;
+      totalFlushNanos += flushNanos;
+      lastFlushNanos = flushNanos;
+      maxFlushNanos = Math.max(maxFlushNanos, flushNanos);
+    }
+  }
+
+  public synchronized Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("policy", policy);
+    stats.put("intervalMillis", intervalMillis);
+    stats.put("requestCount", requestCount);
+    stats.put("pendingRequestCount", pendingRequestCount);
+    stats.put("flushCount", flushCount);
+    stats.put("failedFlushCount", failedFlushCount);
+    stats.put("averageFlushMillis", flushCount > 0 ? (double) totalFlushNanos / flushCount / 1000000 : 0.0);
+    stats.put("maxFlushMillis", (double) maxFlushNanos / 1000000);
+    stats.put("lastFlushMillis", (double) lastFlushNanos / 1000000);
+    return stats;
+  }
+
+  @Override
+  public void onTrimMemory(int level) {
+    // the app is no longer visible and its process could be killed without any other callback
+    if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+      flushPending();
+    }
+  }
+
+  @Override
+  public void onConfigurationChanged(@NonNull Configuration newConfig) {
+
+  }
+
+  @Override
+  public void onLowMemory() {
+
+  }
+
+  public void dispose() {
+    if (applicationContext != null) {
+      applicationContext.unregisterComponentCallbacks(this);
+      applicationContext = null;
+    }
+    synchronized (this) {
+      if (handler != null) {
+        handler.removeCallbacks(flushRunnable);
+        if (pendingRequestCount > 0) {
+          handler.post(flushRunnable);
+        }
+        handler = null;
+      }
+      flushScheduled = false;
+    }
+    if (thread != null) {
+      // the last flush posted above still runs before the thread quits
+      thread.quitSafely();
+      thread = null;
+    }
+  }
+}
@@ -0,0 +1,414 @@
+package com.pichillilorenzo.flutter_inappwebview;
+
+import android.util.Log;
+import android.webkit.WebSettings;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+
+/**
+ * Plugin-wide OkHttp clients used by the native side (WebView main-frame fetches, content blocker requests, etc.).
+ *
+ * Every client is derived from the same base client with newBuilder(), so they all share
+ * one connection pool and one dispatcher, and a TLS connection opened by one WebView is reused by the others.
+ */
+public class HttpClientRegistry {
+
+  protected static final String LOG_TAG = "HttpClientRegistry";
+
+  public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 10;
+  public static final long DEFAULT_KEEP_ALIVE_DURATION_SECONDS = 5 * 60;
+  // how long a call made with execute() waits for a slot before it runs anyway, so a Chromium IO thread is never parked forever
+  public static final long CALL_SLOT_TIMEOUT_MILLIS = 10000;
+
+  private int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+  private long keepAliveDurationSeconds = DEFAULT_KEEP_ALIVE_DURATION_SECONDS;
+  @NonNull
+  private ConnectionPool connectionPool = new ConnectionPool(maxIdleConnections, keepAliveDurationSeconds, TimeUnit.SECONDS);
+  private final Dispatcher dispatcher = new Dispatcher();
+  private final AtomicLong connectionsAcquired = new AtomicLong();
+  private final AtomicLong connectionsOpened = new AtomicLong();
+  private final AtomicLong http2ConnectionsAcquired = new AtomicLong();
+  private final AtomicLong http2ConnectionsOpened = new AtomicLong();
+  private final AtomicLong failedConnections = new AtomicLong();
+  private final AtomicLong limitedCallsCount = new AtomicLong();
+  private final AtomicLong limitTimeoutCount = new AtomicLong();
+  private final AtomicLong cacheHitCount = new AtomicLong();
+  private final AtomicLong cacheConditionalHitCount = new AtomicLong();
+  private final AtomicLong cacheMissCount = new AtomicLong();
+
+  // the network calls made with execute(), that the dispatcher doesn't limit, running in total and per host.
+  // They are only limited once setMaxRequests has been called, 0 meaning no limit.
+  private final Object limiterLock = new Object();
+  private int limitMaxRequests = 0;
+  private int limitMaxRequestsPerHost = 0;
+  private int runningLimitedCallsCount = 0;
+  private final Map<String, Integer> runningLimitedCallsPerHost = new HashMap<>();
+
+  @NonNull
+  private OkHttpClient defaultClient;
+  @Nullable
+  private OkHttpClient noRedirectClient;
+  @Nullable
+  private OkHttpClient unsafeClient;
+  @Nullable
+  private Cache cache;
+  @Nullable
+  private OkHttpClient cachingNoRedirectClient;
+
+  public HttpClientRegistry() {
+    defaultClient = buildDefaultClient();
+  }
+
+  @NonNull
+  private OkHttpClient buildDefaultClient() {
+    return new OkHttpClient.Builder()
+            .connectionPool(connectionPool)
+            .dispatcher(dispatcher)
+            // a network interceptor, so the responses served by the cache don't take a slot
+            .addNetworkInterceptor(new Interceptor() {
+              @NonNull
+              @Override
+              public Response intercept(@NonNull Chain chain) throws IOException {
+                String host = chain.request().url().host();
+                boolean acquired = acquireCallSlot(host);
+                try {
+                  return chain.proceed(chain.request());
+                } finally {
+                  if (acquired) {
+                    releaseCallSlot(host);
+                  }
+                }
+              }
+            })
+            .eventListener(new EventListener() {
+              @Override
+              public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy, @Nullable Protocol protocol) {
+                connectionsOpened.incrementAndGet();
+                if (protocol == Protocol.HTTP_2) {
+                  http2ConnectionsOpened.incrementAndGet();
+                }
+              }
+
+              @Override
+              public void connectFailed(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy, @Nullable Protocol protocol, @NonNull IOException ioe) {
+                failedConnections.incrementAndGet();
+              }
+
+              @Override
+              public void connectionAcquired(@NonNull Call call, @NonNull Connection connection) {
+                connectionsAcquired.incrementAndGet();
+                if (connection.protocol() == Protocol.HTTP_2) {
+                  http2ConnectionsAcquired.incrementAndGet();
+                }
+              }
+            })
+            .build();
+  }
+
+  /**
+   * Waits until the call fits in the limits set with setMaxRequests, at most CALL_SLOT_TIMEOUT_MILLIS.
+   * Every request of the plugin is made with execute(), and the dispatcher only applies its limits to enqueue().
+   * The slot is held until the response headers are received, a streamed body is not counted.
+   *
+   * @return true if a slot was taken and must be released, false if the call runs without one.
+   */
+  private boolean acquireCallSlot(@NonNull String host) throws IOException {
+    synchronized (limiterLock) {
+      if (limitMaxRequests <= 0 && limitMaxRequestsPerHost <= 0) {
+        return false;
+      }
+      long deadline = System.currentTimeMillis() + CALL_SLOT_TIMEOUT_MILLIS;
+      boolean waited = false;
+      while ((limitMaxRequests > 0 && runningLimitedCallsCount >= limitMaxRequests) ||
+              (limitMaxRequestsPerHost > 0 && getRunningLimitedCalls(host) >= limitMaxRequestsPerHost)) {
+        if (!waited) {
+          waited = true;
+          limitedCallsCount.incrementAndGet();
+        }
+        long timeout = deadline - System.currentTimeMillis();
+        if (timeout <= 0) {
+          limitTimeoutCount.incrementAndGet();
+          return false;
+        }
+        try {
+          limiterLock.wait(timeout);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException();
+        }
+      }
+      runningLimitedCallsCount++;
+      runningLimitedCallsPerHost.put(host, getRunningLimitedCalls(host) + 1);
+      return true;
+    }
+  }
+
+  private void releaseCallSlot(@NonNull String host) {
+    synchronized (limiterLock) {
+      runningLimitedCallsCount--;
+      int running = getRunningLimitedCalls(host) - 1;
+      if (running > 0) {
+        runningLimitedCallsPerHost.put(host, running);
+      } else {
+        runningLimitedCallsPerHost.remove(host);
+      }
+      limiterLock.notifyAll();
+    }
+  }
+
+  private int getRunningLimitedCalls(@NonNull String host) {
+    Integer running = runningLimitedCallsPerHost.get(host);
+    return running != null ? running : 0;
+  }
+
+  /**
+   * Client with the default OkHttp configuration.
+   */
+  @NonNull
+  public synchronized OkHttpClient getDefaultClient() {
+    return defaultClient;
+  }
+
+  /**
+   * Client that doesn't follow redirects, because a WebResourceResponse cannot be a 3xx response.
+   */
+  @NonNull
+  public synchronized OkHttpClient getNoRedirectClient() {
+    if (noRedirectClient == null) {
+      noRedirectClient = defaultClient.newBuilder()
+              .followRedirects(false)
+              .followSslRedirects(false)
+              .build();
+    }
+    return noRedirectClient;
+  }
+
+  /**
+   * Client that trusts every certificate, used by the content blocker.
+   */
+  @NonNull
+  public synchronized OkHttpClient getUnsafeClient() {
+    if (unsafeClient == null) {
+      unsafeClient = Util.toUnsafeOkHttpClientBuilder(defaultClient.newBuilder()).build();
+    }
+    return unsafeClient;
+  }
+
+  /**
+   * Replaces the connection pool of every client. The WebViews keep the clients they got when they were created,
+   * so it is meant to be called before creating them.
+   */
+  public synchronized void configureConnectionPool(@Nullable Integer maxIdleConnections, @Nullable Long keepAliveDurationSeconds) {
+    int newMaxIdleConnections = maxIdleConnections != null && maxIdleConnections >= 0 ? maxIdleConnections : this.maxIdleConnections;
+    long newKeepAliveDurationSeconds = keepAliveDurationSeconds != null && keepAliveDurationSeconds > 0 ?
+            keepAliveDurationSeconds : this.keepAliveDurationSeconds;
+    if (newMaxIdleConnections == this.maxIdleConnections && newKeepAliveDurationSeconds == this.keepAliveDurationSeconds) {
+      return;
+    }
+    this.maxIdleConnections = newMaxIdleConnections;
+    this.keepAliveDurationSeconds = newKeepAliveDurationSeconds;
+    ConnectionPool previousConnectionPool = connectionPool;
+    connectionPool = new ConnectionPool(newMaxIdleConnections, newKeepAliveDurationSeconds, TimeUnit.SECONDS);
+    defaultClient = buildDefaultClient();
+    noRedirectClient = null;
+    unsafeClient = null;
+    cachingNoRedirectClient = cache != null ? getNoRedirectClient().newBuilder().cache(cache).build() : null;
+    // the connections in use are closed by the clients still using them
+    previousConnectionPool.evictAll();
+  }
+
+  /**
+   * Sets the disk cache used by the main-frame requests fetched natively, shared by every WebView.
+   * A maxSize of 0 removes the cache. The files of a removed cache are kept on disk.
+   */
+  public synchronized void configureCache(@Nullable File directory, long maxSize) {
+    if (cache != null) {
+      if (maxSize > 0 && cache.directory().equals(directory) && cache.maxSize() == maxSize) {
+        return;
+      }
+      try {
+        cache.close();
+      } catch (IOException e) {
+        Log.e(LOG_TAG, "", e);
+      }
+    }
+    cache = maxSize > 0 && directory != null ? new Cache(directory, maxSize) : null;
+    cachingNoRedirectClient = cache != null ? getNoRedirectClient().newBuilder().cache(cache).build() : null;
+  }
+
+  /**
+   * Client like {@link #getNoRedirectClient()} that uses the disk cache, or null if no cache is configured.
+   */
+  @Nullable
+  public synchronized OkHttpClient getCachingNoRedirectClient() {
+    return cachingNoRedirectClient;
+  }
+
+  /**
+   * Returns the cache directives matching the cacheMode option of a WebView,
+   * or null to let the request headers and the response freshness decide, validating the stale responses with their
+   * ETag or Last-Modified headers.
+   */
+  @Nullable
+  public static CacheControl getCacheControl(@Nullable Integer cacheMode) {
+    if (cacheMode == null) {
+      return null;
+    }
+    switch (cacheMode) {
+      case WebSettings.LOAD_CACHE_ELSE_NETWORK:
+        return new CacheControl.Builder().maxStale(Integer.MAX_VALUE, TimeUnit.SECONDS).build();
+      case WebSettings.LOAD_NO_CACHE:
+        return CacheControl.FORCE_NETWORK;
+      case WebSettings.LOAD_CACHE_ONLY:
+        return CacheControl.FORCE_CACHE;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Counts a response of the caching client as a cache hit, a conditional hit (validated by a 304 response) or a miss.
+   */
+  public void recordCacheResponse(@NonNull Response response) {
+    Response cacheResponse = response.cacheResponse();
+    Response networkResponse = response.networkResponse();
+    if (cacheResponse != null && networkResponse == null) {
+      cacheHitCount.incrementAndGet();
+    } else if (cacheResponse != null && networkResponse.code() == 304) {
+      cacheConditionalHitCount.incrementAndGet();
+    } else {
+      cacheMissCount.incrementAndGet();
+    }
+  }
+
+  public Map<String, Object> getCacheStats() {
+    Map<String, Object> stats = new HashMap<>();
+    Cache cache;
+    synchronized (this) {
+      cache = this.cache;
+    }
+    stats.put("enabled", cache != null);
+    stats.put("hitCount", cacheHitCount.get());
+    stats.put("conditionalHitCount", cacheConditionalHitCount.get());
+    stats.put("missCount", cacheMissCount.get());
+    long size = 0;
+    if (cache != null) {
+      try {
+        size = cache.size();
+      } catch (IOException e) {
+        Log.e(LOG_TAG, "", e);
+      }
+    }
+    stats.put("size", size);
+    stats.put("maxSize", cache != null ? cache.maxSize() : 0);
+    return stats;
+  }
+
+  /**
+   * Deletes the responses stored by the disk cache, on the dispatcher threads because it deletes files.
+   */
+  public void clearCache() {
+    final Cache cache;
+    synchronized (this) {
+      cache = this.cache;
+    }
+    if (cache != null) {
+      dispatcher.executorService().execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            cache.evictAll();
+          } catch (IOException e) {
+            Log.e(LOG_TAG, "", e);
+          }
+        }
+      });
+    }
+  }
+
+  public Map<String, Object> getStats() {
+    long acquired = connectionsAcquired.get();
+    long opened = connectionsOpened.get();
+
+    ConnectionPool connectionPool;
+    Map<String, Object> stats = new HashMap<>();
+    synchronized (this) {
+      connectionPool = this.connectionPool;
+      stats.put("maxIdleConnections", maxIdleConnections);
+      stats.put("keepAliveDuration", keepAliveDurationSeconds);
+    }
+    stats.put("connectionCount", connectionPool.connectionCount());
+    stats.put("idleConnectionCount", connectionPool.idleConnectionCount());
+    stats.put("runningCallsCount", dispatcher.runningCallsCount());
+    stats.put("queuedCallsCount", dispatcher.queuedCallsCount());
+    stats.put("maxRequests", dispatcher.getMaxRequests());
+    stats.put("maxRequestsPerHost", dispatcher.getMaxRequestsPerHost());
+    stats.put("connectionsAcquired", acquired);
+    stats.put("connectionsOpened", opened);
+    stats.put("connectionsReused", Math.max(0, acquired - opened));
+    stats.put("failedConnections", failedConnections.get());
+    stats.put("http2ConnectionsAcquired", http2ConnectionsAcquired.get());
+    stats.put("http2ConnectionsOpened", http2ConnectionsOpened.get());
+    stats.put("limitedCallsCount", limitedCallsCount.get());
+    stats.put("limitTimeoutCount", limitTimeoutCount.get());
+    return stats;
+  }
+
+  /**
+   * Sets the dispatcher limits shared by every client. The calls made with execute() are only limited from now on,
+   * by the limits that are set explicitly.
+   */
+  public void setMaxRequests(@Nullable Integer maxRequests, @Nullable Integer maxRequestsPerHost) {
+    synchronized (limiterLock) {
+      if (maxRequests != null && maxRequests > 0) {
+        dispatcher.setMaxRequests(maxRequests);
+        limitMaxRequests = maxRequests;
+      }
+      if (maxRequestsPerHost != null && maxRequestsPerHost > 0) {
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        limitMaxRequestsPerHost = maxRequestsPerHost;
+      }
+      // the waiting calls may fit in the new limits
+      limiterLock.notifyAll();
+    }
+  }
+
+  public void dispose() {
+    dispatcher.cancelAll();
+    synchronized (this) {
+      connectionPool.evictAll();
+      if (cache != null) {
+        try {
+          cache.close();
+        } catch (IOException e) {
+          Log.e(LOG_TAG, "", e);
+        }
+        cache = null;
+        cachingNoRedirectClient = null;
+      }
+    }
+  }
+}
@@ -12,6 +12,10 @@ import com.pichillilorenzo.flutter_inappwebview.chrome_custom_tabs.ChromeSafariB
 import com.pichillilorenzo.flutter_inappwebview.credential_database.CredentialDatabaseHandler;
 import com.pichillilorenzo.flutter_inappwebview.in_app_browser.InAppBrowserManager;
 import com.pichillilorenzo.flutter_inappwebview.headless_in_app_webview.HeadlessInAppWebViewManager;
+import com.pichillilorenzo.flutter_inappwebview.in_app_webview.CustomSchemeResourceProvider;
+import com.pichillilorenzo.flutter_inappwebview.in_app_webview.FaviconEncoder;
+import com.pichillilorenzo.flutter_inappwebview.in_app_webview.InAppWebViewPool;
+import com.pichillilorenzo.flutter_inappwebview.in_app_webview.ScreenshotEngine;
 
 import io.flutter.embedding.engine.plugins.activity.ActivityAware;
 import io.flutter.embedding.engine.plugins.activity.ActivityPluginBinding;
@@ -31,10 +35,13 @@ public class InAppWebViewFlutterPlugin implements FlutterPlugin, ActivityAware {
   public ChromeSafariBrowserManager chromeSafariBrowserManager;
   public InAppWebViewStatic inAppWebViewStatic;
   public MyCookieManager myCookieManager;
+  public CookiePersistenceScheduler cookiePersistenceScheduler;
   public CredentialDatabaseHandler credentialDatabaseHandler;
   public MyWebStorage myWebStorage;
   public ServiceWorkerManager serviceWorkerManager;
   public WebViewFeatureManager webViewFeatureManager;
+  public HttpClientRegistry httpClientRegistry;
+  public InAppWebViewPool inAppWebViewPool;
   public FlutterWebViewFactory flutterWebViewFactory;
   public static ValueCallback<Uri> filePathCallbackLegacy;
   public static ValueCallback<Uri[]> filePathCallback;
@@ -79,6 +86,8 @@ public class InAppWebViewFlutterPlugin implements FlutterPlugin, ActivityAware {
     this.messenger = messenger;
     this.flutterView = flutterView;
 
+    httpClientRegistry = new HttpClientRegistry();
+    inAppWebViewPool = new InAppWebViewPool(this);
     inAppBrowserManager = new InAppBrowserManager(this);
     headlessInAppWebViewManager = new HeadlessInAppWebViewManager(this);
     chromeSafariBrowserManager = new ChromeSafariBrowserManager(this);
@@ -88,6 +97,7 @@ public class InAppWebViewFlutterPlugin implements FlutterPlugin, ActivityAware {
 
     platformUtil = new PlatformUtil(this);
     inAppWebViewStatic = new InAppWebViewStatic(this);
+    cookiePersistenceScheduler = new CookiePersistenceScheduler(applicationContext);
     myCookieManager = new MyCookieManager(this);
     myWebStorage = new MyWebStorage(this);
     if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
@@ -121,10 +131,17 @@ public class InAppWebViewFlutterPlugin implements FlutterPlugin, ActivityAware {
       myCookieManager.dispose();
       myCookieManager = null;
     }
+    if (cookiePersistenceScheduler != null) {
+      cookiePersistenceScheduler.dispose();
+      cookiePersistenceScheduler = null;
+    }
     if (myWebStorage != null) {
       myWebStorage.dispose();
       myWebStorage = null;
     }
+    ScreenshotEngine.getInstance().clearPool();
+    CustomSchemeResourceProvider.clearCache();
+    FaviconEncoder.getInstance().clearCache();
     if (credentialDatabaseHandler != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
       credentialDatabaseHandler.dispose();
       credentialDatabaseHandler = null;
@@ -141,6 +158,14 @@ public class InAppWebViewFlutterPlugin implements FlutterPlugin, ActivityAware {
       webViewFeatureManager.dispose();
       webViewFeatureManager = null;
     }
+    if (httpClientRegistry != null) {
+      httpClientRegistry.dispose();
+      httpClientRegistry = null;
+    }
+    if (inAppWebViewPool != null) {
+      inAppWebViewPool.dispose();
+      inAppWebViewPool = null;
+    }
     filePathCallbackLegacy = null;
     filePathCallback = null;
   }
@@ -12,9 +12,11 @@ import androidx.webkit.WebViewCompat;
 import androidx.webkit.WebViewFeature;
 
 import com.pichillilorenzo.flutter_inappwebview.in_app_browser.InAppBrowserActivity;
-import com.pichillilorenzo.flutter_inappwebview.in_app_browser.InAppBrowserOptions;
+import com.pichillilorenzo.flutter_inappwebview.in_app_webview.CustomSchemeResourceProvider;
+import com.pichillilorenzo.flutter_inappwebview.in_app_webview.FaviconEncoder;
 import com.pichillilorenzo.flutter_inappwebview.in_app_webview.InAppWebView;
-import com.pichillilorenzo.flutter_inappwebview.in_app_webview.InAppWebViewOptions;
+import com.pichillilorenzo.flutter_inappwebview.in_app_webview.ScreenshotEngine;
+import com.pichillilorenzo.flutter_inappwebview.plugin_scripts_js.InterceptRequestFilterJS;
 import com.pichillilorenzo.flutter_inappwebview.types.ContentWorld;
 import com.pichillilorenzo.flutter_inappwebview.types.HitTestResult;
 import com.pichillilorenzo.flutter_inappwebview.types.InAppWebViewInterface;
@@ -26,6 +28,9 @@ import com.pichillilorenzo.flutter_inappwebview.types.WebMessageChannel;
 import com.pichillilorenzo.flutter_inappwebview.types.WebMessageListener;
 import com.pichillilorenzo.flutter_inappwebview.types.WebMessagePort;
 
+import org.json.JSONException;
+import org.json.JSONObject;
+
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -180,17 +185,14 @@ public class InAppWebViewMethodHandler implements MethodChannel.MethodCallHandle
           result.success(null);
         break;
       case "setOptions":
+        // the options are only parsed once compared with the previous ones, so that the unchanged ones are skipped
         if (webView != null && webView.getInAppBrowserDelegate() != null && webView.getInAppBrowserDelegate() instanceof InAppBrowserActivity) {
           InAppBrowserActivity inAppBrowserActivity = (InAppBrowserActivity) webView.getInAppBrowserDelegate();
-          InAppBrowserOptions inAppBrowserOptions = new InAppBrowserOptions();
           HashMap<String, Object> inAppBrowserOptionsMap = (HashMap<String, Object>) call.argument("options");
-          inAppBrowserOptions.parse(inAppBrowserOptionsMap);
-          inAppBrowserActivity.setOptions(inAppBrowserOptions, inAppBrowserOptionsMap);
+          inAppBrowserActivity.setOptions(inAppBrowserOptionsMap);
         } else if (webView != null) {
-          InAppWebViewOptions inAppWebViewOptions = new InAppWebViewOptions();
           HashMap<String, Object> inAppWebViewOptionsMap = (HashMap<String, Object>) call.argument("options");
-          inAppWebViewOptions.parse(inAppWebViewOptionsMap);
-          webView.setOptions(inAppWebViewOptions, inAppWebViewOptionsMap);
+          webView.setOptions(inAppWebViewOptionsMap);
         }
         result.success(true);
         break;
@@ -599,6 +601,118 @@ public class InAppWebViewMethodHandler implements MethodChannel.MethodCallHandle
           result.success(false);
         }
         break;
+      case "getContentBlockerResourceTypeStats":
+        if (webView instanceof InAppWebView) {
+          result.success(((InAppWebView) webView).contentBlockerHandler.getResourceTypeInference().getStats());
+        } else {
+          result.success(null);
+        }
+        break;
+      case "getInterceptRequestMetrics":
+        if (webView instanceof InAppWebView && ((InAppWebView) webView).inAppWebViewClient != null) {
+          result.success(((InAppWebView) webView).inAppWebViewClient.interceptRequestMetrics.toMap());
+        } else {
+          result.success(null);
+        }
+        break;
+      case "resetInterceptRequestMetrics":
+        if (webView instanceof InAppWebView && ((InAppWebView) webView).inAppWebViewClient != null) {
+          ((InAppWebView) webView).inAppWebViewClient.interceptRequestMetrics.reset();
+        }
+        result.success(true);
+        break;
+      case "getReceivedIconStats":
+        result.success(FaviconEncoder.getInstance().getStats());
+        break;
+      case "getCustomSchemeResourceStats":
+        result.success(CustomSchemeResourceProvider.getStats());
+        break;
+      case "getConsoleMessageStats":
+        if (webView instanceof InAppWebView) {
+          result.success(((InAppWebView) webView).consoleMessageDispatcher.getStats());
+        } else {
+          result.success(null);
+        }
+        break;
+      case "takeScreenshotToFile":
+        if (webView instanceof InAppWebView) {
+          Map<String, Object> screenshotConfiguration = (Map<String, Object>) call.argument("screenshotConfiguration");
+          String filePath = (String) call.argument("filePath");
+          ((InAppWebView) webView).takeScreenshot(screenshotConfiguration, filePath, result);
+        } else {
+          result.success(false);
+        }
+        break;
+      case "getScreenshotStats":
+        result.success(ScreenshotEngine.getInstance().getStats());
+        break;
+      case "getInterceptBodyTransportStats":
+        if (webView instanceof InAppWebView && ((InAppWebView) webView).interceptBodyTransport != null) {
+          result.success(((InAppWebView) webView).interceptBodyTransport.getStats());
+        } else {
+          result.success(null);
+        }
+        break;
+      case "getInterceptRequestStats":
+        if (webView instanceof InAppWebView) {
+          ((InAppWebView) webView).evaluateJavascript(InterceptRequestFilterJS.GET_INTERCEPT_REQUEST_STATS_JS_SOURCE, null, new ValueCallback<String>() {
+            @Override
+            public void onReceiveValue(String value) {
+              Map<String, Object> stats = new HashMap<>();
+              try {
+                JSONObject jsonStats = new JSONObject(value);
+                stats.put("interceptedRequestCount", jsonStats.getLong("interceptedRequestCount"));
+                stats.put("bypassedRequestCount", jsonStats.getLong("bypassedRequestCount"));
+              } catch (JSONException | NullPointerException e) {
+                result.success(null);
+                return;
+              }
+              result.success(stats);
+            }
+          });
+        } else {
+          result.success(null);
+        }
+        break;
+      case "getScrollEventStats":
+        if (webView instanceof InAppWebView) {
+          result.success(((InAppWebView) webView).scrollEventDispatcher.getStats());
+        } else {
+          result.success(null);
+        }
+        break;
+      case "resetScrollEventStats":
+        if (webView instanceof InAppWebView) {
+          ((InAppWebView) webView).scrollEventDispatcher.resetStats();
+        }
+        result.success(true);
+        break;
+      case "getBridgeReadyMetrics":
+        if (webView instanceof InAppWebView && ((InAppWebView) webView).inAppWebViewClient != null) {
+          result.success(((InAppWebView) webView).inAppWebViewClient.bridgeReadyMetrics.toMap());
+        } else {
+          result.success(null);
+        }
+        break;
+      case "resetBridgeReadyMetrics":
+        if (webView instanceof InAppWebView && ((InAppWebView) webView).inAppWebViewClient != null) {
+          ((InAppWebView) webView).inAppWebViewClient.bridgeReadyMetrics.reset();
+        }
+        result.success(true);
+        break;
+      case "getJavaScriptBridgeBatchStats":
+        if (webView instanceof InAppWebView && ((InAppWebView) webView).javaScriptBridgeInterface != null) {
+          result.success(((InAppWebView) webView).javaScriptBridgeInterface.getBatchStats());
+        } else {
+          result.success(null);
+        }
+        break;
+      case "resetJavaScriptBridgeBatchStats":
+        if (webView instanceof InAppWebView && ((InAppWebView) webView).javaScriptBridgeInterface != null) {
+          ((InAppWebView) webView).javaScriptBridgeInterface.resetBatchStats();
+        }
+        result.success(true);
+        break;
       default:
         result.notImplemented();
     }
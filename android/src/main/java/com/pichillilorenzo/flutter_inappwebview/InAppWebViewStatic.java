@@ -10,6 +10,7 @@ import androidx.annotation.Nullable;
 import androidx.webkit.WebViewCompat;
 import androidx.webkit.WebViewFeature;
 
+import java.io.File;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -23,6 +24,7 @@ import io.flutter.plugin.common.MethodChannel;
 public class InAppWebViewStatic implements MethodChannel.MethodCallHandler {
   
   protected static final String LOG_TAG = "InAppWebViewStatic";
+  public static final String HTTP_CACHE_DIRECTORY_NAME = "flutter_inappwebview_http_cache";
   public MethodChannel channel;
   @Nullable
   public InAppWebViewFlutterPlugin plugin;
@@ -107,6 +109,67 @@ public class InAppWebViewStatic implements MethodChannel.MethodCallHandler {
         }
         result.success(true);
         break;
+      case "getHttpClientStats":
+        if (plugin != null && plugin.httpClientRegistry != null) {
+          result.success(plugin.httpClientRegistry.getStats());
+        } else {
+          result.success(null);
+        }
+        break;
+      case "setHttpClientMaxRequests":
+        if (plugin != null && plugin.httpClientRegistry != null) {
+          Integer maxRequests = (Integer) call.argument("maxRequests");
+          Integer maxRequestsPerHost = (Integer) call.argument("maxRequestsPerHost");
+          plugin.httpClientRegistry.setMaxRequests(maxRequests, maxRequestsPerHost);
+        }
+        result.success(true);
+        break;
+      case "configureHttpClientConnectionPool":
+        if (plugin != null && plugin.httpClientRegistry != null) {
+          Integer maxIdleConnections = (Integer) call.argument("maxIdleConnections");
+          Number keepAliveDuration = (Number) call.argument("keepAliveDuration");
+          plugin.httpClientRegistry.configureConnectionPool(maxIdleConnections, keepAliveDuration != null ? keepAliveDuration.longValue() : null);
+        }
+        result.success(true);
+        break;
+      case "configureHttpCache":
+        if (plugin != null && plugin.httpClientRegistry != null && plugin.applicationContext != null) {
+          String directoryPath = (String) call.argument("directoryPath");
+          // a Long for the sizes over 2GB
+          Number maxSize = (Number) call.argument("maxSize");
+          File directory = directoryPath != null ? new File(directoryPath) : new File(plugin.applicationContext.getCacheDir(), HTTP_CACHE_DIRECTORY_NAME);
+          plugin.httpClientRegistry.configureCache(directory, maxSize != null ? maxSize.longValue() : 0);
+        }
+        result.success(true);
+        break;
+      case "getHttpCacheStats":
+        if (plugin != null && plugin.httpClientRegistry != null) {
+          result.success(plugin.httpClientRegistry.getCacheStats());
+        } else {
+          result.success(null);
+        }
+        break;
+      case "clearHttpCache":
+        if (plugin != null && plugin.httpClientRegistry != null) {
+          plugin.httpClientRegistry.clearCache();
+        }
+        result.success(true);
+        break;
+      case "configureWebViewPool":
+        if (plugin != null && plugin.inAppWebViewPool != null) {
+          Integer maxSize = (Integer) call.argument("maxSize");
+          Integer preWarmSize = (Integer) call.argument("preWarmSize");
+          plugin.inAppWebViewPool.configure(maxSize != null ? maxSize : 0, preWarmSize != null ? preWarmSize : 0);
+        }
+        result.success(true);
+        break;
+      case "getWebViewPoolStats":
+        if (plugin != null && plugin.inAppWebViewPool != null) {
+          result.success(plugin.inAppWebViewPool.getStats());
+        } else {
+          result.success(null);
+        }
+        break;
       default:
         result.notImplemented();
     }
@@ -0,0 +1,72 @@
+package com.pichillilorenzo.flutter_inappwebview;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the intercepted requests that were handed to Dart and how long they waited for its answer.
+ */
+public class InterceptRequestMetrics {
+  private final AtomicLong requestCount = new AtomicLong();
+  private final AtomicLong answeredCount = new AtomicLong();
+  private final AtomicLong timedOutCount = new AtomicLong();
+  private final AtomicLong fallbackCount = new AtomicLong();
+  private final AtomicLong totalWaitNanos = new AtomicLong();
+  private final AtomicLong maxWaitNanos = new AtomicLong();
+
+  public void recordRequest() {
+    requestCount.incrementAndGet();
+  }
+
+  public void recordAnswered(long waitNanos) {
+    answeredCount.incrementAndGet();
+    recordWait(waitNanos);
+  }
+
+  public void recordTimedOut(long waitNanos) {
+    timedOutCount.incrementAndGet();
+    recordWait(waitNanos);
+  }
+
+  /**
+   * The request was served by the network or by the original response instead of the Dart answer.
+   */
+  public void recordFallback() {
+    fallbackCount.incrementAndGet();
+  }
+
+  private void recordWait(long waitNanos) {
+    totalWaitNanos.addAndGet(waitNanos);
+    long max = maxWaitNanos.get();
+    while (waitNanos > max && !maxWaitNanos.compareAndSet(max, waitNanos)) {
+      max = maxWaitNanos.get();
+    }
+  }
+
+  public void reset() {
+    requestCount.set(0);
+    answeredCount.set(0);
+    timedOutCount.set(0);
+    fallbackCount.set(0);
+    totalWaitNanos.set(0);
+    maxWaitNanos.set(0);
+  }
+
+  public Map<String, Object> toMap() {
+    long answered = answeredCount.get();
+    long timedOut = timedOutCount.get();
+    long waited = answered + timedOut;
+
+    Map<String, Object> metricsMap = new HashMap<>();
+    metricsMap.put("requestCount", requestCount.get());
+    metricsMap.put("answeredCount", answered);
+    metricsMap.put("timedOutCount", timedOut);
+    metricsMap.put("fallbackCount", fallbackCount.get());
+    metricsMap.put("totalWaitMillis", TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get()));
+    metricsMap.put("maxWaitMillis", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+    metricsMap.put("averageWaitMillis", waited > 0 ? (totalWaitNanos.get() / (double) waited) / 1000000.0 : 0.0);
+    return metricsMap;
+  }
+}
@@ -14,7 +14,9 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import io.flutter.plugin.common.MethodChannel;
@@ -23,6 +25,11 @@ public class JavaScriptBridgeInterface {
   private static final String LOG_TAG = "JSBridgeInterface";
   private InAppWebView inAppWebView;
   private final MethodChannel channel;
+  // batch stats are only read and written on the WebView looper thread
+  private long batchCount = 0;
+  private long batchedCallCount = 0;
+  private int lastBatchSize = 0;
+  private int maxBatchSize = 0;
   
   public JavaScriptBridgeInterface(InAppWebView inAppWebView) {
     this.inAppWebView = inAppWebView;
@@ -67,35 +74,7 @@ public class JavaScriptBridgeInterface {
           return;
         }
 
-        if (handlerName.equals("onPrint") && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-          inAppWebView.printCurrentPage();
-        } else if (handlerName.equals("callAsyncJavaScript")) {
-          try {
-            JSONArray arguments = new JSONArray(args);
-            JSONObject jsonObject = arguments.getJSONObject(0);
-            String resultUuid = jsonObject.getString("resultUuid");
-            ValueCallback<String> callAsyncJavaScriptCallback = inAppWebView.callAsyncJavaScriptCallbacks.get(resultUuid);
-            if (callAsyncJavaScriptCallback != null) {
-              callAsyncJavaScriptCallback.onReceiveValue(jsonObject.toString());
-              inAppWebView.callAsyncJavaScriptCallbacks.remove(resultUuid);
-            }
-          } catch (JSONException e) {
-            e.printStackTrace();
-          }
-          return;
-        } else if (handlerName.equals("evaluateJavaScriptWithContentWorld")) {
-          try {
-            JSONArray arguments = new JSONArray(args);
-            JSONObject jsonObject = arguments.getJSONObject(0);
-            String resultUuid = jsonObject.getString("resultUuid");
-            ValueCallback<String> evaluateJavaScriptCallback = inAppWebView.evaluateJavaScriptContentWorldCallbacks.get(resultUuid);
-            if (evaluateJavaScriptCallback != null) {
-              evaluateJavaScriptCallback.onReceiveValue(jsonObject.has("value") ? jsonObject.get("value").toString() : "null");
-              inAppWebView.evaluateJavaScriptContentWorldCallbacks.remove(resultUuid);
-            }
-          } catch (JSONException e) {
-            e.printStackTrace();
-          }
+        if (handleInternalCall(handlerName, args)) {
           return;
         }
 
@@ -129,6 +108,157 @@ public class JavaScriptBridgeInterface {
     });
   }
 
+  @JavascriptInterface
+  public void _callHandlerBatch(final String calls) {
+    if (inAppWebView == null) {
+      return;
+    }
+
+    final List<String> handlerNames = new ArrayList<>();
+    final List<String> callHandlerIDs = new ArrayList<>();
+    final List<String> argsList = new ArrayList<>();
+    try {
+      JSONArray jsonCalls = new JSONArray(calls);
+      for (int i = 0; i < jsonCalls.length(); i++) {
+        JSONObject jsonCall = jsonCalls.getJSONObject(i);
+        handlerNames.add(jsonCall.getString("handlerName"));
+        callHandlerIDs.add(jsonCall.getString("callHandlerID"));
+        argsList.add(jsonCall.getString("args"));
+      }
+    } catch (JSONException e) {
+      e.printStackTrace();
+      return;
+    }
+
+    final Handler handler = new Handler(inAppWebView.getWebViewLooper());
+    handler.post(new Runnable() {
+      @Override
+      public void run() {
+        if (inAppWebView == null) {
+          // The webview has already been disposed, ignore.
+          return;
+        }
+
+        recordBatch(handlerNames.size());
+
+        final List<String> flutterCallHandlerIDs = new ArrayList<>();
+        List<Map<String, Object>> flutterCalls = new ArrayList<>();
+        for (int i = 0; i < handlerNames.size(); i++) {
+          if (handleInternalCall(handlerNames.get(i), argsList.get(i))) {
+            continue;
+          }
+          Map<String, Object> obj = new HashMap<>();
+          obj.put("handlerName", handlerNames.get(i));
+          obj.put("args", argsList.get(i));
+          flutterCalls.add(obj);
+          flutterCallHandlerIDs.add(callHandlerIDs.get(i));
+        }
+        if (flutterCalls.isEmpty()) {
+          return;
+        }
+
+        Map<String, Object> obj = new HashMap<>();
+        obj.put("calls", flutterCalls);
+        // invoke all the flutter javascript handlers with one message and send back all the results with one script
+        channel.invokeMethod("onCallJsHandlerBatch", obj, new MethodChannel.Result() {
+          @Override
+          public void success(Object results) {
+            if (inAppWebView == null) {
+              // The webview has already been disposed, ignore.
+              return;
+            }
+            List<Object> jsonResults = results instanceof List ? (List<Object>) results : null;
+            StringBuilder resultsSource = new StringBuilder("{");
+            for (int i = 0; i < flutterCallHandlerIDs.size(); i++) {
+              Object json = jsonResults != null && i < jsonResults.size() ? jsonResults.get(i) : null;
+              if (i > 0) {
+                resultsSource.append(",");
+              }
+              resultsSource.append(JSONObject.quote(flutterCallHandlerIDs.get(i)))
+                      .append(":")
+                      .append(json != null ? json : "null");
+            }
+            resultsSource.append("}");
+            inAppWebView.evaluateJavascript("if(window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "._resolveBatch != null) {window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "._resolveBatch(" + resultsSource + ");}", (ValueCallback<String>) null);
+          }
+
+          @Override
+          public void error(String s, String s1, Object o) {
+            Log.d(LOG_TAG, "ERROR: " + s + " " + s1);
+          }
+
+          @Override
+          public void notImplemented() {
+
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Handles the calls made by the plugin scripts that don't need to reach the Dart side.
+   * Returns true if the call has been consumed.
+   */
+  private boolean handleInternalCall(String handlerName, String args) {
+    if (handlerName.equals("onPrint") && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+      inAppWebView.printCurrentPage();
+    } else if (handlerName.equals("callAsyncJavaScript")) {
+      try {
+        JSONArray arguments = new JSONArray(args);
+        JSONObject jsonObject = arguments.getJSONObject(0);
+        String resultUuid = jsonObject.getString("resultUuid");
+        ValueCallback<String> callAsyncJavaScriptCallback = inAppWebView.callAsyncJavaScriptCallbacks.get(resultUuid);
+        if (callAsyncJavaScriptCallback != null) {
+          callAsyncJavaScriptCallback.onReceiveValue(jsonObject.toString());
+          inAppWebView.callAsyncJavaScriptCallbacks.remove(resultUuid);
+        }
+      } catch (JSONException e) {
+        e.printStackTrace();
+      }
+      return true;
+    } else if (handlerName.equals("evaluateJavaScriptWithContentWorld")) {
+      try {
+        JSONArray arguments = new JSONArray(args);
+        JSONObject jsonObject = arguments.getJSONObject(0);
+        String resultUuid = jsonObject.getString("resultUuid");
+        ValueCallback<String> evaluateJavaScriptCallback = inAppWebView.evaluateJavaScriptContentWorldCallbacks.get(resultUuid);
+        if (evaluateJavaScriptCallback != null) {
+          evaluateJavaScriptCallback.onReceiveValue(jsonObject.has("value") ? jsonObject.get("value").toString() : "null");
+          inAppWebView.evaluateJavaScriptContentWorldCallbacks.remove(resultUuid);
+        }
+      } catch (JSONException e) {
+        e.printStackTrace();
+      }
+      return true;
+    }
+    return false;
+  }
+
+  private void recordBatch(int size) {
+    batchCount++;
+    batchedCallCount += size;
+    lastBatchSize = size;
+    maxBatchSize = Math.max(maxBatchSize, size);
+  }
+
+  public Map<String, Object> getBatchStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("batchCount", batchCount);
+    stats.put("callCount", batchedCallCount);
+    stats.put("lastBatchSize", lastBatchSize);
+    stats.put("maxBatchSize", maxBatchSize);
+    stats.put("averageBatchSize", batchCount > 0 ? (double) batchedCallCount / batchCount : 0.0);
+    return stats;
+  }
+
+  public void resetBatchStats() {
+    batchCount = 0;
+    batchedCallCount = 0;
+    lastBatchSize = 0;
+    maxBatchSize = 0;
+  }
+
   public void dispose() {
     inAppWebView = null;
   }
@@ -36,7 +36,7 @@ public class MyCookieManager implements MethodChannel.MethodCallHandler {
   }
 
   @Override
-  public void onMethodCall(MethodCall call, MethodChannel.Result result) {
+  public void onMethodCall(MethodCall call, final MethodChannel.Result result) {
     switch (call.method) {
       case "setCookie":
         {
@@ -87,6 +87,37 @@ public class MyCookieManager implements MethodChannel.MethodCallHandler {
       case "deleteAllCookies":
         deleteAllCookies(result);
         break;
+      case "configurePersistence":
+        if (plugin != null && plugin.cookiePersistenceScheduler != null) {
+          String policy = (String) call.argument("policy");
+          Number intervalMillis = (Number) call.argument("intervalMillis");
+          plugin.cookiePersistenceScheduler.configure(policy, intervalMillis != null ? intervalMillis.longValue() : null);
+        }
+        result.success(true);
+        break;
+      case "flush":
+        if (plugin != null && plugin.cookiePersistenceScheduler != null) {
+          plugin.cookiePersistenceScheduler.flushNow(new Runnable() {
+            @Override
+            public void run() {
+              result.success(true);
+            }
+          });
+        } else {
+          cookieManager = getCookieManager();
+          if (cookieManager != null) {
+            cookieManager.flush();
+          }
+          result.success(true);
+        }
+        break;
+      case "getPersistenceStats":
+        if (plugin != null && plugin.cookiePersistenceScheduler != null) {
+          result.success(plugin.cookiePersistenceScheduler.getStats());
+        } else {
+          result.success(null);
+        }
+        break;
       default:
         result.notImplemented();
     }
@@ -166,7 +197,7 @@ public class MyCookieManager implements MethodChannel.MethodCallHandler {
           result.success(true);
         }
       });
-      cookieManager.flush();
+      requestFlush();
     }
     else {
       CookieSyncManager cookieSyncMngr = CookieSyncManager.createInstance(plugin.applicationContext);
@@ -224,7 +255,7 @@ public class MyCookieManager implements MethodChannel.MethodCallHandler {
           result.success(true);
         }
       });
-      cookieManager.flush();
+      requestFlush();
     }
     else {
       CookieSyncManager cookieSyncMngr = CookieSyncManager.createInstance(plugin.applicationContext);
@@ -265,7 +296,7 @@ public class MyCookieManager implements MethodChannel.MethodCallHandler {
         cookieSyncMngr.stopSync();
         cookieSyncMngr.sync();
       } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP)
-        cookieManager.flush();
+        requestFlush();
     }
     result.success(true);
   }
@@ -281,7 +312,7 @@ public class MyCookieManager implements MethodChannel.MethodCallHandler {
           result.success(true);
         }
       });
-      cookieManager.flush();
+      requestFlush();
     }
     else {
       CookieSyncManager cookieSyncMngr = CookieSyncManager.createInstance(plugin.applicationContext);
@@ -293,6 +324,17 @@ public class MyCookieManager implements MethodChannel.MethodCallHandler {
     }
   }
 
+  /**
+   * Cookie changes are written to disk by the CookiePersistenceScheduler of the plugin, off the UI thread.
+   */
+  private void requestFlush() {
+    if (plugin != null && plugin.cookiePersistenceScheduler != null) {
+      plugin.cookiePersistenceScheduler.requestFlush();
+    } else if (cookieManager != null) {
+      cookieManager.flush();
+    }
+  }
+
   public static String getCookieExpirationDate(Long timestamp) {
     final SimpleDateFormat sdf = new SimpleDateFormat("EEE, dd MMM yyyy hh:mm:ss z", Locale.US);
     sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
@@ -0,0 +1,128 @@
+package com.pichillilorenzo.flutter_inappwebview;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Body of a WebResourceResponse that is returned to the WebView before the Dart side has answered.
+ *
+ * The WebView reads the body on its own worker thread, so only that thread waits for the answer,
+ * while the thread that called shouldInterceptRequest is free to serve the other requests.
+ * If the deadline expires before the answer arrives, the fallback body is used.
+ */
+public class PendingResponseInputStream extends InputStream {
+  private final CountDownLatch latch = new CountDownLatch(1);
+  private final AtomicBoolean settled = new AtomicBoolean(false);
+  private final long createdAt = System.nanoTime();
+  private final long timeout;
+  @NonNull
+  private final InputStream fallback;
+  @Nullable
+  private final InterceptRequestMetrics metrics;
+  @Nullable
+  private volatile InputStream data;
+  @Nullable
+  private InputStream source;
+
+  /**
+   * @param timeout  maximum time to wait for the answer in milliseconds, 0 to wait indefinitely.
+   * @param fallback body used when the answer doesn't come in time or doesn't contain any data.
+   */
+  public PendingResponseInputStream(long timeout, @Nullable InputStream fallback, @Nullable InterceptRequestMetrics metrics) {
+    this.timeout = timeout;
+    this.fallback = fallback != null ? fallback : new ByteArrayInputStream(new byte[0]);
+    this.metrics = metrics;
+  }
+
+  /**
+   * Called with the data answered by Dart, or null to use the fallback body.
+   * Only the first call has effect.
+   */
+  public void complete(@Nullable byte[] answer) {
+    if (!settled.compareAndSet(false, true)) {
+      return;
+    }
+    data = answer != null ? new ByteArrayInputStream(answer) : null;
+    latch.countDown();
+    if (metrics != null) {
+      metrics.recordAnswered(System.nanoTime() - createdAt);
+      if (answer == null) {
+        metrics.recordFallback();
+      }
+    }
+  }
+
+  @NonNull
+  private InputStream getSource() throws IOException {
+    if (source != null) {
+      return source;
+    }
+    boolean answered;
+    try {
+      if (timeout > 0) {
+        long remaining = timeout - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createdAt);
+        answered = remaining > 0 && latch.await(remaining, TimeUnit.MILLISECONDS);
+      } else {
+        latch.await();
+        answered = true;
+      }
+    } catch (InterruptedException e) {
+      throw new IOException(e);
+    }
+    if (!answered) {
+      if (settled.compareAndSet(false, true)) {
+        // an answer arriving from now on is ignored
+        if (metrics != null) {
+          metrics.recordTimedOut(System.nanoTime() - createdAt);
+          metrics.recordFallback();
+        }
+      } else {
+        // the answer is being set right now
+        try {
+          latch.await();
+        } catch (InterruptedException e) {
+          throw new IOException(e);
+        }
+        answered = true;
+      }
+    }
+    InputStream answer = data;
+    source = answered && answer != null ? answer : fallback;
+    return source;
+  }
+
+  @Override
+  public int read() throws IOException {
+    return getSource().read();
+  }
+
+  @Override
+  public int read(@NonNull byte[] b, int off, int len) throws IOException {
+    return getSource().read(b, off, len);
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    return getSource().skip(n);
+  }
+
+  @Override
+  public int available() throws IOException {
+    return getSource().available();
+  }
+
+  @Override
+  public void close() throws IOException {
+    // the WebView can cancel the request before the answer arrives
+    settled.set(true);
+    latch.countDown();
+    fallback.close();
+  }
+}
@@ -15,6 +15,7 @@ import androidx.webkit.WebViewFeature;
 
 import java.io.ByteArrayInputStream;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import io.flutter.plugin.common.BinaryMessenger;
@@ -31,6 +32,11 @@ public class ServiceWorkerManager implements MethodChannel.MethodCallHandler {
   public static ServiceWorkerControllerCompat serviceWorkerController;
   @Nullable
   public InAppWebViewFlutterPlugin plugin;
+  public final InterceptRequestMetrics interceptRequestMetrics = new InterceptRequestMetrics();
+  private long shouldInterceptRequestTimeout = 0;
+  private volatile boolean hasShouldInterceptRequest = true;
+  @Nullable
+  private volatile ServiceWorkerRouter router;
 
   public ServiceWorkerManager(final InAppWebViewFlutterPlugin plugin) {
     this.plugin = plugin;
@@ -51,6 +57,12 @@ public class ServiceWorkerManager implements MethodChannel.MethodCallHandler {
       case "setServiceWorkerClient":
         {
           Boolean isNull = (Boolean) call.argument("isNull");
+          Integer timeout = (Integer) call.argument("shouldInterceptRequestTimeout");
+          shouldInterceptRequestTimeout = timeout != null && timeout > 0 ? timeout : 0;
+          Boolean hasShouldInterceptRequest = (Boolean) call.argument("hasShouldInterceptRequest");
+          this.hasShouldInterceptRequest = hasShouldInterceptRequest == null || hasShouldInterceptRequest;
+          List<Map<String, Object>> routingRules = (List<Map<String, Object>>) call.argument("routingRules");
+          router = routingRules != null && !routingRules.isEmpty() && plugin != null ? new ServiceWorkerRouter(plugin, routingRules) : null;
           setServiceWorkerClient(isNull);
         }
         result.success(true);
@@ -111,6 +123,19 @@ public class ServiceWorkerManager implements MethodChannel.MethodCallHandler {
         }
         result.success(true);
         break;
+      case "getInterceptRequestMetrics":
+        result.success(interceptRequestMetrics.toMap());
+        break;
+      case "resetInterceptRequestMetrics":
+        interceptRequestMetrics.reset();
+        result.success(true);
+        break;
+      case "getRoutingMetrics":
+        {
+          ServiceWorkerRouter router = this.router;
+          result.success(router != null ? router.getMetrics() : null);
+        }
+        break;
       default:
         result.notImplemented();
     }
@@ -124,6 +149,18 @@ public class ServiceWorkerManager implements MethodChannel.MethodCallHandler {
         @Nullable
         @Override
         public WebResourceResponse shouldInterceptRequest(@NonNull WebResourceRequest request) {
+          // the rules are evaluated on this thread, without waiting for the Dart side
+          ServiceWorkerRouter router = ServiceWorkerManager.this.router;
+          if (router != null) {
+            ServiceWorkerRouter.Rule rule = router.match(request.getUrl().toString());
+            if (rule != null) {
+              return router.handle(rule, request);
+            }
+          }
+          if (!hasShouldInterceptRequest) {
+            return null;
+          }
+
           final Map<String, Object> obj = new HashMap<>();
           obj.put("url", request.getUrl().toString());
           obj.put("method", request.getMethod());
@@ -132,14 +169,26 @@ public class ServiceWorkerManager implements MethodChannel.MethodCallHandler {
           obj.put("hasGesture", request.hasGesture());
           obj.put("isRedirect", request.isRedirect());
 
+          interceptRequestMetrics.recordRequest();
           Util.WaitFlutterResult flutterResult;
           try {
-            flutterResult = Util.invokeMethodAndWait(channel, "shouldInterceptRequest", obj);
+            flutterResult = Util.invokeMethodAndWait(channel, "shouldInterceptRequest", obj, shouldInterceptRequestTimeout);
           } catch (InterruptedException e) {
             e.printStackTrace();
             return null;
           }
 
+          if (flutterResult.timedOut) {
+            // the service worker loads it from the network
+            interceptRequestMetrics.recordTimedOut(flutterResult.waitNanos);
+            interceptRequestMetrics.recordFallback();
+            return null;
+          }
+          interceptRequestMetrics.recordAnswered(flutterResult.waitNanos);
+          if (flutterResult.error != null || flutterResult.result == null) {
+            interceptRequestMetrics.recordFallback();
+          }
+
           if (flutterResult.error != null) {
             Log.e(LOG_TAG, flutterResult.error);
           }
@@ -183,6 +232,7 @@ public class ServiceWorkerManager implements MethodChannel.MethodCallHandler {
       serviceWorkerController.setServiceWorkerClient(dummyServiceWorkerClientCompat());
       serviceWorkerController = null; 
     }
+    router = null;
     plugin = null;
   }
 }
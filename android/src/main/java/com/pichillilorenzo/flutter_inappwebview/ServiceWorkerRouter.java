@@ -0,0 +1,154 @@
+package com.pichillilorenzo.flutter_inappwebview;
+
+import android.net.Uri;
+import android.util.Log;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.pichillilorenzo.flutter_inappwebview.in_app_webview.CustomSchemeResourceProvider;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Routes the Service Worker requests with the rules set by AndroidServiceWorkerClient.routingRules,
+ * on the Service Worker thread, before any call to the Dart side.
+ * The first rule whose pattern matches the url decides: the request is loaded as usual, blocked,
+ * or served from a Flutter asset or a file.
+ */
+public class ServiceWorkerRouter {
+
+  static final String LOG_TAG = "ServiceWorkerRouter";
+
+  public static final int ACTION_PASSTHROUGH = 0;
+  public static final int ACTION_BLOCK = 1;
+  public static final int ACTION_LOAD_LOCAL = 2;
+
+  public static class Rule {
+    @NonNull
+    final Pattern urlPattern;
+    final int action;
+    @Nullable
+    final CustomSchemeResourceProvider resourceProvider;
+
+    final AtomicLong matchCount = new AtomicLong();
+    final AtomicLong totalHandleNanos = new AtomicLong();
+
+    Rule(@NonNull Pattern urlPattern, int action, @Nullable CustomSchemeResourceProvider resourceProvider) {
+      this.urlPattern = urlPattern;
+      this.action = action;
+      this.resourceProvider = resourceProvider;
+    }
+
+    Map<String, Object> getMetrics() {
+      long count = matchCount.get();
+      Map<String, Object> metrics = new HashMap<>();
+      metrics.put("urlPattern", urlPattern.pattern());
+      metrics.put("action", action);
+      metrics.put("matchCount", count);
+      metrics.put("averageHandleMillis", count > 0 ? (double) totalHandleNanos.get() / count / 1000000 : 0.0);
+      return metrics;
+    }
+  }
+
+  @NonNull
+  private final List<Rule> rules = new ArrayList<>();
+  private final AtomicLong unmatchedCount = new AtomicLong();
+
+  public ServiceWorkerRouter(@NonNull InAppWebViewFlutterPlugin plugin, @NonNull List<Map<String, Object>> rules) {
+    for (Map<String, Object> rule : rules) {
+      String urlPattern = (String) rule.get("urlPattern");
+      Integer action = (Integer) rule.get("action");
+      if (urlPattern == null || action == null) {
+        continue;
+      }
+      Pattern pattern;
+      try {
+        pattern = Pattern.compile(urlPattern);
+      } catch (PatternSyntaxException e) {
+        Log.e(LOG_TAG, "Invalid urlPattern " + urlPattern, e);
+        continue;
+      }
+      CustomSchemeResourceProvider resourceProvider = null;
+      if (action == ACTION_LOAD_LOCAL) {
+        resourceProvider = new CustomSchemeResourceProvider(plugin, (String) rule.get("assetPath"), (String) rule.get("directoryPath"));
+      }
+      this.rules.add(new Rule(pattern, action, resourceProvider));
+    }
+  }
+
+  /**
+   * Returns the first rule matching the url, or null if the request must be handled as usual.
+   */
+  @Nullable
+  public Rule match(@NonNull String url) {
+    for (Rule rule : rules) {
+      if (rule.urlPattern.matcher(url).find()) {
+        return rule;
+      }
+    }
+    unmatchedCount.incrementAndGet();
+    return null;
+  }
+
+  /**
+   * Returns the response of a request matched by the rule, or null if the Service Worker must load it as usual.
+   */
+  @Nullable
+  public WebResourceResponse handle(@NonNull Rule rule, @NonNull WebResourceRequest request) {
+    long start = System.nanoTime();
+    WebResourceResponse response = null;
+    switch (rule.action) {
+      case ACTION_BLOCK:
+        response = new WebResourceResponse("", "", null);
+        break;
+      case ACTION_LOAD_LOCAL:
+        if (rule.resourceProvider != null) {
+          response = rule.resourceProvider.loadPath(getLocalPath(rule, request.getUrl()), request.getRequestHeaders());
+        }
+        break;
+      case ACTION_PASSTHROUGH:
+      default:
+        break;
+    }
+    rule.matchCount.incrementAndGet();
+    rule.totalHandleNanos.addAndGet(System.nanoTime() - start);
+    return response;
+  }
+
+  /**
+   * The first capturing group of the pattern, if any, otherwise the path of the url without its leading slash.
+   */
+  @NonNull
+  private static String getLocalPath(@NonNull Rule rule, @NonNull Uri url) {
+    Matcher matcher = rule.urlPattern.matcher(url.toString());
+    if (matcher.find() && matcher.groupCount() > 0 && matcher.group(1) != null) {
+      return matcher.group(1);
+    }
+    String path = url.getEncodedPath();
+    if (path == null) {
+      return "";
+    }
+    return path.startsWith("/") ? path.substring(1) : path;
+  }
+
+  public Map<String, Object> getMetrics() {
+    List<Map<String, Object>> ruleMetrics = new ArrayList<>();
+    for (Rule rule : rules) {
+      ruleMetrics.add(rule.getMetrics());
+    }
+    Map<String, Object> metrics = new HashMap<>();
+    metrics.put("rules", ruleMetrics);
+    metrics.put("unmatchedCount", unmatchedCount.get());
+    return metrics;
+  }
+}
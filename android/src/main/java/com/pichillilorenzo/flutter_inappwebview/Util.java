@@ -89,12 +89,23 @@ public class Util {
   }
 
   public static WaitFlutterResult invokeMethodAndWait(final MethodChannel channel, final String method, final Object arguments) throws InterruptedException {
+    return invokeMethodAndWait(channel, method, arguments, 0);
+  }
+
+  /**
+   * Invokes the method on the main thread and waits for the result.
+   *
+   * @param timeout maximum time to wait in milliseconds, 0 to wait indefinitely.
+   *                If it expires, the returned result has {@code timedOut} set to true.
+   */
+  public static WaitFlutterResult invokeMethodAndWait(final MethodChannel channel, final String method, final Object arguments, long timeout) throws InterruptedException {
     final CountDownLatch latch = new CountDownLatch(1);
 
     final Map<String, Object> flutterResultMap = new HashMap<>();
     flutterResultMap.put("result", null);
     flutterResultMap.put("error", null);
 
+    long startTime = System.nanoTime();
     Handler handler = new Handler(Looper.getMainLooper());
     handler.post(new Runnable() {
       @Override
@@ -121,14 +132,27 @@ public class Util {
       }
     });
 
-    latch.await();
+    if (timeout > 0) {
+      if (!latch.await(timeout, TimeUnit.MILLISECONDS)) {
+        WaitFlutterResult timedOutResult = new WaitFlutterResult(null, null);
+        timedOutResult.timedOut = true;
+        timedOutResult.waitNanos = System.nanoTime() - startTime;
+        return timedOutResult;
+      }
+    } else {
+      latch.await();
+    }
 
-    return new WaitFlutterResult(flutterResultMap.get("result"), (String) flutterResultMap.get("error"));
+    WaitFlutterResult waitFlutterResult = new WaitFlutterResult(flutterResultMap.get("result"), (String) flutterResultMap.get("error"));
+    waitFlutterResult.waitNanos = System.nanoTime() - startTime;
+    return waitFlutterResult;
   }
 
   public static class WaitFlutterResult {
     public Object result;
     public String error;
+    public boolean timedOut = false;
+    public long waitNanos = 0;
 
     public WaitFlutterResult(Object r, String e) {
       result = r;
@@ -178,6 +202,14 @@ public class Util {
   }
 
   public static OkHttpClient getUnsafeOkHttpClient() {
+    return toUnsafeOkHttpClientBuilder(new OkHttpClient.Builder()).build();
+  }
+
+  /**
+   * Configures the builder to trust every certificate and hostname, with 15 seconds timeouts.
+   * Passing {@code client.newBuilder()} keeps the connection pool and the dispatcher of the client.
+   */
+  public static OkHttpClient.Builder toUnsafeOkHttpClientBuilder(OkHttpClient.Builder builder) {
     try {
       // Create a trust manager that does not validate certificate chains
       final TrustManager[] trustAllCerts = new TrustManager[] {
@@ -203,7 +235,6 @@ public class Util {
       // Create an ssl socket factory with our all-trusting manager
       final SSLSocketFactory sslSocketFactory = sslContext.getSocketFactory();
 
-      OkHttpClient.Builder builder = new OkHttpClient.Builder();
       builder.sslSocketFactory(sslSocketFactory, (X509TrustManager)trustAllCerts[0]);
       builder.hostnameVerifier(new HostnameVerifier() {
         @Override
@@ -212,12 +243,10 @@ public class Util {
         }
       });
 
-      OkHttpClient okHttpClient = builder
+      return builder
               .connectTimeout(15, TimeUnit.SECONDS)
               .writeTimeout(15, TimeUnit.SECONDS)
-              .readTimeout(15, TimeUnit.SECONDS)
-              .build();
-      return okHttpClient;
+              .readTimeout(15, TimeUnit.SECONDS);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
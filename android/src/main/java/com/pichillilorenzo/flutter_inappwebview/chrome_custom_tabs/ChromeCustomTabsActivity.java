@@ -42,6 +42,10 @@ public class ChromeCustomTabsActivity extends Activity implements MethodChannel.
   protected final int CHROME_CUSTOM_TAB_REQUEST_CODE = 100;
   protected boolean onChromeSafariBrowserOpened = false;
   protected boolean onChromeSafariBrowserCompletedInitialLoad = false;
+  // true when the session of the ChromeSafariBrowserManager is used, instead of binding the service here
+  protected boolean useSharedSession = false;
+  @Nullable
+  protected CustomTabsCallback customTabsCallback;
   @Nullable
   public ChromeSafariBrowserManager manager;
   public String initialUrl;
@@ -92,9 +96,14 @@ public class ChromeCustomTabsActivity extends Activity implements MethodChannel.
       }
     });
 
-    customTabActivityHelper.setCustomTabsCallback(new CustomTabsCallback() {
+    customTabsCallback = new CustomTabsCallback() {
       @Override
       public void onNavigationEvent(int navigationEvent, Bundle extras) {
+        // with the shared session, the session manager already received the event
+        if (!useSharedSession && manager != null && manager.sessionManager != null) {
+          manager.sessionManager.recordNavigationEvent(navigationEvent);
+        }
+
         if (navigationEvent == TAB_SHOWN && !onChromeSafariBrowserOpened) {
           onChromeSafariBrowserOpened = true;
           Map<String, Object> obj = new HashMap<>();
@@ -110,7 +119,9 @@ public class ChromeCustomTabsActivity extends Activity implements MethodChannel.
 
       @Override
       public void extraCallback(String callbackName, Bundle args) {
-
+        if (!useSharedSession && manager != null && manager.sessionManager != null) {
+          manager.sessionManager.recordExtraCallback(callbackName, args);
+        }
       }
 
       @Override
@@ -128,7 +139,17 @@ public class ChromeCustomTabsActivity extends Activity implements MethodChannel.
                                                  boolean result, Bundle extras) {
 
       }
-    });
+    };
+    customTabActivityHelper.setCustomTabsCallback(customTabsCallback);
+
+    if (manager.sessionManager != null) {
+      customTabsSession = manager.sessionManager.acquireSession(id, customTabsCallback);
+      if (customTabsSession != null) {
+        // the service is already connected and warmed up, so the tab can be launched right away
+        useSharedSession = true;
+        customTabsConnected();
+      }
+    }
   }
 
   @Override
@@ -157,9 +178,8 @@ public class ChromeCustomTabsActivity extends Activity implements MethodChannel.
   }
 
   public void customTabsConnected() {
-    customTabsSession = customTabActivityHelper.getSession();
     Uri uri = Uri.parse(initialUrl);
-    customTabActivityHelper.mayLaunchUrl(uri, null, null);
+    prepareSession(uri);
 
     builder = new CustomTabsIntent.Builder(customTabsSession);
     prepareCustomTabs();
@@ -170,6 +190,15 @@ public class ChromeCustomTabsActivity extends Activity implements MethodChannel.
     CustomTabActivityHelper.openCustomTab(this, customTabsIntent, uri, CHROME_CUSTOM_TAB_REQUEST_CODE);
   }
 
+  protected void prepareSession(Uri uri) {
+    if (useSharedSession && customTabsSession != null) {
+      customTabsSession.mayLaunchUrl(uri, null, null);
+    } else {
+      customTabsSession = customTabActivityHelper.getSession();
+      customTabActivityHelper.mayLaunchUrl(uri, null, null);
+    }
+  }
+
   private void prepareCustomTabs() {
     if (options.addDefaultShareMenuItem != null) {
       builder.setShareState(options.addDefaultShareMenuItem ?
@@ -220,7 +249,9 @@ public class ChromeCustomTabsActivity extends Activity implements MethodChannel.
   @Override
   protected void onStart() {
     super.onStart();
-    customTabActivityHelper.bindCustomTabsService(this);
+    if (!useSharedSession) {
+      customTabActivityHelper.bindCustomTabsService(this);
+    }
   }
 
   @Override
@@ -257,6 +288,9 @@ public class ChromeCustomTabsActivity extends Activity implements MethodChannel.
 
   public void dispose() {
     channel.setMethodCallHandler(null);
+    if (manager != null && manager.sessionManager != null) {
+      manager.sessionManager.releaseSession(id);
+    }
     manager = null;
   }
 
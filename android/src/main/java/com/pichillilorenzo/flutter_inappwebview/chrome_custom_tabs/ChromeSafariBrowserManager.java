@@ -26,10 +26,13 @@ public class ChromeSafariBrowserManager implements MethodChannel.MethodCallHandl
   public InAppWebViewFlutterPlugin plugin;
   public String id;
   public static final Map<String, ChromeSafariBrowserManager> shared = new HashMap<>();
+  @Nullable
+  public CustomTabsSessionManager sessionManager;
 
   public ChromeSafariBrowserManager(final InAppWebViewFlutterPlugin plugin) {
     this.id = UUID.randomUUID().toString();
     this.plugin = plugin;
+    sessionManager = new CustomTabsSessionManager(plugin.applicationContext);
     channel = new MethodChannel(plugin.messenger, "com.pichillilorenzo/flutter_chromesafaribrowser");
     channel.setMethodCallHandler(this);
     shared.put(this.id, this);
@@ -51,6 +54,20 @@ public class ChromeSafariBrowserManager implements MethodChannel.MethodCallHandl
           result.success(false);
         }
         break;
+      case "warmUp":
+        result.success(sessionManager != null && sessionManager.warmUp());
+        break;
+      case "mayLaunchUrls":
+        if (sessionManager != null) {
+          List<String> urls = (List<String>) call.argument("urls");
+          result.success(sessionManager.mayLaunchUrls(urls));
+        } else {
+          result.success(false);
+        }
+        break;
+      case "getSessionMetrics":
+        result.success(sessionManager != null ? sessionManager.getMetrics() : null);
+        break;
       case "isAvailable":
         if (plugin != null && plugin.activity != null) {
           result.success(CustomTabActivityHelper.isAvailable(plugin.activity));
@@ -88,6 +105,9 @@ public class ChromeSafariBrowserManager implements MethodChannel.MethodCallHandl
       if (noHistory) {
         intent.addFlags(Intent.FLAG_ACTIVITY_NO_HISTORY);
       }
+      if (sessionManager != null) {
+        sessionManager.onLaunch();
+      }
       activity.startActivity(intent);
       result.success(true);
       return;
@@ -99,6 +119,10 @@ public class ChromeSafariBrowserManager implements MethodChannel.MethodCallHandl
   public void dispose() {
     channel.setMethodCallHandler(null);
     shared.remove(this.id);
+    if (sessionManager != null) {
+      sessionManager.dispose();
+      sessionManager = null;
+    }
     plugin = null;
   }
 }
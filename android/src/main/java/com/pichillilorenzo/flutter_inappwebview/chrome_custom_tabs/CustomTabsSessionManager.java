@@ -0,0 +1,309 @@
+package com.pichillilorenzo.flutter_inappwebview.chrome_custom_tabs;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Bundle;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.browser.customtabs.CustomTabsCallback;
+import androidx.browser.customtabs.CustomTabsClient;
+import androidx.browser.customtabs.CustomTabsService;
+import androidx.browser.customtabs.CustomTabsServiceConnection;
+import androidx.browser.customtabs.CustomTabsSession;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a connection to the Custom Tabs service bound with the application context, for the whole life of the plugin,
+ * so the browser can be warmed up and the likely URLs prefetched before a ChromeSafariBrowser is opened.
+ * The Custom Tabs activities reuse its session when it is connected, instead of binding the service themselves.
+ *
+ * The session callback records the time between the launch of a Custom Tab and its navigation events,
+ * and forwards the events to the activity that is using the session.
+ * The events of a session don't tell its tabs apart, so while a Custom Tab uses the session created on connection,
+ * the one the likely URLs were sent to, the others get their own session.
+ */
+public class CustomTabsSessionManager implements ServiceConnectionCallback {
+
+  protected static final String LOG_TAG = "CustomTabsSessionMngr";
+
+  // sent by Chrome through CustomTabsCallback.extraCallback, when it shares the page load metrics with the app
+  private static final String NAVIGATION_METRICS_CALLBACK = "NavigationMetrics";
+  private static final String FIRST_CONTENTFUL_PAINT_KEY = "firstContentfulPaint";
+
+  @Nullable
+  private Context applicationContext;
+  @Nullable
+  private CustomTabsServiceConnection connection;
+  @Nullable
+  private CustomTabsClient client;
+  @Nullable
+  private CustomTabsSession session;
+  private boolean warmupRequested = false;
+  @Nullable
+  private List<String> pendingLikelyUrls;
+  // the id of the browser using the session created on connection
+  @Nullable
+  private String sessionBrowserId;
+  // by browser id
+  private final Map<String, CustomTabsCallback> delegateCallbacks = new HashMap<>();
+
+  private long launchCount = 0;
+  private long sharedSessionLaunchCount = 0;
+  private long launchTime = 0;
+  @Nullable
+  private Long lastTabShownMillis;
+  @Nullable
+  private Long lastNavigationStartedMillis;
+  @Nullable
+  private Long lastNavigationFinishedMillis;
+  @Nullable
+  private Long lastFirstContentfulPaintMillis;
+
+  private class SessionCallback extends CustomTabsCallback {
+    // null for the session created on connection, that can be used by different browsers over time
+    @Nullable
+    private final String browserId;
+
+    SessionCallback(@Nullable String browserId) {
+      this.browserId = browserId;
+    }
+
+    @Nullable
+    private CustomTabsCallback getDelegateCallback() {
+      String id = browserId != null ? browserId : sessionBrowserId;
+      return id != null ? delegateCallbacks.get(id) : null;
+    }
+
+    @Override
+    public void onNavigationEvent(int navigationEvent, @Nullable Bundle extras) {
+      recordNavigationEvent(navigationEvent);
+      CustomTabsCallback delegateCallback = getDelegateCallback();
+      if (delegateCallback != null) {
+        delegateCallback.onNavigationEvent(navigationEvent, extras);
+      }
+    }
+
+    @Override
+    public void extraCallback(@NonNull String callbackName, @Nullable Bundle args) {
+      recordExtraCallback(callbackName, args);
+      CustomTabsCallback delegateCallback = getDelegateCallback();
+      if (delegateCallback != null) {
+        delegateCallback.extraCallback(callbackName, args);
+      }
+    }
+
+    @Override
+    public void onMessageChannelReady(@Nullable Bundle extras) {
+      CustomTabsCallback delegateCallback = getDelegateCallback();
+      if (delegateCallback != null) {
+        delegateCallback.onMessageChannelReady(extras);
+      }
+    }
+
+    @Override
+    public void onPostMessage(@NonNull String message, @Nullable Bundle extras) {
+      CustomTabsCallback delegateCallback = getDelegateCallback();
+      if (delegateCallback != null) {
+        delegateCallback.onPostMessage(message, extras);
+      }
+    }
+
+    @Override
+    public void onRelationshipValidationResult(@CustomTabsService.Relation int relation, @NonNull Uri requestedOrigin,
+                                               boolean result, @Nullable Bundle extras) {
+      CustomTabsCallback delegateCallback = getDelegateCallback();
+      if (delegateCallback != null) {
+        delegateCallback.onRelationshipValidationResult(relation, requestedOrigin, result, extras);
+      }
+    }
+  }
+
+  public CustomTabsSessionManager(@NonNull Context applicationContext) {
+    this.applicationContext = applicationContext;
+  }
+
+  /**
+   * Binds the Custom Tabs service, if not already bound.
+   * Returns false if no browser supporting Custom Tabs is installed.
+   */
+  public boolean bind() {
+    if (connection != null) {
+      return true;
+    }
+    if (applicationContext == null) {
+      return false;
+    }
+    String packageName = CustomTabsHelper.getPackageNameToUse(applicationContext);
+    if (packageName == null) {
+      return false;
+    }
+    connection = new ServiceConnection(this);
+    if (!CustomTabsClient.bindCustomTabsService(applicationContext, packageName, connection)) {
+      connection = null;
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Starts the browser process in the background, as soon as the service is connected.
+   */
+  public boolean warmUp() {
+    warmupRequested = true;
+    if (client != null) {
+      return client.warmup(0L);
+    }
+    return bind();
+  }
+
+  /**
+   * Tells the browser which URLs are likely to be opened, the most likely first.
+   * The first URL can be prefetched, the others are only used as hints.
+   * If the service is not connected yet, the URLs are sent once it is.
+   */
+  public boolean mayLaunchUrls(@NonNull List<String> urls) {
+    if (urls.isEmpty()) {
+      return false;
+    }
+    if (session == null) {
+      pendingLikelyUrls = new ArrayList<>(urls);
+      return bind();
+    }
+    Uri uri = Uri.parse(urls.get(0));
+    List<Bundle> otherLikelyBundles = null;
+    if (urls.size() > 1) {
+      otherLikelyBundles = new ArrayList<>();
+      for (String url : urls.subList(1, urls.size())) {
+        Bundle bundle = new Bundle();
+        bundle.putParcelable(CustomTabsService.KEY_URL, Uri.parse(url));
+        otherLikelyBundles.add(bundle);
+      }
+    }
+    return session.mayLaunchUrl(uri, null, otherLikelyBundles);
+  }
+
+  /**
+   * Returns a session of the connected client, if connected, and forwards its callback events to the given callback
+   * until the browser releases it. It is the session created on connection if no other browser is using it.
+   */
+  @Nullable
+  public CustomTabsSession acquireSession(@NonNull String browserId, @Nullable CustomTabsCallback delegateCallback) {
+    if (client == null || session == null) {
+      return null;
+    }
+    CustomTabsSession acquiredSession;
+    if (sessionBrowserId == null || sessionBrowserId.equals(browserId)) {
+      sessionBrowserId = browserId;
+      acquiredSession = session;
+    } else {
+      acquiredSession = client.newSession(new SessionCallback(browserId));
+      if (acquiredSession == null) {
+        return null;
+      }
+    }
+    delegateCallbacks.put(browserId, delegateCallback);
+    sharedSessionLaunchCount++;
+    return acquiredSession;
+  }
+
+  public void releaseSession(@NonNull String browserId) {
+    delegateCallbacks.remove(browserId);
+    if (browserId.equals(sessionBrowserId)) {
+      sessionBrowserId = null;
+    }
+  }
+
+  /**
+   * Called when a Custom Tab is about to be launched, to measure the time to its navigation events.
+   */
+  public void onLaunch() {
+    launchCount++;
+    launchTime = SystemClock.elapsedRealtime();
+    lastTabShownMillis = null;
+    lastNavigationStartedMillis = null;
+    lastNavigationFinishedMillis = null;
+    lastFirstContentfulPaintMillis = null;
+  }
+
+  /**
+   * Also called by the activities that use their own session.
+   */
+  public void recordNavigationEvent(int navigationEvent) {
+    if (launchTime == 0) {
+      return;
+    }
+    long elapsed = SystemClock.elapsedRealtime() - launchTime;
+    if (navigationEvent == CustomTabsCallback.TAB_SHOWN && lastTabShownMillis == null) {
+      lastTabShownMillis = elapsed;
+    } else if (navigationEvent == CustomTabsCallback.NAVIGATION_STARTED && lastNavigationStartedMillis == null) {
+      lastNavigationStartedMillis = elapsed;
+    } else if (navigationEvent == CustomTabsCallback.NAVIGATION_FINISHED && lastNavigationFinishedMillis == null) {
+      lastNavigationFinishedMillis = elapsed;
+    }
+  }
+
+  public void recordExtraCallback(@NonNull String callbackName, @Nullable Bundle args) {
+    if (NAVIGATION_METRICS_CALLBACK.equals(callbackName) && args != null &&
+            args.containsKey(FIRST_CONTENTFUL_PAINT_KEY) && lastFirstContentfulPaintMillis == null) {
+      // relative to the start of the navigation
+      lastFirstContentfulPaintMillis = args.getLong(FIRST_CONTENTFUL_PAINT_KEY);
+    }
+  }
+
+  public boolean isConnected() {
+    return client != null;
+  }
+
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new HashMap<>();
+    metrics.put("connected", client != null);
+    metrics.put("launchCount", launchCount);
+    metrics.put("sharedSessionLaunchCount", sharedSessionLaunchCount);
+    metrics.put("tabShownMillis", lastTabShownMillis);
+    metrics.put("navigationStartedMillis", lastNavigationStartedMillis);
+    metrics.put("navigationFinishedMillis", lastNavigationFinishedMillis);
+    metrics.put("firstContentfulPaintMillis", lastFirstContentfulPaintMillis);
+    return metrics;
+  }
+
+  @Override
+  public void onServiceConnected(CustomTabsClient client) {
+    this.client = client;
+    if (warmupRequested) {
+      client.warmup(0L);
+    }
+    session = client.newSession(new SessionCallback(null));
+    if (pendingLikelyUrls != null) {
+      List<String> urls = pendingLikelyUrls;
+      pendingLikelyUrls = null;
+      mayLaunchUrls(urls);
+    }
+  }
+
+  @Override
+  public void onServiceDisconnected() {
+    // the service stays bound: a new session is created when it is connected again
+    client = null;
+    session = null;
+    sessionBrowserId = null;
+  }
+
+  public void dispose() {
+    if (connection != null && applicationContext != null) {
+      applicationContext.unbindService(connection);
+    }
+    connection = null;
+    client = null;
+    session = null;
+    sessionBrowserId = null;
+    delegateCallbacks.clear();
+    pendingLikelyUrls = null;
+    applicationContext = null;
+  }
+}
@@ -19,9 +19,8 @@ public class TrustedWebActivity extends ChromeCustomTabsActivity {
 
   @Override
   public void customTabsConnected() {
-    customTabsSession = customTabActivityHelper.getSession();
     Uri uri = Uri.parse(initialUrl);
-    customTabActivityHelper.mayLaunchUrl(uri, null, null);
+    prepareSession(uri);
 
     builder = new TrustedWebActivityIntentBuilder(uri);
     prepareCustomTabs();
@@ -6,10 +6,13 @@ import android.os.Looper;
 import android.util.Log;
 import android.webkit.WebResourceResponse;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
 import com.pichillilorenzo.flutter_inappwebview.in_app_webview.InAppWebView;
+import com.pichillilorenzo.flutter_inappwebview.in_app_webview.TopUrlSnapshot;
 import com.pichillilorenzo.flutter_inappwebview.Util;
 
-import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
@@ -17,33 +20,104 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.CountDownLatch;
+import java.util.Map;
 import java.util.regex.Matcher;
 
+import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 
 public class ContentBlockerHandler {
     protected static final String LOG_TAG = "ContentBlockerHandler";
 
-    protected List<ContentBlocker> ruleList = new ArrayList<>();
+    protected volatile ContentBlockerMatcher matcher = new LinearContentBlockerMatcher(new ArrayList<ContentBlocker>());
+    protected boolean useIndexedMatcher = true;
+    @Nullable
+    protected OkHttpClient httpClient;
+    protected final ResourceTypeInference resourceTypeInference = new ResourceTypeInference();
+    protected boolean useHeadRequests = false;
 
     public ContentBlockerHandler() {}
 
     public ContentBlockerHandler(List<ContentBlocker> ruleList) {
-        this.ruleList = ruleList;
+        setRuleList(ruleList);
+    }
+
+    /**
+     * Sets the client used for the HEAD and MAKE_HTTPS requests, so they share the plugin connection pool.
+     */
+    public synchronized void setHttpClient(@Nullable OkHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @NonNull
+    public synchronized OkHttpClient getHttpClient() {
+        if (httpClient == null) {
+            httpClient = Util.getUnsafeOkHttpClient();
+        }
+        return httpClient;
+    }
+
+    /**
+     * @param useHeadRequests if true, an HTTP HEAD request is made when the resource type of a URL
+     *                        cannot be inferred from the request headers, the URL or the previous responses.
+     */
+    public void setUseHeadRequests(boolean useHeadRequests) {
+        this.useHeadRequests = useHeadRequests;
+    }
+
+    /**
+     * Remembers the content type of a response the plugin has seen, for the next requests of the same URL or directory.
+     * Does nothing when there are no rules, because the resource type is then never needed.
+     */
+    public void recordResponseContentType(String url, @Nullable String contentType) {
+        if (!getRuleList().isEmpty()) {
+            resourceTypeInference.putContentType(url, contentType);
+        }
+    }
+
+    public ResourceTypeInference getResourceTypeInference() {
+        return resourceTypeInference;
     }
 
     public List<ContentBlocker> getRuleList() {
-        return this.ruleList;
+        return matcher.getRuleList();
     }
 
     public void setRuleList(List<ContentBlocker> newRuleList) {
-        this.ruleList = newRuleList;
+        setRuleList(newRuleList, useIndexedMatcher);
+    }
+
+    /**
+     * Compiles the rules once, so that checkUrl doesn't need to copy or modify them on every request.
+     *
+     * @param useIndexedMatcher if true, each URL is only checked against the rules whose url-filter token
+     *                          it contains, otherwise it is checked against every rule.
+     */
+    public void setRuleList(List<ContentBlocker> newRuleList, boolean useIndexedMatcher) {
+        for (ContentBlocker contentBlocker : newRuleList) {
+            List<ContentBlockerTriggerResourceType> resourceTypes = contentBlocker.getTrigger().getResourceType();
+            if (resourceTypes.contains(ContentBlockerTriggerResourceType.IMAGE) && !resourceTypes.contains(ContentBlockerTriggerResourceType.SVG_DOCUMENT)) {
+                resourceTypes.add(ContentBlockerTriggerResourceType.SVG_DOCUMENT);
+            }
+        }
+        this.useIndexedMatcher = useIndexedMatcher;
+        this.matcher = useIndexedMatcher ? new IndexedContentBlockerMatcher(newRuleList) : new LinearContentBlockerMatcher(newRuleList);
+    }
+
+    public ContentBlockerMatcher getMatcher() {
+        return matcher;
     }
 
     public WebResourceResponse checkUrl(final InAppWebView webView, String url, ContentBlockerTriggerResourceType responseResourceType) throws URISyntaxException, InterruptedException, MalformedURLException {
+        return checkUrl(webView, url, responseResourceType, null);
+    }
+
+    /**
+     * @param responseResourceType the resource type, or null to infer it only when a matching rule needs it.
+     */
+    private WebResourceResponse checkUrl(final InAppWebView webView, String url, @Nullable ContentBlockerTriggerResourceType responseResourceType,
+                                         @Nullable Map<String, String> requestHeaders) throws URISyntaxException, InterruptedException, MalformedURLException {
         if (webView.options.contentBlockers == null)
             return null;
 
@@ -59,23 +133,25 @@ public class ContentBlockerHandler {
         String host = u.getHost();
         int port = u.getPort();
         String scheme = u.getScheme();
-        // thread safe copy list
-        List<ContentBlocker> ruleListCopy = new CopyOnWriteArrayList<ContentBlocker>(ruleList);
+        // the matcher is immutable, so it is safe to read it from the WebView IO threads
+        List<ContentBlocker> candidates = matcher.getCandidates(url);
 
-        for (ContentBlocker contentBlocker : ruleListCopy) {
+        for (ContentBlocker contentBlocker : candidates) {
             ContentBlockerTrigger trigger =  contentBlocker.getTrigger();
             List<ContentBlockerTriggerResourceType> resourceTypes = trigger.getResourceType();
-            if (resourceTypes.contains(ContentBlockerTriggerResourceType.IMAGE) && !resourceTypes.contains(ContentBlockerTriggerResourceType.SVG_DOCUMENT)) {
-                resourceTypes.add(ContentBlockerTriggerResourceType.SVG_DOCUMENT);
-            }
 
             ContentBlockerAction action = contentBlocker.getAction();
 
             Matcher m = trigger.getUrlFilterPatternCompiled().matcher(url);
             if (m.matches()) {
 
-                if (!resourceTypes.isEmpty() && !resourceTypes.contains(responseResourceType)) {
-                    return null;
+                if (!resourceTypes.isEmpty()) {
+                    if (responseResourceType == null) {
+                        responseResourceType = getResourceTypeFromUrl(url, requestHeaders);
+                    }
+                    if (!resourceTypes.contains(responseResourceType)) {
+                        return null;
+                    }
                 }
                 if (!trigger.getIfDomain().isEmpty()) {
                     boolean matchFound = false;
@@ -94,26 +170,15 @@ public class ContentBlockerHandler {
                             return null;
                 }
 
-                final String[] webViewUrl = new String[1];
-                if (!trigger.getLoadType().isEmpty() || !trigger.getIfTopUrl().isEmpty() || !trigger.getUnlessTopUrl().isEmpty()) {
-                    final CountDownLatch latch = new CountDownLatch(1);
-                    Handler handler = new Handler(webView.getWebViewLooper());
-                    handler.post(new Runnable() {
-                        @Override
-                        public void run() {
-                            webViewUrl[0] = webView.getUrl();
-                            latch.countDown();
-                        }
-                    });
-                    latch.await();
-                }
+                // the snapshot is updated by the WebView client, so it can be read without blocking on the UI thread
+                TopUrlSnapshot topUrlSnapshot = webView.topUrlSnapshot;
 
-                if (webViewUrl[0] != null) {
+                if (topUrlSnapshot != null && (!trigger.getLoadType().isEmpty() || !trigger.getIfTopUrl().isEmpty() || !trigger.getUnlessTopUrl().isEmpty())) {
+                    String webViewUrl = topUrlSnapshot.url;
                     if (!trigger.getLoadType().isEmpty()) {
-                        URI cUrl = new URI(webViewUrl[0]);
-                        String cHost = cUrl.getHost();
-                        int cPort = cUrl.getPort();
-                        String cScheme = cUrl.getScheme();
+                        String cHost = topUrlSnapshot.host;
+                        int cPort = topUrlSnapshot.port;
+                        String cScheme = topUrlSnapshot.scheme;
 
                         if ( (trigger.getLoadType().contains("first-party") && cHost != null && !(cScheme.equals(scheme) && cHost.equals(host) && cPort == port)) ||
                                 (trigger.getLoadType().contains("third-party") && cHost != null && cHost.equals(host)) )
@@ -122,7 +187,7 @@ public class ContentBlockerHandler {
                     if (!trigger.getIfTopUrl().isEmpty()) {
                         boolean matchFound = false;
                         for (String topUrl : trigger.getIfTopUrl()) {
-                            if (webViewUrl[0].startsWith(topUrl)) {
+                            if (webViewUrl.startsWith(topUrl)) {
                                 matchFound = true;
                                 break;
                             }
@@ -132,7 +197,7 @@ public class ContentBlockerHandler {
                     }
                     if (!trigger.getUnlessTopUrl().isEmpty()) {
                         for (String topUrl : trigger.getUnlessTopUrl())
-                            if (webViewUrl[0].startsWith(topUrl))
+                            if (webViewUrl.startsWith(topUrl))
                                 return null;
                     }
                 }
@@ -181,20 +246,18 @@ public class ContentBlockerHandler {
                             Response response = null;
 
                             try {
-                                response = Util.getUnsafeOkHttpClient().newCall(mRequest).execute();
-                                byte[] dataBytes = response.body().bytes();
-                                InputStream dataStream = new ByteArrayInputStream(dataBytes);
+                                response = getHttpClient().newCall(mRequest).execute();
+                                // the WebView reads the body while it is downloaded, and closes the response when done
+                                InputStream dataStream = response.body().byteStream();
 
                                 String[] contentTypeSplitted = response.header("content-type", "text/plain").split(";");
 
                                 String contentType = contentTypeSplitted[0].trim();
+                                resourceTypeInference.putContentType(url, contentType);
                                 String encoding = (contentTypeSplitted.length > 1 && contentTypeSplitted[1].contains("charset="))
                                         ? contentTypeSplitted[1].replace("charset=", "").trim()
                                         : "utf-8";
 
-                                response.body().close();
-                                response.close();
-
                                 return new WebResourceResponse(contentType, encoding, dataStream);
 
                             } catch (Exception e) {
@@ -214,70 +277,30 @@ public class ContentBlockerHandler {
     }
 
     public WebResourceResponse checkUrl(final InAppWebView webView, String url) throws URISyntaxException, InterruptedException, MalformedURLException {
-        ContentBlockerTriggerResourceType responseResourceType = getResourceTypeFromUrl(url);
-        return checkUrl(webView, url, responseResourceType);
+        return checkUrl(webView, url, (Map<String, String>) null);
+    }
+
+    public WebResourceResponse checkUrl(final InAppWebView webView, String url, @Nullable Map<String, String> requestHeaders) throws URISyntaxException, InterruptedException, MalformedURLException {
+        return checkUrl(webView, url, null, requestHeaders);
     }
 
     public WebResourceResponse checkUrl(final InAppWebView webView, String url, String contentType) throws URISyntaxException, InterruptedException, MalformedURLException {
         ContentBlockerTriggerResourceType responseResourceType = getResourceTypeFromContentType(contentType);
+        if (!getRuleList().isEmpty()) {
+            resourceTypeInference.put(url, responseResourceType);
+        }
         return checkUrl(webView, url, responseResourceType);
     }
 
     public ContentBlockerTriggerResourceType getResourceTypeFromUrl(String url) {
-        ContentBlockerTriggerResourceType responseResourceType = ContentBlockerTriggerResourceType.RAW;
-
-        if (url.startsWith("http://") || url.startsWith("https://")) {
-            // make an HTTP "HEAD" request to the server for that URL. This will not return the full content of the URL.
-            Request mRequest = new Request.Builder().url(url).head().build();
-            Response response = null;
-            try {
-                response = Util.getUnsafeOkHttpClient().newCall(mRequest).execute();
-
-                if (response.header("content-type") != null) {
-                    String[] contentTypeSplitted = response.header("content-type").split(";");
-
-                    String contentType = contentTypeSplitted[0].trim();
-                    String encoding = (contentTypeSplitted.length > 1 && contentTypeSplitted[1].contains("charset="))
-                            ? contentTypeSplitted[1].replace("charset=", "").trim()
-                            : "utf-8";
-
-                    response.body().close();
-                    response.close();
-                    responseResourceType = getResourceTypeFromContentType(contentType);
-                }
+        return getResourceTypeFromUrl(url, null);
+    }
 
-            } catch (Exception e) {
-                if (response != null) {
-                    response.body().close();
-                    response.close();
-                }
-                e.printStackTrace();
-                Log.e(LOG_TAG, e.getMessage());
-            }
-        }
-        return responseResourceType;
+    public ContentBlockerTriggerResourceType getResourceTypeFromUrl(String url, @Nullable Map<String, String> requestHeaders) {
+        return resourceTypeInference.infer(url, requestHeaders, useHeadRequests ? getHttpClient() : null);
     }
 
     public ContentBlockerTriggerResourceType getResourceTypeFromContentType(String contentType) {
-        ContentBlockerTriggerResourceType responseResourceType = ContentBlockerTriggerResourceType.RAW;
-
-        // https://developer.mozilla.org/en-US/docs/Web/HTTP/Basics_of_HTTP/MIME_types
-        if (contentType.equals("text/css")) {
-            responseResourceType = ContentBlockerTriggerResourceType.STYLE_SHEET;
-        } else if (contentType.equals("image/svg+xml")) {
-            responseResourceType = ContentBlockerTriggerResourceType.SVG_DOCUMENT;
-        } else if (contentType.startsWith("image/")) {
-            responseResourceType = ContentBlockerTriggerResourceType.IMAGE;
-        } else if (contentType.startsWith("font/")) {
-            responseResourceType = ContentBlockerTriggerResourceType.FONT;
-        } else if (contentType.startsWith("audio/") || contentType.startsWith("video/") || contentType.equals("application/ogg")) {
-            responseResourceType = ContentBlockerTriggerResourceType.MEDIA;
-        } else if (contentType.endsWith("javascript")) {
-            responseResourceType = ContentBlockerTriggerResourceType.SCRIPT;
-        } else if (contentType.startsWith("text/")) {
-            responseResourceType = ContentBlockerTriggerResourceType.DOCUMENT;
-        }
-
-        return responseResourceType;
+        return ResourceTypeInference.fromContentType(contentType);
     }
 }
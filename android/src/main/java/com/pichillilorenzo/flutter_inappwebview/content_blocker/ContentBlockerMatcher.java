@@ -0,0 +1,20 @@
+package com.pichillilorenzo.flutter_inappwebview.content_blocker;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * Selects, for a given URL, the rules whose url-filter could possibly match it.
+ * Implementations are immutable once built, so they can be read from any WebView thread.
+ */
+public interface ContentBlockerMatcher {
+    /**
+     * Returns the candidate rules for the URL, in the same order as the original rule list.
+     */
+    @NonNull
+    List<ContentBlocker> getCandidates(@NonNull String url);
+
+    @NonNull
+    List<ContentBlocker> getRuleList();
+}
@@ -0,0 +1,418 @@
+package com.pichillilorenzo.flutter_inappwebview.content_blocker;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indexes the rules by a literal token pulled from each url-filter, so that a URL is only checked
+ * against the rules whose token appears in it, plus the rules that could not be indexed.
+ *
+ * A token is a run of ASCII letters and digits that the url-filter requires to appear in the URL
+ * delimited on both sides, so it always appears as a whole token when the URL is split the same way.
+ * Tokens are compared case-insensitively, which can only add candidates, never lose one.
+ */
+public class IndexedContentBlockerMatcher implements ContentBlockerMatcher {
+    // tokens that appear in most URLs and would produce very large buckets
+    private static final Set<String> BAD_TOKENS = new HashSet<>(Arrays.asList(
+            "http", "https", "www", "com", "net", "org", "js", "html", "php", "cdn", "static"
+    ));
+
+    @NonNull
+    private final List<ContentBlocker> ruleList;
+    @NonNull
+    private final Map<String, int[]> tokenIndex;
+    @NonNull
+    private final int[] genericRuleIndexes;
+    @NonNull
+    private final List<ContentBlocker> genericRuleList;
+
+    public IndexedContentBlockerMatcher(@NonNull List<ContentBlocker> ruleList) {
+        this.ruleList = Collections.unmodifiableList(new ArrayList<>(ruleList));
+
+        Map<String, List<Integer>> buckets = new HashMap<>();
+        List<Integer> genericIndexes = new ArrayList<>();
+        for (int i = 0; i < this.ruleList.size(); i++) {
+            List<String> tokens = extractTokens(this.ruleList.get(i).getTrigger().getUrlFilter());
+            String token = tokens != null ? selectToken(tokens, buckets) : null;
+            if (token == null) {
+                genericIndexes.add(i);
+                continue;
+            }
+            List<Integer> bucket = buckets.get(token);
+            if (bucket == null) {
+                bucket = new ArrayList<>();
+                buckets.put(token, bucket);
+            }
+            bucket.add(i);
+        }
+
+        Map<String, int[]> tokenIndex = new HashMap<>(buckets.size() * 2);
+        for (Map.Entry<String, List<Integer>> entry : buckets.entrySet()) {
+            tokenIndex.put(entry.getKey(), toIntArray(entry.getValue()));
+        }
+        this.tokenIndex = tokenIndex;
+        this.genericRuleIndexes = toIntArray(genericIndexes);
+
+        List<ContentBlocker> genericRuleList = new ArrayList<>(genericRuleIndexes.length);
+        for (int index : genericRuleIndexes) {
+            genericRuleList.add(this.ruleList.get(index));
+        }
+        this.genericRuleList = Collections.unmodifiableList(genericRuleList);
+    }
+
+    @NonNull
+    @Override
+    public List<ContentBlocker> getCandidates(@NonNull String url) {
+        if (tokenIndex.isEmpty()) {
+            return genericRuleList;
+        }
+
+        List<int[]> hits = null;
+        int hitCount = 0;
+        int length = url.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean isTokenChar = i < length && isTokenChar(url.charAt(i));
+            if (isTokenChar && start < 0) {
+                start = i;
+            } else if (!isTokenChar && start >= 0) {
+                int[] bucket = tokenIndex.get(toLowerCaseAscii(url, start, i));
+                if (bucket != null) {
+                    if (hits == null) {
+                        hits = new ArrayList<>();
+                    }
+                    hits.add(bucket);
+                    hitCount += bucket.length;
+                }
+                start = -1;
+            }
+        }
+
+        if (hits == null) {
+            return genericRuleList;
+        }
+
+        int[] indexes = new int[hitCount + genericRuleIndexes.length];
+        int offset = 0;
+        for (int[] bucket : hits) {
+            System.arraycopy(bucket, 0, indexes, offset, bucket.length);
+            offset += bucket.length;
+        }
+        System.arraycopy(genericRuleIndexes, 0, indexes, offset, genericRuleIndexes.length);
+        Arrays.sort(indexes);
+
+        // keep the original rule order, a URL can contain the same token more than once
+        List<ContentBlocker> candidates = new ArrayList<>(indexes.length);
+        int previous = -1;
+        for (int index : indexes) {
+            if (index != previous) {
+                candidates.add(ruleList.get(index));
+                previous = index;
+            }
+        }
+        return candidates;
+    }
+
+    @NonNull
+    @Override
+    public List<ContentBlocker> getRuleList() {
+        return ruleList;
+    }
+
+    public int getIndexedTokenCount() {
+        return tokenIndex.size();
+    }
+
+    public int getGenericRuleCount() {
+        return genericRuleIndexes.length;
+    }
+
+    @Nullable
+    private static String selectToken(@NonNull List<String> tokens, @NonNull Map<String, List<Integer>> buckets) {
+        String bestToken = null;
+        boolean bestIsBad = true;
+        int bestBucketSize = Integer.MAX_VALUE;
+        for (String token : tokens) {
+            boolean isBad = token.length() < 2 || BAD_TOKENS.contains(token);
+            List<Integer> bucket = buckets.get(token);
+            int bucketSize = bucket != null ? bucket.size() : 0;
+            boolean isBetter;
+            if (bestToken == null || isBad != bestIsBad) {
+                isBetter = bestToken == null || !isBad;
+            } else if (bucketSize != bestBucketSize) {
+                isBetter = bucketSize < bestBucketSize;
+            } else {
+                isBetter = token.length() > bestToken.length();
+            }
+            if (isBetter) {
+                bestToken = token;
+                bestIsBad = isBad;
+                bestBucketSize = bucketSize;
+            }
+        }
+        return bestToken;
+    }
+
+    /**
+     * Returns the tokens that every URL matched by the url-filter must contain,
+     * or null if the url-filter cannot be indexed (for example, a top-level alternation).
+     *
+     * The url-filter is evaluated with Matcher.matches(), so the start and the end of the regex
+     * are also the start and the end of the URL.
+     *
+     * Inline flags other than (?i) change how the rest of the url-filter is read, for example (?x)
+     * drops whitespace, so a url-filter using them is never indexed.
+     */
+    @Nullable
+    static List<String> extractTokens(@NonNull String urlFilter) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        boolean literalLeftBounded = true;
+        int depth = 0;
+        int length = urlFilter.length();
+        int i = urlFilter.startsWith("^") ? 1 : 0;
+
+        while (i < length) {
+            char c = urlFilter.charAt(i);
+
+            if (c == '(' && hasUnsupportedFlags(urlFilter, i)) {
+                return null;
+            }
+
+            if (depth > 0) {
+                // group contents could be optional or alternatives, so they are not used
+                if (c == '\\') {
+                    if (i + 1 < length && urlFilter.charAt(i + 1) == 'Q') {
+                        return null;
+                    }
+                    i += 2;
+                } else if (c == '[') {
+                    i = skipCharacterClass(urlFilter, i);
+                    if (i < 0) {
+                        return null;
+                    }
+                } else {
+                    if (c == '(') {
+                        depth++;
+                    } else if (c == ')') {
+                        depth--;
+                    }
+                    i++;
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '\\':
+                    if (i + 1 >= length) {
+                        return null;
+                    }
+                    char escaped = urlFilter.charAt(i + 1);
+                    if (Character.isLetterOrDigit(escaped)) {
+                        if (escaped == 'Q') {
+                            return null;
+                        }
+                        // character classes, boundaries and back references
+                        flushLiteral(tokens, literal, literalLeftBounded, false);
+                        literalLeftBounded = false;
+                    } else {
+                        literal.append(escaped);
+                    }
+                    i += 2;
+                    break;
+                case '[': {
+                    int end = skipCharacterClass(urlFilter, i);
+                    if (end < 0) {
+                        return null;
+                    }
+                    // a required class like [/:] is always a delimiter, so it bounds the tokens around it
+                    boolean isDelimiter = isDelimiterClass(urlFilter, i, end) &&
+                            (end >= length || "?*{".indexOf(urlFilter.charAt(end)) < 0);
+                    flushLiteral(tokens, literal, literalLeftBounded, isDelimiter);
+                    literalLeftBounded = isDelimiter;
+                    i = end;
+                    break;
+                }
+                case '(':
+                    flushLiteral(tokens, literal, literalLeftBounded, false);
+                    literalLeftBounded = false;
+                    depth++;
+                    i++;
+                    break;
+                case ')':
+                case '|':
+                    return null;
+                case '?':
+                case '*':
+                case '{':
+                    // the previous character may be missing from the URL
+                    if (literal.length() > 0) {
+                        literal.setLength(literal.length() - 1);
+                    }
+                    flushLiteral(tokens, literal, literalLeftBounded, false);
+                    literalLeftBounded = false;
+                    if (c == '{') {
+                        int end = urlFilter.indexOf('}', i);
+                        if (end < 0) {
+                            return null;
+                        }
+                        i = end + 1;
+                    } else {
+                        i++;
+                    }
+                    break;
+                case '+':
+                case '.':
+                case '^':
+                    flushLiteral(tokens, literal, literalLeftBounded, false);
+                    literalLeftBounded = false;
+                    i++;
+                    break;
+                case '$':
+                    flushLiteral(tokens, literal, literalLeftBounded, i == length - 1);
+                    literalLeftBounded = false;
+                    i++;
+                    break;
+                default:
+                    literal.append(c);
+                    i++;
+                    break;
+            }
+        }
+
+        if (depth != 0) {
+            return null;
+        }
+        flushLiteral(tokens, literal, literalLeftBounded, true);
+        return tokens;
+    }
+
+    private static void flushLiteral(@NonNull List<String> tokens, @NonNull StringBuilder literal,
+                                     boolean leftBounded, boolean rightBounded) {
+        int length = literal.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean isTokenChar = i < length && isTokenChar(literal.charAt(i));
+            if (isTokenChar && start < 0) {
+                start = i;
+            } else if (!isTokenChar && start >= 0) {
+                // a token touching an edge of the literal could continue in the URL
+                if ((start > 0 || leftBounded) && (i < length || rightBounded)) {
+                    tokens.add(toLowerCaseAscii(literal, start, i));
+                }
+                start = -1;
+            }
+        }
+        literal.setLength(0);
+    }
+
+    /**
+     * Returns true if the group starting at the given index is an inline flag group, like (?x) or (?s:,
+     * that sets a flag other than i.
+     */
+    private static boolean hasUnsupportedFlags(@NonNull String urlFilter, int start) {
+        int length = urlFilter.length();
+        int i = start + 1;
+        if (i >= length || urlFilter.charAt(i) != '?') {
+            return false;
+        }
+        i++;
+        int flagsStart = i;
+        while (i < length) {
+            char c = urlFilter.charAt(i);
+            if (c == ')' || c == ':') {
+                break;
+            }
+            if (!(c == '-' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) {
+                // lookarounds and named groups
+                return false;
+            }
+            i++;
+        }
+        if (i >= length) {
+            return false;
+        }
+        String flags = urlFilter.substring(flagsStart, i);
+        return !flags.isEmpty() && !flags.equals("i");
+    }
+
+    private static int skipCharacterClass(@NonNull String urlFilter, int start) {
+        int length = urlFilter.length();
+        int i = start + 1;
+        if (i < length && urlFilter.charAt(i) == '^') {
+            i++;
+        }
+        // a leading ']' is a literal
+        if (i < length && urlFilter.charAt(i) == ']') {
+            i++;
+        }
+        int depth = 1;
+        while (i < length) {
+            char c = urlFilter.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static boolean isDelimiterClass(@NonNull String urlFilter, int start, int end) {
+        if (urlFilter.charAt(start + 1) == '^') {
+            return false;
+        }
+        for (int i = start + 1; i < end - 1; i++) {
+            char c = urlFilter.charAt(i);
+            if (c == '\\') {
+                i++;
+                if (i < end - 1 && Character.isLetterOrDigit(urlFilter.charAt(i))) {
+                    return false;
+                }
+            } else if (c == '-' || c == '[' || c == '&' || isTokenChar(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isTokenChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    @NonNull
+    private static String toLowerCaseAscii(@NonNull CharSequence s, int start, int end) {
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            chars[i - start] = (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+        }
+        return new String(chars);
+    }
+
+    @NonNull
+    private static int[] toIntArray(@NonNull List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
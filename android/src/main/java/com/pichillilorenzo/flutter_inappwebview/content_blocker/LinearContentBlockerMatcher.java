@@ -0,0 +1,31 @@
+package com.pichillilorenzo.flutter_inappwebview.content_blocker;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Returns every rule as a candidate, so each url-filter regex is run against each URL.
+ */
+public class LinearContentBlockerMatcher implements ContentBlockerMatcher {
+    @NonNull
+    private final List<ContentBlocker> ruleList;
+
+    public LinearContentBlockerMatcher(@NonNull List<ContentBlocker> ruleList) {
+        this.ruleList = Collections.unmodifiableList(new ArrayList<>(ruleList));
+    }
+
+    @NonNull
+    @Override
+    public List<ContentBlocker> getCandidates(@NonNull String url) {
+        return ruleList;
+    }
+
+    @NonNull
+    @Override
+    public List<ContentBlocker> getRuleList() {
+        return ruleList;
+    }
+}
@@ -0,0 +1,306 @@
+package com.pichillilorenzo.flutter_inappwebview.content_blocker;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Infers the resource type of a request without loading it, trying in order:
+ * the Accept request header, the file extension of the URL path, the content types already seen
+ * for the same host and path, then for the same host and directory, and, only if enabled, an HTTP HEAD request.
+ *
+ * The content types are remembered from the responses the plugin sees: the network responses it loads itself,
+ * the MAKE_HTTPS responses and the responses answered by the Dart side.
+ * The directory entries let a URL never seen before, like a new image of the same CDN folder, hit the cache.
+ */
+public class ResourceTypeInference {
+    protected static final String LOG_TAG = "ResourceTypeInference";
+
+    public static final int MAX_CACHE_SIZE = 512;
+
+    private static final Map<String, ContentBlockerTriggerResourceType> EXTENSION_RESOURCE_TYPES = new HashMap<>();
+
+    static {
+        EXTENSION_RESOURCE_TYPES.put("html", ContentBlockerTriggerResourceType.DOCUMENT);
+        EXTENSION_RESOURCE_TYPES.put("htm", ContentBlockerTriggerResourceType.DOCUMENT);
+        EXTENSION_RESOURCE_TYPES.put("css", ContentBlockerTriggerResourceType.STYLE_SHEET);
+        EXTENSION_RESOURCE_TYPES.put("js", ContentBlockerTriggerResourceType.SCRIPT);
+        EXTENSION_RESOURCE_TYPES.put("mjs", ContentBlockerTriggerResourceType.SCRIPT);
+        EXTENSION_RESOURCE_TYPES.put("svg", ContentBlockerTriggerResourceType.SVG_DOCUMENT);
+        for (String extension : new String[]{"png", "jpg", "jpeg", "gif", "webp", "avif", "bmp", "ico"}) {
+            EXTENSION_RESOURCE_TYPES.put(extension, ContentBlockerTriggerResourceType.IMAGE);
+        }
+        for (String extension : new String[]{"woff", "woff2", "ttf", "otf", "eot"}) {
+            EXTENSION_RESOURCE_TYPES.put(extension, ContentBlockerTriggerResourceType.FONT);
+        }
+        for (String extension : new String[]{"mp3", "mp4", "m4a", "m4v", "webm", "ogg", "oga", "ogv", "wav", "m3u8", "mpd"}) {
+            EXTENSION_RESOURCE_TYPES.put(extension, ContentBlockerTriggerResourceType.MEDIA);
+        }
+    }
+
+    private final LinkedHashMap<String, ContentBlockerTriggerResourceType> cache =
+            new LinkedHashMap<String, ContentBlockerTriggerResourceType>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ContentBlockerTriggerResourceType> eldest) {
+                    return size() > MAX_CACHE_SIZE;
+                }
+            };
+
+    private final AtomicLong acceptHeaderCount = new AtomicLong();
+    private final AtomicLong extensionCount = new AtomicLong();
+    private final AtomicLong cacheCount = new AtomicLong();
+    private final AtomicLong headRequestCount = new AtomicLong();
+    private final AtomicLong unresolvedCount = new AtomicLong();
+
+    /**
+     * @param requestHeaders the headers of the WebResourceRequest, if available.
+     * @param httpClient     the client used for the HEAD request, or null to not make it.
+     */
+    @NonNull
+    public ContentBlockerTriggerResourceType infer(@NonNull String url, @Nullable Map<String, String> requestHeaders,
+                                                   @Nullable OkHttpClient httpClient) {
+        ContentBlockerTriggerResourceType resourceType = fromAcceptHeader(requestHeaders);
+        if (resourceType != null) {
+            acceptHeaderCount.incrementAndGet();
+            return resourceType;
+        }
+
+        String cacheKey = getCacheKey(url);
+        resourceType = fromExtension(cacheKey);
+        if (resourceType != null) {
+            extensionCount.incrementAndGet();
+            return resourceType;
+        }
+
+        if (cacheKey != null) {
+            synchronized (cache) {
+                resourceType = cache.get(cacheKey);
+                String directoryKey = getDirectoryKey(cacheKey);
+                if (resourceType == null && directoryKey != null) {
+                    resourceType = cache.get(directoryKey);
+                }
+            }
+            if (resourceType != null) {
+                cacheCount.incrementAndGet();
+                return resourceType;
+            }
+        }
+
+        if (httpClient != null && (url.startsWith("http://") || url.startsWith("https://"))) {
+            String contentType = headContentType(url, httpClient);
+            if (contentType != null) {
+                headRequestCount.incrementAndGet();
+                resourceType = fromContentType(contentType);
+                put(url, resourceType);
+                return resourceType;
+            }
+        }
+
+        unresolvedCount.incrementAndGet();
+        return ContentBlockerTriggerResourceType.RAW;
+    }
+
+    /**
+     * Remembers the resource type of a response whose content type is known.
+     * Documents and RAW responses are only remembered for their own URL: pages and API endpoints share their directories
+     * with every other resource type, while the subresource types, like images, usually have a directory of their own.
+     */
+    public void put(@NonNull String url, @NonNull ContentBlockerTriggerResourceType resourceType) {
+        String cacheKey = getCacheKey(url);
+        if (cacheKey != null) {
+            synchronized (cache) {
+                cache.put(cacheKey, resourceType);
+                String directoryKey = getDirectoryKey(cacheKey);
+                if (directoryKey != null && resourceType != ContentBlockerTriggerResourceType.RAW &&
+                        resourceType != ContentBlockerTriggerResourceType.DOCUMENT) {
+                    cache.put(directoryKey, resourceType);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remembers the resource type of a response from its Content-Type header, parameters included.
+     */
+    public void putContentType(@NonNull String url, @Nullable String contentType) {
+        if (contentType == null) {
+            return;
+        }
+        int parameters = contentType.indexOf(';');
+        String mediaType = (parameters >= 0 ? contentType.substring(0, parameters) : contentType).trim().toLowerCase();
+        if (!mediaType.isEmpty()) {
+            put(url, fromContentType(mediaType));
+        }
+    }
+
+    public void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        int cacheSize;
+        synchronized (cache) {
+            cacheSize = cache.size();
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("acceptHeaderCount", acceptHeaderCount.get());
+        stats.put("extensionCount", extensionCount.get());
+        stats.put("cacheCount", cacheCount.get());
+        stats.put("headRequestCount", headRequestCount.get());
+        stats.put("unresolvedCount", unresolvedCount.get());
+        stats.put("cacheSize", cacheSize);
+        return stats;
+    }
+
+    public void resetStats() {
+        acceptHeaderCount.set(0);
+        extensionCount.set(0);
+        cacheCount.set(0);
+        headRequestCount.set(0);
+        unresolvedCount.set(0);
+    }
+
+    @NonNull
+    public static ContentBlockerTriggerResourceType fromContentType(@NonNull String contentType) {
+        ContentBlockerTriggerResourceType responseResourceType = ContentBlockerTriggerResourceType.RAW;
+
+        // https://developer.mozilla.org/en-US/docs/Web/HTTP/Basics_of_HTTP/MIME_types
+        if (contentType.equals("text/css")) {
+            responseResourceType = ContentBlockerTriggerResourceType.STYLE_SHEET;
+        } else if (contentType.equals("image/svg+xml")) {
+            responseResourceType = ContentBlockerTriggerResourceType.SVG_DOCUMENT;
+        } else if (contentType.startsWith("image/")) {
+            responseResourceType = ContentBlockerTriggerResourceType.IMAGE;
+        } else if (contentType.startsWith("font/")) {
+            responseResourceType = ContentBlockerTriggerResourceType.FONT;
+        } else if (contentType.startsWith("audio/") || contentType.startsWith("video/") || contentType.equals("application/ogg")) {
+            responseResourceType = ContentBlockerTriggerResourceType.MEDIA;
+        } else if (contentType.endsWith("javascript")) {
+            responseResourceType = ContentBlockerTriggerResourceType.SCRIPT;
+        } else if (contentType.startsWith("text/")) {
+            responseResourceType = ContentBlockerTriggerResourceType.DOCUMENT;
+        }
+
+        return responseResourceType;
+    }
+
+    /**
+     * Uses the first media type of the Accept header, because the WebView puts the expected type first,
+     * for example "text/css" for style sheets. Scripts and fonts are usually requested with a wildcard only.
+     */
+    @Nullable
+    static ContentBlockerTriggerResourceType fromAcceptHeader(@Nullable Map<String, String> requestHeaders) {
+        if (requestHeaders == null) {
+            return null;
+        }
+        String accept = null;
+        for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+            if ("accept".equalsIgnoreCase(header.getKey())) {
+                accept = header.getValue();
+                break;
+            }
+        }
+        if (accept == null) {
+            return null;
+        }
+        int end = accept.indexOf(',');
+        String mediaType = (end >= 0 ? accept.substring(0, end) : accept);
+        int parameters = mediaType.indexOf(';');
+        if (parameters >= 0) {
+            mediaType = mediaType.substring(0, parameters);
+        }
+        mediaType = mediaType.trim().toLowerCase();
+        if (mediaType.isEmpty() || mediaType.startsWith("*/")) {
+            return null;
+        }
+        if (mediaType.equals("image/*")) {
+            return ContentBlockerTriggerResourceType.IMAGE;
+        }
+        if (mediaType.equals("text/html") || mediaType.equals("application/xhtml+xml")) {
+            return ContentBlockerTriggerResourceType.DOCUMENT;
+        }
+        ContentBlockerTriggerResourceType resourceType = fromContentType(mediaType);
+        return resourceType != ContentBlockerTriggerResourceType.RAW ? resourceType : null;
+    }
+
+    @Nullable
+    static ContentBlockerTriggerResourceType fromExtension(@Nullable String cacheKey) {
+        if (cacheKey == null) {
+            return null;
+        }
+        int slash = cacheKey.lastIndexOf('/');
+        int dot = cacheKey.lastIndexOf('.');
+        if (dot <= slash || dot == cacheKey.length() - 1) {
+            return null;
+        }
+        return EXTENSION_RESOURCE_TYPES.get(cacheKey.substring(dot + 1).toLowerCase());
+    }
+
+    /**
+     * Returns the URL without the scheme, the query and the fragment, that is, the host and the path.
+     */
+    @Nullable
+    static String getCacheKey(@NonNull String url) {
+        int start = url.indexOf("://");
+        if (start < 0) {
+            return null;
+        }
+        start += 3;
+        int end = url.length();
+        int query = url.indexOf('?', start);
+        if (query >= 0) {
+            end = query;
+        }
+        int fragment = url.indexOf('#', start);
+        if (fragment >= 0 && fragment < end) {
+            end = fragment;
+        }
+        return url.substring(start, end);
+    }
+
+    /**
+     * Returns the host and the directory of a cache key, like "cdn.example.com/img/*", or null for the root directory,
+     * because a host alone usually serves every resource type.
+     * The trailing "*" keeps it distinct from the exact key of the directory URL itself.
+     */
+    @Nullable
+    static String getDirectoryKey(@NonNull String cacheKey) {
+        int slash = cacheKey.lastIndexOf('/');
+        if (slash < 0 || slash == cacheKey.indexOf('/')) {
+            return null;
+        }
+        return cacheKey.substring(0, slash + 1) + "*";
+    }
+
+    @Nullable
+    private static String headContentType(@NonNull String url, @NonNull OkHttpClient httpClient) {
+        // make an HTTP "HEAD" request to the server for that URL. This will not return the full content of the URL.
+        Request mRequest = new Request.Builder().url(url).head().build();
+        Response response = null;
+        try {
+            response = httpClient.newCall(mRequest).execute();
+            String contentType = response.header("content-type");
+            return contentType != null ? contentType.split(";")[0].trim().toLowerCase() : null;
+        } catch (Exception e) {
+            e.printStackTrace();
+            Log.e(LOG_TAG, e.getMessage() != null ? e.getMessage() : e.toString());
+        } finally {
+            if (response != null) {
+                response.close();
+            }
+        }
+        return null;
+    }
+}
@@ -1,12 +1,23 @@
 package com.pichillilorenzo.flutter_inappwebview.credential_database;
 
 import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Handler;
+import android.os.Looper;
+import android.webkit.ValueCallback;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.pichillilorenzo.flutter_inappwebview.types.URLCredential;
 import com.pichillilorenzo.flutter_inappwebview.types.URLProtectionSpace;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class CredentialDatabase {
 
@@ -14,13 +25,21 @@ public class CredentialDatabase {
   static final String LOG_TAG = "CredentialDatabase";
 
   // If you change the database schema, you must increment the database version.
-  public static final int DATABASE_VERSION = 2;
+  public static final int DATABASE_VERSION = 3;
   public static final String DATABASE_NAME = "CredentialDatabase.db";
 
   public URLProtectionSpaceDao protectionSpaceDao;
   public URLCredentialDao credentialDao;
   public CredentialDatabaseHelper db;
 
+  // all the database I/O goes through this single thread, so the reads and the writes never run concurrently
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
+  // credentials by protection space, including the protection spaces without any credential
+  private final Map<String, List<URLCredential>> credentialsCache = new HashMap<>();
+  private long cacheHitCount = 0;
+  private long cacheMissCount = 0;
+
   private CredentialDatabase() {}
 
   private CredentialDatabase(CredentialDatabaseHelper db, URLProtectionSpaceDao protectionSpaceDao, URLCredentialDao credentialDao) {
@@ -37,17 +56,81 @@ public class CredentialDatabase {
     return instance;
   }
 
+  /**
+   * Runs the task on the database thread.
+   */
+  public void execute(@NonNull Runnable task) {
+    executor.execute(task);
+  }
+
+  /**
+   * Returns a copy of the cached list of credentials, so the caller can change it.
+   */
   public List<URLCredential> getHttpAuthCredentials(String host, String protocol, String realm, Integer port) {
+    String key = getCacheKey(host, protocol, realm, port);
+    synchronized (credentialsCache) {
+      List<URLCredential> credentials = credentialsCache.get(key);
+      if (credentials != null) {
+        cacheHitCount++;
+        return new ArrayList<>(credentials);
+      }
+      cacheMissCount++;
+    }
+
     List<URLCredential> credentials = new ArrayList<>();
     URLProtectionSpace protectionSpace = protectionSpaceDao.find(host, protocol, realm, port);
     if (protectionSpace != null) {
       credentials = credentialDao.getAllByProtectionSpaceId(protectionSpace.getId());
     }
+    synchronized (credentialsCache) {
+      credentialsCache.put(key, new ArrayList<>(credentials));
+    }
     return credentials;
   }
 
+  /**
+   * Same as getHttpAuthCredentials(), but the database is read on the database thread.
+   * The callback is called on the main thread, right away if the credentials are cached.
+   */
+  public void getHttpAuthCredentials(final String host, final String protocol, final String realm, final Integer port,
+                                     @NonNull final ValueCallback<List<URLCredential>> callback) {
+    List<URLCredential> cachedCredentials = getCachedHttpAuthCredentials(host, protocol, realm, port);
+    if (cachedCredentials != null && Looper.myLooper() == Looper.getMainLooper()) {
+      callback.onReceiveValue(cachedCredentials);
+      return;
+    }
+
+    execute(new Runnable() {
+      @Override
+      public void run() {
+        final List<URLCredential> credentials = getHttpAuthCredentials(host, protocol, realm, port);
+        mainHandler.post(new Runnable() {
+          @Override
+          public void run() {
+            callback.onReceiveValue(credentials);
+          }
+        });
+      }
+    });
+  }
+
+  @Nullable
+  private List<URLCredential> getCachedHttpAuthCredentials(String host, String protocol, String realm, Integer port) {
+    synchronized (credentialsCache) {
+      List<URLCredential> credentials = credentialsCache.get(getCacheKey(host, protocol, realm, port));
+      if (credentials != null) {
+        cacheHitCount++;
+        return new ArrayList<>(credentials);
+      }
+      return null;
+    }
+  }
+
   public void clearAllAuthCredentials() {
     db.clearAllTables(db.getWritableDatabase());
+    synchronized (credentialsCache) {
+      credentialsCache.clear();
+    }
   }
 
   public void removeHttpAuthCredentials(String host, String protocol, String realm, Integer port) {
@@ -55,17 +138,59 @@ public class CredentialDatabase {
     if (URLProtectionSpace != null) {
       protectionSpaceDao.delete(URLProtectionSpace);
     }
+    invalidate(host, protocol, realm, port);
   }
 
   public void removeHttpAuthCredential(String host, String protocol, String realm, Integer port, String username, String password) {
     URLProtectionSpace protectionSpace = protectionSpaceDao.find(host, protocol, realm, port);
     if (protectionSpace != null) {
       URLCredential credential = credentialDao.find(username, password, protectionSpace.getId());
-      credentialDao.delete(credential);
+      if (credential != null) {
+        credentialDao.delete(credential);
+      }
     }
+    invalidate(host, protocol, realm, port);
   }
 
   public void setHttpAuthCredential(String host, String protocol, String realm, Integer port, String username, String password) {
+    SQLiteDatabase writableDatabase = db.getWritableDatabase();
+    // the lookups and the writes are committed together
+    writableDatabase.beginTransaction();
+    try {
+      insertOrUpdateHttpAuthCredential(host, protocol, realm, port, username, password);
+      writableDatabase.setTransactionSuccessful();
+    } finally {
+      writableDatabase.endTransaction();
+      invalidate(host, protocol, realm, port);
+    }
+  }
+
+  /**
+   * Saves all the credentials with a single transaction.
+   * Each map contains the host, protocol, realm, port, username and password keys.
+   */
+  public void setHttpAuthCredentials(@NonNull List<Map<String, Object>> credentials) {
+    SQLiteDatabase writableDatabase = db.getWritableDatabase();
+    writableDatabase.beginTransaction();
+    try {
+      for (Map<String, Object> credential : credentials) {
+        insertOrUpdateHttpAuthCredential((String) credential.get("host"),
+                (String) credential.get("protocol"),
+                (String) credential.get("realm"),
+                (Integer) credential.get("port"),
+                (String) credential.get("username"),
+                (String) credential.get("password"));
+      }
+      writableDatabase.setTransactionSuccessful();
+    } finally {
+      writableDatabase.endTransaction();
+      synchronized (credentialsCache) {
+        credentialsCache.clear();
+      }
+    }
+  }
+
+  private void insertOrUpdateHttpAuthCredential(String host, String protocol, String realm, Integer port, String username, String password) {
     URLProtectionSpace protectionSpace = protectionSpaceDao.find(host, protocol, realm, port);
     Long protectionSpaceId;
     if (protectionSpace == null) {
@@ -92,4 +217,24 @@ public class CredentialDatabase {
       credential.setId(credentialDao.insert(credential));
     }
   }
-}
\ No newline at end of file
+
+  private void invalidate(String host, String protocol, String realm, Integer port) {
+    synchronized (credentialsCache) {
+      credentialsCache.remove(getCacheKey(host, protocol, realm, port));
+    }
+  }
+
+  private static String getCacheKey(String host, String protocol, String realm, Integer port) {
+    return host + "\n" + protocol + "\n" + realm + "\n" + port;
+  }
+
+  public Map<String, Object> getCacheStats() {
+    Map<String, Object> stats = new HashMap<>();
+    synchronized (credentialsCache) {
+      stats.put("size", credentialsCache.size());
+      stats.put("hitCount", cacheHitCount);
+      stats.put("missCount", cacheMissCount);
+    }
+    return stats;
+  }
+}
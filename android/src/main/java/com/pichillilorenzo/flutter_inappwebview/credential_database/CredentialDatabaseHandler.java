@@ -1,6 +1,9 @@
 package com.pichillilorenzo.flutter_inappwebview.credential_database;
 
+import android.database.sqlite.SQLiteException;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.webkit.WebViewDatabase;
 
 import androidx.annotation.NonNull;
@@ -23,11 +26,13 @@ import io.flutter.plugin.common.MethodChannel;
 public class CredentialDatabaseHandler implements MethodChannel.MethodCallHandler {
 
   static final String LOG_TAG = "CredentialDatabaseHandler";
+  private static final Object NOT_IMPLEMENTED = new Object();
 
   public MethodChannel channel;
   public static CredentialDatabase credentialDatabase;
   @Nullable
   public InAppWebViewFlutterPlugin plugin;
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
   public CredentialDatabaseHandler(final InAppWebViewFlutterPlugin plugin) {
     this.plugin = plugin;
@@ -37,7 +42,42 @@ public class CredentialDatabaseHandler implements MethodChannel.MethodCallHandle
   }
 
   @Override
-  public void onMethodCall(MethodCall call, @NonNull MethodChannel.Result result) {
+  public void onMethodCall(final MethodCall call, @NonNull final MethodChannel.Result result) {
+    // the database is only used from its own thread, and the result is sent back from the main thread
+    credentialDatabase.execute(new Runnable() {
+      @Override
+      public void run() {
+        Object value;
+        try {
+          value = handleMethodCall(call);
+        } catch (final SQLiteException e) {
+          mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+              result.error(LOG_TAG, e.getMessage(), null);
+            }
+          });
+          return;
+        }
+        final Object finalValue = value;
+        mainHandler.post(new Runnable() {
+          @Override
+          public void run() {
+            if (finalValue == NOT_IMPLEMENTED) {
+              result.notImplemented();
+              return;
+            }
+            if (call.method.equals("clearAllAuthCredentials") && plugin != null && plugin.applicationContext != null) {
+              WebViewDatabase.getInstance(plugin.applicationContext).clearHttpAuthUsernamePassword();
+            }
+            result.success(finalValue);
+          }
+        });
+      }
+    });
+  }
+
+  private Object handleMethodCall(MethodCall call) {
     switch (call.method) {
       case "getAllAuthCredentials":
         {
@@ -53,9 +93,8 @@ public class CredentialDatabaseHandler implements MethodChannel.MethodCallHandle
             obj.put("credentials", credentials);
             allCredentials.add(obj);
           }
-          result.success(allCredentials);
+          return allCredentials;
         }
-        break;
       case "getHttpAuthCredentials":
         {
           String host = (String) call.argument("host");
@@ -67,9 +106,8 @@ public class CredentialDatabaseHandler implements MethodChannel.MethodCallHandle
           for (URLCredential credential : credentialDatabase.getHttpAuthCredentials(host, protocol, realm, port)) {
             credentials.add(credential.toMap());
           }
-          result.success(credentials);
+          return credentials;
         }
-        break;
       case "setHttpAuthCredential":
         {
           String host = (String) call.argument("host");
@@ -81,9 +119,16 @@ public class CredentialDatabaseHandler implements MethodChannel.MethodCallHandle
 
           credentialDatabase.setHttpAuthCredential(host, protocol, realm, port, username, password);
 
-          result.success(true);
+          return true;
+        }
+      case "setHttpAuthCredentials":
+        {
+          List<Map<String, Object>> credentials = (List<Map<String, Object>>) call.argument("credentials");
+          if (credentials != null) {
+            credentialDatabase.setHttpAuthCredentials(credentials);
+          }
+          return true;
         }
-        break;
       case "removeHttpAuthCredential":
         {
           String host = (String) call.argument("host");
@@ -95,9 +140,8 @@ public class CredentialDatabaseHandler implements MethodChannel.MethodCallHandle
 
           credentialDatabase.removeHttpAuthCredential(host, protocol, realm, port, username, password);
 
-          result.success(true);
+          return true;
         }
-        break;
       case "removeHttpAuthCredentials":
         {
           String host = (String) call.argument("host");
@@ -107,18 +151,15 @@ public class CredentialDatabaseHandler implements MethodChannel.MethodCallHandle
 
           credentialDatabase.removeHttpAuthCredentials(host, protocol, realm, port);
 
-          result.success(true);
+          return true;
         }
-        break;
       case "clearAllAuthCredentials":
         credentialDatabase.clearAllAuthCredentials();
-        if (plugin != null && plugin.applicationContext != null) {
-          WebViewDatabase.getInstance(plugin.applicationContext).clearHttpAuthUsernamePassword();
-        }
-        result.success(true);
-        break;
+        return true;
+      case "getCacheStats":
+        return credentialDatabase.getCacheStats();
       default:
-        result.notImplemented();
+        return NOT_IMPLEMENTED;
     }
   }
 
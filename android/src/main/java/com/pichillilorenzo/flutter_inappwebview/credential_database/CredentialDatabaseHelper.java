@@ -31,6 +31,16 @@ public class CredentialDatabaseHelper extends SQLiteOpenHelper {
                   URLProtectionSpaceContract.FeedEntry.TABLE_NAME + " (" + URLProtectionSpaceContract.FeedEntry._ID + ") ON DELETE CASCADE" +
           ");";
 
+  // covers the lookups of the credentials of a protection space, which the UNIQUE constraint can't serve
+  // because it starts with the username
+  private static final String SQL_CREATE_CREDENTIAL_PROTECTION_SPACE_ID_INDEX =
+          "CREATE INDEX IF NOT EXISTS " + URLCredentialContract.FeedEntry.INDEX_NAME_PROTECTION_SPACE_ID + " ON " +
+                  URLCredentialContract.FeedEntry.TABLE_NAME + " (" +
+                  URLCredentialContract.FeedEntry.COLUMN_NAME_PROTECTION_SPACE_ID + ", " +
+                  URLCredentialContract.FeedEntry.COLUMN_NAME_USERNAME + ", " +
+                  URLCredentialContract.FeedEntry.COLUMN_NAME_PASSWORD +
+          ");";
+
   private static final String SQL_DELETE_PROTECTION_SPACE_TABLE =
           "DROP TABLE IF EXISTS " + URLProtectionSpaceContract.FeedEntry.TABLE_NAME;
 
@@ -44,9 +54,15 @@ public class CredentialDatabaseHelper extends SQLiteOpenHelper {
   public void onCreate(SQLiteDatabase db) {
     db.execSQL(SQL_CREATE_PROTECTION_SPACE_TABLE);
     db.execSQL(SQL_CREATE_CREDENTIAL_TABLE);
+    db.execSQL(SQL_CREATE_CREDENTIAL_PROTECTION_SPACE_ID_INDEX);
   }
 
   public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+    if (oldVersion == 2 && newVersion == 3) {
+      // version 3 only adds an index, so the saved credentials are kept
+      db.execSQL(SQL_CREATE_CREDENTIAL_PROTECTION_SPACE_ID_INDEX);
+      return;
+    }
     // This database is only a cache for online data, so its upgrade policy is
     // to simply to discard the data and start over
     db.execSQL(SQL_DELETE_PROTECTION_SPACE_TABLE);
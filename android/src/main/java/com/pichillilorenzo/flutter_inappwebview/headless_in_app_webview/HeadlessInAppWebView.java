@@ -28,11 +28,26 @@ public class HeadlessInAppWebView implements MethodChannel.MethodCallHandler {
   public FlutterWebView flutterWebView;
   @Nullable
   public InAppWebViewFlutterPlugin plugin;
+  // used by the HeadlessInAppWebViewManager while the WebView waits for a free slot
+  @NonNull
+  public final HashMap<String, Object> params;
+  public final int priority;
+  public final long sequence;
+  public final long queuedAtNanos = System.nanoTime();
+  public long startedAtNanos = 0;
+  @Nullable
+  public Runnable timeoutTask;
+  // set by setSize while the WebView is queued, it replaces the initial size once it is created
+  @Nullable
+  private Size2D pendingSize;
 
-  public HeadlessInAppWebView(@NonNull final InAppWebViewFlutterPlugin plugin, @NonNull String id, @NonNull FlutterWebView flutterWebView) {
+  public HeadlessInAppWebView(@NonNull final InAppWebViewFlutterPlugin plugin, @NonNull String id,
+                              @NonNull HashMap<String, Object> params, int priority, long sequence) {
     this.id = id;
     this.plugin = plugin;
-    this.flutterWebView = flutterWebView;
+    this.params = params;
+    this.priority = priority;
+    this.sequence = sequence;
     this.channel = new MethodChannel(plugin.messenger, "com.pichillilorenzo/flutter_headless_inappwebview_" + id);
     channel.setMethodCallHandler(this);
   }
@@ -69,6 +84,11 @@ public class HeadlessInAppWebView implements MethodChannel.MethodCallHandler {
     channel.invokeMethod("onWebViewCreated", obj);
   }
 
+  public void onRunTimeout() {
+    Map<String, Object> obj = new HashMap<>();
+    channel.invokeMethod("onRunTimeout", obj);
+  }
+
   public void prepare(Map<String, Object> params) {
     if (plugin != null && plugin.activity != null) {
       // Add the headless WebView to the view hierarchy.
@@ -79,7 +99,8 @@ public class HeadlessInAppWebView implements MethodChannel.MethodCallHandler {
         if (mainView != null && flutterWebView != null) {
           View view = flutterWebView.getView();
           final Map<String, Object> initialSize = (Map<String, Object>) params.get("initialSize");
-          Size2D size = Size2D.fromMap(initialSize);
+          Size2D size = pendingSize != null ? pendingSize : Size2D.fromMap(initialSize);
+          pendingSize = null;
           if (size != null) {
             setSize(size);
           } else {
@@ -97,6 +118,8 @@ public class HeadlessInAppWebView implements MethodChannel.MethodCallHandler {
       View view = flutterWebView.getView();
       float scale = Util.getPixelDensity(view.getContext());
       view.setLayoutParams(new FrameLayout.LayoutParams((int) (size.getWidth() * scale), (int) (size.getHeight() * scale)));
+    } else if (startedAtNanos == 0) {
+      pendingSize = size;
     }
   }
 
@@ -108,14 +131,12 @@ public class HeadlessInAppWebView implements MethodChannel.MethodCallHandler {
       ViewGroup.LayoutParams layoutParams = view.getLayoutParams();
       return new Size2D(layoutParams.width / scale, layoutParams.height / scale);
     }
-    return null;
+    return pendingSize;
   }
 
   public void dispose() {
     channel.setMethodCallHandler(null);
-    if (HeadlessInAppWebViewManager.webViews.containsKey(id)) {
-      HeadlessInAppWebViewManager.webViews.put(id, null);
-    }
+    HeadlessInAppWebViewManager manager = plugin != null ? plugin.headlessInAppWebViewManager : null;
     if (plugin != null && plugin.activity != null) {
       ViewGroup contentView = (ViewGroup) plugin.activity.findViewById(android.R.id.content);
       if (contentView != null) {
@@ -130,5 +151,11 @@ public class HeadlessInAppWebView implements MethodChannel.MethodCallHandler {
     }
     flutterWebView = null;
     plugin = null;
+    // it can start the next queued WebView, so it's called once this one is gone
+    if (manager != null) {
+      manager.onDisposed(this);
+    } else {
+      HeadlessInAppWebViewManager.webViews.remove(id);
+    }
   }
 }
@@ -21,20 +21,38 @@
 
 package com.pichillilorenzo.flutter_inappwebview.headless_in_app_webview;
 
+import android.app.ActivityManager;
+import android.content.Context;
+import android.os.Debug;
+import android.os.Handler;
+import android.os.Looper;
+
 import androidx.annotation.Nullable;
 
 import com.pichillilorenzo.flutter_inappwebview.InAppWebViewFlutterPlugin;
 import com.pichillilorenzo.flutter_inappwebview.in_app_webview.FlutterWebView;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
 
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.MethodChannel.Result;
 
+/**
+ * Runs the headless WebViews requested by Dart.
+ *
+ * When a maximum number of concurrent WebViews is set, the WebViews requested beyond it wait in a queue
+ * ordered by priority, then by request order, and are started as soon as a running one is disposed.
+ * A WebView can also be given a timeout, after which it is disposed even if it is still queued.
+ */
 public class HeadlessInAppWebViewManager implements MethodChannel.MethodCallHandler {
 
   protected static final String LOG_TAG = "HeadlessInAppWebViewManager";
@@ -43,6 +61,33 @@ public class HeadlessInAppWebViewManager implements MethodChannel.MethodCallHand
   @Nullable
   public InAppWebViewFlutterPlugin plugin;
 
+  private final PriorityQueue<HeadlessInAppWebView> pendingWebViews = new PriorityQueue<>(11, new Comparator<HeadlessInAppWebView>() {
+    @Override
+    public int compare(HeadlessInAppWebView a, HeadlessInAppWebView b) {
+      if (a.priority != b.priority) {
+        return a.priority > b.priority ? -1 : 1;
+      }
+      return a.sequence < b.sequence ? -1 : (a.sequence == b.sequence ? 0 : 1);
+    }
+  });
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  // 0 means no limit
+  private int maxConcurrentWebViews = 0;
+  @Nullable
+  private Long defaultTimeout;
+  private int runningCount = 0;
+  private long sequence = 0;
+
+  private long queuedCount = 0;
+  private long startedCount = 0;
+  private long finishedCount = 0;
+  private long timedOutCount = 0;
+  private int maxQueueDepth = 0;
+  private long totalQueueWaitNanos = 0;
+  private long totalRunNanos = 0;
+  // finish times of the last minute, used for the throughput
+  private final ArrayDeque<Long> recentFinishNanos = new ArrayDeque<>();
+
   public HeadlessInAppWebViewManager(final InAppWebViewFlutterPlugin plugin) {
     this.plugin = plugin;
     channel = new MethodChannel(plugin.messenger, "com.pichillilorenzo/flutter_headless_inappwebview");
@@ -57,30 +102,157 @@ public class HeadlessInAppWebViewManager implements MethodChannel.MethodCallHand
       case "run":
         {
           HashMap<String, Object> params = (HashMap<String, Object>) call.argument("params");
-          run(id, params);
+          Integer priority = (Integer) call.argument("priority");
+          Number timeout = (Number) call.argument("timeout");
+          run(id, params, priority != null ? priority : 0, timeout != null ? timeout.longValue() : defaultTimeout);
+        }
+        result.success(true);
+        break;
+      case "configureRunQueue":
+        {
+          Integer maxConcurrentWebViews = (Integer) call.argument("maxConcurrentWebViews");
+          Number defaultTimeout = (Number) call.argument("defaultTimeout");
+          configureRunQueue(maxConcurrentWebViews != null ? maxConcurrentWebViews : 0,
+                  defaultTimeout != null ? defaultTimeout.longValue() : null);
         }
         result.success(true);
         break;
+      case "getRunQueueStats":
+        result.success(getRunQueueStats());
+        break;
       default:
         result.notImplemented();
     }
   }
 
-  public void run(String id, HashMap<String, Object> params) {
+  public void run(String id, HashMap<String, Object> params, int priority, @Nullable Long timeout) {
     if (plugin == null || plugin.activity == null) return;
 
-    FlutterWebView flutterWebView = new FlutterWebView(plugin, plugin.activity, id, params);
-    HeadlessInAppWebView headlessInAppWebView = new HeadlessInAppWebView(plugin, id, flutterWebView);
+    final HeadlessInAppWebView headlessInAppWebView = new HeadlessInAppWebView(plugin, id, params, priority, sequence++);
     HeadlessInAppWebViewManager.webViews.put(id, headlessInAppWebView);
-    
+
+    if (timeout != null && timeout > 0) {
+      headlessInAppWebView.timeoutTask = new Runnable() {
+        @Override
+        public void run() {
+          if (webViews.get(headlessInAppWebView.id) == headlessInAppWebView) {
+            timedOutCount++;
+            headlessInAppWebView.onRunTimeout();
+            headlessInAppWebView.dispose();
+          }
+        }
+      };
+      handler.postDelayed(headlessInAppWebView.timeoutTask, timeout);
+    }
+
+    if (maxConcurrentWebViews > 0 && runningCount >= maxConcurrentWebViews) {
+      pendingWebViews.add(headlessInAppWebView);
+      queuedCount++;
+      maxQueueDepth = Math.max(maxQueueDepth, pendingWebViews.size());
+    } else {
+      start(headlessInAppWebView);
+    }
+  }
+
+  private void start(HeadlessInAppWebView headlessInAppWebView) {
+    if (plugin == null || plugin.activity == null) return;
+
+    headlessInAppWebView.startedAtNanos = System.nanoTime();
+    runningCount++;
+    startedCount++;
+    totalQueueWaitNanos += headlessInAppWebView.startedAtNanos - headlessInAppWebView.queuedAtNanos;
+
+    HashMap<String, Object> params = headlessInAppWebView.params;
+    FlutterWebView flutterWebView = new FlutterWebView(plugin, plugin.activity, headlessInAppWebView.id, params);
+    headlessInAppWebView.flutterWebView = flutterWebView;
+
     headlessInAppWebView.prepare(params);
     headlessInAppWebView.onWebViewCreated();
     flutterWebView.makeInitialLoad(params);
   }
 
+  private void startPendingWebViews() {
+    while (!pendingWebViews.isEmpty() && (maxConcurrentWebViews <= 0 || runningCount < maxConcurrentWebViews)) {
+      start(pendingWebViews.poll());
+    }
+  }
+
+  public void onDisposed(HeadlessInAppWebView headlessInAppWebView) {
+    if (webViews.get(headlessInAppWebView.id) != headlessInAppWebView) {
+      return;
+    }
+    webViews.remove(headlessInAppWebView.id);
+    if (headlessInAppWebView.timeoutTask != null) {
+      handler.removeCallbacks(headlessInAppWebView.timeoutTask);
+      headlessInAppWebView.timeoutTask = null;
+    }
+    pendingWebViews.remove(headlessInAppWebView);
+    if (headlessInAppWebView.startedAtNanos == 0) {
+      // it was still queued
+      return;
+    }
+
+    long now = System.nanoTime();
+    runningCount--;
+    finishedCount++;
+    totalRunNanos += now - headlessInAppWebView.startedAtNanos;
+    recentFinishNanos.addLast(now);
+    trimRecentFinishNanos(now);
+    startPendingWebViews();
+  }
+
+  /**
+   * @param maxConcurrentWebViews maximum number of headless WebViews running at the same time, 0 means no limit.
+   * @param defaultTimeout timeout in milliseconds of the WebViews run without their own timeout, null means no timeout.
+   */
+  public void configureRunQueue(int maxConcurrentWebViews, @Nullable Long defaultTimeout) {
+    this.maxConcurrentWebViews = Math.max(0, maxConcurrentWebViews);
+    this.defaultTimeout = defaultTimeout;
+    startPendingWebViews();
+  }
+
+  private void trimRecentFinishNanos(long now) {
+    while (!recentFinishNanos.isEmpty() && now - recentFinishNanos.peekFirst() > TimeUnit.MINUTES.toNanos(1)) {
+      recentFinishNanos.pollFirst();
+    }
+  }
+
+  public Map<String, Object> getRunQueueStats() {
+    trimRecentFinishNanos(System.nanoTime());
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("maxConcurrentWebViews", maxConcurrentWebViews);
+    stats.put("runningCount", runningCount);
+    stats.put("queueDepth", pendingWebViews.size());
+    stats.put("maxQueueDepth", maxQueueDepth);
+    stats.put("queuedCount", queuedCount);
+    stats.put("startedCount", startedCount);
+    stats.put("finishedCount", finishedCount);
+    stats.put("timedOutCount", timedOutCount);
+    stats.put("finishedLastMinuteCount", recentFinishNanos.size());
+    stats.put("averageQueueWaitMillis", startedCount > 0 ? (double) totalQueueWaitNanos / startedCount / 1000000 : 0.0);
+    stats.put("averageRunMillis", finishedCount > 0 ? (double) totalRunNanos / finishedCount / 1000000 : 0.0);
+
+    // the renderer processes are isolated, so only the memory of the app process and of the device can be read
+    Runtime runtime = Runtime.getRuntime();
+    stats.put("javaHeapUsedBytes", runtime.totalMemory() - runtime.freeMemory());
+    stats.put("nativeHeapAllocatedBytes", Debug.getNativeHeapAllocatedSize());
+    if (plugin != null && plugin.applicationContext != null) {
+      ActivityManager activityManager = (ActivityManager) plugin.applicationContext.getSystemService(Context.ACTIVITY_SERVICE);
+      if (activityManager != null) {
+        ActivityManager.MemoryInfo memoryInfo = new ActivityManager.MemoryInfo();
+        activityManager.getMemoryInfo(memoryInfo);
+        stats.put("availableMemoryBytes", memoryInfo.availMem);
+        stats.put("lowMemory", memoryInfo.lowMemory);
+      }
+    }
+    return stats;
+  }
+
   public void dispose() {
     channel.setMethodCallHandler(null);
-    Collection<HeadlessInAppWebView> headlessInAppWebViews = webViews.values();
+    handler.removeCallbacksAndMessages(null);
+    pendingWebViews.clear();
+    Collection<HeadlessInAppWebView> headlessInAppWebViews = new ArrayList<>(webViews.values());
     for (HeadlessInAppWebView headlessInAppWebView : headlessInAppWebViews) {
       if (headlessInAppWebView != null) {
         headlessInAppWebView.dispose();
@@ -30,6 +30,7 @@ import com.pichillilorenzo.flutter_inappwebview.Util;
 import com.pichillilorenzo.flutter_inappwebview.in_app_webview.InAppWebView;
 import com.pichillilorenzo.flutter_inappwebview.in_app_webview.InAppWebViewChromeClient;
 import com.pichillilorenzo.flutter_inappwebview.in_app_webview.InAppWebViewOptions;
+import com.pichillilorenzo.flutter_inappwebview.in_app_webview.InAppWebViewPool;
 import com.pichillilorenzo.flutter_inappwebview.pull_to_refresh.PullToRefreshLayout;
 import com.pichillilorenzo.flutter_inappwebview.pull_to_refresh.PullToRefreshOptions;
 import com.pichillilorenzo.flutter_inappwebview.types.URLRequest;
@@ -102,7 +103,12 @@ public class InAppBrowserActivity extends AppCompatActivity implements InAppBrow
     pullToRefreshLayout.options = pullToRefreshOptions;
     pullToRefreshLayout.prepare();
 
-    webView = findViewById(R.id.webView);
+    webView = manager.plugin.inAppWebViewPool != null ? manager.plugin.inAppWebViewPool.acquire(this) : null;
+    if (webView == null) {
+      webView = new InAppWebView(this);
+    }
+    webView.setId(R.id.webView);
+    pullToRefreshLayout.addView(webView, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
     webView.windowId = windowId;
     webView.inAppBrowserDelegate = this;
     webView.channel = channel;
@@ -374,11 +380,18 @@ public class InAppBrowserActivity extends AppCompatActivity implements InAppBrow
     close(null);
   }
 
-  public void setOptions(InAppBrowserOptions newOptions, HashMap<String, Object> newOptionsMap) {
+  /**
+   * The map has both the InAppBrowser and the InAppWebView options:
+   * only the ones that changed since the last call are parsed and applied.
+   */
+  public void setOptions(HashMap<String, Object> optionsMap) {
 
-    InAppWebViewOptions newInAppWebViewOptions = new InAppWebViewOptions();
-    newInAppWebViewOptions.parse(newOptionsMap);
-    webView.setOptions(newInAppWebViewOptions, newOptionsMap);
+    Map<String, Object> newOptionsMap = webView.setOptions(optionsMap);
+    if (newOptionsMap.isEmpty()) {
+      return;
+    }
+    InAppBrowserOptions newOptions = options.copy();
+    newOptions.parse(newOptionsMap);
 
     if (newOptionsMap.get("hidden") != null && options.hidden != newOptions.hidden) {
       if (newOptions.hidden)
@@ -522,6 +535,7 @@ public class InAppBrowserActivity extends AppCompatActivity implements InAppBrow
       if (manager != null && manager.plugin != null && manager.plugin.activityPluginBinding != null) {
         manager.plugin.activityPluginBinding.removeActivityResultListener(webView.inAppWebViewChromeClient);
       }
+      final InAppWebViewPool inAppWebViewPool = manager != null && manager.plugin != null ? manager.plugin.inAppWebViewPool : null;
       ViewGroup vg = (ViewGroup) (webView.getParent());
       if (vg != null) {
         vg.removeView(webView);
@@ -530,7 +544,9 @@ public class InAppBrowserActivity extends AppCompatActivity implements InAppBrow
       webView.setWebViewClient(new WebViewClient() {
         public void onPageFinished(WebView view, String url) {
           webView.dispose();
-          webView.destroy();
+          if (inAppWebViewPool == null || !inAppWebViewPool.release(webView)) {
+            webView.destroy();
+          }
           webView = null;
           manager = null;
         }
@@ -8,7 +8,7 @@ import com.pichillilorenzo.flutter_inappwebview.R;
 import java.util.HashMap;
 import java.util.Map;
 
-public class InAppBrowserOptions implements Options<InAppBrowserActivity> {
+public class InAppBrowserOptions implements Options<InAppBrowserActivity>, Cloneable {
 
   public static final String LOG_TAG = "InAppBrowserOptions";
 
@@ -26,6 +26,17 @@ public class InAppBrowserOptions implements Options<InAppBrowserActivity> {
   public Boolean allowGoBackWithBackButton = true;
   public Boolean shouldCloseOnBackButtonPressed = false;
 
+  /**
+   * Returns a copy, to parse the changed options into while the current ones are still applied.
+   */
+  public InAppBrowserOptions copy() {
+    try {
+      return (InAppBrowserOptions) clone();
+    } catch (CloneNotSupportedException e) {
+      throw new AssertionError(e);
+    }
+  }
+
   @Override
   public InAppBrowserOptions parse(Map<String, Object> options) {
     for (Map.Entry<String, Object> pair : options.entrySet()) {
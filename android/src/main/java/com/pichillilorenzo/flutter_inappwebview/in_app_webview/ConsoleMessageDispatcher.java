@@ -0,0 +1,339 @@
+package com.pichillilorenzo.flutter_inappwebview.in_app_webview;
+
+import android.util.Log;
+import android.webkit.ConsoleMessage;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Sends the console messages of an InAppWebView to the Dart side, according to the consoleMessagePipeline option.
+ *
+ * Without a pipeline, every message is sent as soon as it is received.
+ * With a pipeline, the messages are filtered by level and source, kept in a bounded buffer, where the oldest ones
+ * are dropped first, and sent in batches. They can also be written to a rotating log file instead.
+ * It must only be used from the main thread.
+ */
+public class ConsoleMessageDispatcher {
+
+  protected static final String LOG_TAG = "ConsoleMessageDispatcher";
+
+  public static final int DEFAULT_BUFFER_SIZE = 500;
+  public static final int DEFAULT_BATCH_INTERVAL = 500;
+  public static final long DEFAULT_LOG_FILE_MAX_SIZE = 1024 * 1024;
+  public static final int DEFAULT_LOG_FILE_MAX_COUNT = 3;
+
+  // shared by all the WebViews, the log files are only written from this thread
+  private static final ExecutorService logFileExecutor = Executors.newSingleThreadExecutor();
+
+  private static class Entry {
+    final String message;
+    final ConsoleMessage.MessageLevel messageLevel;
+    final String sourceId;
+    final int lineNumber;
+    final long timestamp;
+    final String key;
+    int repeatCount = 1;
+
+    Entry(@NonNull ConsoleMessage consoleMessage) {
+      message = consoleMessage.message();
+      messageLevel = consoleMessage.messageLevel();
+      sourceId = consoleMessage.sourceId();
+      lineNumber = consoleMessage.lineNumber();
+      timestamp = System.currentTimeMillis();
+      key = messageLevel.ordinal() + ":" + sourceId + ":" + lineNumber + ":" + message;
+    }
+
+    Map<String, Object> toMap() {
+      Map<String, Object> obj = new HashMap<>();
+      obj.put("message", message);
+      obj.put("messageLevel", messageLevel.ordinal());
+      obj.put("repeatCount", repeatCount);
+      return obj;
+    }
+  }
+
+  @NonNull
+  private final InAppWebView webView;
+
+  private boolean enabled = false;
+  private int minLevelRank = 0;
+  @Nullable
+  private Pattern sourcePattern;
+  private boolean collapseRepeated = false;
+  private int bufferSize = DEFAULT_BUFFER_SIZE;
+  private int batchInterval = DEFAULT_BATCH_INTERVAL;
+  private boolean sendToDart = true;
+  @Nullable
+  private String logFilePath;
+  private long logFileMaxSize = DEFAULT_LOG_FILE_MAX_SIZE;
+  private int logFileMaxCount = DEFAULT_LOG_FILE_MAX_COUNT;
+
+  private final ArrayDeque<Entry> buffer = new ArrayDeque<>();
+  // entries of the buffer by key, to collapse the repeated messages
+  private final Map<String, Entry> bufferedEntries = new HashMap<>();
+  private boolean flushScheduled = false;
+
+  private long receivedCount = 0;
+  private long filteredCount = 0;
+  private long collapsedCount = 0;
+  private long droppedCount = 0;
+  private long deliveredCount = 0;
+  private long batchCount = 0;
+  private long writtenCount = 0;
+
+  private final Runnable flushRunnable = new Runnable() {
+    @Override
+    public void run() {
+      flushScheduled = false;
+      flush();
+    }
+  };
+
+  public ConsoleMessageDispatcher(@NonNull InAppWebView webView) {
+    this.webView = webView;
+  }
+
+  /**
+   * Applies the consoleMessagePipeline option. The buffered messages are flushed with the previous configuration.
+   */
+  public void configure(@Nullable Map<String, Object> pipeline) {
+    flushPending();
+    enabled = pipeline != null;
+    if (pipeline == null) {
+      return;
+    }
+
+    Integer minLevel = (Integer) pipeline.get("minLevel");
+    minLevelRank = minLevel != null && minLevel >= 0 && minLevel < ConsoleMessage.MessageLevel.values().length ?
+            getLevelRank(ConsoleMessage.MessageLevel.values()[minLevel]) : 0;
+    String sourcePatternString = (String) pipeline.get("sourcePattern");
+    sourcePattern = null;
+    if (sourcePatternString != null && !sourcePatternString.isEmpty()) {
+      try {
+        sourcePattern = Pattern.compile(sourcePatternString);
+      } catch (PatternSyntaxException e) {
+        Log.e(LOG_TAG, "", e);
+      }
+    }
+    Boolean collapseRepeated = (Boolean) pipeline.get("collapseRepeated");
+    this.collapseRepeated = collapseRepeated != null && collapseRepeated;
+    Integer bufferSize = (Integer) pipeline.get("bufferSize");
+    this.bufferSize = bufferSize != null ? Math.max(1, bufferSize) : DEFAULT_BUFFER_SIZE;
+    Integer batchInterval = (Integer) pipeline.get("batchInterval");
+    this.batchInterval = batchInterval != null ? Math.max(0, batchInterval) : DEFAULT_BATCH_INTERVAL;
+    Boolean sendToDart = (Boolean) pipeline.get("sendToDart");
+    this.sendToDart = sendToDart == null || sendToDart;
+    logFilePath = (String) pipeline.get("logFilePath");
+    Number logFileMaxSize = (Number) pipeline.get("logFileMaxSize");
+    this.logFileMaxSize = logFileMaxSize != null ? Math.max(0, logFileMaxSize.longValue()) : DEFAULT_LOG_FILE_MAX_SIZE;
+    Integer logFileMaxCount = (Integer) pipeline.get("logFileMaxCount");
+    this.logFileMaxCount = logFileMaxCount != null ? Math.max(1, logFileMaxCount) : DEFAULT_LOG_FILE_MAX_COUNT;
+  }
+
+  public void onConsoleMessage(@NonNull ConsoleMessage consoleMessage) {
+    receivedCount++;
+    if (!enabled) {
+      if (webView.channel != null) {
+        deliveredCount++;
+        Map<String, Object> obj = new HashMap<>();
+        obj.put("message", consoleMessage.message());
+        obj.put("messageLevel", consoleMessage.messageLevel().ordinal());
+        webView.channel.invokeMethod("onConsoleMessage", obj);
+      }
+      return;
+    }
+
+    if (getLevelRank(consoleMessage.messageLevel()) < minLevelRank ||
+            (sourcePattern != null && !sourcePattern.matcher(consoleMessage.sourceId() != null ? consoleMessage.sourceId() : "").find())) {
+      filteredCount++;
+      return;
+    }
+
+    Entry entry = new Entry(consoleMessage);
+    if (collapseRepeated) {
+      Entry bufferedEntry = bufferedEntries.get(entry.key);
+      if (bufferedEntry != null) {
+        bufferedEntry.repeatCount++;
+        collapsedCount++;
+        return;
+      }
+      bufferedEntries.put(entry.key, entry);
+    }
+    if (buffer.size() >= bufferSize) {
+      Entry oldestEntry = buffer.pollFirst();
+      if (oldestEntry != null && bufferedEntries.get(oldestEntry.key) == oldestEntry) {
+        bufferedEntries.remove(oldestEntry.key);
+      }
+      droppedCount++;
+    }
+    buffer.addLast(entry);
+
+    if (batchInterval == 0) {
+      flush();
+    } else if (!flushScheduled) {
+      flushScheduled = true;
+      webView.mainLooperHandler.postDelayed(flushRunnable, batchInterval);
+    }
+  }
+
+  private void flush() {
+    if (buffer.isEmpty()) {
+      return;
+    }
+    List<Entry> entries = new ArrayList<>(buffer);
+    buffer.clear();
+    bufferedEntries.clear();
+
+    if (sendToDart && webView.channel != null) {
+      List<Map<String, Object>> messages = new ArrayList<>();
+      for (Entry entry : entries) {
+        messages.add(entry.toMap());
+      }
+      Map<String, Object> obj = new HashMap<>();
+      obj.put("messages", messages);
+      webView.channel.invokeMethod("onConsoleMessageBatch", obj);
+      deliveredCount += entries.size();
+      batchCount++;
+    }
+    if (logFilePath != null) {
+      writeToLogFile(logFilePath, logFileMaxSize, logFileMaxCount, entries);
+      writtenCount += entries.size();
+    }
+  }
+
+  private static void writeToLogFile(@NonNull final String path, final long maxSize, final int maxCount,
+                                     @NonNull final List<Entry> entries) {
+    logFileExecutor.execute(new Runnable() {
+      @Override
+      public void run() {
+        File file = new File(path);
+        if (file.exists() && file.length() >= maxSize) {
+          rotateLogFiles(path, maxCount);
+        }
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.US);
+        BufferedWriter writer = null;
+        try {
+          writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), Charset.forName("UTF-8")));
+          for (Entry entry : entries) {
+            writer.write(dateFormat.format(new Date(entry.timestamp)) + " " + entry.messageLevel.name() + " " +
+                    entry.sourceId + ":" + entry.lineNumber + " " + entry.message +
+                    (entry.repeatCount > 1 ? " (x" + entry.repeatCount + ")" : ""));
+            writer.newLine();
+          }
+        } catch (IOException e) {
+          Log.e(LOG_TAG, "", e);
+        } finally {
+          if (writer != null) {
+            try {
+              writer.close();
+            } catch (IOException e) {
+              Log.e(LOG_TAG, "", e);
+            }
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * Keeps at most maxCount files: path, path.1, ..., where path.1 is the most recent one after path.
+   */
+  private static void rotateLogFiles(@NonNull String path, int maxCount) {
+    File oldestFile = new File(maxCount > 1 ? path + "." + (maxCount - 1) : path);
+    if (oldestFile.exists() && !oldestFile.delete()) {
+      Log.e(LOG_TAG, "Cannot delete " + oldestFile);
+    }
+    for (int i = maxCount - 2; i >= 0; i--) {
+      File file = new File(i > 0 ? path + "." + i : path);
+      if (file.exists() && !file.renameTo(new File(path + "." + (i + 1)))) {
+        Log.e(LOG_TAG, "Cannot rename " + file);
+      }
+    }
+  }
+
+  // DEBUG and TIP are the least important levels, even if DEBUG is the last one of the enum
+  private static int getLevelRank(@NonNull ConsoleMessage.MessageLevel messageLevel) {
+    switch (messageLevel) {
+      case LOG:
+        return 1;
+      case WARNING:
+        return 2;
+      case ERROR:
+        return 3;
+      case TIP:
+      case DEBUG:
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * Sends the buffered messages right away.
+   */
+  public void flushPending() {
+    if (flushScheduled) {
+      flushScheduled = false;
+      webView.mainLooperHandler.removeCallbacks(flushRunnable);
+    }
+    flush();
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("receivedCount", receivedCount);
+    stats.put("filteredCount", filteredCount);
+    stats.put("collapsedCount", collapsedCount);
+    stats.put("droppedCount", droppedCount);
+    stats.put("deliveredCount", deliveredCount);
+    stats.put("batchCount", batchCount);
+    stats.put("writtenCount", writtenCount);
+    stats.put("bufferedCount", buffer.size());
+    return stats;
+  }
+
+  public void resetStats() {
+    receivedCount = 0;
+    filteredCount = 0;
+    collapsedCount = 0;
+    droppedCount = 0;
+    deliveredCount = 0;
+    batchCount = 0;
+    writtenCount = 0;
+  }
+
+  /**
+   * Writes the buffered messages to the log file, if any, and drops them, when the WebView is disposed or reused.
+   */
+  public void dispose() {
+    if (flushScheduled) {
+      flushScheduled = false;
+      webView.mainLooperHandler.removeCallbacks(flushRunnable);
+    }
+    if (logFilePath != null && !buffer.isEmpty()) {
+      writeToLogFile(logFilePath, logFileMaxSize, logFileMaxCount, new ArrayList<>(buffer));
+      writtenCount += buffer.size();
+    }
+    buffer.clear();
+    bufferedEntries.clear();
+  }
+}
@@ -0,0 +1,380 @@
+package com.pichillilorenzo.flutter_inappwebview.in_app_webview;
+
+import android.net.Uri;
+import android.util.Log;
+import android.util.LruCache;
+import android.webkit.MimeTypeMap;
+import android.webkit.WebResourceResponse;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.pichillilorenzo.flutter_inappwebview.InAppWebViewFlutterPlugin;
+import com.pichillilorenzo.flutter_inappwebview.Util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves the requests matching the resourceCustomSchemeMappings option from the Flutter assets or from directories
+ * on disk, without going through the Dart side.
+ *
+ * The files are streamed, with their MIME type guessed from the extension and with support for the range requests
+ * used by the media elements. The small files are kept in a LRU cache shared by all the WebViews.
+ * This class is used from the WebView background threads.
+ */
+public class CustomSchemeResourceProvider {
+
+  protected static final String LOG_TAG = "CustomSchemeResource";
+
+  public static final int MAX_CACHED_FILE_SIZE = 256 * 1024;
+  public static final int CACHE_SIZE = 8 * 1024 * 1024;
+  public static final String DEFAULT_FILE_NAME = "index.html";
+
+  private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+  // the MIME types missing from the MimeTypeMap of the older Android versions
+  private static final Map<String, String> MIME_TYPES = new HashMap<>();
+  static {
+    MIME_TYPES.put("js", "text/javascript");
+    MIME_TYPES.put("mjs", "text/javascript");
+    MIME_TYPES.put("css", "text/css");
+    MIME_TYPES.put("json", "application/json");
+    MIME_TYPES.put("map", "application/json");
+    MIME_TYPES.put("wasm", "application/wasm");
+    MIME_TYPES.put("svg", "image/svg+xml");
+    MIME_TYPES.put("webp", "image/webp");
+    MIME_TYPES.put("woff", "font/woff");
+    MIME_TYPES.put("woff2", "font/woff2");
+    MIME_TYPES.put("ttf", "font/ttf");
+    MIME_TYPES.put("html", "text/html");
+    MIME_TYPES.put("htm", "text/html");
+    MIME_TYPES.put("mp4", "video/mp4");
+    MIME_TYPES.put("webm", "video/webm");
+    MIME_TYPES.put("mp3", "audio/mpeg");
+  }
+
+  private static final LruCache<String, byte[]> cache = new LruCache<String, byte[]>(CACHE_SIZE) {
+    @Override
+    protected int sizeOf(String key, byte[] value) {
+      return value.length;
+    }
+  };
+
+  private static final AtomicLong servedCount = new AtomicLong();
+  private static final AtomicLong cacheHitCount = new AtomicLong();
+  private static final AtomicLong rangeRequestCount = new AtomicLong();
+  private static final AtomicLong notFoundCount = new AtomicLong();
+
+  private static class Mapping {
+    final String urlPrefix;
+    @Nullable
+    final String assetPath;
+    @Nullable
+    final File directory;
+
+    Mapping(String urlPrefix, @Nullable String assetPath, @Nullable File directory) {
+      this.urlPrefix = urlPrefix;
+      this.assetPath = assetPath;
+      this.directory = directory;
+    }
+  }
+
+  // the opened file, with its size when known
+  private static class Resource {
+    final InputStream inputStream;
+    final long length;
+
+    Resource(InputStream inputStream, long length) {
+      this.inputStream = inputStream;
+      this.length = length;
+    }
+  }
+
+  // reads at most the given number of bytes of the wrapped stream
+  private static class BoundedInputStream extends FilterInputStream {
+    private long remaining;
+
+    BoundedInputStream(InputStream in, long length) {
+      super(in);
+      this.remaining = length;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (remaining <= 0) {
+        return -1;
+      }
+      int b = super.read();
+      if (b >= 0) {
+        remaining--;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (remaining <= 0) {
+        return -1;
+      }
+      int read = super.read(b, off, (int) Math.min(len, remaining));
+      if (read > 0) {
+        remaining -= read;
+      }
+      return read;
+    }
+  }
+
+  @NonNull
+  private final InAppWebViewFlutterPlugin plugin;
+  @NonNull
+  private final List<Mapping> mappings = new ArrayList<>();
+
+  public CustomSchemeResourceProvider(@NonNull InAppWebViewFlutterPlugin plugin, @NonNull List<Map<String, Object>> mappings) {
+    this.plugin = plugin;
+    for (Map<String, Object> mapping : mappings) {
+      String urlPrefix = (String) mapping.get("urlPrefix");
+      if (urlPrefix == null || urlPrefix.isEmpty()) {
+        continue;
+      }
+      addMapping(urlPrefix, (String) mapping.get("assetPath"), (String) mapping.get("directoryPath"));
+    }
+  }
+
+  /**
+   * Creates a provider for a single asset path or directory, whose files are served with {@link #loadPath}.
+   */
+  public CustomSchemeResourceProvider(@NonNull InAppWebViewFlutterPlugin plugin, @Nullable String assetPath, @Nullable String directoryPath) {
+    this.plugin = plugin;
+    addMapping("", assetPath, directoryPath);
+  }
+
+  private void addMapping(@NonNull String urlPrefix, @Nullable String assetPath, @Nullable String directoryPath) {
+    if (assetPath == null && directoryPath == null) {
+      return;
+    }
+    if (assetPath != null && !assetPath.isEmpty() && !assetPath.endsWith("/")) {
+      assetPath += "/";
+    }
+    mappings.add(new Mapping(urlPrefix, assetPath, directoryPath != null ? new File(directoryPath) : null));
+  }
+
+  /**
+   * Returns null if the url doesn't match any mapping, so the request can go on as usual.
+   * A mapped url that doesn't match any file gets a 404 response.
+   */
+  @Nullable
+  public WebResourceResponse load(@NonNull String url, @Nullable Map<String, String> requestHeaders) {
+    Mapping mapping = null;
+    for (Mapping m : mappings) {
+      if (url.startsWith(m.urlPrefix)) {
+        mapping = m;
+        break;
+      }
+    }
+    if (mapping == null) {
+      return null;
+    }
+    return load(mapping, url.substring(mapping.urlPrefix.length()), requestHeaders);
+  }
+
+  /**
+   * Serves the file at the given URL-encoded path, relative to the asset path or the directory of this provider.
+   * Returns null if the provider has no asset path or directory.
+   */
+  @Nullable
+  public WebResourceResponse loadPath(@NonNull String path, @Nullable Map<String, String> requestHeaders) {
+    if (mappings.isEmpty()) {
+      return null;
+    }
+    return load(mappings.get(0), path, requestHeaders);
+  }
+
+  @NonNull
+  private WebResourceResponse load(@NonNull Mapping mapping, @NonNull String path, @Nullable Map<String, String> requestHeaders) {
+    int queryIndex = path.indexOf('?');
+    if (queryIndex >= 0) {
+      path = path.substring(0, queryIndex);
+    }
+    int fragmentIndex = path.indexOf('#');
+    if (fragmentIndex >= 0) {
+      path = path.substring(0, fragmentIndex);
+    }
+    path = Uri.decode(path);
+    if (path.isEmpty() || path.endsWith("/")) {
+      path += DEFAULT_FILE_NAME;
+    }
+    String mimeType = getMimeType(path);
+
+    // the files outside of the mapped asset path or directory are never served
+    if (path.startsWith("/") || path.equals("..") || path.startsWith("../") || path.contains("/../") || path.endsWith("/..")) {
+      notFoundCount.incrementAndGet();
+      return createErrorResponse(mimeType, 404, "Not Found");
+    }
+
+    String range = getHeader(requestHeaders, "Range");
+    try {
+      // a file changed on disk gets a new key, its previous content is evicted with time
+      String cacheKey = mapping.directory != null ?
+              "file:" + new File(mapping.directory, path).getAbsolutePath() + ":" + new File(mapping.directory, path).lastModified() :
+              "asset:" + mapping.assetPath + path;
+      byte[] data = cache.get(cacheKey);
+      if (data != null) {
+        cacheHitCount.incrementAndGet();
+        return createResponse(mimeType, new Resource(new ByteArrayInputStream(data), data.length), range);
+      }
+
+      Resource resource = open(mapping, path);
+      if (resource == null) {
+        notFoundCount.incrementAndGet();
+        return createErrorResponse(mimeType, 404, "Not Found");
+      }
+      if (resource.length >= 0 && resource.length <= MAX_CACHED_FILE_SIZE) {
+        data = readFully(resource.inputStream);
+        cache.put(cacheKey, data);
+        resource = new Resource(new ByteArrayInputStream(data), data.length);
+      }
+      return createResponse(mimeType, resource, range);
+    } catch (IOException e) {
+      Log.e(LOG_TAG, path, e);
+      return createErrorResponse(mimeType, 500, "Internal Server Error");
+    }
+  }
+
+  @Nullable
+  private Resource open(@NonNull Mapping mapping, @NonNull String path) throws IOException {
+    if (mapping.directory != null) {
+      File file = new File(mapping.directory, path);
+      // also catches the symbolic links going out of the directory
+      if (!file.getCanonicalPath().startsWith(mapping.directory.getCanonicalPath() + File.separator) || !file.isFile()) {
+        return null;
+      }
+      return new Resource(new FileInputStream(file), file.length());
+    }
+    InputStream inputStream;
+    try {
+      inputStream = Util.getFileAsset(plugin, mapping.assetPath + path);
+    } catch (IOException e) {
+      return null;
+    }
+    // the asset streams know their remaining size, even for the compressed assets
+    return new Resource(inputStream, inputStream.available());
+  }
+
+  @NonNull
+  private WebResourceResponse createResponse(@NonNull String mimeType, @NonNull Resource resource, @Nullable String range) throws IOException {
+    servedCount.incrementAndGet();
+    Map<String, String> headers = new HashMap<>();
+    headers.put("Accept-Ranges", "bytes");
+    headers.put("Cache-Control", "no-cache");
+
+    Matcher matcher = range != null ? RANGE_PATTERN.matcher(range.trim()) : null;
+    if (matcher != null && matcher.matches() && resource.length >= 0 && (!matcher.group(1).isEmpty() || !matcher.group(2).isEmpty())) {
+      rangeRequestCount.incrementAndGet();
+      long length = resource.length;
+      long start;
+      long end;
+      if (matcher.group(1).isEmpty()) {
+        // the last bytes of the file
+        start = Math.max(0, length - Long.parseLong(matcher.group(2)));
+        end = length - 1;
+      } else {
+        start = Long.parseLong(matcher.group(1));
+        end = matcher.group(2).isEmpty() ? length - 1 : Math.min(Long.parseLong(matcher.group(2)), length - 1);
+      }
+      if (start >= length || start > end) {
+        resource.inputStream.close();
+        headers.put("Content-Range", "bytes */" + length);
+        return new WebResourceResponse(mimeType, null, 416, "Range Not Satisfiable", headers, new ByteArrayInputStream(new byte[0]));
+      }
+      long skipped = 0;
+      while (skipped < start) {
+        long n = resource.inputStream.skip(start - skipped);
+        if (n <= 0) {
+          break;
+        }
+        skipped += n;
+      }
+      headers.put("Content-Range", "bytes " + start + "-" + end + "/" + length);
+      headers.put("Content-Length", String.valueOf(end - start + 1));
+      return new WebResourceResponse(mimeType, null, 206, "Partial Content", headers,
+              new BoundedInputStream(resource.inputStream, end - start + 1));
+    }
+
+    if (resource.length >= 0) {
+      headers.put("Content-Length", String.valueOf(resource.length));
+    }
+    return new WebResourceResponse(mimeType, null, 200, "OK", headers, resource.inputStream);
+  }
+
+  @NonNull
+  private WebResourceResponse createErrorResponse(@NonNull String mimeType, int statusCode, @NonNull String reasonPhrase) {
+    return new WebResourceResponse(mimeType, null, statusCode, reasonPhrase, new HashMap<String, String>(), new ByteArrayInputStream(new byte[0]));
+  }
+
+  @NonNull
+  private static String getMimeType(@NonNull String path) {
+    int dotIndex = path.lastIndexOf('.');
+    String extension = dotIndex >= 0 ? path.substring(dotIndex + 1).toLowerCase(Locale.ROOT) : "";
+    String mimeType = MIME_TYPES.get(extension);
+    if (mimeType == null) {
+      mimeType = MimeTypeMap.getSingleton().getMimeTypeFromExtension(extension);
+    }
+    return mimeType != null ? mimeType : "application/octet-stream";
+  }
+
+  @Nullable
+  private static String getHeader(@Nullable Map<String, String> headers, @NonNull String name) {
+    if (headers == null) {
+      return null;
+    }
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      if (name.equalsIgnoreCase(header.getKey())) {
+        return header.getValue();
+      }
+    }
+    return null;
+  }
+
+  @NonNull
+  private static byte[] readFully(@NonNull InputStream inputStream) throws IOException {
+    try {
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.max(32, inputStream.available()));
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = inputStream.read(buffer)) != -1) {
+        outputStream.write(buffer, 0, read);
+      }
+      return outputStream.toByteArray();
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  public static Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("servedCount", servedCount.get());
+    stats.put("cacheHitCount", cacheHitCount.get());
+    stats.put("rangeRequestCount", rangeRequestCount.get());
+    stats.put("notFoundCount", notFoundCount.get());
+    stats.put("cachedBytes", cache.size());
+    return stats;
+  }
+
+  public static void clearCache() {
+    cache.evictAll();
+  }
+}
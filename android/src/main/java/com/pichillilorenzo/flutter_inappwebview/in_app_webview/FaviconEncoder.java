@@ -0,0 +1,181 @@
+package com.pichillilorenzo.flutter_inappwebview.in_app_webview;
+
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Encodes the favicons received by the InAppWebViews for the onReceivedIcon event, on a background thread.
+ *
+ * The icons can be scaled down before being encoded. The encoded icons are kept in a small cache keyed by
+ * the origin of the page: when a page of the same origin sends the same icon again, the cached bytes are sent
+ * without encoding the icon again.
+ */
+public class FaviconEncoder {
+
+  protected static final String LOG_TAG = "FaviconEncoder";
+
+  private static final int MAX_CACHE_SIZE = 64;
+
+  public interface Callback {
+    void onEncoded(@NonNull byte[] icon);
+  }
+
+  private static class CachedIcon {
+    final int width;
+    final int height;
+    final int pixelsHash;
+    @NonNull
+    final String format;
+    @NonNull
+    final byte[] data;
+
+    CachedIcon(int width, int height, int pixelsHash, @NonNull String format, @NonNull byte[] data) {
+      this.width = width;
+      this.height = height;
+      this.pixelsHash = pixelsHash;
+      this.format = format;
+      this.data = data;
+    }
+  }
+
+  private static FaviconEncoder instance;
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
+  private final LruCache<String, CachedIcon> cache = new LruCache<>(MAX_CACHE_SIZE);
+
+  private long encodeCount = 0;
+  private long cacheHitCount = 0;
+  private long totalEncodeNanos = 0;
+
+  private FaviconEncoder() {}
+
+  public static FaviconEncoder getInstance() {
+    if (instance == null) {
+      instance = new FaviconEncoder();
+    }
+    return instance;
+  }
+
+  /**
+   * Must be called on the main thread. Takes the ownership of the icon, that is recycled once encoded.
+   * The callback is called on the main thread.
+   *
+   * @param maxSize the maximum width and height of the encoded icon, in pixels, or 0 to keep the original size.
+   * @param format the name of a {@link Bitmap.CompressFormat}.
+   */
+  public void encode(@Nullable String pageUrl,
+                     @NonNull final Bitmap icon,
+                     final int maxSize,
+                     @NonNull final String format,
+                     final int quality,
+                     @NonNull final Callback callback) {
+    final String cacheKey = getOrigin(pageUrl);
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        int width = icon.getWidth();
+        int height = icon.getHeight();
+        int[] pixels = new int[width * height];
+        icon.getPixels(pixels, 0, width, 0, 0, width, height);
+        int pixelsHash = Arrays.hashCode(pixels);
+        String cacheFormat = format + ":" + maxSize + ":" + quality;
+
+        if (cacheKey != null) {
+          CachedIcon cachedIcon = cache.get(cacheKey);
+          if (cachedIcon != null && cachedIcon.width == width && cachedIcon.height == height &&
+                  cachedIcon.pixelsHash == pixelsHash && cachedIcon.format.equals(cacheFormat)) {
+            icon.recycle();
+            deliver(cachedIcon.data, 0, true, callback);
+            return;
+          }
+        }
+
+        long start = System.nanoTime();
+        Bitmap bitmap = icon;
+        if (maxSize > 0 && (width > maxSize || height > maxSize)) {
+          float scale = Math.min((float) maxSize / width, (float) maxSize / height);
+          bitmap = Bitmap.createScaledBitmap(icon, Math.max(1, Math.round(width * scale)), Math.max(1, Math.round(height * scale)), true);
+          icon.recycle();
+        }
+
+        Bitmap.CompressFormat compressFormat = Bitmap.CompressFormat.PNG;
+        try {
+          compressFormat = Bitmap.CompressFormat.valueOf(format);
+        } catch (IllegalArgumentException e) {
+          e.printStackTrace();
+        }
+
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        bitmap.compress(compressFormat, quality, byteArrayOutputStream);
+        try {
+          byteArrayOutputStream.close();
+        } catch (IOException e) {
+          Log.e(LOG_TAG, "", e);
+        }
+        bitmap.recycle();
+
+        byte[] data = byteArrayOutputStream.toByteArray();
+        if (cacheKey != null) {
+          cache.put(cacheKey, new CachedIcon(width, height, pixelsHash, cacheFormat, data));
+        }
+        deliver(data, System.nanoTime() - start, false, callback);
+      }
+    });
+  }
+
+  private void deliver(@NonNull final byte[] data, final long encodeNanos, final boolean cacheHit, @NonNull final Callback callback) {
+    mainHandler.post(new Runnable() {
+      @Override
+      public void run() {
+        if (cacheHit) {
+          cacheHitCount++;
+        } else {
+          encodeCount++;
+          totalEncodeNanos += encodeNanos;
+        }
+        callback.onEncoded(data);
+      }
+    });
+  }
+
+  @Nullable
+  private static String getOrigin(@Nullable String url) {
+    if (url == null) {
+      return null;
+    }
+    Uri uri = Uri.parse(url);
+    if (uri.getScheme() == null || uri.getAuthority() == null) {
+      return null;
+    }
+    return uri.getScheme() + "://" + uri.getAuthority();
+  }
+
+  public void clearCache() {
+    cache.evictAll();
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("encodeCount", encodeCount);
+    stats.put("cacheHitCount", cacheHitCount);
+    stats.put("cachedIconCount", cache.size());
+    stats.put("averageEncodeMillis", encodeCount > 0 ? (double) totalEncodeNanos / encodeCount / 1000000 : 0.0);
+    return stats;
+  }
+}
@@ -74,7 +74,13 @@ public class FlutterWebView implements PlatformWebView {
       }
     }
 
-    webView = new InAppWebView(context, plugin, channel, id, windowId, options, contextMenu, options.useHybridComposition ? null : plugin.flutterView, userScripts);
+    View containerView = options.useHybridComposition ? null : plugin.flutterView;
+    webView = plugin.inAppWebViewPool != null ? plugin.inAppWebViewPool.acquire(context) : null;
+    if (webView != null) {
+      webView.bind(plugin, channel, id, windowId, options, contextMenu, containerView, userScripts);
+    } else {
+      webView = new InAppWebView(context, plugin, channel, id, windowId, options, contextMenu, containerView, userScripts);
+    }
     displayListenerProxy.onPostWebViewInitialization(displayManager);
 
     if (options.useHybridComposition) {
@@ -143,6 +149,7 @@ public class FlutterWebView implements PlatformWebView {
       methodCallDelegate = null;
     }
     if (webView != null) {
+      final InAppWebViewPool inAppWebViewPool = webView.plugin != null ? webView.plugin.inAppWebViewPool : null;
       webView.removeJavascriptInterface(JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME);
       if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && WebViewFeature.isFeatureSupported(WebViewFeature.WEB_VIEW_RENDERER_CLIENT_BASIC_USAGE)) {
         WebViewCompat.setWebViewRenderProcessClient(webView, null);
@@ -158,7 +165,9 @@ public class FlutterWebView implements PlatformWebView {
           webView.inAppWebViewClient.dispose();
           webView.javaScriptBridgeInterface.dispose();
           webView.dispose();
-          webView.destroy();
+          if (inAppWebViewPool == null || !inAppWebViewPool.release(webView)) {
+            webView.destroy();
+          }
           webView = null;
           
           if (pullToRefreshLayout != null) {
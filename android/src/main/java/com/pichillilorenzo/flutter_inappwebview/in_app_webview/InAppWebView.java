@@ -4,8 +4,6 @@ import android.animation.ObjectAnimator;
 import android.animation.PropertyValuesHolder;
 import android.annotation.TargetApi;
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Point;
 import android.graphics.drawable.ColorDrawable;
@@ -64,7 +62,10 @@ import com.pichillilorenzo.flutter_inappwebview.content_blocker.ContentBlockerTr
 import com.pichillilorenzo.flutter_inappwebview.in_app_browser.InAppBrowserDelegate;
 import com.pichillilorenzo.flutter_inappwebview.plugin_scripts_js.ConsoleLogJS;
 import com.pichillilorenzo.flutter_inappwebview.plugin_scripts_js.InterceptAjaxRequestJS;
+import com.pichillilorenzo.flutter_inappwebview.plugin_scripts_js.InterceptBodyTransportJS;
 import com.pichillilorenzo.flutter_inappwebview.plugin_scripts_js.InterceptFetchRequestJS;
+import com.pichillilorenzo.flutter_inappwebview.plugin_scripts_js.InterceptRequestFilterJS;
+import com.pichillilorenzo.flutter_inappwebview.plugin_scripts_js.JavaScriptBridgeBatchJS;
 import com.pichillilorenzo.flutter_inappwebview.plugin_scripts_js.JavaScriptBridgeJS;
 import com.pichillilorenzo.flutter_inappwebview.plugin_scripts_js.OnLoadResourceJS;
 import com.pichillilorenzo.flutter_inappwebview.plugin_scripts_js.OnWindowBlurEventJS;
@@ -86,7 +87,6 @@ import com.pichillilorenzo.flutter_inappwebview.types.WebMessageListener;
 
 import org.json.JSONObject;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -125,6 +125,8 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
   public float zoomScale = 1.0f;
   int okHttpClientCacheSize = 10 * 1024 * 1024; // 10MB
   public ContentBlockerHandler contentBlockerHandler = new ContentBlockerHandler();
+  @Nullable
+  public volatile TopUrlSnapshot topUrlSnapshot;
   public Pattern regexToCancelSubFramesLoadingCompiled;
   @Nullable
   public GestureDetector gestureDetector = null;
@@ -143,6 +145,15 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
   public int newCheckContextMenuShouldBeClosedTaskTask = 100; // ms
 
   public UserContentController userContentController = new UserContentController();
+  public final ScrollEventDispatcher scrollEventDispatcher = new ScrollEventDispatcher(this);
+  public final ConsoleMessageDispatcher consoleMessageDispatcher = new ConsoleMessageDispatcher(this);
+  @Nullable
+  public InterceptBodyTransport interceptBodyTransport;
+  @Nullable
+  public volatile CustomSchemeResourceProvider customSchemeResourceProvider;
+  // the options map of the last setOptions call, to only apply the options that changed since then
+  @Nullable
+  private Map<String, Object> appliedOptionsMap;
 
   public Map<String, ValueCallback<String>> callAsyncJavaScriptCallbacks = new HashMap<>();
   public Map<String, ValueCallback<String>> evaluateJavaScriptContentWorldCallbacks = new HashMap<>();
@@ -150,6 +161,9 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
   public Map<String, WebMessageChannel> webMessageChannels = new HashMap<>();
   public List<WebMessageListener> webMessageListeners = new ArrayList<>();
 
+  // set when a pooled WebView is reused, to drop the about:blank page left by its previous use
+  public boolean clearHistoryOnPageFinished = false;
+
   public InAppWebView(Context context) {
     super(context);
   }
@@ -180,19 +194,50 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
     }
   }
 
+  /**
+   * Binds a WebView created by the {@link InAppWebViewPool} the same way the main constructor does.
+   */
+  public void bind(InAppWebViewFlutterPlugin plugin,
+                   MethodChannel channel, Object id,
+                   @Nullable Integer windowId, InAppWebViewOptions options,
+                   @Nullable Map<String, Object> contextMenu, View containerView,
+                   List<UserScript> userScripts) {
+    setContainerView(containerView);
+    setUseHybridComposition(options.useHybridComposition);
+    this.plugin = plugin;
+    this.channel = channel;
+    this.id = id;
+    this.windowId = windowId;
+    this.options = options;
+    this.contextMenu = contextMenu;
+    this.userContentController.addUserOnlyScripts(userScripts);
+    if (plugin != null && plugin.activity != null) {
+      plugin.activity.registerForContextMenu(this);
+    }
+  }
+
   public void prepare() {
 
-    httpClient = new OkHttpClient().newBuilder().build();
+    if (plugin != null && plugin.httpClientRegistry != null) {
+      httpClient = plugin.httpClientRegistry.getDefaultClient();
+      contentBlockerHandler.setHttpClient(plugin.httpClientRegistry.getUnsafeClient());
+    } else {
+      httpClient = new OkHttpClient().newBuilder().build();
+    }
 
     javaScriptBridgeInterface = new JavaScriptBridgeInterface(this);
     addJavascriptInterface(javaScriptBridgeInterface, JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME);
 
     inAppWebViewChromeClient = new InAppWebViewChromeClient(plugin, channel, inAppBrowserDelegate);
+    inAppWebViewChromeClient.consoleMessageDispatcher = consoleMessageDispatcher;
+    consoleMessageDispatcher.configure(options.consoleMessagePipeline);
     setWebChromeClient(inAppWebViewChromeClient);
 
-    inAppWebViewClient = new InAppWebViewClient(channel, inAppBrowserDelegate);
+    inAppWebViewClient = new InAppWebViewClient(plugin, channel, inAppBrowserDelegate);
     setWebViewClient(inAppWebViewClient);
 
+    customSchemeResourceProvider = createCustomSchemeResourceProvider(options.resourceCustomSchemeMappings);
+
     if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && WebViewFeature.isFeatureSupported(WebViewFeature.WEB_VIEW_RENDERER_CLIENT_BASIC_USAGE)) {
       inAppWebViewRenderProcessClient = new InAppWebViewRenderProcessClient(channel);
       WebViewCompat.setWebViewRenderProcessClient(this, inAppWebViewRenderProcessClient);
@@ -200,6 +245,9 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
 
     userContentController.addPluginScript(PromisePolyfillJS.PROMISE_POLYFILL_JS_PLUGIN_SCRIPT);
     userContentController.addPluginScript(JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_JS_PLUGIN_SCRIPT);
+    if (options.useBatchedJavaScriptBridge) {
+      userContentController.addPluginScript(JavaScriptBridgeBatchJS.JAVASCRIPT_BRIDGE_BATCH_JS_PLUGIN_SCRIPT);
+    }
     userContentController.addPluginScript(ConsoleLogJS.CONSOLE_LOG_JS_PLUGIN_SCRIPT);
     userContentController.addPluginScript(PrintJS.PRINT_JS_PLUGIN_SCRIPT);
     userContentController.addPluginScript(OnWindowBlurEventJS.ON_WINDOW_BLUR_EVENT_JS_PLUGIN_SCRIPT);
@@ -210,12 +258,21 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
     if (options.useShouldInterceptFetchRequest) {
       userContentController.addPluginScript(InterceptFetchRequestJS.INTERCEPT_FETCH_REQUEST_JS_PLUGIN_SCRIPT);
     }
+    if (options.useShouldInterceptAjaxRequest || options.useShouldInterceptFetchRequest) {
+      userContentController.addPluginScript(InterceptRequestFilterJS.createPluginScript(options.interceptRequestFilter));
+    }
+    if (options.useBinaryInterceptBodyTransport) {
+      setUseBinaryInterceptBodyTransport(true);
+    }
     if (options.useOnLoadResource) {
-      userContentController.addPluginScript(OnLoadResourceJS.ON_LOAD_RESOURCE_JS_PLUGIN_SCRIPT);
+      userContentController.addPluginScript(OnLoadResourceJS.createPluginScript(options.onLoadResourceBatchSize, options.onLoadResourceBatchInterval));
     }
     if (!options.useHybridComposition) {
       userContentController.addPluginScript(PluginScriptsUtil.CHECK_GLOBAL_KEY_DOWN_EVENT_TO_HIDE_CONTEXT_MENU_JS_PLUGIN_SCRIPT);
     }
+    if (options.useNativeDocumentStartScripts) {
+      userContentController.enableNativeDocumentStartScripts(this);
+    }
 
     if (options.useOnDownloadStart)
       setDownloadListener(new DownloadStartListener());
@@ -363,13 +420,8 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
       options.rendererPriorityPolicy.put("waivedWhenNotVisible", getRendererPriorityWaivedWhenNotVisible());
     }
 
-    contentBlockerHandler.getRuleList().clear();
-    for (Map<String, Map<String, Object>> contentBlocker : options.contentBlockers) {
-      // compile ContentBlockerTrigger urlFilter
-      ContentBlockerTrigger trigger = ContentBlockerTrigger.fromMap(contentBlocker.get("trigger"));
-      ContentBlockerAction action = ContentBlockerAction.fromMap(contentBlocker.get("action"));
-      contentBlockerHandler.getRuleList().add(new ContentBlocker(trigger, action));
-    }
+    setContentBlockers(options.contentBlockers, options.useIndexedContentBlockers);
+    contentBlockerHandler.setUseHeadRequests(options.useContentBlockerHeadRequests);
 
     setFindListener(new FindListener() {
       @Override
@@ -480,6 +532,29 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
     });
   }
 
+  public void setContentBlockers(List<Map<String, Map<String, Object>>> contentBlockers, boolean useIndexedContentBlockers) {
+    List<ContentBlocker> ruleList = new ArrayList<>();
+    for (Map<String, Map<String, Object>> contentBlocker : contentBlockers) {
+      // compile ContentBlockerTrigger urlFilter
+      ContentBlockerTrigger trigger = ContentBlockerTrigger.fromMap(contentBlocker.get("trigger"));
+      ContentBlockerAction action = ContentBlockerAction.fromMap(contentBlocker.get("action"));
+      ruleList.add(new ContentBlocker(trigger, action));
+    }
+    contentBlockerHandler.setRuleList(ruleList, useIndexedContentBlockers);
+  }
+
+  /**
+   * Called from the UI thread when the top-level URL changes.
+   */
+  public void updateTopUrlSnapshot(@Nullable String url) {
+    TopUrlSnapshot current = topUrlSnapshot;
+    if (url == null) {
+      topUrlSnapshot = null;
+    } else if (current == null || !current.url.equals(url)) {
+      topUrlSnapshot = new TopUrlSnapshot(url);
+    }
+  }
+
   public void setIncognito(boolean enabled) {
     WebSettings settings = getSettings();
     if (enabled) {
@@ -494,6 +569,7 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
       settings.setAppCacheEnabled(false);
       clearHistory();
       clearCache(true);
+      clearHttpCache();
 
       // No form data or autofill enabled
       clearFormData();
@@ -550,6 +626,14 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
     return isLoading;
   }
 
+  @Nullable
+  private CustomSchemeResourceProvider createCustomSchemeResourceProvider(@Nullable List<Map<String, Object>> mappings) {
+    if (mappings == null || mappings.isEmpty() || plugin == null) {
+      return null;
+    }
+    return new CustomSchemeResourceProvider(plugin, mappings);
+  }
+
   private void clearCookies() {
     if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
       CookieManager.getInstance().removeAllCookies(new ValueCallback<Boolean>() {
@@ -565,81 +649,58 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
 
   public void clearAllCache() {
     clearCache(true);
+    clearHttpCache();
     clearCookies();
     clearFormData();
     WebStorage.getInstance().deleteAllData();
   }
 
+  /**
+   * Clears the disk cache of the main-frame requests fetched natively, shared by all the WebViews.
+   */
+  private void clearHttpCache() {
+    if (plugin != null && plugin.httpClientRegistry != null) {
+      plugin.httpClientRegistry.clearCache();
+    }
+  }
+
   public void takeScreenshot(final @Nullable Map<String, Object> screenshotConfiguration, final MethodChannel.Result result) {
-    final float pixelDensity = Util.getPixelDensity(getContext());
-    
+    takeScreenshot(screenshotConfiguration, null, result);
+  }
+
+  /**
+   * If filePath is not null, the image is written to that file instead of being returned.
+   */
+  public void takeScreenshot(final @Nullable Map<String, Object> screenshotConfiguration, final @Nullable String filePath, final MethodChannel.Result result) {
     mainLooperHandler.post(new Runnable() {
       @Override
       public void run() {
-        try {
-          Bitmap screenshotBitmap = Bitmap.createBitmap(getMeasuredWidth(), getMeasuredHeight(), Bitmap.Config.ARGB_8888);
-          Canvas c = new Canvas(screenshotBitmap);
-          c.translate(-getScrollX(), -getScrollY());
-          draw(c);
-
-          ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-          Bitmap.CompressFormat compressFormat = Bitmap.CompressFormat.PNG;
-          int quality = 100;
-
-          if (screenshotConfiguration != null) {
-            Map<String, Double> rect = (Map<String, Double>) screenshotConfiguration.get("rect");
-            if (rect != null) {
-              int rectX = (int) Math.floor(rect.get("x") * pixelDensity + 0.5);
-              int rectY = (int) Math.floor(rect.get("y") * pixelDensity + 0.5);
-              int rectWidth = Math.min(screenshotBitmap.getWidth(), (int) Math.floor(rect.get("width") * pixelDensity + 0.5));
-              int rectHeight = Math.min(screenshotBitmap.getHeight(), (int) Math.floor(rect.get("height") * pixelDensity + 0.5));
-              screenshotBitmap = Bitmap.createBitmap(
-                      screenshotBitmap,
-                      rectX,
-                      rectY,
-                      rectWidth,
-                      rectHeight);
-            }
-
-            Double snapshotWidth = (Double) screenshotConfiguration.get("snapshotWidth");
-            if (snapshotWidth != null) {
-              int dstWidth = (int) Math.floor(snapshotWidth * pixelDensity + 0.5);
-              float ratioBitmap = (float) screenshotBitmap.getWidth() / (float) screenshotBitmap.getHeight();
-              int dstHeight = (int) ((float) dstWidth / ratioBitmap);
-              screenshotBitmap = Bitmap.createScaledBitmap(screenshotBitmap, dstWidth, dstHeight, true);
-            }
-
-            try {
-              compressFormat = Bitmap.CompressFormat.valueOf((String) screenshotConfiguration.get("compressFormat"));
-            } catch (IllegalArgumentException e) {
-              e.printStackTrace();
-            }
-
-            quality = (Integer) screenshotConfiguration.get("quality");
-          }
-
-          screenshotBitmap.compress(
-                  compressFormat,
-                  quality,
-                  byteArrayOutputStream);
-
-          try {
-            byteArrayOutputStream.close();
-          } catch (IOException e) {
-            e.printStackTrace();
-          }
-          screenshotBitmap.recycle();
-          result.success(byteArrayOutputStream.toByteArray());
-
-        } catch (IllegalArgumentException e) {
-          e.printStackTrace();
-          result.success(null);
-        }
+        ScreenshotEngine.getInstance().takeScreenshot(InAppWebView.this, screenshotConfiguration, filePath, result);
       }
     });
   }
 
-  public void setOptions(InAppWebViewOptions newOptions, HashMap<String, Object> newOptionsMap) {
+  /**
+   * Dart always sends all the options, usually to change only a few of them:
+   * only the options that changed since the last call are parsed, into a copy of the current options, and applied.
+   *
+   * @return the options that changed.
+   */
+  public Map<String, Object> setOptions(HashMap<String, Object> newOptionsMap) {
+    Map<String, Object> changedOptionsMap = InAppWebViewOptions.diff(appliedOptionsMap, newOptionsMap);
+    appliedOptionsMap = newOptionsMap;
+    if (!changedOptionsMap.isEmpty()) {
+      InAppWebViewOptions newOptions = options.copy();
+      newOptions.parse(changedOptionsMap);
+      setOptions(newOptions, changedOptionsMap);
+    }
+    return changedOptionsMap;
+  }
+
+  /**
+   * Applies the options of newOptionsMap whose value in newOptions is not the current one.
+   */
+  public void setOptions(InAppWebViewOptions newOptions, Map<String, Object> newOptionsMap) {
 
     WebSettings settings = getSettings();
 
@@ -662,11 +723,64 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
       );
     }
 
+    if (newOptionsMap.get("useBinaryInterceptBodyTransport") != null && options.useBinaryInterceptBodyTransport != newOptions.useBinaryInterceptBodyTransport) {
+      setUseBinaryInterceptBodyTransport(newOptions.useBinaryInterceptBodyTransport);
+    }
+
+    boolean interceptRequestFilterChanged = newOptionsMap.containsKey("interceptRequestFilter") &&
+            (options.interceptRequestFilter != null ? !options.interceptRequestFilter.equals(newOptions.interceptRequestFilter) : newOptions.interceptRequestFilter != null);
+    boolean useShouldInterceptRequest = newOptions.useShouldInterceptAjaxRequest || newOptions.useShouldInterceptFetchRequest;
+    if (useShouldInterceptRequest && (interceptRequestFilterChanged ||
+            !userContentController.containsPluginScriptByGroupName(InterceptRequestFilterJS.INTERCEPT_REQUEST_FILTER_JS_PLUGIN_SCRIPT_GROUP_NAME))) {
+      setInterceptRequestFilter(newOptions.interceptRequestFilter);
+    }
+
     if (newOptionsMap.get("useOnLoadResource") != null && options.useOnLoadResource != newOptions.useOnLoadResource) {
       enablePluginScriptAtRuntime(
               OnLoadResourceJS.FLAG_VARIABLE_FOR_ON_LOAD_RESOURCE_JS_SOURCE,
               newOptions.useOnLoadResource,
-              OnLoadResourceJS.ON_LOAD_RESOURCE_JS_PLUGIN_SCRIPT
+              OnLoadResourceJS.createPluginScript(newOptions.onLoadResourceBatchSize, newOptions.onLoadResourceBatchInterval)
+      );
+    }
+
+    boolean onLoadResourceBatchChanged = (newOptionsMap.get("onLoadResourceBatchSize") != null && !options.onLoadResourceBatchSize.equals(newOptions.onLoadResourceBatchSize)) ||
+            (newOptionsMap.get("onLoadResourceBatchInterval") != null && !options.onLoadResourceBatchInterval.equals(newOptions.onLoadResourceBatchInterval));
+    if (onLoadResourceBatchChanged) {
+      // the observer of the current page keeps its batching, the new one is used from the next page load
+      userContentController.removePluginScriptsByGroupName(OnLoadResourceJS.ON_LOAD_RESOURCE_JS_PLUGIN_SCRIPT_GROUP_NAME);
+      if (newOptions.useOnLoadResource) {
+        userContentController.addPluginScript(OnLoadResourceJS.createPluginScript(newOptions.onLoadResourceBatchSize, newOptions.onLoadResourceBatchInterval));
+      }
+    }
+
+    if (newOptionsMap.containsKey("consoleMessagePipeline") &&
+            (options.consoleMessagePipeline != null ? !options.consoleMessagePipeline.equals(newOptions.consoleMessagePipeline) : newOptions.consoleMessagePipeline != null)) {
+      consoleMessageDispatcher.configure(newOptions.consoleMessagePipeline);
+    }
+
+    if (newOptionsMap.containsKey("resourceCustomSchemeMappings") &&
+            (options.resourceCustomSchemeMappings != null ? !options.resourceCustomSchemeMappings.equals(newOptions.resourceCustomSchemeMappings) : newOptions.resourceCustomSchemeMappings != null)) {
+      customSchemeResourceProvider = createCustomSchemeResourceProvider(newOptions.resourceCustomSchemeMappings);
+    }
+
+    if (newOptionsMap.get("scrollEventMode") != null && !options.scrollEventMode.equals(newOptions.scrollEventMode)) {
+      // send what the previous mode was holding back, the new mode applies from the next event
+      scrollEventDispatcher.flushPending();
+    }
+
+    if (newOptionsMap.get("useNativeDocumentStartScripts") != null && options.useNativeDocumentStartScripts != newOptions.useNativeDocumentStartScripts) {
+      if (newOptions.useNativeDocumentStartScripts) {
+        userContentController.enableNativeDocumentStartScripts(this);
+      } else {
+        userContentController.disableNativeDocumentStartScripts();
+      }
+    }
+
+    if (newOptionsMap.get("useBatchedJavaScriptBridge") != null && options.useBatchedJavaScriptBridge != newOptions.useBatchedJavaScriptBridge) {
+      enablePluginScriptAtRuntime(
+              JavaScriptBridgeBatchJS.FLAG_VARIABLE_FOR_JAVASCRIPT_BRIDGE_BATCH_JS_SOURCE,
+              newOptions.useBatchedJavaScriptBridge,
+              JavaScriptBridgeBatchJS.JAVASCRIPT_BRIDGE_BATCH_JS_PLUGIN_SCRIPT
       );
     }
 
@@ -877,16 +991,14 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
         regexToCancelSubFramesLoadingCompiled = Pattern.compile(options.regexToCancelSubFramesLoading);
     }
 
-    if (newOptions.contentBlockers != null) {
-      contentBlockerHandler.getRuleList().clear();
-      for (Map<String, Map<String, Object>> contentBlocker : newOptions.contentBlockers) {
-        // compile ContentBlockerTrigger urlFilter
-        ContentBlockerTrigger trigger = ContentBlockerTrigger.fromMap(contentBlocker.get("trigger"));
-        ContentBlockerAction action = ContentBlockerAction.fromMap(contentBlocker.get("action"));
-        contentBlockerHandler.getRuleList().add(new ContentBlocker(trigger, action));
-      }
+    if (newOptions.contentBlockers != null &&
+            (newOptionsMap.containsKey("contentBlockers") || newOptionsMap.containsKey("useIndexedContentBlockers"))) {
+      setContentBlockers(newOptions.contentBlockers, newOptions.useIndexedContentBlockers);
     }
 
+    if (newOptionsMap.get("useContentBlockerHeadRequests") != null && !options.useContentBlockerHeadRequests.equals(newOptions.useContentBlockerHeadRequests))
+      contentBlockerHandler.setUseHeadRequests(newOptions.useContentBlockerHeadRequests);
+
     if (newOptionsMap.get("scrollBarStyle") != null && !options.scrollBarStyle.equals(newOptions.scrollBarStyle))
       setScrollBarStyle(newOptions.scrollBarStyle);
 
@@ -967,6 +1079,34 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
     });
   }
 
+  /**
+   * The transport object is only injected in the pages loaded after it is enabled.
+   */
+  public void setUseBinaryInterceptBodyTransport(boolean enable) {
+    if (enable) {
+      if (interceptBodyTransport == null) {
+        interceptBodyTransport = new InterceptBodyTransport(this);
+      }
+      if (interceptBodyTransport.register()) {
+        userContentController.addPluginScript(InterceptBodyTransportJS.INTERCEPT_BODY_TRANSPORT_JS_PLUGIN_SCRIPT);
+      }
+    } else if (interceptBodyTransport != null) {
+      interceptBodyTransport.unregister();
+      userContentController.removePluginScript(InterceptBodyTransportJS.INTERCEPT_BODY_TRANSPORT_JS_PLUGIN_SCRIPT);
+      evaluateJavascript("window." + InterceptBodyTransportJS.CALL_HANDLER_WITH_BODY_FUNCTION_NAME + " = null;", null, null);
+    }
+  }
+
+  /**
+   * Replaces the filter used by the fetch and XMLHttpRequest interceptors, for the current page and the next ones.
+   */
+  public void setInterceptRequestFilter(@Nullable Map<String, Object> interceptRequestFilter) {
+    PluginScript pluginScript = InterceptRequestFilterJS.createPluginScript(interceptRequestFilter);
+    userContentController.removePluginScriptsByGroupName(InterceptRequestFilterJS.INTERCEPT_REQUEST_FILTER_JS_PLUGIN_SCRIPT_GROUP_NAME);
+    userContentController.addPluginScript(pluginScript);
+    evaluateJavascript(pluginScript.getSource(), null, null);
+  }
+
   public void injectDeferredObject(String source, @Nullable final ContentWorld contentWorld, String jsWrapper, @Nullable final ValueCallback<String> resultCallback) {
     final String resultUuid = contentWorld != null && !contentWorld.equals(ContentWorld.PAGE) ? UUID.randomUUID().toString() : null;
     String scriptToInject = source;
@@ -1155,10 +1295,7 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
       floatingContextMenu.setVisibility(View.GONE);
     }
 
-    Map<String, Object> obj = new HashMap<>();
-    obj.put("x", x);
-    obj.put("y", y);
-    channel.invokeMethod("onScrollChanged", obj);
+    scrollEventDispatcher.onScrollChanged(x, y);
   }
 
   public void scrollTo(Integer x, Integer y, Boolean animated) {
@@ -1285,12 +1422,7 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
     }
 
     if (overScrolledHorizontally || overScrolledVertically) {
-      Map<String, Object> obj = new HashMap<>();
-      obj.put("x", scrollX);
-      obj.put("y", scrollY);
-      obj.put("clampedX", overScrolledHorizontally);
-      obj.put("clampedY", overScrolledVertically);
-      channel.invokeMethod("onOverScrolled", obj);
+      scrollEventDispatcher.onOverScrolled(scrollX, scrollY, overScrolledHorizontally, overScrolledVertically);
     }
   }
 
@@ -1516,6 +1648,7 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
   }
 
   public void onScrollStopped() {
+    scrollEventDispatcher.onScrollStopped();
     if (floatingContextMenu != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
       adjustFloatingContextMenuPosition();
     }
@@ -1675,7 +1808,12 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
   }
 
   public void disposeWebMessageListeners() {
+    // a pooled WebView is not destroyed, so the listeners must also be removed from its pages
+    boolean canRemove = WebViewFeature.isFeatureSupported(WebViewFeature.WEB_MESSAGE_LISTENER);
     for (WebMessageListener webMessageListener : webMessageListeners) {
+      if (canRemove && webMessageListener.jsObjectName != null) {
+        WebViewCompat.removeWebMessageListener(this, webMessageListener.jsObjectName);
+      }
       webMessageListener.dispose();
     }
     webMessageListeners.clear();
@@ -1768,6 +1906,12 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
     }
     mainLooperHandler.removeCallbacksAndMessages(null);
     mHandler.removeCallbacksAndMessages(null);
+    scrollEventDispatcher.dispose();
+    consoleMessageDispatcher.dispose();
+    customSchemeResourceProvider = null;
+    if (plugin != null && plugin.cookiePersistenceScheduler != null) {
+      plugin.cookiePersistenceScheduler.flushPending();
+    }
     disposeWebMessageChannels();
     disposeWebMessageListeners();
     removeAllViews();
@@ -1786,6 +1930,58 @@ final public class InAppWebView extends InputAwareWebView implements InAppWebVie
     super.dispose();
   }
 
+  /**
+   * Brings a disposed WebView back to the state of a new one, so that it can be kept by the {@link InAppWebViewPool}.
+   * prepare() sets again almost all the settings, so only the ones it changes conditionally are reset here.
+   */
+  public void resetForReuse() {
+    stopLoading();
+    clearHistory();
+    clearHistoryOnPageFinished = true;
+    clearMatches();
+    scrollTo(0, 0);
+    setFindListener(null);
+    setDownloadListener(null);
+    setOnCreateContextMenuListener(null);
+    setContainerView(null);
+    setUseHybridComposition(false);
+
+    id = null;
+    channel = null;
+    windowId = null;
+    contextMenu = null;
+    isLoading = false;
+    zoomScale = 1.0f;
+    topUrlSnapshot = null;
+    regexToCancelSubFramesLoadingCompiled = null;
+    appliedOptionsMap = null;
+    gestureDetector = null;
+    floatingContextMenu = null;
+    contentBlockerHandler = new ContentBlockerHandler();
+    userContentController.disableNativeDocumentStartScripts();
+    userContentController = new UserContentController();
+    scrollEventDispatcher.dispose();
+    scrollEventDispatcher.resetStats();
+    consoleMessageDispatcher.dispose();
+    consoleMessageDispatcher.resetStats();
+    if (interceptBodyTransport != null) {
+      interceptBodyTransport.unregister();
+      interceptBodyTransport = null;
+    }
+
+    WebSettings settings = getSettings();
+    setBackgroundColor(Color.WHITE);
+    settings.setMixedContentMode(WebSettings.MIXED_CONTENT_NEVER_ALLOW);
+    settings.setCacheMode(WebSettings.LOAD_DEFAULT);
+    settings.setLayoutAlgorithm(WebSettings.LayoutAlgorithm.NARROW_COLUMNS);
+    settings.setDisabledActionModeMenuItems(WebSettings.MENU_ITEM_NONE);
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+      settings.setForceDark(WebSettings.FORCE_DARK_AUTO);
+    }
+    setRendererPriorityPolicy(RENDERER_PRIORITY_IMPORTANT, false);
+    setNetworkAvailable(true);
+  }
+
   @Override
   public void destroy() {
     super.destroy();
@@ -34,6 +34,7 @@ import android.widget.EditText;
 import android.widget.FrameLayout;
 import android.widget.LinearLayout;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
 import androidx.appcompat.app.AlertDialog;
@@ -47,7 +48,6 @@ import com.pichillilorenzo.flutter_inappwebview.InAppWebViewFlutterPlugin;
 import com.pichillilorenzo.flutter_inappwebview.R;
 import com.pichillilorenzo.flutter_inappwebview.types.URLRequest;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -101,6 +101,8 @@ public class InAppWebViewChromeClient extends WebChromeClient implements PluginR
   private int mOriginalSystemUiVisibility;
   @Nullable
   public InAppWebViewFlutterPlugin plugin;
+  @Nullable
+  public ConsoleMessageDispatcher consoleMessageDispatcher;
 
   public InAppWebViewChromeClient(final InAppWebViewFlutterPlugin plugin, MethodChannel channel, InAppBrowserDelegate inAppBrowserDelegate) {
     super();
@@ -697,6 +699,10 @@ public class InAppWebViewChromeClient extends WebChromeClient implements PluginR
 
   @Override
   public boolean onConsoleMessage(ConsoleMessage consoleMessage) {
+    if (consoleMessageDispatcher != null) {
+      consoleMessageDispatcher.onConsoleMessage(consoleMessage);
+      return true;
+    }
     Map<String, Object> obj = new HashMap<>();
     obj.put("message", consoleMessage.message());
     obj.put("messageLevel", consoleMessage.messageLevel().ordinal());
@@ -740,22 +746,23 @@ public class InAppWebViewChromeClient extends WebChromeClient implements PluginR
   public void onReceivedIcon(WebView view, Bitmap icon) {
     super.onReceivedIcon(view, icon);
 
-    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-    icon.compress(Bitmap.CompressFormat.PNG, 100, byteArrayOutputStream);
-    try {
-      byteArrayOutputStream.close();
-    } catch (IOException e) {
-      e.printStackTrace();
-      String errorMessage = e.getMessage();
-      if (errorMessage != null) {
-        Log.e(LOG_TAG, errorMessage);
-      }
+    InAppWebView webView = (InAppWebView) view;
+    if (!webView.options.useOnReceivedIcon) {
+      return;
     }
-    icon.recycle();
 
-    Map<String, Object> obj = new HashMap<>();
-    obj.put("icon", byteArrayOutputStream.toByteArray());
-    channel.invokeMethod("onReceivedIcon", obj);
+    FaviconEncoder.getInstance().encode(view.getUrl(), icon,
+            webView.options.receivedIconMaxSize,
+            webView.options.receivedIconCompressFormat,
+            webView.options.receivedIconQuality,
+            new FaviconEncoder.Callback() {
+              @Override
+              public void onEncoded(@NonNull byte[] data) {
+                Map<String, Object> obj = new HashMap<>();
+                obj.put("icon", data);
+                channel.invokeMethod("onReceivedIcon", obj);
+              }
+            });
   }
 
   @Override
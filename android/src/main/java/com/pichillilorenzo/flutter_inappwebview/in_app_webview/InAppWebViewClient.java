@@ -25,6 +25,11 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
 
+import com.pichillilorenzo.flutter_inappwebview.BridgeReadyMetrics;
+import com.pichillilorenzo.flutter_inappwebview.HttpClientRegistry;
+import com.pichillilorenzo.flutter_inappwebview.InAppWebViewFlutterPlugin;
+import com.pichillilorenzo.flutter_inappwebview.InterceptRequestMetrics;
+import com.pichillilorenzo.flutter_inappwebview.PendingResponseInputStream;
 import com.pichillilorenzo.flutter_inappwebview.Util;
 import com.pichillilorenzo.flutter_inappwebview.credential_database.CredentialDatabase;
 import com.pichillilorenzo.flutter_inappwebview.in_app_browser.InAppBrowserDelegate;
@@ -40,9 +45,11 @@ import com.pichillilorenzo.flutter_inappwebview.types.URLRequest;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.URLConnection;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.security.KeyStore;
@@ -59,6 +66,7 @@ import javax.net.ssl.TrustManagerFactory;
 import javax.net.ssl.X509TrustManager;
 
 import io.flutter.plugin.common.MethodChannel;
+import okhttp3.CacheControl;
 import okhttp3.ConnectionSpec;
 import okhttp3.Headers;
 import okhttp3.MediaType;
@@ -66,23 +74,32 @@ import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.TlsVersion;
+import okio.BufferedSource;
 
 public class InAppWebViewClient extends WebViewClient {
 
     protected static final String LOG_TAG = "IAWebViewClient";
+    private static final String BRIDGE_READY_TIME_GETTER_JS_SOURCE = "window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + " != null ? " +
+            "window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "._bridgeReadyTime : null";
     private InAppBrowserDelegate inAppBrowserDelegate;
     private final MethodChannel channel;
     private static int previousAuthRequestFailureCount = 0;
     private static List<URLCredential> credentialsProposed = null;
-    protected static OkHttpClient httpClient;
+    protected OkHttpClient httpClient;
+    public final InterceptRequestMetrics interceptRequestMetrics = new InterceptRequestMetrics();
+    public final BridgeReadyMetrics bridgeReadyMetrics = new BridgeReadyMetrics();
 
-    public InAppWebViewClient(MethodChannel channel, InAppBrowserDelegate inAppBrowserDelegate) {
+    public InAppWebViewClient(@Nullable InAppWebViewFlutterPlugin plugin, MethodChannel channel, InAppBrowserDelegate inAppBrowserDelegate) {
         super();
 
         this.channel = channel;
         this.inAppBrowserDelegate = inAppBrowserDelegate;
 
-        httpClient = new OkHttpClient.Builder().followRedirects(false).followSslRedirects(false).build();
+        if (plugin != null && plugin.httpClientRegistry != null) {
+            httpClient = plugin.httpClientRegistry.getNoRedirectClient();
+        } else {
+            httpClient = new OkHttpClient.Builder().followRedirects(false).followSslRedirects(false).build();
+        }
 //        try {
 //            httpClient = InAppWebViewClient.createOkhttpClientBuilderWithTlsConfig()
 //                    .followRedirects(false)
@@ -244,6 +261,7 @@ public class InAppWebViewClient extends WebViewClient {
     public void onPageStarted(WebView view, String url, Bitmap favicon) {
         final InAppWebView webView = (InAppWebView) view;
         webView.isLoading = true;
+        webView.updateTopUrlSnapshot(url);
         webView.disposeWebMessageChannels();
         webView.userContentController.resetContentWorlds();
         loadCustomJavaScriptOnPageStarted(webView);
@@ -263,6 +281,10 @@ public class InAppWebViewClient extends WebViewClient {
     public void onPageFinished(WebView view, String url) {
         final InAppWebView webView = (InAppWebView) view;
         webView.isLoading = false;
+        if (webView.clearHistoryOnPageFinished) {
+            webView.clearHistoryOnPageFinished = false;
+            webView.clearHistory();
+        }
         loadCustomJavaScriptOnPageFinished(webView);
         previousAuthRequestFailureCount = 0;
         credentialsProposed = null;
@@ -274,7 +296,9 @@ public class InAppWebViewClient extends WebViewClient {
         }
 
         // WebView not storing cookies reliable to local device storage
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+        if (webView.plugin != null && webView.plugin.cookiePersistenceScheduler != null) {
+            webView.plugin.cookiePersistenceScheduler.requestFlush();
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
             CookieManager.getInstance().flush();
         } else {
             CookieSyncManager.getInstance().sync();
@@ -287,18 +311,36 @@ public class InAppWebViewClient extends WebViewClient {
         } else {
             webView.loadUrl("javascript:" + js.replaceAll("[\r\n]+", ""));
         }
+        recordBridgeReadyTime(webView);
 
         Map<String, Object> obj = new HashMap<>();
         obj.put("url", url);
         channel.invokeMethod("onLoadStop", obj);
     }
 
+    private void recordBridgeReadyTime(InAppWebView webView) {
+        final boolean nativeDocumentStartScripts = webView.userContentController.isUsingNativeDocumentStartScripts();
+        webView.evaluateJavascript(BRIDGE_READY_TIME_GETTER_JS_SOURCE, new ValueCallback<String>() {
+            @Override
+            public void onReceiveValue(String value) {
+                try {
+                    bridgeReadyMetrics.recordReady(nativeDocumentStartScripts, Double.parseDouble(value));
+                } catch (NumberFormatException | NullPointerException e) {
+                    bridgeReadyMetrics.recordNotReady();
+                }
+            }
+        });
+    }
+
     @Override
     public void doUpdateVisitedHistory(WebView view, String url, boolean isReload) {
         super.doUpdateVisitedHistory(view, url, isReload);
 
         url = view.getUrl();
 
+        final InAppWebView webView = (InAppWebView) view;
+        webView.updateTopUrlSnapshot(url);
+
         if (inAppBrowserDelegate != null) {
             inAppBrowserDelegate.didUpdateVisitedHistory(url);
         }
@@ -399,16 +441,23 @@ public class InAppWebViewClient extends WebViewClient {
 
         previousAuthRequestFailureCount++;
 
-        Map<String, Object> obj = new HashMap<>();
-        obj.put("host", host);
-        obj.put("protocol", protocol);
-        obj.put("realm", realm);
-        obj.put("port", port);
-        obj.put("previousFailureCount", previousAuthRequestFailureCount);
+        if (credentialsProposed == null) {
+            // the credentials are read on the database thread, or taken from its cache
+            CredentialDatabase.getInstance(view.getContext()).getHttpAuthCredentials(host, protocol, realm, port, new ValueCallback<List<URLCredential>>() {
+                @Override
+                public void onReceiveValue(List<URLCredential> credentials) {
+                    credentialsProposed = credentials;
+                    onReceivedHttpAuthRequest(view, handler, host, realm, protocol, port);
+                }
+            });
+            return;
+        }
 
-        if (credentialsProposed == null)
-            credentialsProposed = CredentialDatabase.getInstance(view.getContext()).getHttpAuthCredentials(host, protocol, realm, port);
+        onReceivedHttpAuthRequest(view, handler, host, realm, protocol, port);
+    }
 
+    private void onReceivedHttpAuthRequest(final WebView view, final HttpAuthHandler handler, final String host, final String realm,
+                                           final String protocol, final int port) {
         URLCredential credentialProposed = null;
         if (credentialsProposed != null && credentialsProposed.size() > 0) {
             credentialProposed = credentialsProposed.get(0);
@@ -426,11 +475,17 @@ public class InAppWebViewClient extends WebViewClient {
                     if (action != null) {
                         switch (action) {
                             case 1:
-                                String username = (String) responseMap.get("username");
-                                String password = (String) responseMap.get("password");
+                                final String username = (String) responseMap.get("username");
+                                final String password = (String) responseMap.get("password");
                                 Boolean permanentPersistence = (Boolean) responseMap.get("permanentPersistence");
                                 if (permanentPersistence != null && permanentPersistence) {
-                                    CredentialDatabase.getInstance(view.getContext()).setHttpAuthCredential(host, protocol, realm, port, username, password);
+                                    final CredentialDatabase credentialDatabase = CredentialDatabase.getInstance(view.getContext());
+                                    credentialDatabase.execute(new Runnable() {
+                                        @Override
+                                        public void run() {
+                                            credentialDatabase.setHttpAuthCredential(host, protocol, realm, port, username, password);
+                                        }
+                                    });
                                 }
                                 handler.proceed(username, password);
                                 return;
@@ -653,11 +708,49 @@ public class InAppWebViewClient extends WebViewClient {
 
         final InAppWebView webView = (InAppWebView) view;
 
+        WebResourceResponse mappedResponse = loadMappedResource(webView, url, null);
+        if (mappedResponse != null) {
+            return mappedResponse;
+        }
+
         if (webView.options.useShouldInterceptRequest) {
-            WebResourceResponse onShouldInterceptResponse = onShouldInterceptRequest(url);
+            WebResourceResponse onShouldInterceptResponse = onShouldInterceptRequest(webView, url);
             return onShouldInterceptResponse;
         }
 
+        return shouldInterceptRequest(webView, url, null);
+    }
+
+    /**
+     * Serves the urls matching the resourceCustomSchemeMappings option natively, without calling the Dart side.
+     * Returns null for the other urls.
+     */
+    @Nullable
+    private WebResourceResponse loadMappedResource(final InAppWebView webView, final String url, @Nullable Map<String, String> requestHeaders) {
+        CustomSchemeResourceProvider provider = webView.customSchemeResourceProvider;
+        if (provider == null) {
+            return null;
+        }
+        WebResourceResponse response = provider.load(url, requestHeaders);
+        if (response != null && webView.contentBlockerHandler.getRuleList().size() > 0) {
+            try {
+                WebResourceResponse blockedResponse = webView.contentBlockerHandler.checkUrl(webView, url, response.getMimeType());
+                if (blockedResponse != null) {
+                    response.getData().close();
+                    return blockedResponse;
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        return response;
+    }
+
+    /**
+     * @param requestHeaders the request headers, used by the content blocker to infer the resource type.
+     */
+    private WebResourceResponse shouldInterceptRequest(final InAppWebView webView, final String url, @Nullable Map<String, String> requestHeaders) {
+
         URI uri;
         try {
             uri = new URI(url);
@@ -679,15 +772,37 @@ public class InAppWebViewClient extends WebViewClient {
             final Map<String, Object> obj = new HashMap<>();
             obj.put("url", url);
 
+            if (webView.options.useAsyncShouldInterceptRequest) {
+                // the content type must be known before the answer, so it is guessed from the url
+                String contentType = URLConnection.guessContentTypeFromName(uri.getPath());
+                if (contentType == null) {
+                    contentType = "application/octet-stream";
+                }
+                WebResourceResponse response = null;
+                try {
+                    response = webView.contentBlockerHandler.checkUrl(webView, url, contentType);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+                if (response != null)
+                    return response;
+                PendingResponseInputStream inputStream = invokePendingResponse(webView, "onLoadResourceCustomScheme", obj, null);
+                return new WebResourceResponse(contentType, null, inputStream);
+            }
+
+            interceptRequestMetrics.recordRequest();
             Util.WaitFlutterResult flutterResult;
             try {
-                flutterResult = Util.invokeMethodAndWait(channel, "onLoadResourceCustomScheme", obj);
+                flutterResult = Util.invokeMethodAndWait(channel, "onLoadResourceCustomScheme", obj, getShouldInterceptRequestTimeout(webView));
             } catch (InterruptedException e) {
                 e.printStackTrace();
                 return null;
             }
+            recordWaitFlutterResult(flutterResult);
 
-            if (flutterResult.error != null) {
+            if (flutterResult.timedOut) {
+                Log.w(LOG_TAG, "onLoadResourceCustomScheme timed out for " + url);
+            } else if (flutterResult.error != null) {
                 Log.e(LOG_TAG, flutterResult.error);
             } else if (flutterResult.result != null) {
                 Map<String, Object> res = (Map<String, Object>) flutterResult.result;
@@ -707,7 +822,7 @@ public class InAppWebViewClient extends WebViewClient {
         WebResourceResponse response = null;
         if (webView.contentBlockerHandler.getRuleList().size() > 0) {
             try {
-                response = webView.contentBlockerHandler.checkUrl(webView, url);
+                response = webView.contentBlockerHandler.checkUrl(webView, url, requestHeaders);
             } catch (Exception e) {
                 e.printStackTrace();
             }
@@ -721,14 +836,19 @@ public class InAppWebViewClient extends WebViewClient {
 
         String url = request.getUrl().toString();
 
+        WebResourceResponse mappedResponse = loadMappedResource(webView, url, request.getRequestHeaders());
+        if (mappedResponse != null) {
+            return mappedResponse;
+        }
+
         if (webView.options.useShouldInterceptRequest) {
-            return onShouldInterceptRequest(request);
+            return onShouldInterceptRequest(webView, request);
         }
 
-        return shouldInterceptRequest(view, url);
+        return shouldInterceptRequest(webView, url, request.getRequestHeaders());
     }
 
-    public WebResourceResponse onShouldInterceptRequest(Object request) {
+    public WebResourceResponse onShouldInterceptRequest(InAppWebView webView, Object request) {
         String url = request instanceof String ? (String) request : null;
         String method = "GET";
         Map<String, String> headers = null;
@@ -755,21 +875,43 @@ public class InAppWebViewClient extends WebViewClient {
         }
         if (!isForMainFrame || !method.equals("GET")) return null;
         Util.WaitFlutterResult flutterResult;
-        Request req = new Request.Builder()
+        HttpClientRegistry httpClientRegistry = webView.plugin != null ? webView.plugin.httpClientRegistry : null;
+        // the disk cache is shared by all the WebViews and kept across the app launches,
+        // and it is keyed only by URL, so the responses to requests with credentials are never read from or written to it
+        OkHttpClient cachingHttpClient = httpClientRegistry != null && !webView.options.incognito && !hasCredentials(headers) ?
+                httpClientRegistry.getCachingNoRedirectClient() : null;
+        Request.Builder requestBuilder = new Request.Builder()
                 .method(method, null)
                 .url(url)
-                .headers(Headers.of(headers))
-                .build();
+                .headers(Headers.of(headers));
+        CacheControl cacheControl = cachingHttpClient != null ? HttpClientRegistry.getCacheControl(webView.options.cacheMode) : null;
+        if (cacheControl != null) {
+            requestBuilder.cacheControl(cacheControl);
+        }
+        Request req = requestBuilder.build();
+        Response response = null;
+        String contentTypeString = "";
+        String charsetString = StandardCharsets.UTF_8.toString();
+        Map<String, String> respHeaders = new HashMap<>();
+        byte[] body;
         try {
-            Response response = httpClient.newCall(req).execute();
+            response = (cachingHttpClient != null ? cachingHttpClient : httpClient).newCall(req).execute();
+            if (cachingHttpClient != null) {
+                httpClientRegistry.recordCacheResponse(response);
+                if (response.cacheResponse() == null && response.networkResponse() == null) {
+                    // LOAD_CACHE_ONLY without a cached response, the WebView looks in its own cache
+                    response.close();
+                    return null;
+                }
+            }
 
             // https://developer.android.com/reference/android/webkit/WebResourceResponse 3xx is not supported
-            if (response.isRedirect()) return null;
-            if (response.body() == null) return null;
+            if (response.isRedirect() || response.body() == null) {
+                response.close();
+                return null;
+            }
 
             String rawContentType = response.header("content-type") == null ? response.header("Content-Type") : response.header("content-type");
-            String contentTypeString = "";
-            String charsetString = StandardCharsets.UTF_8.toString();
             if (rawContentType != null) {
                 String[] splitContentType = rawContentType.split(";");
                 if (splitContentType.length > 0) {
@@ -793,14 +935,14 @@ public class InAppWebViewClient extends WebViewClient {
                 }
             }
 
-            Map<String, String> respHeaders = new HashMap<>();
+            webView.contentBlockerHandler.recordResponseContentType(url, contentTypeString);
+
             for (Map.Entry<String, List<String>> entry : response.headers().toMultimap().entrySet()) {
                 respHeaders.put(entry.getKey(), String.join("; ", entry.getValue()));
             }
             final Map<String, Object> obj = new HashMap<>();
             obj.put("contentType", contentTypeString);
             obj.put("contentEncoding", charsetString);
-            obj.put("data", response.body().bytes());
             if (!respHeaders.isEmpty()) {
                 obj.put("headers", respHeaders);
             }
@@ -813,11 +955,41 @@ public class InAppWebViewClient extends WebViewClient {
                     obj.put("reasonPhrase", "HTTP " + response.code());
                 }
             }
-            flutterResult = Util.invokeMethodAndWait(channel, "shouldInterceptResponse", obj);
+
+            if (webView.options.useStreamingShouldInterceptResponse) {
+                return streamInterceptedResponse(webView, response, obj, contentTypeString, charsetString, respHeaders);
+            }
+
+            if (webView.options.useAsyncShouldInterceptRequest) {
+                // the network response already gives the status and the headers, so only the body waits for the Dart answer.
+                // Dart doesn't get the body, which is streamed from the network when it doesn't answer with data in time:
+                // the WebView closes the stream, and so the response, when it is done with it
+                PendingResponseInputStream inputStream = invokePendingResponse(webView, "shouldInterceptResponse", obj, response.body().byteStream());
+                // the Dart answer can change the body length
+                Map<String, String> pendingHeaders = new HashMap<>(respHeaders);
+                pendingHeaders.remove("content-length");
+                return createNetworkWebResourceResponse(response, contentTypeString, charsetString, pendingHeaders, inputStream);
+            }
+
+            body = response.body().bytes();
+            obj.put("data", body);
+
+            interceptRequestMetrics.recordRequest();
+            flutterResult = Util.invokeMethodAndWait(channel, "shouldInterceptResponse", obj, getShouldInterceptRequestTimeout(webView));
+            recordWaitFlutterResult(flutterResult);
         } catch (Exception e) {
             e.printStackTrace();
+            // the body was not handed to a WebResourceResponse, so the connection goes back to the pool only if closed here
+            if (response != null) {
+                response.close();
+            }
             return null;
         }
+        if (flutterResult.timedOut) {
+            // the body is already downloaded, so it is served instead of letting the WebView load it again
+            Log.w(LOG_TAG, "shouldInterceptResponse timed out for " + url);
+            return createNetworkWebResourceResponse(response, contentTypeString, charsetString, respHeaders, new ByteArrayInputStream(body));
+        }
         // Only for BitizenWallet :: End
 
 
@@ -839,35 +1011,181 @@ public class InAppWebViewClient extends WebViewClient {
 
         if (flutterResult.error != null) {
             Log.e(LOG_TAG, flutterResult.error);
+            return createNetworkWebResourceResponse(response, contentTypeString, charsetString, respHeaders, new ByteArrayInputStream(body));
         } else if (flutterResult.result != null) {
             Map<String, Object> res = (Map<String, Object>) flutterResult.result;
-            String contentType = (String) res.get("contentType");
-            String contentEncoding = (String) res.get("contentEncoding");
+            webView.contentBlockerHandler.recordResponseContentType(url, (String) res.get("contentType"));
             byte[] data = (byte[]) res.get("data");
+            return createWebResourceResponse(res, (data != null) ? new ByteArrayInputStream(data) : null);
+        }
 
-            Map<String, String> responseHeaders = null;
-            if (res.get("headers") != null) {
-                responseHeaders = (Map<String, String>) res.get("headers");
-            }
-            Integer statusCode = null;
-            if (res.get("statusCode") != null) {
-                statusCode = (Integer) res.get("statusCode");
+        return null;
+    }
+
+    /**
+     * Streams the network body straight into the WebView. Dart only gets the status and the headers,
+     * unless it answers with rewriteBody, in which case it is called again with the body,
+     * as long as the body is not larger than maxShouldInterceptResponseBodySize.
+     */
+    private WebResourceResponse streamInterceptedResponse(InAppWebView webView, Response response, Map<String, Object> obj,
+                                                          String contentType, String charset, Map<String, String> headers) throws InterruptedException, IOException {
+        // the data is null, and the status is always set, so the answer can be used as it is with the network body
+        if (!obj.containsKey("statusCode")) {
+            obj.put("statusCode", response.code());
+            obj.put("reasonPhrase", response.message().isEmpty() ? "HTTP " + response.code() : response.message());
+        }
+        Map<String, Object> res = invokeShouldInterceptResponse(webView, obj);
+        if (res != null && res.get("contentType") != null && !res.get("contentType").equals(contentType)) {
+            webView.contentBlockerHandler.recordResponseContentType((String) obj.get("url"), (String) res.get("contentType"));
+        }
+
+        if (res != null && Boolean.TRUE.equals(res.get("rewriteBody"))) {
+            byte[] body = readBody(response, webView.options.maxShouldInterceptResponseBodySize);
+            if (body != null) {
+                obj.put("data", body);
+                Map<String, Object> rewrittenRes = invokeShouldInterceptResponse(webView, obj);
+                if (rewrittenRes != null) {
+                    byte[] data = (byte[]) rewrittenRes.get("data");
+                    return createWebResourceResponse(rewrittenRes, new ByteArrayInputStream(data != null ? data : body));
+                }
+                return createNetworkWebResourceResponse(response, contentType, charset, headers, new ByteArrayInputStream(body));
             }
-            String reasonPhrase = null;
-            if (res.get("reasonPhrase") != null) {
-                reasonPhrase = (String) res.get("reasonPhrase");
+            Log.w(LOG_TAG, "The body of " + obj.get("url") + " is larger than maxShouldInterceptResponseBodySize, so it is not rewritten");
+        }
+
+        if (res != null && res.get("data") != null) {
+            response.close();
+            return createWebResourceResponse(res, new ByteArrayInputStream((byte[]) res.get("data")));
+        }
+        // the WebView closes the stream, and so the response, when it is done with it
+        InputStream inputStream = response.body().byteStream();
+        if (res != null) {
+            return createWebResourceResponse(res, inputStream);
+        }
+        return createNetworkWebResourceResponse(response, contentType, charset, headers, inputStream);
+    }
+
+    @Nullable
+    private Map<String, Object> invokeShouldInterceptResponse(InAppWebView webView, Map<String, Object> obj) throws InterruptedException {
+        interceptRequestMetrics.recordRequest();
+        Util.WaitFlutterResult flutterResult = Util.invokeMethodAndWait(channel, "shouldInterceptResponse", obj, getShouldInterceptRequestTimeout(webView));
+        recordWaitFlutterResult(flutterResult);
+        if (flutterResult.timedOut) {
+            Log.w(LOG_TAG, "shouldInterceptResponse timed out for " + obj.get("url"));
+            return null;
+        }
+        if (flutterResult.error != null) {
+            Log.e(LOG_TAG, flutterResult.error);
+            return null;
+        }
+        return (Map<String, Object>) flutterResult.result;
+    }
+
+    private static boolean hasCredentials(Map<String, String> headers) {
+        for (String name : headers.keySet()) {
+            if (name.equalsIgnoreCase("Cookie") || name.equalsIgnoreCase("Authorization")) {
+                return true;
             }
+        }
+        return false;
+    }
 
-            ByteArrayInputStream inputStream = (data != null) ? new ByteArrayInputStream(data) : null;
+    /**
+     * Reads the whole body, or returns null without losing any byte of the stream if it is larger than maxSize.
+     */
+    @Nullable
+    private static byte[] readBody(Response response, @Nullable Integer maxSize) throws IOException {
+        BufferedSource source = response.body().source();
+        if (maxSize != null && maxSize >= 0 && source.request(maxSize + 1L)) {
+            return null;
+        }
+        byte[] body = source.readByteArray();
+        response.close();
+        return body;
+    }
 
-            if (responseHeaders == null && statusCode == null && reasonPhrase == null) {
-                return new WebResourceResponse(contentType, contentEncoding, inputStream);
-            } else {
-                return new WebResourceResponse(contentType, contentEncoding, statusCode, reasonPhrase, responseHeaders, inputStream);
+    private static WebResourceResponse createNetworkWebResourceResponse(Response response, String contentType, String charset,
+                                                                        Map<String, String> headers, InputStream inputStream) {
+        String reasonPhrase = response.message().isEmpty() ? "HTTP " + response.code() : response.message();
+        return new WebResourceResponse(contentType, charset, response.code(), reasonPhrase, headers, inputStream);
+    }
+
+    private static WebResourceResponse createWebResourceResponse(Map<String, Object> res, @Nullable InputStream inputStream) {
+        String contentType = (String) res.get("contentType");
+        String contentEncoding = (String) res.get("contentEncoding");
+
+        Map<String, String> responseHeaders = null;
+        if (res.get("headers") != null) {
+            responseHeaders = (Map<String, String>) res.get("headers");
+        }
+        Integer statusCode = null;
+        if (res.get("statusCode") != null) {
+            statusCode = (Integer) res.get("statusCode");
+        }
+        String reasonPhrase = null;
+        if (res.get("reasonPhrase") != null) {
+            reasonPhrase = (String) res.get("reasonPhrase");
+        }
+
+        if (responseHeaders == null && statusCode == null && reasonPhrase == null) {
+            return new WebResourceResponse(contentType, contentEncoding, inputStream);
+        } else {
+            return new WebResourceResponse(contentType, contentEncoding, statusCode, reasonPhrase, responseHeaders, inputStream);
+        }
+    }
+
+    private long getShouldInterceptRequestTimeout(InAppWebView webView) {
+        Integer timeout = webView.options.shouldInterceptRequestTimeout;
+        return timeout != null && timeout > 0 ? timeout : 0;
+    }
+
+    private void recordWaitFlutterResult(Util.WaitFlutterResult flutterResult) {
+        if (flutterResult.timedOut) {
+            interceptRequestMetrics.recordTimedOut(flutterResult.waitNanos);
+            interceptRequestMetrics.recordFallback();
+        } else {
+            interceptRequestMetrics.recordAnswered(flutterResult.waitNanos);
+            if (flutterResult.error != null || flutterResult.result == null) {
+                interceptRequestMetrics.recordFallback();
             }
         }
+    }
 
-        return null;
+    /**
+     * Invokes the method without waiting for the result, which is written into the returned stream
+     * when the Dart side answers.
+     */
+    private PendingResponseInputStream invokePendingResponse(InAppWebView webView, final String method,
+                                                             final Map<String, Object> arguments, @Nullable InputStream fallback) {
+        interceptRequestMetrics.recordRequest();
+        final PendingResponseInputStream inputStream = new PendingResponseInputStream(getShouldInterceptRequestTimeout(webView), fallback, interceptRequestMetrics);
+        webView.mainLooperHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                channel.invokeMethod(method, arguments, new MethodChannel.Result() {
+                    @Override
+                    public void success(@Nullable Object result) {
+                        byte[] data = null;
+                        if (result instanceof Map) {
+                            data = (byte[]) ((Map<String, Object>) result).get("data");
+                        }
+                        inputStream.complete(data);
+                    }
+
+                    @Override
+                    public void error(String errorCode, @Nullable String errorMessage, @Nullable Object errorDetails) {
+                        Log.e(LOG_TAG, errorCode + ", " + ((errorMessage != null) ? errorMessage : ""));
+                        inputStream.complete(null);
+                    }
+
+                    @Override
+                    public void notImplemented() {
+                        inputStream.complete(null);
+                    }
+                });
+            }
+        });
+        return inputStream;
     }
 
     @Override
@@ -7,10 +7,12 @@ import android.webkit.WebSettings;
 import androidx.annotation.Nullable;
 
 import com.pichillilorenzo.flutter_inappwebview.Options;
+import com.pichillilorenzo.flutter_inappwebview.Util;
 import com.pichillilorenzo.flutter_inappwebview.types.InAppWebViewInterface;
 import com.pichillilorenzo.flutter_inappwebview.types.PreferredContentModeOptionType;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,7 +20,7 @@ import java.util.Map;
 import static android.webkit.WebSettings.LayoutAlgorithm.NARROW_COLUMNS;
 import static android.webkit.WebSettings.LayoutAlgorithm.NORMAL;
 
-public class InAppWebViewOptions implements Options<InAppWebViewInterface> {
+public class InAppWebViewOptions implements Options<InAppWebViewInterface>, Cloneable {
 
   public static final String LOG_TAG = "InAppWebViewOptions";
 
@@ -36,6 +38,8 @@ public class InAppWebViewOptions implements Options<InAppWebViewInterface> {
   public Boolean horizontalScrollBarEnabled = true;
   public List<String> resourceCustomSchemes = new ArrayList<>();
   public List<Map<String, Map<String, Object>>> contentBlockers = new ArrayList<>();
+  public Boolean useIndexedContentBlockers = true;
+  public Boolean useContentBlockerHeadRequests = false;
   public Integer preferredContentMode = PreferredContentModeOptionType.RECOMMENDED.toValue();
   public Boolean useShouldInterceptAjaxRequest = false;
   public Boolean useShouldInterceptFetchRequest = false;
@@ -97,6 +101,28 @@ public class InAppWebViewOptions implements Options<InAppWebViewInterface> {
   public Integer scrollBarFadeDuration = null;
   public Map<String, Object> rendererPriorityPolicy = new HashMap<>();
   public Boolean useShouldInterceptRequest = false;
+  public Boolean useAsyncShouldInterceptRequest = false;
+  @Nullable
+  public Integer shouldInterceptRequestTimeout;
+  public Boolean useStreamingShouldInterceptResponse = false;
+  @Nullable
+  public Integer maxShouldInterceptResponseBodySize = 2 * 1024 * 1024;
+  public Boolean useBatchedJavaScriptBridge = false;
+  public Boolean useNativeDocumentStartScripts = false;
+  public Integer scrollEventMode = ScrollEventDispatcher.MODE_ALL;
+  public Integer scrollEventThrottleInterval = 100;
+  @Nullable
+  public Map<String, Object> interceptRequestFilter;
+  public Boolean useBinaryInterceptBodyTransport = false;
+  public Integer onLoadResourceBatchSize = 0;
+  public Integer onLoadResourceBatchInterval = 1000;
+  public Map<String, Object> consoleMessagePipeline;
+  @Nullable
+  public List<Map<String, Object>> resourceCustomSchemeMappings;
+  public Boolean useOnReceivedIcon = false;
+  public Integer receivedIconMaxSize = 0;
+  public String receivedIconCompressFormat = "PNG";
+  public Integer receivedIconQuality = 100;
   public Boolean useOnRenderProcessGone = false;
   public Boolean disableDefaultErrorPage = false;
   public Boolean useHybridComposition = false;
@@ -109,6 +135,52 @@ public class InAppWebViewOptions implements Options<InAppWebViewInterface> {
   @Nullable
   public String horizontalScrollbarTrackColor;
 
+  // actions rather than settings: they are applied every time they are set to true
+  private static final String[] ALWAYS_APPLIED_OPTIONS = new String[] {"clearCache", "clearSessionCache"};
+
+  /**
+   * Returns the entries of newOptionsMap whose value is not the same in previousOptionsMap,
+   * without allocating anything when nothing changed.
+   * newOptionsMap itself is returned if previousOptionsMap is null.
+   */
+  public static Map<String, Object> diff(@Nullable Map<String, Object> previousOptionsMap, Map<String, Object> newOptionsMap) {
+    if (previousOptionsMap == null) {
+      return newOptionsMap;
+    }
+    Map<String, Object> changedOptionsMap = null;
+    for (Map.Entry<String, Object> pair : newOptionsMap.entrySet()) {
+      String key = pair.getKey();
+      Object value = pair.getValue();
+      if (!Util.objEquals(previousOptionsMap.get(key), value) || (value == null && !previousOptionsMap.containsKey(key))) {
+        if (changedOptionsMap == null) {
+          changedOptionsMap = new HashMap<>();
+        }
+        changedOptionsMap.put(key, value);
+      }
+    }
+    for (String key : ALWAYS_APPLIED_OPTIONS) {
+      if (Boolean.TRUE.equals(newOptionsMap.get(key))) {
+        if (changedOptionsMap == null) {
+          changedOptionsMap = new HashMap<>();
+        }
+        changedOptionsMap.put(key, true);
+      }
+    }
+    return changedOptionsMap != null ? changedOptionsMap : Collections.<String, Object>emptyMap();
+  }
+
+  /**
+   * Returns a shallow copy, to parse the changed options into while the current ones are still applied.
+   * parse replaces the list and map values instead of modifying them, so the copies can share them.
+   */
+  public InAppWebViewOptions copy() {
+    try {
+      return (InAppWebViewOptions) clone();
+    } catch (CloneNotSupportedException e) {
+      throw new AssertionError(e);
+    }
+  }
+
   @Override
   public InAppWebViewOptions parse(Map<String, Object> options) {
     for (Map.Entry<String, Object> pair : options.entrySet()) {
@@ -161,6 +233,12 @@ public class InAppWebViewOptions implements Options<InAppWebViewInterface> {
         case "contentBlockers":
           contentBlockers = (List<Map<String, Map<String, Object>>>) value;
           break;
+        case "useIndexedContentBlockers":
+          useIndexedContentBlockers = (Boolean) value;
+          break;
+        case "useContentBlockerHeadRequests":
+          useContentBlockerHeadRequests = (Boolean) value;
+          break;
         case "preferredContentMode":
           preferredContentMode = (Integer) value;
           break;
@@ -341,6 +419,60 @@ public class InAppWebViewOptions implements Options<InAppWebViewInterface> {
         case "useShouldInterceptRequest":
           useShouldInterceptRequest = (Boolean) value;
           break;
+        case "useAsyncShouldInterceptRequest":
+          useAsyncShouldInterceptRequest = (Boolean) value;
+          break;
+        case "shouldInterceptRequestTimeout":
+          shouldInterceptRequestTimeout = (Integer) value;
+          break;
+        case "useStreamingShouldInterceptResponse":
+          useStreamingShouldInterceptResponse = (Boolean) value;
+          break;
+        case "maxShouldInterceptResponseBodySize":
+          maxShouldInterceptResponseBodySize = (Integer) value;
+          break;
+        case "useBatchedJavaScriptBridge":
+          useBatchedJavaScriptBridge = (Boolean) value;
+          break;
+        case "useNativeDocumentStartScripts":
+          useNativeDocumentStartScripts = (Boolean) value;
+          break;
+        case "scrollEventMode":
+          scrollEventMode = (Integer) value;
+          break;
+        case "scrollEventThrottleInterval":
+          scrollEventThrottleInterval = (Integer) value;
+          break;
+        case "interceptRequestFilter":
+          interceptRequestFilter = (Map<String, Object>) value;
+          break;
+        case "useBinaryInterceptBodyTransport":
+          useBinaryInterceptBodyTransport = (Boolean) value;
+          break;
+        case "onLoadResourceBatchSize":
+          onLoadResourceBatchSize = (Integer) value;
+          break;
+        case "onLoadResourceBatchInterval":
+          onLoadResourceBatchInterval = (Integer) value;
+          break;
+        case "consoleMessagePipeline":
+          consoleMessagePipeline = (Map<String, Object>) value;
+          break;
+        case "resourceCustomSchemeMappings":
+          resourceCustomSchemeMappings = (List<Map<String, Object>>) value;
+          break;
+        case "useOnReceivedIcon":
+          useOnReceivedIcon = (Boolean) value;
+          break;
+        case "receivedIconMaxSize":
+          receivedIconMaxSize = (Integer) value;
+          break;
+        case "receivedIconCompressFormat":
+          receivedIconCompressFormat = (String) value;
+          break;
+        case "receivedIconQuality":
+          receivedIconQuality = (Integer) value;
+          break;
         case "useOnRenderProcessGone":
           useOnRenderProcessGone = (Boolean) value;
           break;
@@ -385,6 +517,8 @@ public class InAppWebViewOptions implements Options<InAppWebViewInterface> {
     options.put("horizontalScrollBarEnabled", horizontalScrollBarEnabled);
     options.put("resourceCustomSchemes", resourceCustomSchemes);
     options.put("contentBlockers", contentBlockers);
+    options.put("useIndexedContentBlockers", useIndexedContentBlockers);
+    options.put("useContentBlockerHeadRequests", useContentBlockerHeadRequests);
     options.put("preferredContentMode", preferredContentMode);
     options.put("useShouldInterceptAjaxRequest", useShouldInterceptAjaxRequest);
     options.put("useShouldInterceptFetchRequest", useShouldInterceptFetchRequest);
@@ -445,6 +579,24 @@ public class InAppWebViewOptions implements Options<InAppWebViewInterface> {
     options.put("scrollBarFadeDuration", scrollBarFadeDuration);
     options.put("rendererPriorityPolicy", rendererPriorityPolicy);
     options.put("useShouldInterceptRequest", useShouldInterceptRequest);
+    options.put("useAsyncShouldInterceptRequest", useAsyncShouldInterceptRequest);
+    options.put("shouldInterceptRequestTimeout", shouldInterceptRequestTimeout);
+    options.put("useStreamingShouldInterceptResponse", useStreamingShouldInterceptResponse);
+    options.put("maxShouldInterceptResponseBodySize", maxShouldInterceptResponseBodySize);
+    options.put("useBatchedJavaScriptBridge", useBatchedJavaScriptBridge);
+    options.put("useNativeDocumentStartScripts", useNativeDocumentStartScripts);
+    options.put("scrollEventMode", scrollEventMode);
+    options.put("scrollEventThrottleInterval", scrollEventThrottleInterval);
+    options.put("interceptRequestFilter", interceptRequestFilter);
+    options.put("useBinaryInterceptBodyTransport", useBinaryInterceptBodyTransport);
+    options.put("onLoadResourceBatchSize", onLoadResourceBatchSize);
+    options.put("onLoadResourceBatchInterval", onLoadResourceBatchInterval);
+    options.put("consoleMessagePipeline", consoleMessagePipeline);
+    options.put("resourceCustomSchemeMappings", resourceCustomSchemeMappings);
+    options.put("useOnReceivedIcon", useOnReceivedIcon);
+    options.put("receivedIconMaxSize", receivedIconMaxSize);
+    options.put("receivedIconCompressFormat", receivedIconCompressFormat);
+    options.put("receivedIconQuality", receivedIconQuality);
     options.put("useOnRenderProcessGone", useOnRenderProcessGone);
     options.put("disableDefaultErrorPage", disableDefaultErrorPage);
     options.put("useHybridComposition", useHybridComposition);
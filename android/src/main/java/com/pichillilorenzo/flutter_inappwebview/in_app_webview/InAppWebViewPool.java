@@ -0,0 +1,174 @@
+package com.pichillilorenzo.flutter_inappwebview.in_app_webview;
+
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.view.ViewGroup;
+import android.webkit.WebSettings;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.pichillilorenzo.flutter_inappwebview.InAppWebViewFlutterPlugin;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps idle InAppWebView instances, created while the main thread is idle or recycled from disposed WebViews,
+ * so that a new WebView doesn't have to pay for the WebView construction (and the Chromium start-up the first time).
+ *
+ * The pooled WebViews are created with a MutableContextWrapper around the application context,
+ * which is switched to the context of the user while the WebView is in use.
+ * The pool is disabled until a maximum size greater than 0 is set with configure().
+ * It must only be used from the main thread.
+ */
+public class InAppWebViewPool {
+
+  protected static final String LOG_TAG = "InAppWebViewPool";
+
+  @Nullable
+  public InAppWebViewFlutterPlugin plugin;
+  private final ArrayDeque<InAppWebView> idleWebViews = new ArrayDeque<>();
+  private int maxSize = 0;
+  private int preWarmSize = 0;
+  private boolean preWarmScheduled = false;
+
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long recycledCount = 0;
+  private long discardedCount = 0;
+  private long createdCount = 0;
+  private long totalCreationNanos = 0;
+  private long maxCreationNanos = 0;
+  private long lastCreationNanos = 0;
+
+  private final MessageQueue.IdleHandler preWarmIdleHandler = new MessageQueue.IdleHandler() {
+    @Override
+    public boolean queueIdle() {
+      // create one WebView for each idle pass, so a frame never waits for more than one creation
+      if (plugin != null && idleWebViews.size() < preWarmSize) {
+        idleWebViews.addLast(create());
+      }
+      preWarmScheduled = plugin != null && idleWebViews.size() < preWarmSize;
+      return preWarmScheduled;
+    }
+  };
+
+  public InAppWebViewPool(final InAppWebViewFlutterPlugin plugin) {
+    this.plugin = plugin;
+  }
+
+  /**
+   * @param maxSize maximum number of idle WebViews kept by the pool, 0 disables it.
+   * @param preWarmSize number of idle WebViews created ahead of time, it can't be greater than maxSize.
+   */
+  public void configure(int maxSize, int preWarmSize) {
+    this.maxSize = Math.max(0, maxSize);
+    this.preWarmSize = Math.min(Math.max(0, preWarmSize), this.maxSize);
+    while (idleWebViews.size() > this.maxSize) {
+      idleWebViews.pollLast().destroy();
+    }
+    schedulePreWarm();
+  }
+
+  public boolean isEnabled() {
+    return plugin != null && maxSize > 0;
+  }
+
+  /**
+   * Returns an idle WebView, or a new one if the pool is empty, bound to the given context.
+   * Returns null if the pool is disabled.
+   */
+  @Nullable
+  public InAppWebView acquire(@NonNull Context context) {
+    if (!isEnabled()) {
+      return null;
+    }
+
+    InAppWebView webView = idleWebViews.pollFirst();
+    if (webView != null) {
+      hitCount++;
+    } else {
+      missCount++;
+      webView = create();
+    }
+    ((MutableContextWrapper) webView.getContext()).setBaseContext(context);
+    schedulePreWarm();
+    return webView;
+  }
+
+  /**
+   * Resets a disposed WebView and keeps it for a later acquire().
+   * Returns false if the WebView can't be reused, and then it must be destroyed by the caller.
+   */
+  public boolean release(@NonNull InAppWebView webView) {
+    boolean reusable = webView.getContext() instanceof MutableContextWrapper &&
+            (webView.options == null || !webView.options.incognito);
+    if (!isEnabled() || !reusable || idleWebViews.size() >= maxSize) {
+      discardedCount++;
+      return false;
+    }
+
+    if (webView.getParent() instanceof ViewGroup) {
+      ((ViewGroup) webView.getParent()).removeView(webView);
+    }
+    webView.resetForReuse();
+    ((MutableContextWrapper) webView.getContext()).setBaseContext(plugin.applicationContext);
+    idleWebViews.addLast(webView);
+    recycledCount++;
+    return true;
+  }
+
+  private InAppWebView create() {
+    long start = System.nanoTime();
+    InAppWebView webView = new InAppWebView(new MutableContextWrapper(plugin.applicationContext));
+    // the default user agent is read by prepare() and is loaded lazily on the first request
+    WebSettings.getDefaultUserAgent(plugin.applicationContext);
+    long creationNanos = System.nanoTime() - start;
+
+    createdCount++;
+    totalCreationNanos += creationNanos;
+    lastCreationNanos = creationNanos;
+    maxCreationNanos = Math.max(maxCreationNanos, creationNanos);
+    return webView;
+  }
+
+  private void schedulePreWarm() {
+    if (preWarmScheduled || plugin == null || idleWebViews.size() >= preWarmSize) {
+      return;
+    }
+    preWarmScheduled = true;
+    Looper.getMainLooper().getQueue().addIdleHandler(preWarmIdleHandler);
+  }
+
+  public Map<String, Object> getStats() {
+    long requestCount = hitCount + missCount;
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("maxSize", maxSize);
+    stats.put("preWarmSize", preWarmSize);
+    stats.put("idleCount", idleWebViews.size());
+    stats.put("hitCount", hitCount);
+    stats.put("missCount", missCount);
+    stats.put("hitRate", requestCount > 0 ? (double) hitCount / requestCount : 0.0);
+    stats.put("recycledCount", recycledCount);
+    stats.put("discardedCount", discardedCount);
+    stats.put("createdCount", createdCount);
+    stats.put("averageCreationMillis", createdCount > 0 ? (double) totalCreationNanos / createdCount / 1000000 : 0.0);
+    stats.put("maxCreationMillis", (double) maxCreationNanos / 1000000);
+    stats.put("lastCreationMillis", (double) lastCreationNanos / 1000000);
+    return stats;
+  }
+
+  public void dispose() {
+    Looper.getMainLooper().getQueue().removeIdleHandler(preWarmIdleHandler);
+    preWarmScheduled = false;
+    for (InAppWebView webView : idleWebViews) {
+      webView.destroy();
+    }
+    idleWebViews.clear();
+    plugin = null;
+  }
+}
@@ -51,6 +51,10 @@ public class InputAwareWebView extends WebView {
     this.containerView = null;
   }
 
+  public void setUseHybridComposition(boolean useHybridComposition) {
+    this.useHybridComposition = useHybridComposition;
+  }
+
   public void setContainerView(View containerView) {
     this.containerView = containerView;
 
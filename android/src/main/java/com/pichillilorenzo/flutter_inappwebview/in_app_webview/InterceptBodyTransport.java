@@ -0,0 +1,186 @@
+package com.pichillilorenzo.flutter_inappwebview.in_app_webview;
+
+import android.annotation.SuppressLint;
+import android.net.Uri;
+import android.util.Log;
+import android.webkit.WebView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.webkit.JavaScriptReplyProxy;
+import androidx.webkit.WebMessageCompat;
+import androidx.webkit.WebViewCompat;
+import androidx.webkit.WebViewFeature;
+
+import com.pichillilorenzo.flutter_inappwebview.plugin_scripts_js.InterceptBodyTransportJS;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * Carries the shouldInterceptFetchRequest and shouldInterceptAjaxRequest calls through a WebMessageListener,
+ * with the request and response bodies sent next to a small JSON header, one char per byte,
+ * instead of a JSON array of numbers going through the JavaScript interface and evaluateJavascript.
+ * The bodies reach the Dart side as a byte[], which the platform channel sends as a Uint8List.
+ */
+public class InterceptBodyTransport implements WebViewCompat.WebMessageListener {
+
+  protected static final String LOG_TAG = "InterceptBodyTransport";
+
+  // maps each char of a message to the byte with the same value, both ways
+  private static final Charset BINARY_CHARSET = Charset.forName("ISO-8859-1");
+
+  @NonNull
+  private final InAppWebView webView;
+  private boolean registered = false;
+
+  private long callCount = 0;
+  private long rejectedCount = 0;
+  private long requestBodyCount = 0;
+  private long requestBodyBytes = 0;
+  private long responseBodyCount = 0;
+  private long responseBodyBytes = 0;
+  private long totalDecodeNanos = 0;
+
+  public InterceptBodyTransport(@NonNull InAppWebView webView) {
+    this.webView = webView;
+  }
+
+  /**
+   * Injects the transport object in the pages loaded from now on.
+   * Returns false if the WebView doesn't support WebMessageListener.
+   */
+  @SuppressLint("RequiresFeature")
+  public boolean register() {
+    if (registered) {
+      return true;
+    }
+    if (!WebViewFeature.isFeatureSupported(WebViewFeature.WEB_MESSAGE_LISTENER)) {
+      return false;
+    }
+    WebViewCompat.addWebMessageListener(webView, InterceptBodyTransportJS.JS_OBJECT_NAME, Collections.singleton("*"), this);
+    registered = true;
+    return true;
+  }
+
+  @SuppressLint("RequiresFeature")
+  public void unregister() {
+    if (registered) {
+      WebViewCompat.removeWebMessageListener(webView, InterceptBodyTransportJS.JS_OBJECT_NAME);
+      registered = false;
+    }
+  }
+
+  public boolean isRegistered() {
+    return registered;
+  }
+
+  @Override
+  public void onPostMessage(@NonNull WebView view, @NonNull WebMessageCompat message, @NonNull Uri sourceOrigin,
+                            boolean isMainFrame, @NonNull final JavaScriptReplyProxy replyProxy) {
+    String data = message.getData();
+    if (data == null || webView.channel == null) {
+      return;
+    }
+
+    long start = System.nanoTime();
+    int separatorIndex = data.indexOf('\n');
+    final JSONObject header;
+    try {
+      header = new JSONObject(separatorIndex >= 0 ? data.substring(0, separatorIndex) : data);
+    } catch (JSONException e) {
+      Log.e(LOG_TAG, "", e);
+      return;
+    }
+    String handlerName = header.optString("handlerName");
+    if (!handlerName.equals("shouldInterceptAjaxRequest") && !handlerName.equals("shouldInterceptFetchRequest")) {
+      // any origin can post to the transport, so it must not be a way to reach the other JavaScript handlers
+      Log.w(LOG_TAG, "Rejected a message for the handler " + handlerName);
+      rejectedCount++;
+      return;
+    }
+    final long id = header.optLong("id");
+    byte[] body = null;
+    if (header.optBoolean("hasBody") && separatorIndex >= 0) {
+      body = data.substring(separatorIndex + 1).getBytes(BINARY_CHARSET);
+      requestBodyCount++;
+      requestBodyBytes += body.length;
+    }
+    totalDecodeNanos += System.nanoTime() - start;
+    callCount++;
+
+    Map<String, Object> obj = new HashMap<>();
+    obj.put("handlerName", handlerName);
+    obj.put("args", header.optString("args", "[]"));
+    obj.put("body", body);
+    webView.channel.invokeMethod("onCallJsHandler", obj, new MethodChannel.Result() {
+      @Override
+      public void success(@Nullable Object response) {
+        reply(replyProxy, id, response);
+      }
+
+      @Override
+      public void error(String errorCode, @Nullable String errorMessage, @Nullable Object errorDetails) {
+        Log.e(LOG_TAG, errorCode + ", " + ((errorMessage != null) ? errorMessage : ""));
+        reply(replyProxy, id, null);
+      }
+
+      @Override
+      public void notImplemented() {
+        reply(replyProxy, id, null);
+      }
+    });
+  }
+
+  /**
+   * The Dart side answers with the JSON result, or with a map containing the JSON result without its body
+   * and the body bytes.
+   */
+  @SuppressLint("RequiresFeature")
+  private void reply(@NonNull JavaScriptReplyProxy replyProxy, long id, @Nullable Object response) {
+    String json = null;
+    byte[] body = null;
+    if (response instanceof Map) {
+      Map<String, Object> responseMap = (Map<String, Object>) response;
+      json = (String) responseMap.get("json");
+      body = (byte[]) responseMap.get("body");
+    } else if (response instanceof String) {
+      json = (String) response;
+    }
+
+    JSONObject header = new JSONObject();
+    try {
+      header.put("id", id);
+      header.put("result", json);
+      header.put("hasBody", body != null);
+    } catch (JSONException e) {
+      Log.e(LOG_TAG, "", e);
+      return;
+    }
+    if (body != null) {
+      responseBodyCount++;
+      responseBodyBytes += body.length;
+    }
+    replyProxy.postMessage(header.toString() + "\n" + (body != null ? new String(body, BINARY_CHARSET) : ""));
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("registered", registered);
+    stats.put("callCount", callCount);
+    stats.put("rejectedCount", rejectedCount);
+    stats.put("requestBodyCount", requestBodyCount);
+    stats.put("requestBodyBytes", requestBodyBytes);
+    stats.put("responseBodyCount", responseBodyCount);
+    stats.put("responseBodyBytes", responseBodyBytes);
+    stats.put("averageDecodeMillis", callCount > 0 ? (double) totalDecodeNanos / callCount / 1000000 : 0.0);
+    return stats;
+  }
+}
@@ -0,0 +1,311 @@
+package com.pichillilorenzo.flutter_inappwebview.in_app_webview;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.PixelCopy;
+import android.view.Window;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.pichillilorenzo.flutter_inappwebview.Util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * Takes the screenshots of the InAppWebViews.
+ *
+ * Only the requested rect is captured, directly at the requested scale, into a bitmap taken from a small pool shared
+ * by all the WebViews. The UI thread only draws the WebView, or nothing at all with PixelCopy: the compression,
+ * and the write to a file when a file path is given, run on a background thread.
+ */
+public class ScreenshotEngine {
+
+  protected static final String LOG_TAG = "ScreenshotEngine";
+
+  private static final int MAX_POOL_SIZE = 3;
+  // full-screen bitmaps are not kept, the pool is meant for thumbnails and small captures
+  private static final int MAX_POOLED_BITMAP_BYTES = 4 * 1024 * 1024;
+
+  private static ScreenshotEngine instance;
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
+  private final List<Bitmap> bitmapPool = new ArrayList<>();
+
+  private long captureCount = 0;
+  private long pixelCopyCount = 0;
+  private long failedCaptureCount = 0;
+  private long bitmapReuseCount = 0;
+  private long bitmapAllocationCount = 0;
+  private long encodeCount = 0;
+  private long totalEncodeNanos = 0;
+
+  private ScreenshotEngine() {}
+
+  public static ScreenshotEngine getInstance() {
+    if (instance == null) {
+      instance = new ScreenshotEngine();
+    }
+    return instance;
+  }
+
+  /**
+   * Must be called on the main thread. If filePath is not null, the encoded image is written to that file
+   * and the result is true, otherwise the result is the encoded image.
+   * The result is null, or false with a file path, if the screenshot couldn't be taken.
+   */
+  public void takeScreenshot(@NonNull final InAppWebView webView,
+                             @Nullable Map<String, Object> screenshotConfiguration,
+                             @Nullable final String filePath,
+                             @NonNull final MethodChannel.Result result) {
+    final float pixelDensity = Util.getPixelDensity(webView.getContext());
+    int viewWidth = webView.getMeasuredWidth();
+    int viewHeight = webView.getMeasuredHeight();
+
+    // the captured rect, in pixels, relative to the WebView
+    int rectX = 0;
+    int rectY = 0;
+    int rectWidth = viewWidth;
+    int rectHeight = viewHeight;
+    float scale = 1;
+    Bitmap.CompressFormat compressFormat = Bitmap.CompressFormat.PNG;
+    int quality = 100;
+    boolean usePixelCopy = false;
+
+    if (screenshotConfiguration != null) {
+      Map<String, Double> rect = (Map<String, Double>) screenshotConfiguration.get("rect");
+      if (rect != null) {
+        rectX = Math.max(0, (int) Math.floor(rect.get("x") * pixelDensity + 0.5));
+        rectY = Math.max(0, (int) Math.floor(rect.get("y") * pixelDensity + 0.5));
+        rectWidth = Math.min(viewWidth - rectX, (int) Math.floor(rect.get("width") * pixelDensity + 0.5));
+        rectHeight = Math.min(viewHeight - rectY, (int) Math.floor(rect.get("height") * pixelDensity + 0.5));
+      }
+
+      Double snapshotWidth = (Double) screenshotConfiguration.get("snapshotWidth");
+      if (snapshotWidth != null && rectWidth > 0) {
+        scale = (float) Math.floor(snapshotWidth * pixelDensity + 0.5) / rectWidth;
+      }
+
+      try {
+        compressFormat = Bitmap.CompressFormat.valueOf((String) screenshotConfiguration.get("compressFormat"));
+      } catch (IllegalArgumentException e) {
+        e.printStackTrace();
+      }
+
+      quality = (Integer) screenshotConfiguration.get("quality");
+
+      Boolean androidUsePixelCopy = (Boolean) screenshotConfiguration.get("androidUsePixelCopy");
+      usePixelCopy = androidUsePixelCopy != null && androidUsePixelCopy;
+    }
+
+    captureCount++;
+    int dstWidth = (int) Math.floor(rectWidth * scale + 0.5);
+    int dstHeight = (int) Math.floor(rectHeight * scale + 0.5);
+    if (dstWidth <= 0 || dstHeight <= 0) {
+      failedCaptureCount++;
+      result.success(filePath != null ? false : null);
+      return;
+    }
+
+    final Bitmap bitmap = obtainBitmap(dstWidth, dstHeight);
+    final Bitmap.CompressFormat finalCompressFormat = compressFormat;
+    final int finalQuality = quality;
+
+    final Rect srcRect = new Rect(rectX, rectY, rectX + rectWidth, rectY + rectHeight);
+    final float finalScale = scale;
+    Window window = usePixelCopy ? getPixelCopyWindow(webView, srcRect) : null;
+    if (window != null) {
+      int[] locationInWindow = new int[2];
+      webView.getLocationInWindow(locationInWindow);
+      Rect windowRect = new Rect(srcRect);
+      windowRect.offset(locationInWindow[0], locationInWindow[1]);
+      // PixelCopy reads the rendered frame, scaled to the bitmap size, without drawing the WebView again
+      PixelCopy.request(window, windowRect, bitmap, new PixelCopy.OnPixelCopyFinishedListener() {
+        @Override
+        public void onPixelCopyFinished(int copyResult) {
+          if (copyResult == PixelCopy.SUCCESS) {
+            pixelCopyCount++;
+          } else {
+            drawWebView(webView, bitmap, srcRect, finalScale);
+          }
+          encode(bitmap, finalCompressFormat, finalQuality, filePath, result);
+        }
+      }, mainHandler);
+      return;
+    }
+
+    drawWebView(webView, bitmap, srcRect, scale);
+    encode(bitmap, compressFormat, quality, filePath, result);
+  }
+
+  private void drawWebView(@NonNull InAppWebView webView, @NonNull Bitmap bitmap, @NonNull Rect srcRect, float scale) {
+    // a bitmap from the pool still has the previous screenshot
+    bitmap.eraseColor(Color.TRANSPARENT);
+    Canvas canvas = new Canvas(bitmap);
+    canvas.scale(scale, scale);
+    canvas.translate(-webView.getScrollX() - srcRect.left, -webView.getScrollY() - srcRect.top);
+    webView.draw(canvas);
+  }
+
+  /**
+   * Returns the window to use with PixelCopy, or null if the captured rect is not entirely visible on the screen.
+   */
+  @Nullable
+  private Window getPixelCopyWindow(@NonNull InAppWebView webView, @NonNull Rect srcRect) {
+    if (!webView.isAttachedToWindow() || !webView.isHardwareAccelerated()) {
+      return null;
+    }
+    Rect visibleRect = new Rect();
+    if (!webView.getLocalVisibleRect(visibleRect) || !visibleRect.contains(srcRect)) {
+      return null;
+    }
+    Context context = webView.getContext();
+    while (context instanceof ContextWrapper) {
+      if (context instanceof Activity) {
+        Window window = ((Activity) context).getWindow();
+        // without hybrid composition, the WebView is rendered in a virtual display and not in the activity window
+        return window != null && window.peekDecorView() == webView.getRootView() ? window : null;
+      }
+      context = ((ContextWrapper) context).getBaseContext();
+    }
+    return null;
+  }
+
+  private void encode(@NonNull final Bitmap bitmap,
+                      @NonNull final Bitmap.CompressFormat compressFormat,
+                      final int quality,
+                      @Nullable final String filePath,
+                      @NonNull final MethodChannel.Result result) {
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        long start = System.nanoTime();
+        Object value = null;
+        OutputStream outputStream = null;
+        try {
+          if (filePath != null) {
+            outputStream = new BufferedOutputStream(new FileOutputStream(filePath));
+            value = bitmap.compress(compressFormat, quality, outputStream);
+          } else {
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            outputStream = byteArrayOutputStream;
+            if (bitmap.compress(compressFormat, quality, byteArrayOutputStream)) {
+              value = byteArrayOutputStream.toByteArray();
+            }
+          }
+        } catch (IOException e) {
+          Log.e(LOG_TAG, "", e);
+        } finally {
+          if (outputStream != null) {
+            try {
+              outputStream.close();
+            } catch (IOException e) {
+              Log.e(LOG_TAG, "", e);
+              if (filePath != null) {
+                value = false;
+              }
+            }
+          }
+        }
+        if (filePath != null && value == null) {
+          value = false;
+        }
+        long encodeNanos = System.nanoTime() - start;
+        releaseBitmap(bitmap);
+
+        final Object finalValue = value;
+        mainHandler.post(new Runnable() {
+          @Override
+          public void run() {
+            encodeCount++;
+            totalEncodeNanos += encodeNanos;
+            if (finalValue == null || Boolean.FALSE.equals(finalValue)) {
+              failedCaptureCount++;
+            }
+            result.success(finalValue);
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Takes a pooled bitmap big enough for the requested size, or allocates a new one.
+   */
+  @NonNull
+  private Bitmap obtainBitmap(int width, int height) {
+    synchronized (bitmapPool) {
+      Iterator<Bitmap> iterator = bitmapPool.iterator();
+      while (iterator.hasNext()) {
+        Bitmap bitmap = iterator.next();
+        if (bitmap.getAllocationByteCount() >= width * height * 4) {
+          iterator.remove();
+          bitmap.reconfigure(width, height, Bitmap.Config.ARGB_8888);
+          bitmapReuseCount++;
+          return bitmap;
+        }
+      }
+    }
+    bitmapAllocationCount++;
+    return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+  }
+
+  private void releaseBitmap(@NonNull Bitmap bitmap) {
+    synchronized (bitmapPool) {
+      if (bitmapPool.size() < MAX_POOL_SIZE && bitmap.getAllocationByteCount() <= MAX_POOLED_BITMAP_BYTES) {
+        bitmapPool.add(bitmap);
+        return;
+      }
+    }
+    bitmap.recycle();
+  }
+
+  /**
+   * Frees the pooled bitmaps, for example when the system is low on memory.
+   */
+  public void clearPool() {
+    synchronized (bitmapPool) {
+      for (Bitmap bitmap : bitmapPool) {
+        bitmap.recycle();
+      }
+      bitmapPool.clear();
+    }
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("captureCount", captureCount);
+    stats.put("pixelCopyCount", pixelCopyCount);
+    stats.put("failedCaptureCount", failedCaptureCount);
+    stats.put("bitmapReuseCount", bitmapReuseCount);
+    stats.put("bitmapAllocationCount", bitmapAllocationCount);
+    synchronized (bitmapPool) {
+      stats.put("pooledBitmapCount", bitmapPool.size());
+    }
+    stats.put("encodeCount", encodeCount);
+    stats.put("averageEncodeMillis", encodeCount > 0 ? (double) totalEncodeNanos / encodeCount / 1000000 : 0.0);
+    return stats;
+  }
+}
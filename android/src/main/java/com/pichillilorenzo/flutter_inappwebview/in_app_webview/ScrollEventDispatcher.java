@@ -0,0 +1,224 @@
+package com.pichillilorenzo.flutter_inappwebview.in_app_webview;
+
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends the onScrollChanged and onOverScrolled events of an InAppWebView to the Dart side,
+ * according to the scrollEventMode option.
+ *
+ * Except in the ALL mode, only the latest position is kept while an event is waiting to be sent,
+ * so an event replaced by a newer one before being sent is counted as dropped.
+ * It must only be used from the main thread.
+ */
+public class ScrollEventDispatcher {
+
+  // every event is sent as soon as it happens
+  public static final int MODE_ALL = 0;
+  // at most one event every scrollEventThrottleInterval milliseconds
+  public static final int MODE_THROTTLED = 1;
+  // at most one event for each frame rendered
+  public static final int MODE_FRAME = 2;
+  // only the final position, when the scroll has stopped
+  public static final int MODE_SCROLL_STOPPED = 3;
+
+  @NonNull
+  private final InAppWebView webView;
+
+  private boolean hasPendingScroll = false;
+  private int pendingScrollX;
+  private int pendingScrollY;
+  private boolean hasPendingOverScroll = false;
+  private int pendingOverScrollX;
+  private int pendingOverScrollY;
+  private boolean pendingClampedX;
+  private boolean pendingClampedY;
+
+  private long lastFlushTime = 0;
+  private boolean flushScheduled = false;
+
+  private long scrollReceivedCount = 0;
+  private long scrollDeliveredCount = 0;
+  private long scrollDroppedCount = 0;
+  private long overScrollReceivedCount = 0;
+  private long overScrollDeliveredCount = 0;
+  private long overScrollDroppedCount = 0;
+
+  private final Runnable flushRunnable = new Runnable() {
+    @Override
+    public void run() {
+      flushScheduled = false;
+      flush();
+    }
+  };
+
+  private final Choreographer.FrameCallback flushFrameCallback = new Choreographer.FrameCallback() {
+    @Override
+    public void doFrame(long frameTimeNanos) {
+      flushScheduled = false;
+      flush();
+    }
+  };
+
+  public ScrollEventDispatcher(@NonNull InAppWebView webView) {
+    this.webView = webView;
+  }
+
+  public void onScrollChanged(int x, int y) {
+    scrollReceivedCount++;
+    if (hasPendingScroll) {
+      scrollDroppedCount++;
+    }
+    hasPendingScroll = true;
+    pendingScrollX = x;
+    pendingScrollY = y;
+    onEvent();
+  }
+
+  public void onOverScrolled(int x, int y, boolean clampedX, boolean clampedY) {
+    overScrollReceivedCount++;
+    if (hasPendingOverScroll) {
+      overScrollDroppedCount++;
+    }
+    hasPendingOverScroll = true;
+    pendingOverScrollX = x;
+    pendingOverScrollY = y;
+    pendingClampedX = clampedX;
+    pendingClampedY = clampedY;
+    onEvent();
+  }
+
+  /**
+   * Called by the checkScrollStoppedTask of the WebView.
+   */
+  public void onScrollStopped() {
+    if (getMode() == MODE_SCROLL_STOPPED) {
+      flush();
+    }
+  }
+
+  private void onEvent() {
+    switch (getMode()) {
+      case MODE_THROTTLED:
+        long interval = Math.max(0, webView.options.scrollEventThrottleInterval);
+        long elapsed = SystemClock.uptimeMillis() - lastFlushTime;
+        if (elapsed >= interval) {
+          cancelScheduledFlush();
+          flush();
+        } else if (!flushScheduled) {
+          flushScheduled = true;
+          webView.mainLooperHandler.postDelayed(flushRunnable, interval - elapsed);
+        }
+        break;
+      case MODE_FRAME:
+        if (!flushScheduled) {
+          flushScheduled = true;
+          Choreographer.getInstance().postFrameCallback(flushFrameCallback);
+        }
+        break;
+      case MODE_SCROLL_STOPPED:
+        // restart the check, so it also runs for flings and for scrolls not started by a touch
+        webView.mainLooperHandler.removeCallbacks(webView.checkScrollStoppedTask);
+        webView.initialPositionScrollStoppedTask = webView.getScrollY();
+        webView.mainLooperHandler.postDelayed(webView.checkScrollStoppedTask, webView.newCheckScrollStoppedTask);
+        break;
+      case MODE_ALL:
+      default:
+        flush();
+        break;
+    }
+  }
+
+  private void flush() {
+    lastFlushTime = SystemClock.uptimeMillis();
+    if (webView.channel == null) {
+      clearPending();
+      return;
+    }
+
+    if (hasPendingScroll) {
+      hasPendingScroll = false;
+      scrollDeliveredCount++;
+      Map<String, Object> obj = new HashMap<>();
+      obj.put("x", pendingScrollX);
+      obj.put("y", pendingScrollY);
+      webView.channel.invokeMethod("onScrollChanged", obj);
+    }
+    if (hasPendingOverScroll) {
+      hasPendingOverScroll = false;
+      overScrollDeliveredCount++;
+      Map<String, Object> obj = new HashMap<>();
+      obj.put("x", pendingOverScrollX);
+      obj.put("y", pendingOverScrollY);
+      obj.put("clampedX", pendingClampedX);
+      obj.put("clampedY", pendingClampedY);
+      webView.channel.invokeMethod("onOverScrolled", obj);
+    }
+  }
+
+  private int getMode() {
+    return webView.options != null && webView.options.scrollEventMode != null ? webView.options.scrollEventMode : MODE_ALL;
+  }
+
+  private void cancelScheduledFlush() {
+    if (flushScheduled) {
+      flushScheduled = false;
+      webView.mainLooperHandler.removeCallbacks(flushRunnable);
+      Choreographer.getInstance().removeFrameCallback(flushFrameCallback);
+    }
+  }
+
+  private void clearPending() {
+    if (hasPendingScroll) {
+      scrollDroppedCount++;
+    }
+    if (hasPendingOverScroll) {
+      overScrollDroppedCount++;
+    }
+    hasPendingScroll = false;
+    hasPendingOverScroll = false;
+  }
+
+  /**
+   * Sends the pending events right away, for example when the scrollEventMode option changes.
+   */
+  public void flushPending() {
+    cancelScheduledFlush();
+    flush();
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("mode", getMode());
+    stats.put("scrollChangedReceivedCount", scrollReceivedCount);
+    stats.put("scrollChangedDeliveredCount", scrollDeliveredCount);
+    stats.put("scrollChangedDroppedCount", scrollDroppedCount);
+    stats.put("overScrolledReceivedCount", overScrollReceivedCount);
+    stats.put("overScrolledDeliveredCount", overScrollDeliveredCount);
+    stats.put("overScrolledDroppedCount", overScrollDroppedCount);
+    return stats;
+  }
+
+  public void resetStats() {
+    scrollReceivedCount = 0;
+    scrollDeliveredCount = 0;
+    scrollDroppedCount = 0;
+    overScrollReceivedCount = 0;
+    overScrollDeliveredCount = 0;
+    overScrollDroppedCount = 0;
+  }
+
+  /**
+   * Drops the pending events and the scheduled flush, when the WebView is disposed or reused.
+   */
+  public void dispose() {
+    cancelScheduledFlush();
+    clearPending();
+    lastFlushTime = 0;
+  }
+}
@@ -0,0 +1,60 @@
+package com.pichillilorenzo.flutter_inappwebview.in_app_webview;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+
+import okhttp3.HttpUrl;
+
+/**
+ * Immutable copy of the top-level URL of a WebView and of its parsed parts,
+ * so that it can be read from the WebView IO threads without posting to the UI thread.
+ */
+public class TopUrlSnapshot {
+  @NonNull
+  public final String url;
+  @Nullable
+  public final String scheme;
+  @Nullable
+  public final String host;
+  public final int port;
+  @Nullable
+  private volatile String registrableDomain;
+  private volatile boolean registrableDomainComputed = false;
+
+  public TopUrlSnapshot(@NonNull String url) {
+    this.url = url;
+
+    String scheme = null;
+    String host = null;
+    int port = -1;
+    try {
+      URI uri = new URI(url);
+      scheme = uri.getScheme();
+      host = uri.getHost();
+      port = uri.getPort();
+    } catch (URISyntaxException ignored) {}
+    this.scheme = scheme;
+    this.host = host;
+    this.port = port;
+  }
+
+  /**
+   * The public suffix plus one label, for example "example.co.uk" for "www.example.co.uk".
+   * It is null for non-http URLs, IP addresses and public suffixes.
+   *
+   * It is computed on the first call, because the public suffix list is read from the disk:
+   * the snapshot is created on the UI thread, while this is meant to be called from the IO threads.
+   */
+  @Nullable
+  public String getRegistrableDomain() {
+    if (!registrableDomainComputed) {
+      HttpUrl httpUrl = HttpUrl.parse(url);
+      registrableDomain = httpUrl != null ? httpUrl.topPrivateDomain() : null;
+      registrableDomainComputed = true;
+    }
+    return registrableDomain;
+  }
+}
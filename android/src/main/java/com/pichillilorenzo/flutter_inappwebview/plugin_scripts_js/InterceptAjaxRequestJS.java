@@ -121,7 +121,8 @@ public class InterceptAjaxRequestJS {
           "  ajax.prototype.send = function(data) {" +
           "    var self = this;" +
           "    var w = (window.top == null || window.top === window) ? window : window.top;" +
-          "    if (w." + FLAG_VARIABLE_FOR_SHOULD_INTERCEPT_AJAX_REQUEST_JS_SOURCE + " == null || w." + FLAG_VARIABLE_FOR_SHOULD_INTERCEPT_AJAX_REQUEST_JS_SOURCE + " == true) {" +
+          "    if ((w." + FLAG_VARIABLE_FOR_SHOULD_INTERCEPT_AJAX_REQUEST_JS_SOURCE + " == null || w." + FLAG_VARIABLE_FOR_SHOULD_INTERCEPT_AJAX_REQUEST_JS_SOURCE + " == true) &&" +
+          "        (w." + InterceptRequestFilterJS.SHOULD_INTERCEPT_REQUEST_FUNCTION_NAME + " == null || w." + InterceptRequestFilterJS.SHOULD_INTERCEPT_REQUEST_FUNCTION_NAME + "(this._flutter_inappwebview_url, this._flutter_inappwebview_method))) {" +
           "      if (!this._flutter_inappwebview_already_onreadystatechange_wrapped) {" +
           "        this._flutter_inappwebview_already_onreadystatechange_wrapped = true;" +
           "        var onreadystatechange = this.onreadystatechange;" +
@@ -183,7 +184,8 @@ public class InterceptAjaxRequestJS {
           "      this.addEventListener('error', handleEvent);" +
           "      this.addEventListener('abort', handleEvent);" +
           "      this.addEventListener('timeout', handleEvent);" +
-          "      " + JavaScriptBridgeJS.JAVASCRIPT_UTIL_VAR_NAME + ".convertBodyRequest(data).then(function(data) {" +
+          "      var useBodyTransport = window." + InterceptBodyTransportJS.CALL_HANDLER_WITH_BODY_FUNCTION_NAME + " != null;" +
+          "      " + JavaScriptBridgeJS.JAVASCRIPT_UTIL_VAR_NAME + ".convertBodyRequest(data, useBodyTransport).then(function(data) {" +
           "        var ajaxRequest = {" +
           "          data: data," +
           "          method: self._flutter_inappwebview_method," +
@@ -195,7 +197,10 @@ public class InterceptAjaxRequestJS {
           "          headers: self._flutter_inappwebview_request_headers," +
           "          responseType: self.responseType" +
           "        };" +
-          "        window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + ".callHandler('shouldInterceptAjaxRequest', ajaxRequest).then(function(result) {" +
+          "        var call = useBodyTransport ?" +
+          "          window." + InterceptBodyTransportJS.CALL_HANDLER_WITH_BODY_FUNCTION_NAME + "('shouldInterceptAjaxRequest', ajaxRequest, 'data') :" +
+          "          window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + ".callHandler('shouldInterceptAjaxRequest', ajaxRequest);" +
+          "        call.then(function(result) {" +
           "          if (result != null) {" +
           "            switch (result.action) {" +
           "              case 0:" +
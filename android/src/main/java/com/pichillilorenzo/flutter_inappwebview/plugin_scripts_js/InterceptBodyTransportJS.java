@@ -0,0 +1,73 @@
+package com.pichillilorenzo.flutter_inappwebview.plugin_scripts_js;
+
+import com.pichillilorenzo.flutter_inappwebview.types.PluginScript;
+import com.pichillilorenzo.flutter_inappwebview.types.UserScriptInjectionTime;
+
+public class InterceptBodyTransportJS {
+
+  public static final String INTERCEPT_BODY_TRANSPORT_JS_PLUGIN_SCRIPT_GROUP_NAME = "IN_APP_WEBVIEW_INTERCEPT_BODY_TRANSPORT_JS_PLUGIN_SCRIPT";
+  // name of the object injected by the WebMessageListener
+  public static final String JS_OBJECT_NAME = "flutter_inappwebview_body_transport";
+  public static final String CALL_HANDLER_WITH_BODY_FUNCTION_NAME = JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "._callHandlerWithBody";
+  public static final PluginScript INTERCEPT_BODY_TRANSPORT_JS_PLUGIN_SCRIPT = new PluginScript(
+          InterceptBodyTransportJS.INTERCEPT_BODY_TRANSPORT_JS_PLUGIN_SCRIPT_GROUP_NAME,
+          InterceptBodyTransportJS.INTERCEPT_BODY_TRANSPORT_JS_SOURCE,
+          UserScriptInjectionTime.AT_DOCUMENT_START,
+          null,
+          true
+  );
+
+  // a message is a JSON header line followed by the body bytes, one char per byte, so the body is never
+  // converted to a JSON array of numbers and the header stays small.
+  // Replies come back through the same WebMessageListener, from the native side.
+  public static final String INTERCEPT_BODY_TRANSPORT_JS_SOURCE = "(function() {" +
+          "  var transport = window." + JS_OBJECT_NAME + ";" +
+          "  var bridge = window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + ";" +
+          "  if (transport == null || bridge == null || bridge._callHandlerWithBody != null) {" +
+          "    return;" +
+          "  }" +
+          "  var callbacks = {};" +
+          "  var nextId = 1;" +
+          "  var bytesToBinaryString = function(bytes) {" +
+          "    var chunks = [];" +
+          "    for (var i = 0; i < bytes.length; i += 8192) {" +
+          "      chunks.push(String.fromCharCode.apply(null, bytes.subarray(i, i + 8192)));" +
+          "    }" +
+          "    return chunks.join('');" +
+          "  };" +
+          "  var binaryStringToBytes = function(binaryString) {" +
+          "    var bytes = new Uint8Array(binaryString.length);" +
+          "    for (var i = 0; i < binaryString.length; i++) {" +
+          "      bytes[i] = binaryString.charCodeAt(i);" +
+          "    }" +
+          "    return bytes;" +
+          "  };" +
+          "  transport.addEventListener('message', function(event) {" +
+          "    var separatorIndex = event.data.indexOf('\\n');" +
+          "    var header = JSON.parse(event.data.substring(0, separatorIndex));" +
+          "    var callback = callbacks[header.id];" +
+          "    if (callback == null) {" +
+          "      return;" +
+          "    }" +
+          "    delete callbacks[header.id];" +
+          "    var result = header.result != null ? JSON.parse(header.result) : null;" +
+          "    if (result != null && header.hasBody) {" +
+          "      result[callback.bodyKey] = binaryStringToBytes(event.data.substring(separatorIndex + 1));" +
+          "    }" +
+          "    callback.resolve(result);" +
+          "  });" +
+          "  bridge._callHandlerWithBody = function(handlerName, request, bodyKey) {" +
+          "    var body = request[bodyKey];" +
+          "    var hasBody = body instanceof Uint8Array;" +
+          "    if (hasBody) {" +
+          "      request[bodyKey] = null;" +
+          "    }" +
+          "    var id = nextId++;" +
+          "    return new Promise(function(resolve, reject) {" +
+          "      callbacks[id] = {resolve: resolve, bodyKey: bodyKey};" +
+          "      var header = {id: id, handlerName: handlerName, args: JSON.stringify([request]), hasBody: hasBody};" +
+          "      transport.postMessage(JSON.stringify(header) + '\\n' + (hasBody ? bytesToBinaryString(body) : ''));" +
+          "    });" +
+          "  };" +
+          "})();";
+}
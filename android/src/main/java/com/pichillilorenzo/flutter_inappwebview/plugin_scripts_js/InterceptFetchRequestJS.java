@@ -67,13 +67,20 @@ public class InterceptFetchRequestJS {
           "          fetchRequest.keepalive = init.keepalive;" +
           "        }" +
           "      }" +
+          "      if (w." + InterceptRequestFilterJS.SHOULD_INTERCEPT_REQUEST_FUNCTION_NAME + " != null && !w." + InterceptRequestFilterJS.SHOULD_INTERCEPT_REQUEST_FUNCTION_NAME + "(fetchRequest.url, fetchRequest.method)) {" +
+          "        return fetch(resource, init);" +
+          "      }" +
           "      if (fetchRequest.headers instanceof Headers) {" +
           "        fetchRequest.headers = " + JavaScriptBridgeJS.JAVASCRIPT_UTIL_VAR_NAME + ".convertHeadersToJson(fetchRequest.headers);" +
           "      }" +
           "      fetchRequest.credentials = " + JavaScriptBridgeJS.JAVASCRIPT_UTIL_VAR_NAME + ".convertCredentialsToJson(fetchRequest.credentials);" +
-          "      return " + JavaScriptBridgeJS.JAVASCRIPT_UTIL_VAR_NAME + ".convertBodyRequest(fetchRequest.body).then(function(body) {" +
+          "      var useBodyTransport = window." + InterceptBodyTransportJS.CALL_HANDLER_WITH_BODY_FUNCTION_NAME + " != null;" +
+          "      return " + JavaScriptBridgeJS.JAVASCRIPT_UTIL_VAR_NAME + ".convertBodyRequest(fetchRequest.body, useBodyTransport).then(function(body) {" +
           "        fetchRequest.body = body;" +
-          "        return window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + ".callHandler('shouldInterceptFetchRequest', fetchRequest).then(function(result) {" +
+          "        var call = useBodyTransport ?" +
+          "          window." + InterceptBodyTransportJS.CALL_HANDLER_WITH_BODY_FUNCTION_NAME + "('shouldInterceptFetchRequest', fetchRequest, 'body') :" +
+          "          window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + ".callHandler('shouldInterceptFetchRequest', fetchRequest);" +
+          "        return call.then(function(result) {" +
           "          if (result != null) {" +
           "            switch (result.action) {" +
           "              case 0:" +
@@ -0,0 +1,110 @@
+package com.pichillilorenzo.flutter_inappwebview.plugin_scripts_js;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.pichillilorenzo.flutter_inappwebview.types.PluginScript;
+import com.pichillilorenzo.flutter_inappwebview.types.UserScriptInjectionTime;
+
+import org.json.JSONArray;
+
+import java.util.List;
+import java.util.Map;
+
+public class InterceptRequestFilterJS {
+
+  public static final String INTERCEPT_REQUEST_FILTER_JS_PLUGIN_SCRIPT_GROUP_NAME = "IN_APP_WEBVIEW_INTERCEPT_REQUEST_FILTER_JS_PLUGIN_SCRIPT";
+  public static final String SHOULD_INTERCEPT_REQUEST_FUNCTION_NAME = JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "._shouldInterceptRequest";
+  public static final String INTERCEPTED_REQUEST_COUNT_VARIABLE = JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "._interceptedRequestCount";
+  public static final String BYPASSED_REQUEST_COUNT_VARIABLE = JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "._bypassedRequestCount";
+
+  public static final String GET_INTERCEPT_REQUEST_STATS_JS_SOURCE = "(function() {" +
+          "  var w = (window.top == null || window.top === window) ? window : window.top;" +
+          "  return {" +
+          "    interceptedRequestCount: w." + INTERCEPTED_REQUEST_COUNT_VARIABLE + " || 0," +
+          "    bypassedRequestCount: w." + BYPASSED_REQUEST_COUNT_VARIABLE + " || 0" +
+          "  };" +
+          "})();";
+
+  /**
+   * Compiles the interceptRequestFilter option into the function used by the fetch and XMLHttpRequest interceptors
+   * to decide whether a request is sent to the Dart side. A request is intercepted when it matches every
+   * non-empty criteria: one of the urlPatterns (regular expressions), one of the hosts
+   * ("*.example.com" also matches the subdomains) and one of the methods.
+   */
+  public static PluginScript createPluginScript(@Nullable Map<String, Object> filter) {
+    return new PluginScript(
+            INTERCEPT_REQUEST_FILTER_JS_PLUGIN_SCRIPT_GROUP_NAME,
+            createSource(filter),
+            UserScriptInjectionTime.AT_DOCUMENT_START,
+            null,
+            true
+    );
+  }
+
+  @NonNull
+  public static String createSource(@Nullable Map<String, Object> filter) {
+    List<String> urlPatterns = filter != null ? (List<String>) filter.get("urlPatterns") : null;
+    List<String> hosts = filter != null ? (List<String>) filter.get("hosts") : null;
+    List<String> methods = filter != null ? (List<String>) filter.get("methods") : null;
+
+    return "(function() {" +
+            "  var w = (window.top == null || window.top === window) ? window : window.top;" +
+            "  if (w." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + " == null) {" +
+            "    return;" +
+            "  }" +
+            "  var urlPatterns = [];" +
+            "  " + toJSONArray(urlPatterns) + ".forEach(function(pattern) {" +
+            "    try {" +
+            "      urlPatterns.push(new RegExp(pattern));" +
+            "    } catch (e) {" +
+            "      console.error(e);" +
+            "    }" +
+            "  });" +
+            "  var hosts = " + toJSONArray(hosts) + ".map(function(host) { return host.toLowerCase(); });" +
+            "  var methods = " + toJSONArray(methods) + ".map(function(method) { return method.toUpperCase(); });" +
+            "  var matchesHost = function(host) {" +
+            "    for (var i = 0; i < hosts.length; i++) {" +
+            "      if (hosts[i].indexOf('*.') === 0) {" +
+            "        var domain = hosts[i].substring(2);" +
+            "        if (host === domain || host.endsWith('.' + domain)) {" +
+            "          return true;" +
+            "        }" +
+            "      } else if (host === hosts[i]) {" +
+            "        return true;" +
+            "      }" +
+            "    }" +
+            "    return false;" +
+            "  };" +
+            "  if (w." + INTERCEPTED_REQUEST_COUNT_VARIABLE + " == null) {" +
+            "    w." + INTERCEPTED_REQUEST_COUNT_VARIABLE + " = 0;" +
+            "    w." + BYPASSED_REQUEST_COUNT_VARIABLE + " = 0;" +
+            "  }" +
+            "  w." + SHOULD_INTERCEPT_REQUEST_FUNCTION_NAME + " = function(url, method) {" +
+            "    var intercept = true;" +
+            "    try {" +
+            "      var absoluteUrl = new URL(url != null ? url.toString() : '', document.baseURI);" +
+            "      if (methods.length > 0 && methods.indexOf((method || 'GET').toUpperCase()) < 0) {" +
+            "        intercept = false;" +
+            "      } else if (hosts.length > 0 && !matchesHost(absoluteUrl.hostname.toLowerCase())) {" +
+            "        intercept = false;" +
+            "      } else if (urlPatterns.length > 0) {" +
+            "        intercept = urlPatterns.some(function(pattern) { return pattern.test(absoluteUrl.href); });" +
+            "      }" +
+            "    } catch (e) {" +
+            "      console.error(e);" +
+            "    }" +
+            "    if (intercept) {" +
+            "      w." + INTERCEPTED_REQUEST_COUNT_VARIABLE + "++;" +
+            "    } else {" +
+            "      w." + BYPASSED_REQUEST_COUNT_VARIABLE + "++;" +
+            "    }" +
+            "    return intercept;" +
+            "  };" +
+            "})();";
+  }
+
+  private static String toJSONArray(@Nullable List<String> list) {
+    return list != null ? new JSONArray(list).toString() : "[]";
+  }
+}
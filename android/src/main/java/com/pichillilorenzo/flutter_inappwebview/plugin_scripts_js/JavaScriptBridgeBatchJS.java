@@ -0,0 +1,69 @@
+package com.pichillilorenzo.flutter_inappwebview.plugin_scripts_js;
+
+import com.pichillilorenzo.flutter_inappwebview.types.PluginScript;
+import com.pichillilorenzo.flutter_inappwebview.types.UserScriptInjectionTime;
+
+public class JavaScriptBridgeBatchJS {
+  public static final String JAVASCRIPT_BRIDGE_BATCH_JS_PLUGIN_SCRIPT_GROUP_NAME = "IN_APP_WEBVIEW_JAVASCRIPT_BRIDGE_BATCH_JS_PLUGIN_SCRIPT";
+  public static final String FLAG_VARIABLE_FOR_JAVASCRIPT_BRIDGE_BATCH_JS_SOURCE = JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "._useBatchedJavaScriptBridge";
+  public static final PluginScript JAVASCRIPT_BRIDGE_BATCH_JS_PLUGIN_SCRIPT = new PluginScript(
+          JavaScriptBridgeBatchJS.JAVASCRIPT_BRIDGE_BATCH_JS_PLUGIN_SCRIPT_GROUP_NAME,
+          JavaScriptBridgeBatchJS.JAVASCRIPT_BRIDGE_BATCH_JS_SOURCE,
+          UserScriptInjectionTime.AT_DOCUMENT_START,
+          null,
+          false
+  );
+
+  // maximum time, in milliseconds, a call waits in the queue when no animation frame is rendered
+  public static final int FLUSH_TIMEOUT = 50;
+
+  // calls made during the same animation frame are sent to the native side with a single _callHandlerBatch call,
+  // and all their results come back with a single _resolveBatch call
+  public static final String JAVASCRIPT_BRIDGE_BATCH_JS_SOURCE = "(function() {" +
+          "  if ((window.top == null || window.top === window) && window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + " != null && window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "._callHandlerBatch != null) {" +
+          "    window." + FLAG_VARIABLE_FOR_JAVASCRIPT_BRIDGE_BATCH_JS_SOURCE + " = true;" +
+          "    var bridge = window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + ";" +
+          "    var callHandler = bridge.callHandler;" +
+          "    var queue = [];" +
+          "    var scheduled = false;" +
+          "    var flush = function() {" +
+          "      if (!scheduled) {" +
+          "        return;" +
+          "      }" +
+          "      scheduled = false;" +
+          "      var calls = queue;" +
+          "      queue = [];" +
+          "      bridge._callHandlerBatch(JSON.stringify(calls));" +
+          "    };" +
+          "    bridge.callHandler = function() {" +
+          "      if (window." + FLAG_VARIABLE_FOR_JAVASCRIPT_BRIDGE_BATCH_JS_SOURCE + " == false) {" +
+          "        return callHandler.apply(bridge, arguments);" +
+          "      }" +
+          "      var _callHandlerID = setTimeout(function(){});" +
+          "      queue.push({" +
+          "        handlerName: arguments[0]," +
+          "        callHandlerID: _callHandlerID," +
+          "        args: JSON.stringify(Array.prototype.slice.call(arguments, 1))" +
+          "      });" +
+          "      if (!scheduled) {" +
+          "        scheduled = true;" +
+          "        if (window.requestAnimationFrame != null) {" +
+          "          window.requestAnimationFrame(flush);" +
+          "        }" +
+          "        setTimeout(flush, " + FLUSH_TIMEOUT + ");" +
+          "      }" +
+          "      return new Promise(function(resolve, reject) {" +
+          "        bridge[_callHandlerID] = resolve;" +
+          "      });" +
+          "    };" +
+          "    bridge._resolveBatch = function(results) {" +
+          "      for (var _callHandlerID in results) {" +
+          "        if (bridge[_callHandlerID] != null) {" +
+          "          bridge[_callHandlerID](results[_callHandlerID]);" +
+          "          delete bridge[_callHandlerID];" +
+          "        }" +
+          "      }" +
+          "    };" +
+          "  }" +
+          "})();";
+}
@@ -130,7 +130,7 @@ public class JavaScriptBridgeJS {
           "    isString: function(variable) {" +
           "        return typeof variable === 'string' || variable instanceof String;" +
           "    }," +
-          "    convertBodyRequest: function(body) {" +
+          "    convertBodyRequest: function(body, asBytes) {" +
           "        if (body == null) {" +
           "            return new Promise(function(resolve, reject) { resolve(null); });" +
           "        }" +
@@ -139,11 +139,11 @@ public class JavaScriptBridgeJS {
           "        }" +
           "        if (window.Response != null) {" +
           "            return new Response(body).arrayBuffer().then(function(arrayBuffer) {" +
-          "                return Array.from(new Uint8Array(arrayBuffer));" +
+          "                return asBytes ? new Uint8Array(arrayBuffer) : Array.from(new Uint8Array(arrayBuffer));" +
           "            });" +
           "        }" +
           "        return " + JAVASCRIPT_UTIL_VAR_NAME + ".convertBodyToArrayBuffer(body).then(function(arrayBuffer) {" +
-          "            return Array.from(new Uint8Array(arrayBuffer));" +
+          "            return asBytes ? new Uint8Array(arrayBuffer) : Array.from(new Uint8Array(arrayBuffer));" +
           "        });" +
           "    }," +
           "    arrayBufferToString: function(arrayBuffer) {" +
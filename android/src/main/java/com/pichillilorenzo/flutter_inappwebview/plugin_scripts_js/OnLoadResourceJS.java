@@ -14,21 +14,101 @@ public class OnLoadResourceJS {
           false
   );
 
+  // converts a PerformanceResourceTiming entry to the object sent to the onLoadResource event.
+  // The timing breakdown is 0 for the cross-origin resources without a Timing-Allow-Origin header.
+  public static final String RESOURCE_FROM_ENTRY_JS_FUNCTION = "function(entry) {" +
+          "  return {" +
+          "    'url': entry.name," +
+          "    'initiatorType': entry.initiatorType," +
+          "    'startTime': entry.startTime," +
+          "    'duration': entry.duration," +
+          "    'domainLookupDuration': entry.domainLookupEnd - entry.domainLookupStart," +
+          "    'connectDuration': entry.connectEnd - entry.connectStart," +
+          "    'secureConnectionDuration': entry.secureConnectionStart > 0 ? entry.connectEnd - entry.secureConnectionStart : 0," +
+          "    'timeToFirstByte': entry.responseStart > 0 ? entry.responseStart - entry.startTime : 0," +
+          "    'responseDuration': entry.responseStart > 0 ? entry.responseEnd - entry.responseStart : 0," +
+          "    'transferSize': entry.transferSize," +
+          "    'encodedBodySize': entry.encodedBodySize," +
+          "    'decodedBodySize': entry.decodedBodySize," +
+          "    'nextHopProtocol': entry.nextHopProtocol" +
+          "  };" +
+          "}";
+
   public static final String ON_LOAD_RESOURCE_JS_SOURCE = "window." + FLAG_VARIABLE_FOR_ON_LOAD_RESOURCE_JS_SOURCE + " = true;" +
           "(function() {" +
+          "   var resourceFromEntry = " + RESOURCE_FROM_ENTRY_JS_FUNCTION + ";" +
           "   var observer = new PerformanceObserver(function(list) {" +
           "       list.getEntries().forEach(function(entry) {" +
           "         if (" + FLAG_VARIABLE_FOR_ON_LOAD_RESOURCE_JS_SOURCE + " == null || " + FLAG_VARIABLE_FOR_ON_LOAD_RESOURCE_JS_SOURCE + " == true) {" +
-          "           var resource = {" +
-          "             'url': entry.name," +
-          "             'initiatorType': entry.initiatorType," +
-          "             'startTime': entry.startTime," +
-          "             'duration': entry.duration" +
-          "           };" +
+          "           var resource = resourceFromEntry(entry);" +
           "           window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + ".callHandler('onLoadResource', resource);" +
           "         }" +
           "       });" +
           "   });" +
           "   observer.observe({entryTypes: ['resource']});" +
           "})();";
+
+  /**
+   * Creates the onLoadResource plugin script for the onLoadResourceBatchSize and onLoadResourceBatchInterval options.
+   * When the batch size is greater than 1, the entries are sent with a single bridge call once the batch is full,
+   * once the interval has elapsed since the first entry of the batch, or when the page is hidden.
+   * Otherwise, every entry is sent on its own, as with ON_LOAD_RESOURCE_JS_PLUGIN_SCRIPT.
+   */
+  public static PluginScript createPluginScript(int batchSize, int batchInterval) {
+    if (batchSize <= 1) {
+      return ON_LOAD_RESOURCE_JS_PLUGIN_SCRIPT;
+    }
+    return new PluginScript(
+            ON_LOAD_RESOURCE_JS_PLUGIN_SCRIPT_GROUP_NAME,
+            createBatchSource(batchSize, Math.max(0, batchInterval)),
+            UserScriptInjectionTime.AT_DOCUMENT_START,
+            null,
+            false
+    );
+  }
+
+  private static String createBatchSource(int batchSize, int batchInterval) {
+    return "window." + FLAG_VARIABLE_FOR_ON_LOAD_RESOURCE_JS_SOURCE + " = true;" +
+            "(function() {" +
+            "  var resourceFromEntry = " + RESOURCE_FROM_ENTRY_JS_FUNCTION + ";" +
+            "  var batchSize = " + batchSize + ";" +
+            "  var batchInterval = " + batchInterval + ";" +
+            "  var resources = [];" +
+            "  var timeoutId = null;" +
+            "  var flush = function() {" +
+            "    if (timeoutId != null) {" +
+            "      clearTimeout(timeoutId);" +
+            "      timeoutId = null;" +
+            "    }" +
+            "    if (resources.length === 0) {" +
+            "      return;" +
+            "    }" +
+            "    var batch = resources;" +
+            "    resources = [];" +
+            "    window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + ".callHandler('onLoadResourceBatch', batch);" +
+            "  };" +
+            "  var observer = new PerformanceObserver(function(list) {" +
+            "    if (" + FLAG_VARIABLE_FOR_ON_LOAD_RESOURCE_JS_SOURCE + " != null && " + FLAG_VARIABLE_FOR_ON_LOAD_RESOURCE_JS_SOURCE + " == false) {" +
+            "      resources = [];" +
+            "      return;" +
+            "    }" +
+            "    list.getEntries().forEach(function(entry) {" +
+            "      resources.push(resourceFromEntry(entry));" +
+            "    });" +
+            "    if (resources.length >= batchSize) {" +
+            "      flush();" +
+            "    } else if (timeoutId == null && resources.length > 0) {" +
+            "      timeoutId = setTimeout(flush, batchInterval);" +
+            "    }" +
+            "  });" +
+            "  observer.observe({entryTypes: ['resource']});" +
+            // the timer could never fire after these events
+            "  window.addEventListener('pagehide', flush);" +
+            "  document.addEventListener('visibilitychange', function() {" +
+            "    if (document.visibilityState === 'hidden') {" +
+            "      flush();" +
+            "    }" +
+            "  });" +
+            "})();";
+  }
 }
@@ -42,7 +42,8 @@ public interface InAppWebViewInterface {
   void stopLoading();
   boolean isLoading();
   void takeScreenshot(Map<String, Object> screenshotConfiguration, MethodChannel.Result result);
-  void setOptions(InAppWebViewOptions newOptions, HashMap<String, Object> newOptionsMap);
+  Map<String, Object> setOptions(HashMap<String, Object> newOptionsMap);
+  void setOptions(InAppWebViewOptions newOptions, Map<String, Object> newOptionsMap);
   Map<String, Object> getOptions();
   HashMap<String, Object> getCopyBackForwardList();
   void clearAllCache();
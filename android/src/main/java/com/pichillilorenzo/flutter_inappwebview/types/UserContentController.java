@@ -1,10 +1,15 @@
 package com.pichillilorenzo.flutter_inappwebview.types;
 
+import android.annotation.SuppressLint;
 import android.text.TextUtils;
 import android.util.Log;
+import android.webkit.WebView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.webkit.ScriptHandler;
+import androidx.webkit.WebViewCompat;
+import androidx.webkit.WebViewFeature;
 
 import com.pichillilorenzo.flutter_inappwebview.Util;
 import com.pichillilorenzo.flutter_inappwebview.plugin_scripts_js.JavaScriptBridgeJS;
@@ -14,6 +19,7 @@ import org.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -40,34 +46,145 @@ public class UserContentController {
     put(UserScriptInjectionTime.AT_DOCUMENT_END, new LinkedHashSet<PluginScript>());
   }};
 
+  // the generated code only changes when the scripts or the content worlds change,
+  // so it is cached instead of being rebuilt on every page load
+  @Nullable
+  private String codeForDocumentStart;
+  @Nullable
+  private String wrappedCodeForDocumentStart;
+  @Nullable
+  private String wrappedCodeForDocumentEnd;
+
+  // set when the AT_DOCUMENT_START scripts of the page content world are registered with WebViewCompat.addDocumentStartJavaScript,
+  // then they are left out of the code evaluated on page start
+  @Nullable
+  private WebView documentStartScriptsWebView;
+  @Nullable
+  private ScriptHandler documentStartScriptHandler;
+  @Nullable
+  private String registeredCodeForDocumentStart;
+
   public UserContentController() {
   }
 
+  /**
+   * Registers the AT_DOCUMENT_START scripts of the page content world natively, so that they run before any script of the page
+   * without being evaluated again on every page start. The scripts of the other content worlds need the document body,
+   * so they are still evaluated on page start.
+   * Returns false if the WebView implementation doesn't support it.
+   */
+  public boolean enableNativeDocumentStartScripts(@NonNull WebView webView) {
+    if (!WebViewFeature.isFeatureSupported(WebViewFeature.DOCUMENT_START_SCRIPT)) {
+      return false;
+    }
+    documentStartScriptsWebView = webView;
+    invalidateGeneratedCode();
+    updateNativeDocumentStartScripts();
+    return true;
+  }
+
+  public void disableNativeDocumentStartScripts() {
+    if (documentStartScriptHandler != null) {
+      documentStartScriptHandler.remove();
+      documentStartScriptHandler = null;
+    }
+    registeredCodeForDocumentStart = null;
+    documentStartScriptsWebView = null;
+    invalidateGeneratedCode();
+  }
+
+  public boolean isUsingNativeDocumentStartScripts() {
+    return documentStartScriptsWebView != null;
+  }
+
+  @SuppressLint("RequiresFeature")
+  private void updateNativeDocumentStartScripts() {
+    if (documentStartScriptsWebView == null) {
+      return;
+    }
+    String code = generateNativeCodeForDocumentStart();
+    if (code.equals(registeredCodeForDocumentStart)) {
+      return;
+    }
+    if (documentStartScriptHandler != null) {
+      documentStartScriptHandler.remove();
+    }
+    documentStartScriptHandler = WebViewCompat.addDocumentStartJavaScript(documentStartScriptsWebView, code, Collections.singleton("*"));
+    registeredCodeForDocumentStart = code;
+  }
+
+  public String generateNativeCodeForDocumentStart() {
+    StringBuilder js = new StringBuilder();
+    for (PluginScript script : this.pluginScripts.get(UserScriptInjectionTime.AT_DOCUMENT_START)) {
+      if (isPageContentWorld(script.getContentWorld())) {
+        js.append(";").append(script.getSource());
+      }
+    }
+    js.append(";").append(BRIDGE_READY_TIME_JS_SOURCE);
+    for (UserScript script : this.userOnlyScripts.get(UserScriptInjectionTime.AT_DOCUMENT_START)) {
+      if (isPageContentWorld(script.getContentWorld())) {
+        js.append(";").append(script.getSource());
+      }
+    }
+    return NATIVE_DOCUMENT_START_WRAPPER_JS_SOURCE.replace(PluginScriptsUtil.VAR_PLACEHOLDER_VALUE, js.toString());
+  }
+
+  private static boolean isPageContentWorld(@Nullable ContentWorld contentWorld) {
+    return contentWorld == null || contentWorld.equals(ContentWorld.PAGE);
+  }
+
+  private boolean isRegisteredNatively(UserScriptInjectionTime injectionTime, @Nullable ContentWorld contentWorld) {
+    return documentStartScriptsWebView != null &&
+            injectionTime == UserScriptInjectionTime.AT_DOCUMENT_START &&
+            isPageContentWorld(contentWorld);
+  }
+
+  private void onScriptsChanged() {
+    invalidateGeneratedCode();
+    updateNativeDocumentStartScripts();
+  }
+
   public String generateWrappedCodeForDocumentStart() {
-    return Util.replaceAll(
-            DOCUMENT_READY_WRAPPER_JS_SOURCE,
-            PluginScriptsUtil.VAR_PLACEHOLDER_VALUE,
-            generateCodeForDocumentStart());
+    if (wrappedCodeForDocumentStart == null) {
+      wrappedCodeForDocumentStart = Util.replaceAll(
+              DOCUMENT_READY_WRAPPER_JS_SOURCE,
+              PluginScriptsUtil.VAR_PLACEHOLDER_VALUE,
+              generateCodeForDocumentStart());
+    }
+    return wrappedCodeForDocumentStart;
   }
 
   public String generateWrappedCodeForDocumentEnd() {
-    UserScriptInjectionTime injectionTime = UserScriptInjectionTime.AT_DOCUMENT_END;
-    // try to reload scripts if they were not loaded during the AT_DOCUMENT_START event
-    String js = generateCodeForDocumentStart();
-    js += generatePluginScriptsCodeAt(injectionTime);
-    js += generateUserOnlyScriptsCodeAt(injectionTime);
-    js = USER_SCRIPTS_AT_DOCUMENT_END_WRAPPER_JS_SOURCE.replace(PluginScriptsUtil.VAR_PLACEHOLDER_VALUE, js);
-    return js;
+    if (wrappedCodeForDocumentEnd == null) {
+      UserScriptInjectionTime injectionTime = UserScriptInjectionTime.AT_DOCUMENT_END;
+      // try to reload scripts if they were not loaded during the AT_DOCUMENT_START event
+      String js = generateCodeForDocumentStart();
+      js += generatePluginScriptsCodeAt(injectionTime);
+      js += generateUserOnlyScriptsCodeAt(injectionTime);
+      wrappedCodeForDocumentEnd = USER_SCRIPTS_AT_DOCUMENT_END_WRAPPER_JS_SOURCE.replace(PluginScriptsUtil.VAR_PLACEHOLDER_VALUE, js);
+    }
+    return wrappedCodeForDocumentEnd;
   }
 
   public String generateCodeForDocumentStart() {
-    UserScriptInjectionTime injectionTime = UserScriptInjectionTime.AT_DOCUMENT_START;
-    String js = "";
-    js += generatePluginScriptsCodeAt(injectionTime);
-    js += generateContentWorldsCreatorCode();
-    js += generateUserOnlyScriptsCodeAt(injectionTime);
-    js = USER_SCRIPTS_AT_DOCUMENT_START_WRAPPER_JS_SOURCE.replace(PluginScriptsUtil.VAR_PLACEHOLDER_VALUE, js);
-    return js;
+    if (codeForDocumentStart == null) {
+      UserScriptInjectionTime injectionTime = UserScriptInjectionTime.AT_DOCUMENT_START;
+      String js = "";
+      js += generatePluginScriptsCodeAt(injectionTime);
+      if (documentStartScriptsWebView == null) {
+        js += BRIDGE_READY_TIME_JS_SOURCE;
+      }
+      js += generateContentWorldsCreatorCode();
+      js += generateUserOnlyScriptsCodeAt(injectionTime);
+      codeForDocumentStart = USER_SCRIPTS_AT_DOCUMENT_START_WRAPPER_JS_SOURCE.replace(PluginScriptsUtil.VAR_PLACEHOLDER_VALUE, js);
+    }
+    return codeForDocumentStart;
+  }
+
+  private void invalidateGeneratedCode() {
+    codeForDocumentStart = null;
+    wrappedCodeForDocumentStart = null;
+    wrappedCodeForDocumentEnd = null;
   }
 
   public String generateContentWorldsCreatorCode() {
@@ -96,8 +213,10 @@ public class UserContentController {
 
   public String generatePluginScriptsCodeAt(UserScriptInjectionTime injectionTime) {
     StringBuilder js = new StringBuilder();
-    LinkedHashSet<PluginScript> scripts = this.getPluginScriptsAt(injectionTime);
-    for (PluginScript script : scripts) {
+    for (PluginScript script : this.pluginScripts.get(injectionTime)) {
+      if (isRegisteredNatively(injectionTime, script.getContentWorld())) {
+        continue;
+      }
       String source = ";" + script.getSource();
       source = wrapSourceCodeInContentWorld(script.getContentWorld(), source);
       js.append(source);
@@ -107,8 +226,10 @@ public class UserContentController {
 
   public String generateUserOnlyScriptsCodeAt(UserScriptInjectionTime injectionTime) {
     StringBuilder js = new StringBuilder();
-    LinkedHashSet<UserScript> scripts = this.getUserOnlyScriptsAt(injectionTime);
-    for (UserScript script : scripts) {
+    for (UserScript script : this.userOnlyScripts.get(injectionTime)) {
+      if (isRegisteredNatively(injectionTime, script.getContentWorld())) {
+        continue;
+      }
       String source = ";" + script.getSource();
       source = wrapSourceCodeInContentWorld(script.getContentWorld(), source);
       js.append(source);
@@ -121,6 +242,7 @@ public class UserContentController {
       StringBuilder sourceWrapped = new StringBuilder();
       if (!contentWorlds.contains(contentWorld)) {
         contentWorlds.add(contentWorld);
+        invalidateGeneratedCode();
 
         LinkedHashSet<PluginScript> pluginScriptsRequired = this.getPluginScriptsRequiredInAllContentWorlds();
         for (PluginScript script : pluginScriptsRequired) {
@@ -161,7 +283,9 @@ public class UserContentController {
     if (contentWorld != null) {
       contentWorlds.add(contentWorld);
     }
-    return this.userOnlyScripts.get(userOnlyScript.getInjectionTime()).add(userOnlyScript);
+    boolean added = this.userOnlyScripts.get(userOnlyScript.getInjectionTime()).add(userOnlyScript);
+    onScriptsChanged();
+    return added;
   }
 
   public void addUserOnlyScripts(List<UserScript> userOnlyScripts) {
@@ -171,7 +295,9 @@ public class UserContentController {
   }
 
   public boolean removeUserOnlyScript(UserScript userOnlyScript) {
-    return this.userOnlyScripts.get(userOnlyScript.getInjectionTime()).remove(userOnlyScript);
+    boolean removed = this.userOnlyScripts.get(userOnlyScript.getInjectionTime()).remove(userOnlyScript);
+    onScriptsChanged();
+    return removed;
   }
 
   public boolean removeUserOnlyScriptAt(int index, UserScriptInjectionTime injectionTime) {
@@ -182,6 +308,7 @@ public class UserContentController {
   public void removeAllUserOnlyScripts() {
     this.userOnlyScripts.get(UserScriptInjectionTime.AT_DOCUMENT_START).clear();
     this.userOnlyScripts.get(UserScriptInjectionTime.AT_DOCUMENT_END).clear();
+    onScriptsChanged();
   }
 
   public LinkedHashSet<PluginScript> getPluginScriptsAt(UserScriptInjectionTime injectionTime) {
@@ -190,8 +317,7 @@ public class UserContentController {
 
   public LinkedHashSet<PluginScript> getPluginScriptsRequiredInAllContentWorlds() {
     LinkedHashSet<PluginScript> pluginScriptsRequired = new LinkedHashSet<>();
-    LinkedHashSet<PluginScript> scripts = this.getPluginScriptsAt(UserScriptInjectionTime.AT_DOCUMENT_START);
-    for (PluginScript script : scripts) {
+    for (PluginScript script : this.pluginScripts.get(UserScriptInjectionTime.AT_DOCUMENT_START)) {
       if (script.isRequiredInAllContentWorlds()) {
         pluginScriptsRequired.add(script);
       }
@@ -204,7 +330,9 @@ public class UserContentController {
     if (contentWorld != null) {
       contentWorlds.add(contentWorld);
     }
-    return this.pluginScripts.get(pluginScript.getInjectionTime()).add(pluginScript);
+    boolean added = this.pluginScripts.get(pluginScript.getInjectionTime()).add(pluginScript);
+    onScriptsChanged();
+    return added;
   }
 
   public void addPluginScripts(List<PluginScript> pluginScripts) {
@@ -214,12 +342,15 @@ public class UserContentController {
   }
 
   public boolean removePluginScript(PluginScript pluginScript) {
-    return this.pluginScripts.get(pluginScript.getInjectionTime()).remove(pluginScript);
+    boolean removed = this.pluginScripts.get(pluginScript.getInjectionTime()).remove(pluginScript);
+    onScriptsChanged();
+    return removed;
   }
 
   public void removeAllPluginScripts() {
     this.pluginScripts.get(UserScriptInjectionTime.AT_DOCUMENT_START).clear();
     this.pluginScripts.get(UserScriptInjectionTime.AT_DOCUMENT_END).clear();
+    onScriptsChanged();
   }
 
   public LinkedHashSet<UserScript> getUserOnlyScriptAsList() {
@@ -241,19 +372,26 @@ public class UserContentController {
   }
 
   public void resetContentWorlds() {
-    this.contentWorlds.clear();
-    this.contentWorlds.add(ContentWorld.PAGE);
+    Set<ContentWorld> contentWorlds = new HashSet<>();
+    contentWorlds.add(ContentWorld.PAGE);
 
     LinkedHashSet<PluginScript> pluginScripts = this.getPluginScriptAsList();
     for (PluginScript pluginScript : pluginScripts) {
       ContentWorld contentWorld = pluginScript.getContentWorld();
-      this.contentWorlds.add(contentWorld);
+      contentWorlds.add(contentWorld);
     }
 
     LinkedHashSet<UserScript> userOnlyScripts = this.getUserOnlyScriptAsList();
     for (UserScript userOnlyScript : userOnlyScripts) {
       ContentWorld contentWorld = userOnlyScript.getContentWorld();
-      this.contentWorlds.add(contentWorld);
+      contentWorlds.add(contentWorld);
+    }
+
+    // this is called on every page load, so the generated code is kept if nothing changed
+    if (!this.contentWorlds.equals(contentWorlds)) {
+      this.contentWorlds.clear();
+      this.contentWorlds.addAll(contentWorlds);
+      invalidateGeneratedCode();
     }
   }
 
@@ -314,6 +452,16 @@ public class UserContentController {
           "  " + PluginScriptsUtil.VAR_PLACEHOLDER_VALUE +
           "}";
 
+  // a script registered natively also runs in the iframes, while the evaluated scripts only run in the main frame
+  private static final String NATIVE_DOCUMENT_START_WRAPPER_JS_SOURCE = "if ((window.top == null || window.top === window) && window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + " != null) {" +
+          "  " + PluginScriptsUtil.VAR_PLACEHOLDER_VALUE +
+          "}";
+
+  // milliseconds from the start of the navigation to the moment the JavaScript bridge is ready
+  public static final String BRIDGE_READY_TIME_JS_SOURCE = "if (window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "._bridgeReadyTime == null && window.performance != null) {" +
+          "  window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "._bridgeReadyTime = window.performance.now();" +
+          "}";
+
   private static final String USER_SCRIPTS_AT_DOCUMENT_END_WRAPPER_JS_SOURCE = "if (window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + " != null && (window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "._userScriptsAtDocumentEndLoaded == null || !window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "._userScriptsAtDocumentEndLoaded)) {" +
           "  window." + JavaScriptBridgeJS.JAVASCRIPT_BRIDGE_NAME + "._userScriptsAtDocumentEndLoaded = true;" +
           "  " + PluginScriptsUtil.VAR_PLACEHOLDER_VALUE +
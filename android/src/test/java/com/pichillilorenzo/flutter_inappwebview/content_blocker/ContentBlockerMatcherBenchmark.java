@@ -0,0 +1,149 @@
+package com.pichillilorenzo.flutter_inappwebview.content_blocker;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Replays a list of URLs against an EasyList-sized rule set, once with the linear matcher
+ * and once with the indexed one, doing the same Matcher.matches() check that ContentBlockerHandler.checkUrl does.
+ *
+ * The URLs are read one per line from the file set with the content.blocker.urls system property,
+ * for example a list recorded from the WebView requests of a real page load.
+ * Without it, a generated list is replayed.
+ */
+public class ContentBlockerMatcherBenchmark {
+
+    private static final int RULE_COUNT = 30000;
+    private static final int GENERATED_URL_COUNT = 200;
+    private static final int ROUNDS = 3;
+
+    private static int sink = 0;
+
+    @Test
+    public void replayUrls() throws IOException {
+        List<ContentBlocker> ruleList = IndexedContentBlockerMatcherTest.createRuleList(createUrlFilters());
+        List<String> urls = loadUrls();
+
+        long buildStart = System.nanoTime();
+        IndexedContentBlockerMatcher indexedMatcher = new IndexedContentBlockerMatcher(ruleList);
+        long buildNanos = System.nanoTime() - buildStart;
+        LinearContentBlockerMatcher linearMatcher = new LinearContentBlockerMatcher(ruleList);
+        System.out.printf("index of %d rules built in %.1f ms: %d tokens, %d generic rules%n",
+                ruleList.size(), buildNanos / 1e6, indexedMatcher.getIndexedTokenCount(),
+                indexedMatcher.getGenericRuleCount());
+
+        for (String url : urls) {
+            Set<ContentBlocker> candidates = new HashSet<>(indexedMatcher.getCandidates(url));
+            for (ContentBlocker contentBlocker : IndexedContentBlockerMatcherTest.matches(linearMatcher.getCandidates(url), url)) {
+                assertTrue(contentBlocker.getTrigger().getUrlFilter() + " matches " + url,
+                        candidates.contains(contentBlocker));
+            }
+        }
+
+        // the first round warms up the JIT
+        for (int round = 0; round <= ROUNDS; round++) {
+            long linearNanos = replay(linearMatcher, urls);
+            long indexedNanos = replay(indexedMatcher, urls);
+            if (round > 0) {
+                System.out.printf("round %d: linear %.1f us/url, indexed %.1f us/url%n",
+                        round, linearNanos / 1e3 / urls.size(), indexedNanos / 1e3 / urls.size());
+            }
+        }
+        System.out.println(sink);
+    }
+
+    private static long replay(ContentBlockerMatcher matcher, List<String> urls) {
+        long start = System.nanoTime();
+        for (String url : urls) {
+            sink += IndexedContentBlockerMatcherTest.matches(matcher.getCandidates(url), url).size();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static String[] createUrlFilters() {
+        String[] urlFilters = new String[RULE_COUNT];
+        for (int i = 0; i < RULE_COUNT; i++) {
+            switch (i % 10) {
+                case 0:
+                    urlFilters[i] = "^https?://([^/]+\\.)?adserver" + i + "\\.com/.*";
+                    break;
+                case 1:
+                    urlFilters[i] = ".*/banner" + i + "[/_.].*";
+                    break;
+                case 2:
+                    urlFilters[i] = ".*[?&]campaign" + i + "=.*";
+                    break;
+                case 3:
+                    urlFilters[i] = ".*\\.tracker" + i + "\\.net/.*";
+                    break;
+                case 4:
+                    urlFilters[i] = ".*/ads/slot" + i + "\\.js";
+                    break;
+                case 5:
+                    urlFilters[i] = ".*/pixel" + i + "\\.gif\\?.*";
+                    break;
+                case 6:
+                    urlFilters[i] = "https://cdn\\.example\\.org/promo" + i + "/.*";
+                    break;
+                case 7:
+                    urlFilters[i] = ".*/analytics/v" + i + "/collect.*";
+                    break;
+                case 8:
+                    urlFilters[i] = ".*-sponsor" + i + "-.*";
+                    break;
+                default:
+                    // a top-level alternation cannot be indexed, so it is checked against every URL
+                    urlFilters[i] = i % 100 == 9 ? ".*/ad" + i + "\\.js|.*/track" + i + "\\.js" : ".*/widget" + i + "/.*";
+                    break;
+            }
+        }
+        return urlFilters;
+    }
+
+    private static List<String> loadUrls() throws IOException {
+        String path = System.getProperty("content.blocker.urls");
+        if (path != null) {
+            List<String> urls = new ArrayList<>();
+            for (String line : Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8)) {
+                if (!line.trim().isEmpty()) {
+                    urls.add(line.trim());
+                }
+            }
+            return urls;
+        }
+
+        List<String> urls = new ArrayList<>(GENERATED_URL_COUNT);
+        for (int i = 0; i < GENERATED_URL_COUNT; i++) {
+            // some URLs are blocked by the banner and campaign rules
+            int ruleIndex = ((i * 7919) % (RULE_COUNT / 10)) * 10;
+            switch (i % 5) {
+                case 0:
+                    urls.add("https://www.example.com/static/js/app." + i + ".js");
+                    break;
+                case 1:
+                    urls.add("https://images.example.com/banner" + (ruleIndex + 1) + "_300x250.png");
+                    break;
+                case 2:
+                    urls.add("https://www.example.com/search?q=news&campaign" + ruleIndex + "=1");
+                    break;
+                case 3:
+                    urls.add("https://fonts.example.net/css/font-" + i + ".woff2");
+                    break;
+                default:
+                    urls.add("https://www.example.com/article/" + i + "/comments?page=2");
+                    break;
+            }
+        }
+        return urls;
+    }
+}
@@ -0,0 +1,106 @@
+package com.pichillilorenzo.flutter_inappwebview.content_blocker;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedContentBlockerMatcherTest {
+
+    private static final String[] URL_FILTERS = {
+            ".*",
+            "https?://(www\\.)?ads\\.example\\.com/.*",
+            ".*/banner[0-9]+\\.gif",
+            ".*(?x) ads/+?.*",
+            "(?i).*TRACKER\\.js",
+            ".*\\.doubleclick\\.net/.*",
+            "^https://cdn\\.example\\.org/ad[sx]/.*",
+            ".*[/:]analytics[/:].*",
+            ".*pixel\\?id=.*",
+            ".*(?s)promo.*",
+            ".*/ads?/.*",
+            ".*\\Qad.js\\E",
+            "https://a\\.com/x{2}y/.*",
+            "(ads|track)\\.example\\.com",
+            ".*\\bpop\\b.*",
+            ".*(?-i)Beacon.*",
+            ".*(?x:\\ s)ads.*",
+            ".*/(?:ad|banner)s/.*"
+    };
+
+    private static final String[] URLS = {
+            "adsxxads/",
+            "https://ads.example.com/x",
+            "https://www.ads.example.com/",
+            "https://site.com/img/banner12.gif",
+            "https://site.com/js/Tracker.js",
+            "https://x.doubleclick.net/pagead",
+            "https://cdn.example.org/adx/1.js",
+            "https://site.com/analytics/collect",
+            "https://site.com:analytics:",
+            "https://site.com/pixel?id=3",
+            "https://site.com/promo",
+            "https://site.com/ad/1",
+            "https://site.com/ads/1",
+            "https://site.com/lib/ad.js",
+            "https://a.com/xxy/z",
+            "ads.example.com",
+            "https://site.com/pop-up",
+            "https://site.com/Beacon",
+            "https://site.com/sads",
+            "https://site.com/banners/1.png"
+    };
+
+    @Test
+    public void extractTokensSkipsInlineFlags() {
+        assertNull(IndexedContentBlockerMatcher.extractTokens(".*(?x) ads/+?.*"));
+        assertNull(IndexedContentBlockerMatcher.extractTokens(".*(?s)promo.*"));
+        assertNull(IndexedContentBlockerMatcher.extractTokens(".*(?-i)Beacon.*"));
+        assertNull(IndexedContentBlockerMatcher.extractTokens(".*/(x(?x) ads)/.*"));
+        assertNotNull(IndexedContentBlockerMatcher.extractTokens("(?i).*TRACKER\\.js"));
+        assertNotNull(IndexedContentBlockerMatcher.extractTokens(".*/(?:ad|banner)s/.*"));
+    }
+
+    @Test
+    public void candidatesContainLinearMatches() {
+        List<ContentBlocker> ruleList = createRuleList(URL_FILTERS);
+        IndexedContentBlockerMatcher indexedMatcher = new IndexedContentBlockerMatcher(ruleList);
+        LinearContentBlockerMatcher linearMatcher = new LinearContentBlockerMatcher(ruleList);
+        assertEquals(ruleList, indexedMatcher.getRuleList());
+
+        for (String url : URLS) {
+            Set<ContentBlocker> candidates = new HashSet<>(indexedMatcher.getCandidates(url));
+            for (ContentBlocker contentBlocker : matches(linearMatcher.getCandidates(url), url)) {
+                assertTrue(contentBlocker.getTrigger().getUrlFilter() + " matches " + url,
+                        candidates.contains(contentBlocker));
+            }
+        }
+    }
+
+    static List<ContentBlocker> createRuleList(String[] urlFilters) {
+        List<ContentBlocker> ruleList = new ArrayList<>();
+        for (String urlFilter : urlFilters) {
+            ContentBlockerTrigger trigger = new ContentBlockerTrigger(urlFilter, null, null,
+                    null, null, null, null, null);
+            ruleList.add(new ContentBlocker(trigger, new ContentBlockerAction(ContentBlockerActionType.BLOCK, null)));
+        }
+        return ruleList;
+    }
+
+    static List<ContentBlocker> matches(List<ContentBlocker> candidates, String url) {
+        List<ContentBlocker> matches = new ArrayList<>();
+        for (ContentBlocker contentBlocker : candidates) {
+            if (contentBlocker.getTrigger().getUrlFilterPatternCompiled().matcher(url).matches()) {
+                matches.add(contentBlocker);
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,101 @@
+package com.pichillilorenzo.flutter_inappwebview.in_app_webview;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the two ways of handling a setOptions call, for which Dart always sends all the options:
+ * parsing the full map into new options and looking up every option, as before,
+ * or comparing the map with the previous one and parsing only the changed options into a copy.
+ *
+ * The calls alternate between two maps that only differ by the options toggled on every page.
+ */
+public class InAppWebViewOptionsBenchmark {
+
+  private static final int ITERATIONS = 50000;
+  private static final int ROUNDS = 5;
+
+  private static int sink = 0;
+
+  @Test
+  public void setOptions() {
+    Map<String, Object> defaultOptionsMap = new InAppWebViewOptions().toMap();
+    HashMap<String, Object> firstOptionsMap = new HashMap<>(defaultOptionsMap);
+    HashMap<String, Object> secondOptionsMap = new HashMap<>(defaultOptionsMap);
+    secondOptionsMap.put("disableVerticalScroll", true);
+    secondOptionsMap.put("useShouldInterceptFetchRequest", true);
+    List<HashMap<String, Object>> optionsMaps = new ArrayList<>();
+    optionsMaps.add(firstOptionsMap);
+    optionsMaps.add(secondOptionsMap);
+    String[] keys = defaultOptionsMap.keySet().toArray(new String[0]);
+
+    // both ways end with the same options
+    InAppWebViewOptions fullParseOptions = new InAppWebViewOptions();
+    fullParseOptions.parse(secondOptionsMap);
+    InAppWebViewOptions diffParseOptions = new InAppWebViewOptions();
+    diffParseOptions.parse(firstOptionsMap);
+    diffParseOptions = diffParseOptions.copy();
+    diffParseOptions.parse(InAppWebViewOptions.diff(firstOptionsMap, secondOptionsMap));
+    assertEquals(fullParseOptions.toMap(), diffParseOptions.toMap());
+
+    // the first round warms up the JIT
+    for (int round = 0; round <= ROUNDS; round++) {
+      long fullParseNanos = fullParse(optionsMaps, keys);
+      long diffParseNanos = diffParse(optionsMaps, keys);
+      if (round > 0) {
+        System.out.printf("round %d: full parse %.0f ns/call, diff and partial parse %.0f ns/call%n",
+                round, (double) fullParseNanos / ITERATIONS, (double) diffParseNanos / ITERATIONS);
+      }
+    }
+    System.out.println(sink);
+  }
+
+  private static long fullParse(List<HashMap<String, Object>> optionsMaps, String[] keys) {
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      HashMap<String, Object> newOptionsMap = optionsMaps.get(i & 1);
+      InAppWebViewOptions newOptions = new InAppWebViewOptions();
+      newOptions.parse(newOptionsMap);
+      sink += lookUp(newOptionsMap, keys) + (newOptions.disableVerticalScroll ? 1 : 0);
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static long diffParse(List<HashMap<String, Object>> optionsMaps, String[] keys) {
+    InAppWebViewOptions options = new InAppWebViewOptions();
+    Map<String, Object> appliedOptionsMap = null;
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      HashMap<String, Object> newOptionsMap = optionsMaps.get(i & 1);
+      Map<String, Object> changedOptionsMap = InAppWebViewOptions.diff(appliedOptionsMap, newOptionsMap);
+      appliedOptionsMap = newOptionsMap;
+      if (!changedOptionsMap.isEmpty()) {
+        InAppWebViewOptions newOptions = options.copy();
+        newOptions.parse(changedOptionsMap);
+        sink += lookUp(changedOptionsMap, keys);
+        options = newOptions;
+      }
+      sink += options.disableVerticalScroll ? 1 : 0;
+    }
+    return System.nanoTime() - start;
+  }
+
+  /**
+   * The lookups of InAppWebView.setOptions, that checks every option against the map it gets.
+   */
+  private static int lookUp(Map<String, Object> optionsMap, String[] keys) {
+    int count = 0;
+    for (String key : keys) {
+      if (optionsMap.get(key) != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
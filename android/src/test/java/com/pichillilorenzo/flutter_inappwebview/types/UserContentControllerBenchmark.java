@@ -0,0 +1,84 @@
+package com.pichillilorenzo.flutter_inappwebview.types;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the code generated on every page load with 50 user scripts: rebuilt every time, as before,
+ * because a script is removed and added back before each page load, or read from the cache of UserContentController.
+ *
+ * A page load resets the content worlds, then generates the document start code and the document end code.
+ * The scripts use the page content world and the document-ready wrapper is left out, because the other content worlds
+ * and that wrapper go through JSONObject and TextUtils, which are stubs in the JVM unit tests.
+ */
+public class UserContentControllerBenchmark {
+
+  private static final int SCRIPT_COUNT = 50;
+  private static final int SCRIPT_LENGTH = 2000;
+  private static final int ITERATIONS = 2000;
+  private static final int ROUNDS = 5;
+
+  private static int sink = 0;
+
+  @Test
+  public void generateCode() {
+    UserContentController userContentController = new UserContentController();
+    for (int i = 0; i < SCRIPT_COUNT; i++) {
+      UserScriptInjectionTime injectionTime = i % 2 == 0 ?
+              UserScriptInjectionTime.AT_DOCUMENT_START : UserScriptInjectionTime.AT_DOCUMENT_END;
+      userContentController.addUserOnlyScript(new UserScript(null, createSource(i), injectionTime, null));
+    }
+    UserScript changedScript = new UserScript(null, createSource(SCRIPT_COUNT), UserScriptInjectionTime.AT_DOCUMENT_END, null);
+    userContentController.addUserOnlyScript(changedScript);
+
+    String cachedCode = pageLoad(userContentController);
+    userContentController.removeUserOnlyScript(changedScript);
+    userContentController.addUserOnlyScript(changedScript);
+    assertEquals(cachedCode, pageLoad(userContentController));
+
+    // the first round warms up the JIT
+    for (int round = 0; round <= ROUNDS; round++) {
+      long rebuiltNanos = rebuilt(userContentController, changedScript);
+      long cachedNanos = cached(userContentController);
+      if (round > 0) {
+        System.out.printf("round %d: rebuilt %.1f us/page load, cached %.1f us/page load%n",
+                round, rebuiltNanos / 1e3 / ITERATIONS, cachedNanos / 1e3 / ITERATIONS);
+      }
+    }
+    System.out.println(sink);
+  }
+
+  private static long rebuilt(UserContentController userContentController, UserScript changedScript) {
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      userContentController.removeUserOnlyScript(changedScript);
+      userContentController.addUserOnlyScript(changedScript);
+      sink += pageLoad(userContentController).length();
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static long cached(UserContentController userContentController) {
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      sink += pageLoad(userContentController).length();
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static String pageLoad(UserContentController userContentController) {
+    userContentController.resetContentWorlds();
+    String codeForDocumentStart = userContentController.generateCodeForDocumentStart();
+    String codeForDocumentEnd = userContentController.generateWrappedCodeForDocumentEnd();
+    return codeForDocumentStart + codeForDocumentEnd;
+  }
+
+  private static String createSource(int index) {
+    StringBuilder source = new StringBuilder("(function() { var script" + index + " = [];");
+    while (source.length() < SCRIPT_LENGTH) {
+      source.append(" script").append(index).append(".push(\"item ").append(source.length()).append("\");");
+    }
+    return source.append(" })();").toString();
+  }
+}
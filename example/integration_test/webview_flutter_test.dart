@@ -2459,6 +2459,69 @@ void main() {
       await expectLater(pageLoaded.future, completes);
     });
 
+    testWidgets('Content Blocker with many concurrent requests',
+        (WidgetTester tester) async {
+      // every image is requested at the same time, and each request
+      // reads the top-level URL for the ifTopUrl trigger
+      final int imageCount = 200;
+      final String images = List.generate(
+          imageCount,
+          (i) => '<img src="https://via.placeholder.com/${i + 1}x1" '
+              'onload="window.loadedCount++" onerror="window.failedCount++">').join();
+
+      final Completer controllerCompleter = Completer<InAppWebViewController>();
+      final Completer<void> pageLoaded = Completer<void>();
+      await tester.pumpWidget(
+        Directionality(
+          textDirection: TextDirection.ltr,
+          child: InAppWebView(
+            key: GlobalKey(),
+            initialData: InAppWebViewInitialData(data: """
+<!doctype html>
+<html lang="en">
+    <head>
+        <meta charset="UTF-8">
+        <script>window.loadedCount = 0; window.failedCount = 0;</script>
+    </head>
+    <body>
+      $images
+    </body>
+</html>
+                    """, baseUrl: Uri.parse('https://flutter.dev/')),
+            onWebViewCreated: (controller) {
+              controllerCompleter.complete(controller);
+            },
+            initialOptions: InAppWebViewGroupOptions(
+                crossPlatform: InAppWebViewOptions(contentBlockers: [
+              ContentBlocker(
+                  trigger: ContentBlockerTrigger(
+                      urlFilter: ".*via\\.placeholder\\.com.*",
+                      ifTopUrl: ["https://flutter.dev/"]),
+                  action: ContentBlockerAction(
+                      type: ContentBlockerActionType.BLOCK))
+            ])),
+            onLoadStop: (controller, url) {
+              pageLoaded.complete();
+            },
+          ),
+        ),
+      );
+
+      final InAppWebViewController controller =
+          await controllerCompleter.future;
+      await pageLoaded.future;
+
+      int failedCount = 0;
+      for (int i = 0; i < 100 && failedCount < imageCount; i++) {
+        await Future.delayed(const Duration(milliseconds: 100));
+        failedCount =
+            await controller.evaluateJavascript(source: "window.failedCount");
+      }
+      expect(failedCount, imageCount);
+      expect(await controller.evaluateJavascript(source: "window.loadedCount"),
+          0);
+    }, skip: !Platform.isAndroid);
+
     testWidgets('Http Auth Credential Database', (WidgetTester tester) async {
       HttpAuthCredentialDatabase httpAuthCredentialDatabase =
           HttpAuthCredentialDatabase.instance();
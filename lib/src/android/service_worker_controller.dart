@@ -21,6 +21,12 @@ class AndroidServiceWorkerController {
   set serviceWorkerClient(AndroidServiceWorkerClient? value) {
     Map<String, dynamic> args = <String, dynamic>{};
     args.putIfAbsent('isNull', () => value == null);
+    args.putIfAbsent('shouldInterceptRequestTimeout',
+        () => value?.shouldInterceptRequestTimeout);
+    args.putIfAbsent('hasShouldInterceptRequest',
+        () => value?.shouldInterceptRequest != null);
+    args.putIfAbsent('routingRules',
+        () => value?.routingRules?.map((e) => e.toMap()).toList());
     _channel.invokeMethod("setServiceWorkerClient", args);
     _serviceWorkerClient = value;
   }
@@ -29,6 +35,12 @@ class AndroidServiceWorkerController {
   setServiceWorkerClient(AndroidServiceWorkerClient? value) async {
     Map<String, dynamic> args = <String, dynamic>{};
     args.putIfAbsent('isNull', () => value == null);
+    args.putIfAbsent('shouldInterceptRequestTimeout',
+        () => value?.shouldInterceptRequestTimeout);
+    args.putIfAbsent('hasShouldInterceptRequest',
+        () => value?.shouldInterceptRequest != null);
+    args.putIfAbsent('routingRules',
+        () => value?.routingRules?.map((e) => e.toMap()).toList());
     await _channel.invokeMethod("setServiceWorkerClient", args);
     _serviceWorkerClient = value;
   }
@@ -69,6 +81,34 @@ class AndroidServiceWorkerController {
     return null;
   }
 
+  ///Returns the counters of the requests handed to [AndroidServiceWorkerClient.shouldInterceptRequest],
+  ///and how long they waited for the Dart answer: `requestCount`, `answeredCount`, `timedOutCount`, `fallbackCount`,
+  ///`totalWaitMillis`, `maxWaitMillis` and `averageWaitMillis`.
+  static Future<Map<String, dynamic>> getInterceptRequestMetrics() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic> metrics =
+        await _channel.invokeMethod('getInterceptRequestMetrics', args);
+    return metrics.cast<String, dynamic>();
+  }
+
+  ///Resets the counters returned by [getInterceptRequestMetrics].
+  static Future<void> resetInterceptRequestMetrics() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    await _channel.invokeMethod('resetInterceptRequestMetrics', args);
+  }
+
+  ///Returns the counters of the [AndroidServiceWorkerClient.routingRules] of the current client:
+  ///`rules`, with the `urlPattern`, `action`, `matchCount` and `averageHandleMillis` of each rule,
+  ///and the requests that didn't match any rule (`unmatchedCount`).
+  ///Returns `null` if the current client has no routing rules.
+  ///The time spent waiting for [AndroidServiceWorkerClient.shouldInterceptRequest] is returned by [getInterceptRequestMetrics].
+  static Future<Map<String, dynamic>?> getRoutingMetrics() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic>? metrics =
+        await _channel.invokeMethod('getRoutingMetrics', args);
+    return metrics?.cast<String, dynamic>();
+  }
+
   ///Gets whether Service Workers support content URL access.
   ///This method should only be called if [AndroidWebViewFeature.isFeatureSupported] returns `true` for [AndroidWebViewFeature.SERVICE_WORKER_CONTENT_ACCESS].
   ///
@@ -182,5 +222,118 @@ class AndroidServiceWorkerClient {
   final Future<WebResourceResponse?> Function(WebResourceRequest request)?
       shouldInterceptRequest;
 
-  AndroidServiceWorkerClient({this.shouldInterceptRequest});
+  ///Maximum time, in milliseconds, to wait for the answer of [shouldInterceptRequest].
+  ///When it expires, the Service Worker loads the resource as usual. The default value is `null`, which means no timeout.
+  final int? shouldInterceptRequestTimeout;
+
+  ///Rules evaluated natively, in order, before [shouldInterceptRequest]. The first rule matching the URL of a request decides
+  ///how it is loaded, and [shouldInterceptRequest] is called only for the requests that don't match any rule.
+  ///The default value is `null`.
+  final List<AndroidServiceWorkerRoutingRule>? routingRules;
+
+  AndroidServiceWorkerClient(
+      {this.shouldInterceptRequest,
+      this.shouldInterceptRequestTimeout,
+      this.routingRules});
+}
+
+///Class that represents a rule used by [AndroidServiceWorkerClient.routingRules].
+class AndroidServiceWorkerRoutingRule {
+  ///Regular expression searched in the URL of the request.
+  String urlPattern;
+
+  ///How the matching requests are loaded.
+  AndroidServiceWorkerRoutingAction action;
+
+  ///Path of the Flutter asset folder used by [AndroidServiceWorkerRoutingAction.LOAD_LOCAL], as declared in the `pubspec.yaml` file.
+  String? assetPath;
+
+  ///Absolute path of the directory used by [AndroidServiceWorkerRoutingAction.LOAD_LOCAL]. The files outside of this directory are never served.
+  String? directoryPath;
+
+  AndroidServiceWorkerRoutingRule(
+      {required this.urlPattern,
+      required this.action,
+      this.assetPath,
+      this.directoryPath})
+      : assert(action != AndroidServiceWorkerRoutingAction.LOAD_LOCAL ||
+            assetPath != null ||
+            directoryPath != null);
+
+  Map<String, dynamic> toMap() {
+    return {
+      "urlPattern": urlPattern,
+      "action": action.toValue(),
+      "assetPath": assetPath,
+      "directoryPath": directoryPath
+    };
+  }
+
+  Map<String, dynamic> toJson() {
+    return this.toMap();
+  }
+
+  @override
+  String toString() {
+    return toMap().toString();
+  }
+}
+
+///Class that represents the action of an [AndroidServiceWorkerRoutingRule].
+class AndroidServiceWorkerRoutingAction {
+  final int _value;
+
+  const AndroidServiceWorkerRoutingAction._internal(this._value);
+
+  static final Set<AndroidServiceWorkerRoutingAction> values = [
+    AndroidServiceWorkerRoutingAction.PASSTHROUGH,
+    AndroidServiceWorkerRoutingAction.BLOCK,
+    AndroidServiceWorkerRoutingAction.LOAD_LOCAL,
+  ].toSet();
+
+  static AndroidServiceWorkerRoutingAction? fromValue(int? value) {
+    if (value != null) {
+      try {
+        return AndroidServiceWorkerRoutingAction.values
+            .firstWhere((element) => element.toValue() == value);
+      } catch (e) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  int toValue() => _value;
+
+  @override
+  String toString() {
+    switch (_value) {
+      case 1:
+        return "BLOCK";
+      case 2:
+        return "LOAD_LOCAL";
+      case 0:
+      default:
+        return "PASSTHROUGH";
+    }
+  }
+
+  ///The Service Worker loads the request as usual, without calling [AndroidServiceWorkerClient.shouldInterceptRequest].
+  static const PASSTHROUGH =
+      const AndroidServiceWorkerRoutingAction._internal(0);
+
+  ///The request gets an empty response.
+  static const BLOCK = const AndroidServiceWorkerRoutingAction._internal(1);
+
+  ///The request is served from [AndroidServiceWorkerRoutingRule.assetPath] or [AndroidServiceWorkerRoutingRule.directoryPath],
+  ///with the right MIME type and support for the range requests. The path of the file is the first capturing group
+  ///of [AndroidServiceWorkerRoutingRule.urlPattern], or the path of the URL if the pattern has no group.
+  ///A request without a matching file gets a `404` response.
+  static const LOAD_LOCAL =
+      const AndroidServiceWorkerRoutingAction._internal(2);
+
+  bool operator ==(value) => value == _value;
+
+  @override
+  int get hashCode => _value.hashCode;
 }
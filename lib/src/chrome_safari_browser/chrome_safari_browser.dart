@@ -153,6 +153,47 @@ class ChromeSafariBrowser {
     return await _sharedChannel.invokeMethod("isAvailable", args);
   }
 
+  ///Binds the Custom Tabs service for the whole life of the app and starts the browser process in the background,
+  ///so the next [open] doesn't wait for it. The [ChromeSafariBrowser] instances opened while the service is connected
+  ///reuse its session. Returns `false` if no browser supporting Custom Tabs is installed.
+  ///
+  ///**NOTE**: available only on Android.
+  ///
+  ///**Supported Platforms/Implementations**:
+  ///- Android ([Official API - CustomTabsClient.warmup](https://developer.android.com/reference/androidx/browser/customtabs/CustomTabsClient#warmup(long)))
+  static Future<bool> androidWarmUp() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    return await _sharedChannel.invokeMethod("warmUp", args);
+  }
+
+  ///Tells the browser which URLs are likely to be opened next with [open], the most likely first.
+  ///The first URL can be prefetched, the others are only used as hints.
+  ///If the service is not connected yet, it is bound and the URLs are sent once it is connected.
+  ///
+  ///**NOTE**: available only on Android.
+  ///
+  ///**Supported Platforms/Implementations**:
+  ///- Android ([Official API - CustomTabsSession.mayLaunchUrl](https://developer.android.com/reference/androidx/browser/customtabs/CustomTabsSession#mayLaunchUrl(android.net.Uri,android.os.Bundle,java.util.List%3Candroid.os.Bundle%3E)))
+  static Future<bool> androidMayLaunchUrls({required List<Uri> urls}) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent('urls', () => urls.map((url) => url.toString()).toList());
+    return await _sharedChannel.invokeMethod("mayLaunchUrls", args);
+  }
+
+  ///Returns whether the shared Custom Tabs session is `connected`, how many browsers were opened (`launchCount`),
+  ///how many of them reused the shared connection instead of binding the service (`sharedSessionLaunchCount`) and, for the last one, the time in milliseconds
+  ///between [open] and the navigation events of the tab (`tabShownMillis`, `navigationStartedMillis`, `navigationFinishedMillis`).
+  ///`firstContentfulPaintMillis`, relative to the start of the navigation, is available only if the browser shares
+  ///its page load metrics with the app.
+  ///
+  ///**NOTE**: available only on Android.
+  static Future<Map<String, dynamic>?> androidGetSessionMetrics() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic>? metrics =
+        await _sharedChannel.invokeMethod("getSessionMetrics", args);
+    return metrics?.cast<String, dynamic>();
+  }
+
   ///Event fires when the [ChromeSafariBrowser] is opened.
   void onOpened() {}
 
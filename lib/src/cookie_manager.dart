@@ -25,6 +25,9 @@ class CookieManager {
   ///Contains only iOS-specific methods of [CookieManager].
   late IOSCookieManager ios;
 
+  ///Contains only Android-specific methods of [CookieManager].
+  late AndroidCookieManager android;
+
   ///Gets the [CookieManager] shared instance.
   static CookieManager instance() {
     return (_instance != null) ? _instance! : _init();
@@ -34,6 +37,7 @@ class CookieManager {
     _channel.setMethodCallHandler(_handleMethod);
     _instance = CookieManager();
     _instance!.ios = IOSCookieManager.instance();
+    _instance!.android = AndroidCookieManager.instance();
     return _instance!;
   }
 
@@ -458,3 +462,47 @@ class IOSCookieManager {
     return cookies;
   }
 }
+
+///Class that contains only Android-specific methods of [CookieManager].
+class AndroidCookieManager {
+  static AndroidCookieManager? _instance;
+
+  ///Gets the [AndroidCookieManager] shared instance.
+  static AndroidCookieManager instance() {
+    return (_instance != null) ? _instance! : _init();
+  }
+
+  static AndroidCookieManager _init() {
+    _instance = AndroidCookieManager();
+    return _instance!;
+  }
+
+  ///Sets when the cookies changed by the WebViews and by [CookieManager] are written to disk.
+  ///The cookies are always written on a background thread.
+  ///
+  ///[policy] defaults to [AndroidCookiePersistencePolicy.DEBOUNCED] and [interval], the maximum time a change waits
+  ///before being written with that policy, defaults to 1 second.
+  Future<void> configurePersistence(
+      {AndroidCookiePersistencePolicy? policy, Duration? interval}) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent("policy", () => policy?.toValue());
+    args.putIfAbsent("intervalMillis", () => interval?.inMilliseconds);
+    await CookieManager._channel.invokeMethod('configurePersistence', args);
+  }
+
+  ///Writes the cookies to disk now, whatever the policy set with [configurePersistence] is,
+  ///and completes when they have been written.
+  Future<void> flush() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    await CookieManager._channel.invokeMethod('flush', args);
+  }
+
+  ///Returns how many times the cookies were asked to be written (`requestCount`) and actually written to disk (`flushCount`, `failedFlushCount`),
+  ///with the time spent writing them: `averageFlushMillis`, `maxFlushMillis` and `lastFlushMillis`.
+  Future<Map<String, dynamic>?> getPersistenceStats() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic>? stats = await CookieManager._channel
+        .invokeMethod('getPersistenceStats', args);
+    return stats?.cast<String, dynamic>();
+  }
+}
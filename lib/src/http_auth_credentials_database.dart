@@ -1,6 +1,7 @@
 import 'dart:async';
 
 import 'types.dart';
+import 'package:flutter/foundation.dart';
 import 'package:flutter/services.dart';
 
 ///Class that implements a singleton object (shared instance) which manages the shared HTTP auth credentials cache.
@@ -81,6 +82,41 @@ class HttpAuthCredentialDatabase {
     await _channel.invokeMethod('setHttpAuthCredential', args);
   }
 
+  ///Saves all the HTTP auth [credentials] of each protection space at once.
+  ///
+  ///**NOTE**: on Android, all the credentials are written with a single database transaction.
+  Future<void> setHttpAuthCredentials(
+      {required List<URLProtectionSpaceHttpAuthCredentials>
+          credentials}) async {
+    List<Map<String, dynamic>> credentialList = [];
+    for (var protectionSpaceCredentials in credentials) {
+      var protectionSpace = protectionSpaceCredentials.protectionSpace;
+      if (protectionSpace == null) {
+        continue;
+      }
+      for (var credential
+          in protectionSpaceCredentials.credentials ?? <URLCredential>[]) {
+        credentialList.add({
+          "host": protectionSpace.host,
+          "protocol": protectionSpace.protocol,
+          "realm": protectionSpace.realm,
+          "port": protectionSpace.port,
+          "username": credential.username,
+          "password": credential.password,
+        });
+      }
+    }
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      Map<String, dynamic> args = <String, dynamic>{};
+      args.putIfAbsent("credentials", () => credentialList);
+      await _channel.invokeMethod('setHttpAuthCredentials', args);
+    } else {
+      for (var args in credentialList) {
+        await _channel.invokeMethod('setHttpAuthCredential', args);
+      }
+    }
+  }
+
   ///Removes an HTTP auth [credential] for that [protectionSpace].
   Future<void> removeHttpAuthCredential(
       {required URLProtectionSpace protectionSpace,
@@ -780,7 +780,7 @@ class InAppBrowser {
   ///
   ///[icon] represents the favicon for the current page.
   ///
-  ///**NOTE**: available only on Android.
+  ///**NOTE**: available only on Android. In order to be able to listen this event, you need to set [AndroidInAppWebViewOptions.useOnReceivedIcon] option to `true`.
   ///
   ///**Official Android API**: https://developer.android.com/reference/android/webkit/WebChromeClient#onReceivedIcon(android.webkit.WebView,%20android.graphics.Bitmap)
   void androidOnReceivedIcon(Uint8List icon) {}
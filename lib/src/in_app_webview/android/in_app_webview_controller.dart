@@ -117,6 +117,160 @@ class AndroidInAppWebViewController {
     return await _channel.invokeMethod('clearHistory', args);
   }
 
+  ///Returns how many times the resource type of a URL checked by the content blockers was found from each source:
+  ///`acceptHeaderCount`, `extensionCount`, `cacheCount`, `headRequestCount` and `unresolvedCount`, plus the `cacheSize`.
+  Future<Map<String, dynamic>?> getContentBlockerResourceTypeStats() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic>? stats =
+        await _channel.invokeMethod('getContentBlockerResourceTypeStats', args);
+    return stats?.cast<String, dynamic>();
+  }
+
+  ///Returns the counters of the requests handed to [WebView.androidShouldInterceptResponse] and [WebView.onLoadResourceCustomScheme],
+  ///and how long they waited for the Dart answer: `requestCount`, `answeredCount`, `timedOutCount`, `fallbackCount`,
+  ///`totalWaitMillis`, `maxWaitMillis` and `averageWaitMillis`.
+  Future<Map<String, dynamic>?> getInterceptRequestMetrics() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic>? metrics =
+        await _channel.invokeMethod('getInterceptRequestMetrics', args);
+    return metrics?.cast<String, dynamic>();
+  }
+
+  ///Resets the counters returned by [getInterceptRequestMetrics].
+  Future<void> resetInterceptRequestMetrics() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    await _channel.invokeMethod('resetInterceptRequestMetrics', args);
+  }
+
+  ///Returns the counters of the icons sent to [WebView.androidOnReceivedIcon] by all the WebViews:
+  ///the icons encoded (`encodeCount`) and the average time spent encoding one in the background (`averageEncodeMillis`),
+  ///the icons sent from the cache without being encoded again (`cacheHitCount`) and the number of cached icons (`cachedIconCount`).
+  Future<Map<String, dynamic>?> getReceivedIconStats() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic>? stats =
+        await _channel.invokeMethod('getReceivedIconStats', args);
+    return stats?.cast<String, dynamic>();
+  }
+
+  ///Returns the counters of the files served for [AndroidInAppWebViewOptions.resourceCustomSchemeMappings] by all the WebViews:
+  ///`servedCount`, the files read from the memory cache (`cacheHitCount`), the range requests (`rangeRequestCount`),
+  ///the mapped URLs without a matching file (`notFoundCount`) and the size of the memory cache (`cachedBytes`).
+  Future<Map<String, dynamic>?> getCustomSchemeResourceStats() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic>? stats =
+        await _channel.invokeMethod('getCustomSchemeResourceStats', args);
+    return stats?.cast<String, dynamic>();
+  }
+
+  ///Returns the counters of the console messages handled by [AndroidInAppWebViewOptions.consoleMessagePipeline]:
+  ///`receivedCount`, `filteredCount`, `collapsedCount`, the messages dropped because the buffer was full (`droppedCount`),
+  ///the messages sent to [WebView.onConsoleMessage] (`deliveredCount`) in `batchCount` batches,
+  ///the messages written to the log file (`writtenCount`) and the messages still waiting (`bufferedCount`).
+  Future<Map<String, dynamic>?> getConsoleMessageStats() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic>? stats =
+        await _channel.invokeMethod('getConsoleMessageStats', args);
+    return stats?.cast<String, dynamic>();
+  }
+
+  ///Takes a screenshot of the WebView's visible viewport, like [InAppWebViewController.takeScreenshot],
+  ///but writes the image to [filePath] from a background thread instead of returning it.
+  ///Returns `true` if the file was written.
+  ///
+  ///[screenshotConfiguration] represents the configuration data to use when generating an image from a web view’s contents.
+  Future<bool> takeScreenshotToFile(
+      {required String filePath,
+      ScreenshotConfiguration? screenshotConfiguration}) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent('filePath', () => filePath);
+    args.putIfAbsent(
+        'screenshotConfiguration', () => screenshotConfiguration?.toMap());
+    return await _channel.invokeMethod('takeScreenshotToFile', args) ?? false;
+  }
+
+  ///Returns the counters of the screenshots taken by all the WebViews: `captureCount`, `failedCaptureCount`,
+  ///the captures made with [ScreenshotConfiguration.androidUsePixelCopy] (`pixelCopyCount`),
+  ///the bitmaps reused from the pool or allocated (`bitmapReuseCount`, `bitmapAllocationCount`, `pooledBitmapCount`)
+  ///and the images encoded in the background with the average time spent on one (`encodeCount`, `averageEncodeMillis`).
+  Future<Map<String, dynamic>?> getScreenshotStats() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic>? stats =
+        await _channel.invokeMethod('getScreenshotStats', args);
+    return stats?.cast<String, dynamic>();
+  }
+
+  ///Returns how many intercepted requests went through the binary body transport enabled with [AndroidInAppWebViewOptions.useBinaryInterceptBodyTransport]
+  ///(`callCount`), how many messages it rejected because they were not for one of these two handlers (`rejectedCount`),
+  ///how many request and response bodies it carried with their total size (`requestBodyCount`, `requestBodyBytes`,
+  ///`responseBodyCount`, `responseBodyBytes`) and the average time spent decoding a message (`averageDecodeMillis`).
+  Future<Map<String, dynamic>?> getInterceptBodyTransportStats() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic>? stats =
+        await _channel.invokeMethod('getInterceptBodyTransportStats', args);
+    return stats?.cast<String, dynamic>();
+  }
+
+  ///Returns how many requests of the current page were sent to [WebView.shouldInterceptFetchRequest] and [WebView.shouldInterceptAjaxRequest]
+  ///(`interceptedRequestCount`) and how many skipped them because they didn't match [AndroidInAppWebViewOptions.interceptRequestFilter]
+  ///(`bypassedRequestCount`).
+  Future<Map<String, dynamic>?> getInterceptRequestStats() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic>? stats =
+        await _channel.invokeMethod('getInterceptRequestStats', args);
+    return stats?.cast<String, dynamic>();
+  }
+
+  ///Returns how many [WebView.onScrollChanged] and [WebView.onOverScrolled] events were received from the WebView,
+  ///delivered to Dart and dropped because a newer position replaced them, according to [AndroidInAppWebViewOptions.scrollEventMode]:
+  ///`scrollChangedReceivedCount`, `scrollChangedDeliveredCount`, `scrollChangedDroppedCount`,
+  ///`overScrolledReceivedCount`, `overScrolledDeliveredCount` and `overScrolledDroppedCount`.
+  Future<Map<String, dynamic>?> getScrollEventStats() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic>? stats =
+        await _channel.invokeMethod('getScrollEventStats', args);
+    return stats?.cast<String, dynamic>();
+  }
+
+  ///Resets the counters returned by [getScrollEventStats].
+  Future<void> resetScrollEventStats() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    await _channel.invokeMethod('resetScrollEventStats', args);
+  }
+
+  ///Returns the time, in milliseconds, from the start of the navigation to the moment the JavaScript bridge was ready,
+  ///for the pages loaded with the scripts registered natively (see [AndroidInAppWebViewOptions.useNativeDocumentStartScripts])
+  ///and for the pages loaded with the scripts evaluated on page start: `nativeCount`, `nativeAverageMillis`, `nativeMaxMillis`,
+  ///`evaluatedCount`, `evaluatedAverageMillis`, `evaluatedMaxMillis`, plus the `notReadyCount` of the pages
+  ///that finished loading without the bridge.
+  Future<Map<String, dynamic>?> getBridgeReadyMetrics() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic>? metrics =
+        await _channel.invokeMethod('getBridgeReadyMetrics', args);
+    return metrics?.cast<String, dynamic>();
+  }
+
+  ///Resets the counters returned by [getBridgeReadyMetrics].
+  Future<void> resetBridgeReadyMetrics() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    await _channel.invokeMethod('resetBridgeReadyMetrics', args);
+  }
+
+  ///Returns how many `callHandler` calls were sent by the batched JavaScript bridge
+  ///(see [AndroidInAppWebViewOptions.useBatchedJavaScriptBridge]) and how they were grouped:
+  ///`batchCount`, `callCount`, `lastBatchSize`, `maxBatchSize` and `averageBatchSize`.
+  Future<Map<String, dynamic>?> getJavaScriptBridgeBatchStats() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic>? stats =
+        await _channel.invokeMethod('getJavaScriptBridgeBatchStats', args);
+    return stats?.cast<String, dynamic>();
+  }
+
+  ///Resets the counters returned by [getJavaScriptBridgeBatchStats].
+  Future<void> resetJavaScriptBridgeBatchStats() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    await _channel.invokeMethod('resetJavaScriptBridgeBatchStats', args);
+  }
+
   ///Clears the client certificate preferences stored in response to proceeding/cancelling client cert requests.
   ///Note that WebView automatically clears these preferences when the system keychain is updated.
   ///The preferences are shared by all the WebViews that are created by the embedder application.
@@ -167,6 +321,97 @@ class AndroidInAppWebViewController {
     return await _staticChannel.invokeMethod('setSafeBrowsingWhitelist', args);
   }
 
+  ///Returns the stats of the HTTP clients used natively by the plugin, which all share one connection pool and one dispatcher:
+  ///`connectionCount`, `idleConnectionCount`, `maxIdleConnections`, `keepAliveDuration`, `runningCallsCount`, `queuedCallsCount`,
+  ///`maxRequests`, `maxRequestsPerHost`, `connectionsAcquired`, `connectionsOpened`, `connectionsReused`,
+  ///`failedConnections`, `http2ConnectionsAcquired`, `http2ConnectionsOpened`, the requests that waited
+  ///for the limits set with [setHttpClientMaxRequests] (`limitedCallsCount`) and the ones that gave up waiting (`limitTimeoutCount`).
+  static Future<Map<String, dynamic>?> getHttpClientStats() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic>? stats =
+        await _staticChannel.invokeMethod('getHttpClientStats', args);
+    return stats?.cast<String, dynamic>();
+  }
+
+  ///Sets the maximum number of concurrent requests, in total and per host, of the HTTP clients used natively by the plugin.
+  ///By default the requests made natively are not limited. Once a limit is set, a network request over it waits until it can start,
+  ///for at most 10 seconds after which it starts anyway, and it is counted as running until its response headers are received.
+  ///The responses served by the cache configured with [configureHttpCache] are not limited. A `null` value leaves the current limit unchanged.
+  static Future<void> setHttpClientMaxRequests(
+      {int? maxRequests, int? maxRequestsPerHost}) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent('maxRequests', () => maxRequests);
+    args.putIfAbsent('maxRequestsPerHost', () => maxRequestsPerHost);
+    await _staticChannel.invokeMethod('setHttpClientMaxRequests', args);
+  }
+
+  ///Configures the connection pool shared by the HTTP clients used natively by the plugin: it keeps at most [maxIdleConnections]
+  ///idle connections, each for at most [keepAliveDuration] seconds. The defaults are `10` connections and `300` seconds.
+  ///The WebViews keep the pool they were created with, so it should be called before creating them. A `null` value leaves the current value unchanged.
+  static Future<void> configureHttpClientConnectionPool(
+      {int? maxIdleConnections, int? keepAliveDuration}) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent('maxIdleConnections', () => maxIdleConnections);
+    args.putIfAbsent('keepAliveDuration', () => keepAliveDuration);
+    await _staticChannel.invokeMethod('configureHttpClientConnectionPool', args);
+  }
+
+  ///Configures the disk cache of the main-frame requests fetched natively when [AndroidInAppWebViewOptions.useShouldInterceptRequest] is `true`.
+  ///These requests don't go through the WebView cache, so without this cache the back/forward navigations and the reloads always use the network.
+  ///
+  ///The cache is shared by all the WebViews and stores at most [maxSize] bytes in [directoryPath], or in a folder of the app cache directory if it is `null`.
+  ///It follows the [AndroidInAppWebViewOptions.cacheMode] option of each WebView, and the stale responses are validated with their `ETag` or `Last-Modified` headers.
+  ///The cache is keyed only by URL, so the requests with a `Cookie` or `Authorization` header, including the cookies of the WebView cookie store,
+  ///and the requests of the incognito WebViews never use it. It is cleared by the [InAppWebViewOptions.clearCache] and [InAppWebViewOptions.incognito] options
+  ///of any WebView, and by [clearHttpCache].
+  ///A [maxSize] of `0`, the default, disables the cache.
+  static Future<void> configureHttpCache(
+      {required int maxSize, String? directoryPath}) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent('maxSize', () => maxSize);
+    args.putIfAbsent('directoryPath', () => directoryPath);
+    await _staticChannel.invokeMethod('configureHttpCache', args);
+  }
+
+  ///Returns the stats of the cache configured with [configureHttpCache]: `enabled`, `size`, `maxSize`,
+  ///the responses served from the cache (`hitCount`), validated by the server with a `304` response (`conditionalHitCount`)
+  ///or loaded from the network (`missCount`).
+  static Future<Map<String, dynamic>?> getHttpCacheStats() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic>? stats =
+        await _staticChannel.invokeMethod('getHttpCacheStats', args);
+    return stats?.cast<String, dynamic>();
+  }
+
+  ///Deletes the responses stored by the cache configured with [configureHttpCache].
+  static Future<void> clearHttpCache() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    await _staticChannel.invokeMethod('clearHttpCache', args);
+  }
+
+  ///Configures the pool of native WebViews used by the new [InAppWebView], [HeadlessInAppWebView] and [InAppBrowser] instances.
+  ///
+  ///The pool keeps at most [maxSize] idle WebViews: the disposed WebViews are reset (history, user scripts, options) and kept for reuse,
+  ///and [preWarmSize] WebViews are created in advance while the main thread is idle, so that a new WebView doesn't pay for its creation.
+  ///Incognito WebViews are never reused. A [maxSize] of `0`, the default, disables the pool.
+  static Future<void> configureWebViewPool(
+      {required int maxSize, int preWarmSize = 0}) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent('maxSize', () => maxSize);
+    args.putIfAbsent('preWarmSize', () => preWarmSize);
+    await _staticChannel.invokeMethod('configureWebViewPool', args);
+  }
+
+  ///Returns the stats of the pool configured with [configureWebViewPool]: `maxSize`, `preWarmSize`, `idleCount`,
+  ///`hitCount`, `missCount`, `hitRate`, `recycledCount`, `discardedCount`, `createdCount`,
+  ///`averageCreationMillis`, `maxCreationMillis` and `lastCreationMillis`.
+  static Future<Map<String, dynamic>?> getWebViewPoolStats() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic>? stats =
+        await _staticChannel.invokeMethod('getWebViewPoolStats', args);
+    return stats?.cast<String, dynamic>();
+  }
+
   ///If WebView has already been loaded into the current process this method will return the package that was used to load it.
   ///Otherwise, the package that would be used if the WebView was loaded right now will be returned;
   ///this does not cause WebView to be loaded, so this information may become outdated at any time.
@@ -239,6 +239,108 @@ class AndroidInAppWebViewOptions
   ///**NOTE**: available on Android 29+.
   Color? horizontalScrollbarTrackColor;
 
+  ///Set to `true` to match the [InAppWebViewOptions.contentBlockers] using an index of the literal tokens of each `url-filter`,
+  ///so that each URL is checked only against the rules that could match it.
+  ///Set to `false` to check each URL against every rule. The default value is `true`.
+  bool useIndexedContentBlockers;
+
+  ///Set to `true` to not block the WebView network thread while waiting for [WebView.androidShouldInterceptResponse]
+  ///and [WebView.onLoadResourceCustomScheme]. The response is returned immediately and its body is filled when the Dart answer arrives.
+  ///The status code and the headers come from the network response, while for custom schemes the content type is guessed from the URL,
+  ///so only the `data` of the answer is used. [WebView.androidShouldInterceptResponse] gets only the status code and the headers, its `data` is `null`,
+  ///and the network body is streamed into the WebView unless the answer has a `data`. The default value is `false`.
+  bool useAsyncShouldInterceptRequest;
+
+  ///Maximum time, in milliseconds, to wait for the answer of [WebView.androidShouldInterceptResponse] and [WebView.onLoadResourceCustomScheme].
+  ///When it expires, the request falls back to the network response, already downloaded for [WebView.androidShouldInterceptResponse].
+  ///The default value is `null`, which means no timeout.
+  int? shouldInterceptRequestTimeout;
+
+  ///Set to `true` to make an HTTP HEAD request to find the resource type of a URL for the content blockers
+  ///when it cannot be inferred from the `Accept` request header, the file extension or the responses already seen for the same URL.
+  ///The default value is `false`.
+  bool useContentBlockerHeadRequests;
+
+  ///Set to `true` to stream the network body of the main frame straight into the WebView, instead of sending it to [WebView.androidShouldInterceptResponse].
+  ///The event then gets only the status code and the headers, and its `data` is `null`. To rewrite the body,
+  ///return a [WebResourceResponse] with [WebResourceResponse.rewriteBody] set to `true`: the event is called again with the `data`,
+  ///if the body is not larger than [maxShouldInterceptResponseBodySize]. The default value is `false`.
+  bool useStreamingShouldInterceptResponse;
+
+  ///Maximum size, in bytes, of a body that can be rewritten when [useStreamingShouldInterceptResponse] is `true`.
+  ///Larger bodies are streamed unchanged. A negative value means no limit. The default value is `2097152` (2 MB).
+  int maxShouldInterceptResponseBodySize;
+
+  ///Set to `true` to group the `window.flutter_inappwebview.callHandler` calls made during the same animation frame,
+  ///so that they reach the native side and Dart with a single message and their results are sent back with a single script.
+  ///It reduces the load on the UI thread of pages that call the JavaScript handlers very often.
+  ///Calls made inside iframes are not grouped. The default value is `false`.
+  bool useBatchedJavaScriptBridge;
+
+  ///Set to `true` to register the plugin and user scripts injected at [UserScriptInjectionTime.AT_DOCUMENT_START]
+  ///in the page content world once, with the document-start script API of the WebView, instead of evaluating them on every page start.
+  ///They then run before any script of the page. The scripts of the other content worlds are still evaluated on page start.
+  ///It has no effect if the WebView implementation doesn't support it. The default value is `false`.
+  bool useNativeDocumentStartScripts;
+
+  ///Sets how the [WebView.onScrollChanged] and [WebView.onOverScrolled] events are sent to Dart.
+  ///With a mode other than [AndroidScrollEventMode.ALL], the events are coalesced to the latest position, so a fling doesn't send a platform channel message for every frame.
+  ///The default value is [AndroidScrollEventMode.ALL].
+  AndroidScrollEventMode scrollEventMode;
+
+  ///Minimum time, in milliseconds, between two scroll events when [scrollEventMode] is [AndroidScrollEventMode.THROTTLED].
+  ///The default value is `100`.
+  int scrollEventThrottleInterval;
+
+  ///Selects the requests sent to [WebView.shouldInterceptFetchRequest] and [WebView.shouldInterceptAjaxRequest].
+  ///The filter is checked by the JavaScript interceptors, so the other requests skip the JavaScript bridge entirely
+  ///and their body is never converted. It can be changed at runtime with [InAppWebViewController.setOptions].
+  ///If it is `null`, all the requests are intercepted. The default value is `null`.
+  InterceptRequestFilter? interceptRequestFilter;
+
+  ///Set to `true` to send the calls of [WebView.shouldInterceptFetchRequest] and [WebView.shouldInterceptAjaxRequest] through a [WebMessageListener],
+  ///with the request and response bodies sent as bytes (a [Uint8List]) next to a small JSON header,
+  ///instead of a JSON array of numbers. It is much faster and uses much less memory for large bodies.
+  ///It applies to the pages loaded after it is enabled, and it has no effect if [WebViewFeature.WEB_MESSAGE_LISTENER] isn't supported.
+  ///The default value is `false`.
+  bool useBinaryInterceptBodyTransport;
+
+  ///Maximum number of resources sent together to [WebView.onLoadResource], with a single JavaScript bridge call.
+  ///A batch is sent when it is full, when [onLoadResourceBatchInterval] has elapsed since its first resource, or when the page is hidden.
+  ///If it is `0` or `1`, each resource is sent on its own. Changes made at runtime apply from the next page load. The default value is `0`.
+  int onLoadResourceBatchSize;
+
+  ///Maximum time, in milliseconds, that a resource waits in a batch when [onLoadResourceBatchSize] is greater than `1`.
+  ///The default value is `1000`.
+  int onLoadResourceBatchInterval;
+
+  ///Filters, buffers and batches the messages sent to [WebView.onConsoleMessage], and can write them to a rotating log file.
+  ///If it is `null`, every message is sent to [WebView.onConsoleMessage] as soon as it is received. The default value is `null`.
+  ConsoleMessagePipeline? consoleMessagePipeline;
+
+  ///List of the URL prefixes served natively from the Flutter assets or from a directory on disk, with the right MIME type,
+  ///support for the range requests and a memory cache for the small files. Only the other URLs of [InAppWebViewOptions.resourceCustomSchemes]
+  ///are sent to [WebView.onLoadResourceCustomScheme]. A mapped URL without a matching file gets a `404` response.
+  ///The default value is `null`.
+  List<CustomSchemeResourceMapping>? resourceCustomSchemeMappings;
+
+  ///Set to `true` to receive the favicons of the pages with the [WebView.androidOnReceivedIcon] event.
+  ///The icons are encoded on a background thread, according to [receivedIconMaxSize], [receivedIconCompressFormat] and [receivedIconQuality],
+  ///and the last icon of each origin is cached, so it is not encoded again when a page of the same origin sends the same icon.
+  ///The default value is `false`.
+  bool useOnReceivedIcon;
+
+  ///Maximum width and height, in pixels, of the icons sent to [WebView.androidOnReceivedIcon]. The bigger icons are scaled down.
+  ///If it is `0`, the icons keep their original size. The default value is `0`.
+  int receivedIconMaxSize;
+
+  ///Format of the icons sent to [WebView.androidOnReceivedIcon]. The default value is [CompressFormat.PNG].
+  CompressFormat receivedIconCompressFormat;
+
+  ///Quality of the icons sent to [WebView.androidOnReceivedIcon], from `0` to `100`, for the lossy formats.
+  ///The default value is `100`.
+  int receivedIconQuality;
+
   AndroidInAppWebViewOptions({
     this.textZoom = 100,
     this.clearSessionCache = false,
@@ -296,6 +398,26 @@ class AndroidInAppWebViewOptions
     this.verticalScrollbarTrackColor,
     this.horizontalScrollbarThumbColor,
     this.horizontalScrollbarTrackColor,
+    this.useIndexedContentBlockers = true,
+    this.useAsyncShouldInterceptRequest = false,
+    this.shouldInterceptRequestTimeout,
+    this.useContentBlockerHeadRequests = false,
+    this.useStreamingShouldInterceptResponse = false,
+    this.maxShouldInterceptResponseBodySize = 2 * 1024 * 1024,
+    this.useBatchedJavaScriptBridge = false,
+    this.useNativeDocumentStartScripts = false,
+    this.scrollEventMode = AndroidScrollEventMode.ALL,
+    this.scrollEventThrottleInterval = 100,
+    this.interceptRequestFilter,
+    this.useBinaryInterceptBodyTransport = false,
+    this.onLoadResourceBatchSize = 0,
+    this.onLoadResourceBatchInterval = 1000,
+    this.consoleMessagePipeline,
+    this.resourceCustomSchemeMappings,
+    this.useOnReceivedIcon = false,
+    this.receivedIconMaxSize = 0,
+    this.receivedIconCompressFormat = CompressFormat.PNG,
+    this.receivedIconQuality = 100,
   });
 
   @override
@@ -356,6 +478,29 @@ class AndroidInAppWebViewOptions
       "verticalScrollbarTrackColor": verticalScrollbarTrackColor?.toHex(),
       "horizontalScrollbarThumbColor": horizontalScrollbarThumbColor?.toHex(),
       "horizontalScrollbarTrackColor": horizontalScrollbarTrackColor?.toHex(),
+      "useIndexedContentBlockers": useIndexedContentBlockers,
+      "useAsyncShouldInterceptRequest": useAsyncShouldInterceptRequest,
+      "shouldInterceptRequestTimeout": shouldInterceptRequestTimeout,
+      "useContentBlockerHeadRequests": useContentBlockerHeadRequests,
+      "useStreamingShouldInterceptResponse":
+          useStreamingShouldInterceptResponse,
+      "maxShouldInterceptResponseBodySize":
+          maxShouldInterceptResponseBodySize,
+      "useBatchedJavaScriptBridge": useBatchedJavaScriptBridge,
+      "useNativeDocumentStartScripts": useNativeDocumentStartScripts,
+      "scrollEventMode": scrollEventMode.toValue(),
+      "scrollEventThrottleInterval": scrollEventThrottleInterval,
+      "interceptRequestFilter": interceptRequestFilter?.toMap(),
+      "useBinaryInterceptBodyTransport": useBinaryInterceptBodyTransport,
+      "onLoadResourceBatchSize": onLoadResourceBatchSize,
+      "onLoadResourceBatchInterval": onLoadResourceBatchInterval,
+      "consoleMessagePipeline": consoleMessagePipeline?.toMap(),
+      "resourceCustomSchemeMappings":
+          resourceCustomSchemeMappings?.map((e) => e.toMap()).toList(),
+      "useOnReceivedIcon": useOnReceivedIcon,
+      "receivedIconMaxSize": receivedIconMaxSize,
+      "receivedIconCompressFormat": receivedIconCompressFormat.toValue(),
+      "receivedIconQuality": receivedIconQuality,
     };
   }
 
@@ -430,6 +575,44 @@ class AndroidInAppWebViewOptions
         UtilColor.fromHex(map["horizontalScrollbarThumbColor"]);
     options.horizontalScrollbarTrackColor =
         UtilColor.fromHex(map["horizontalScrollbarTrackColor"]);
+    options.useIndexedContentBlockers = map["useIndexedContentBlockers"];
+    options.useAsyncShouldInterceptRequest =
+        map["useAsyncShouldInterceptRequest"];
+    options.shouldInterceptRequestTimeout =
+        map["shouldInterceptRequestTimeout"];
+    options.useContentBlockerHeadRequests =
+        map["useContentBlockerHeadRequests"];
+    options.useStreamingShouldInterceptResponse =
+        map["useStreamingShouldInterceptResponse"];
+    options.maxShouldInterceptResponseBodySize =
+        map["maxShouldInterceptResponseBodySize"];
+    options.useBatchedJavaScriptBridge = map["useBatchedJavaScriptBridge"];
+    options.useNativeDocumentStartScripts =
+        map["useNativeDocumentStartScripts"];
+    options.scrollEventMode =
+        AndroidScrollEventMode.fromValue(map["scrollEventMode"])!;
+    options.scrollEventThrottleInterval = map["scrollEventThrottleInterval"];
+    options.interceptRequestFilter = InterceptRequestFilter.fromMap(
+        map["interceptRequestFilter"]?.cast<String, dynamic>());
+    options.useBinaryInterceptBodyTransport =
+        map["useBinaryInterceptBodyTransport"];
+    options.onLoadResourceBatchSize = map["onLoadResourceBatchSize"];
+    options.onLoadResourceBatchInterval = map["onLoadResourceBatchInterval"];
+    options.consoleMessagePipeline = ConsoleMessagePipeline.fromMap(
+        map["consoleMessagePipeline"]?.cast<String, dynamic>());
+    options.resourceCustomSchemeMappings =
+        map["resourceCustomSchemeMappings"] != null
+            ? List<CustomSchemeResourceMapping>.from(
+                map["resourceCustomSchemeMappings"].map((e) =>
+                    CustomSchemeResourceMapping.fromMap(
+                        e?.cast<String, dynamic>())!))
+            : null;
+    options.useOnReceivedIcon = map["useOnReceivedIcon"];
+    options.receivedIconMaxSize = map["receivedIconMaxSize"];
+    options.receivedIconCompressFormat =
+        CompressFormat.fromValue(map["receivedIconCompressFormat"]) ??
+            CompressFormat.PNG;
+    options.receivedIconQuality = map["receivedIconQuality"];
     return options;
   }
 
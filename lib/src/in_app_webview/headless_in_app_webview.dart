@@ -126,6 +126,10 @@ class HeadlessInAppWebView implements WebView {
           onWebViewCreated!(webViewController);
         }
         break;
+      case "onRunTimeout":
+        _started = false;
+        _running = false;
+        break;
       default:
         throw UnimplementedError("Unimplemented ${call.method} method");
     }
@@ -133,7 +137,13 @@ class HeadlessInAppWebView implements WebView {
   }
 
   ///Runs the headless WebView.
-  Future<void> run() async {
+  ///
+  ///[priority] and [timeout] are used only on Android. When a maximum number of concurrent headless WebViews
+  ///is set with [androidConfigureRunQueue], a WebView run beyond it waits in a queue, ordered by [priority]
+  ///(higher first) and then by run order, and is created as soon as a running WebView is disposed.
+  ///[onWebViewCreated] is called when the WebView is actually created.
+  ///If [timeout] is not `null`, the WebView is disposed automatically once it expires, even if it is still queued.
+  Future<void> run({int priority = 0, Duration? timeout}) async {
     if (_started) {
       return;
     }
@@ -157,10 +167,40 @@ class HeadlessInAppWebView implements WebView {
                       PullToRefreshOptions(enabled: false).toMap(),
               'initialSize': this.initialSize.toMap()
             });
+    args.putIfAbsent('priority', () => priority);
+    args.putIfAbsent('timeout', () => timeout?.inMilliseconds);
     await _sharedChannel.invokeMethod('run', args);
     _running = true;
   }
 
+  ///Limits the number of headless WebViews running at the same time to [maxConcurrentWebViews],
+  ///the WebViews run beyond it wait in a queue (see [run]). `0`, the default, means no limit.
+  ///[defaultTimeout] is used for the WebViews run without a timeout.
+  ///
+  ///To also reuse the native WebViews between runs, configure the pool with [AndroidInAppWebViewController.configureWebViewPool].
+  ///
+  ///**NOTE**: available only on Android.
+  static Future<void> androidConfigureRunQueue(
+      {int maxConcurrentWebViews = 0, Duration? defaultTimeout}) async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    args.putIfAbsent('maxConcurrentWebViews', () => maxConcurrentWebViews);
+    args.putIfAbsent('defaultTimeout', () => defaultTimeout?.inMilliseconds);
+    await _sharedChannel.invokeMethod('configureRunQueue', args);
+  }
+
+  ///Returns the stats of the headless WebViews: `maxConcurrentWebViews`, `runningCount`, `queueDepth`, `maxQueueDepth`,
+  ///`queuedCount`, `startedCount`, `finishedCount`, `timedOutCount`, `finishedLastMinuteCount`, `averageQueueWaitMillis`
+  ///and `averageRunMillis`. The memory of the renderer processes can't be read by the app, so the memory of the app process
+  ///(`javaHeapUsedBytes`, `nativeHeapAllocatedBytes`) and of the device (`availableMemoryBytes`, `lowMemory`) is returned instead.
+  ///
+  ///**NOTE**: available only on Android.
+  static Future<Map<String, dynamic>?> androidGetRunQueueStats() async {
+    Map<String, dynamic> args = <String, dynamic>{};
+    Map<dynamic, dynamic>? stats =
+        await _sharedChannel.invokeMethod('getRunQueueStats', args);
+    return stats?.cast<String, dynamic>();
+  }
+
   ///Disposes the headless WebView.
   Future<void> dispose() async {
     if (!_running) {
@@ -183,6 +223,7 @@ class HeadlessInAppWebView implements WebView {
   ///`Size(-1, -1)` will match both width and height of the current device screen size.
   ///
   ///Note that if the [HeadlessInAppWebView] is not running, this method won't have effect.
+  ///On Android, the size set while the WebView waits in the run queue replaces its [initialSize] once it starts.
   ///
   ///**NOTE for Android**: `Size` width and height values will be converted to `int` values because they cannot have `double` values.
   Future<void> setSize(Size size) async {
@@ -189,6 +189,20 @@ class InAppWebViewController {
             _inAppBrowser!.onConsoleMessage(consoleMessage);
         }
         break;
+      case "onConsoleMessageBatch":
+        // sent when AndroidInAppWebViewOptions.consoleMessagePipeline is set
+        if ((_webview != null && _webview!.onConsoleMessage != null) ||
+            _inAppBrowser != null) {
+          for (var message in call.arguments["messages"]) {
+            ConsoleMessage consoleMessage =
+                ConsoleMessage.fromMap(message.cast<String, dynamic>())!;
+            if (_webview != null && _webview!.onConsoleMessage != null)
+              _webview!.onConsoleMessage!(this, consoleMessage);
+            else
+              _inAppBrowser!.onConsoleMessage(consoleMessage);
+          }
+        }
+        break;
       case "onScrollChanged":
         if ((_webview != null && _webview!.onScrollChanged != null) ||
             _inAppBrowser != null) {
@@ -797,25 +811,24 @@ class InAppWebViewController {
         String handlerName = call.arguments["handlerName"];
         // decode args to json
         List<dynamic> args = jsonDecode(call.arguments["args"]);
+        // set when the call comes from the binary body transport of the intercepted requests (Android only)
+        bool useBodyTransport = call.arguments.containsKey("body");
+        Uint8List? body = call.arguments["body"];
 
         switch (handlerName) {
           case "onLoadResource":
             if ((_webview != null && _webview!.onLoadResource != null) ||
                 _inAppBrowser != null) {
-              Map<String, dynamic> arguments = args[0].cast<String, dynamic>();
-              arguments["startTime"] = arguments["startTime"] is int
-                  ? arguments["startTime"].toDouble()
-                  : arguments["startTime"];
-              arguments["duration"] = arguments["duration"] is int
-                  ? arguments["duration"].toDouble()
-                  : arguments["duration"];
-
-              var response = LoadedResource.fromMap(arguments)!;
-
-              if (_webview != null && _webview!.onLoadResource != null)
-                _webview!.onLoadResource!(this, response);
-              else
-                _inAppBrowser!.onLoadResource(response);
+              _onLoadResource(args[0].cast<String, dynamic>());
+            }
+            return null;
+          case "onLoadResourceBatch":
+            // sent when AndroidInAppWebViewOptions.onLoadResourceBatchSize is greater than 1
+            if ((_webview != null && _webview!.onLoadResource != null) ||
+                _inAppBrowser != null) {
+              for (var resource in args[0]) {
+                _onLoadResource(resource.cast<String, dynamic>());
+              }
             }
             return null;
           case "shouldInterceptAjaxRequest":
@@ -824,14 +837,21 @@ class InAppWebViewController {
                 _inAppBrowser != null) {
               Map<String, dynamic> arguments = args[0].cast<String, dynamic>();
               AjaxRequest request = AjaxRequest.fromMap(arguments)!;
+              if (useBodyTransport) {
+                request.data = body ?? request.data;
+              }
 
+              AjaxRequest? result;
               if (_webview != null &&
                   _webview!.shouldInterceptAjaxRequest != null)
-                return jsonEncode(
-                    await _webview!.shouldInterceptAjaxRequest!(this, request));
+                result =
+                    await _webview!.shouldInterceptAjaxRequest!(this, request);
               else
-                return jsonEncode(
-                    await _inAppBrowser!.shouldInterceptAjaxRequest(request));
+                result =
+                    await _inAppBrowser!.shouldInterceptAjaxRequest(request);
+              return useBodyTransport
+                  ? _encodeResultWithBody(result?.toMap(), "data")
+                  : jsonEncode(result);
             }
             return null;
           case "onAjaxReadyStateChange":
@@ -868,14 +888,21 @@ class InAppWebViewController {
                 _inAppBrowser != null) {
               Map<String, dynamic> arguments = args[0].cast<String, dynamic>();
               FetchRequest request = FetchRequest.fromMap(arguments)!;
+              if (useBodyTransport) {
+                request.body = body ?? request.body;
+              }
 
+              FetchRequest? result;
               if (_webview != null &&
                   _webview!.shouldInterceptFetchRequest != null)
-                return jsonEncode(await _webview!.shouldInterceptFetchRequest!(
-                    this, request));
+                result =
+                    await _webview!.shouldInterceptFetchRequest!(this, request);
               else
-                return jsonEncode(
-                    await _inAppBrowser!.shouldInterceptFetchRequest(request));
+                result =
+                    await _inAppBrowser!.shouldInterceptFetchRequest(request);
+              return useBodyTransport
+                  ? _encodeResultWithBody(result?.toMap(), "body")
+                  : jsonEncode(result);
             }
             return null;
           case "onPrint":
@@ -927,12 +954,55 @@ class InAppWebViewController {
           }
         }
         break;
+      case "onCallJsHandlerBatch":
+        List<dynamic> calls = call.arguments["calls"];
+        return await Future.wait(calls.map((jsCall) async {
+          try {
+            return await handleMethod(MethodCall("onCallJsHandler", jsCall));
+          } catch (error) {
+            print(error);
+            return null;
+          }
+        }));
       default:
         throw UnimplementedError("Unimplemented ${call.method} method");
     }
     return null;
   }
 
+  void _onLoadResource(Map<String, dynamic> arguments) {
+    arguments["startTime"] = arguments["startTime"] is int
+        ? arguments["startTime"].toDouble()
+        : arguments["startTime"];
+    arguments["duration"] = arguments["duration"] is int
+        ? arguments["duration"].toDouble()
+        : arguments["duration"];
+
+    var response = LoadedResource.fromMap(arguments)!;
+
+    if (_webview != null && _webview!.onLoadResource != null)
+      _webview!.onLoadResource!(this, response);
+    else
+      _inAppBrowser!.onLoadResource(response);
+  }
+
+  ///Sends the body of an intercepted request result as bytes next to its JSON,
+  ///instead of a JSON array of numbers.
+  dynamic _encodeResultWithBody(Map<String, dynamic>? result, String bodyKey) {
+    var resultBody = result?[bodyKey];
+    if (result == null || resultBody is! List) {
+      return jsonEncode(result);
+    }
+    Map<String, dynamic> resultWithoutBody = Map<String, dynamic>.from(result);
+    resultWithoutBody[bodyKey] = null;
+    return {
+      "json": jsonEncode(resultWithoutBody),
+      "body": resultBody is Uint8List
+          ? resultBody
+          : Uint8List.fromList(resultBody.cast<int>())
+    };
+  }
+
   ///Gets the URL for the current page.
   ///This is not always the same as the URL passed to [WebView.onLoadStart] because although the load for that URL has begun, the current page may not have changed.
   ///
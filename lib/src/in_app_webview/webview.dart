@@ -96,6 +96,7 @@ abstract class WebView {
   ///Event fired when the [WebView] loads a resource.
   ///
   ///**NOTE**: In order to be able to listen this event, you need to set [InAppWebViewOptions.useOnLoadResource] and [InAppWebViewOptions.javaScriptEnabled] options to `true`.
+  ///On Android, use [AndroidInAppWebViewOptions.onLoadResourceBatchSize] to send the resources in batches on resource-heavy pages.
   final void Function(
           InAppWebViewController controller, LoadedResource resource)?
       onLoadResource;
@@ -572,7 +573,7 @@ abstract class WebView {
   ///
   ///[icon] represents the favicon for the current page.
   ///
-  ///**NOTE**: available only on Android.
+  ///**NOTE**: available only on Android. In order to be able to listen this event, you need to set [AndroidInAppWebViewOptions.useOnReceivedIcon] option to `true`.
   ///
   ///**Official Android API**: https://developer.android.com/reference/android/webkit/WebChromeClient#onReceivedIcon(android.webkit.WebView,%20android.graphics.Bitmap)
   final void Function(InAppWebViewController controller, Uint8List icon)?
@@ -111,7 +111,67 @@ class LoadedResource {
   ///Returns the [DOMHighResTimeStamp](https://developer.mozilla.org/en-US/docs/Web/API/DOMHighResTimeStamp) duration to fetch a resource.
   double? duration;
 
-  LoadedResource({this.initiatorType, this.url, this.startTime, this.duration});
+  ///Time, in milliseconds, spent on the DNS lookup of the resource.
+  ///
+  ///The timing breakdown is `0` for the cross-origin resources served without a `Timing-Allow-Origin` header.
+  ///
+  ///**NOTE**: available only on Android.
+  double? domainLookupDuration;
+
+  ///Time, in milliseconds, spent to establish the connection to the server, including [secureConnectionDuration].
+  ///
+  ///**NOTE**: available only on Android.
+  double? connectDuration;
+
+  ///Time, in milliseconds, spent on the TLS handshake, or `0` if the connection is not secure or was reused.
+  ///
+  ///**NOTE**: available only on Android.
+  double? secureConnectionDuration;
+
+  ///Time, in milliseconds, between [startTime] and the first byte of the response.
+  ///
+  ///**NOTE**: available only on Android.
+  double? timeToFirstByte;
+
+  ///Time, in milliseconds, between the first and the last byte of the response.
+  ///
+  ///**NOTE**: available only on Android.
+  double? responseDuration;
+
+  ///Size, in bytes, of the response fetched over the network, headers included. It is `0` for the resources served from the cache.
+  ///
+  ///**NOTE**: available only on Android.
+  int? transferSize;
+
+  ///Size, in bytes, of the response body before removing any content encoding.
+  ///
+  ///**NOTE**: available only on Android.
+  int? encodedBodySize;
+
+  ///Size, in bytes, of the response body after removing any content encoding.
+  ///
+  ///**NOTE**: available only on Android.
+  int? decodedBodySize;
+
+  ///Network protocol used to fetch the resource, for example `h2` or `http/1.1`.
+  ///
+  ///**NOTE**: available only on Android.
+  String? nextHopProtocol;
+
+  LoadedResource(
+      {this.initiatorType,
+      this.url,
+      this.startTime,
+      this.duration,
+      this.domainLookupDuration,
+      this.connectDuration,
+      this.secureConnectionDuration,
+      this.timeToFirstByte,
+      this.responseDuration,
+      this.transferSize,
+      this.encodedBodySize,
+      this.decodedBodySize,
+      this.nextHopProtocol});
 
   static LoadedResource? fromMap(Map<String, dynamic>? map) {
     if (map == null) {
@@ -121,7 +181,16 @@ class LoadedResource {
         initiatorType: map["initiatorType"],
         url: map["url"] != null ? Uri.parse(map["url"]) : null,
         startTime: map["startTime"],
-        duration: map["duration"]);
+        duration: map["duration"],
+        domainLookupDuration: map["domainLookupDuration"]?.toDouble(),
+        connectDuration: map["connectDuration"]?.toDouble(),
+        secureConnectionDuration: map["secureConnectionDuration"]?.toDouble(),
+        timeToFirstByte: map["timeToFirstByte"]?.toDouble(),
+        responseDuration: map["responseDuration"]?.toDouble(),
+        transferSize: map["transferSize"]?.toInt(),
+        encodedBodySize: map["encodedBodySize"]?.toInt(),
+        decodedBodySize: map["decodedBodySize"]?.toInt(),
+        nextHopProtocol: map["nextHopProtocol"]);
   }
 
   Map<String, dynamic> toMap() {
@@ -129,7 +198,16 @@ class LoadedResource {
       "initiatorType": initiatorType,
       "url": url?.toString(),
       "startTime": startTime,
-      "duration": duration
+      "duration": duration,
+      "domainLookupDuration": domainLookupDuration,
+      "connectDuration": connectDuration,
+      "secureConnectionDuration": secureConnectionDuration,
+      "timeToFirstByte": timeToFirstByte,
+      "responseDuration": responseDuration,
+      "transferSize": transferSize,
+      "encodedBodySize": encodedBodySize,
+      "decodedBodySize": decodedBodySize,
+      "nextHopProtocol": nextHopProtocol
     };
   }
 
@@ -306,6 +384,12 @@ class WebResourceResponse {
 
   String? url;
 
+  ///Set to `true`, in the answer of [WebView.androidShouldInterceptResponse], to get the body of the response and rewrite it
+  ///when [AndroidInAppWebViewOptions.useStreamingShouldInterceptResponse] is `true`.
+  ///
+  ///**NOTE**: available only on Android.
+  bool? rewriteBody;
+
   WebResourceResponse(
       {this.contentType = "",
       this.contentEncoding = "utf-8",
@@ -313,7 +397,8 @@ class WebResourceResponse {
       this.headers,
       this.statusCode,
       this.reasonPhrase,
-      this.url});
+      this.url,
+      this.rewriteBody});
 
   static WebResourceResponse? fromMap(Map<String, dynamic>? map) {
     if (map == null) {
@@ -328,6 +413,7 @@ class WebResourceResponse {
       statusCode: map["statusCode"],
       reasonPhrase: map["reasonPhrase"],
       url: map["url"],
+      rewriteBody: map["rewriteBody"],
     );
   }
 
@@ -338,7 +424,8 @@ class WebResourceResponse {
       "data": data,
       "headers": headers,
       "statusCode": statusCode,
-      "reasonPhrase": reasonPhrase
+      "reasonPhrase": reasonPhrase,
+      "rewriteBody": rewriteBody
     };
   }
 
@@ -395,8 +482,15 @@ class ConsoleMessage {
   String message;
   ConsoleMessageLevel messageLevel;
 
+  ///How many times the same message was logged, when it is collapsed by [ConsoleMessagePipeline.collapseRepeated].
+  ///
+  ///**NOTE**: available only on Android.
+  int repeatCount;
+
   ConsoleMessage(
-      {this.message = "", this.messageLevel = ConsoleMessageLevel.LOG});
+      {this.message = "",
+      this.messageLevel = ConsoleMessageLevel.LOG,
+      this.repeatCount = 1});
 
   static ConsoleMessage? fromMap(Map<String, dynamic>? map) {
     if (map == null) {
@@ -406,11 +500,16 @@ class ConsoleMessage {
       message: map["message"],
       messageLevel: ConsoleMessageLevel.fromValue(map["messageLevel"]) ??
           ConsoleMessageLevel.LOG,
+      repeatCount: map["repeatCount"] ?? 1,
     );
   }
 
   Map<String, dynamic> toMap() {
-    return {"message": message, "messageLevel": messageLevel.toValue()};
+    return {
+      "message": message,
+      "messageLevel": messageLevel.toValue(),
+      "repeatCount": repeatCount
+    };
   }
 
   Map<String, dynamic> toJson() {
@@ -4619,6 +4718,187 @@ class RendererPriorityPolicy {
   }
 }
 
+///Class used by [AndroidInAppWebViewOptions.interceptRequestFilter] to select the requests
+///sent to [WebView.shouldInterceptFetchRequest] and [WebView.shouldInterceptAjaxRequest].
+///
+///A request is intercepted only if it matches all the non-empty lists.
+class InterceptRequestFilter {
+  ///Regular expressions tested against the absolute URL of the request. The request must match one of them.
+  List<String> urlPatterns;
+
+  ///Hosts of the request, such as `api.example.com`. A host starting with `*.`, such as `*.example.com`,
+  ///also matches all its subdomains. The request must match one of them.
+  List<String> hosts;
+
+  ///HTTP methods of the request, such as `POST`. The request must use one of them.
+  List<String> methods;
+
+  InterceptRequestFilter(
+      {this.urlPatterns = const [],
+      this.hosts = const [],
+      this.methods = const []});
+
+  Map<String, dynamic> toMap() {
+    return {"urlPatterns": urlPatterns, "hosts": hosts, "methods": methods};
+  }
+
+  Map<String, dynamic> toJson() {
+    return this.toMap();
+  }
+
+  @override
+  String toString() {
+    return toMap().toString();
+  }
+
+  static InterceptRequestFilter? fromMap(Map<String, dynamic>? map) {
+    return map != null
+        ? InterceptRequestFilter(
+            urlPatterns: map["urlPatterns"]?.cast<String>() ?? [],
+            hosts: map["hosts"]?.cast<String>() ?? [],
+            methods: map["methods"]?.cast<String>() ?? [])
+        : null;
+  }
+}
+
+///Class that represents the console message pipeline used by [AndroidInAppWebViewOptions.consoleMessagePipeline].
+///
+///The messages received by the WebView are filtered, kept in a bounded buffer and sent to [WebView.onConsoleMessage] in batches,
+///and/or written to a rotating log file.
+class ConsoleMessagePipeline {
+  ///Minimum level of the messages to keep. [ConsoleMessageLevel.DEBUG] and [ConsoleMessageLevel.TIP] are the lowest levels,
+  ///followed by [ConsoleMessageLevel.LOG], [ConsoleMessageLevel.WARNING] and [ConsoleMessageLevel.ERROR].
+  ///If it is `null`, all the levels are kept. The default value is `null`.
+  ConsoleMessageLevel? minLevel;
+
+  ///Regular expression tested against the URL of the script that logged the message. Only the matching messages are kept.
+  ///If it is `null`, all the sources are kept. The default value is `null`.
+  String? sourcePattern;
+
+  ///Set to `true` to send a message logged several times in the same batch only once, with its [ConsoleMessage.repeatCount].
+  ///The default value is `false`.
+  bool collapseRepeated;
+
+  ///Maximum number of messages waiting to be sent. When it is full, the oldest messages are dropped.
+  ///The default value is `500`.
+  int bufferSize;
+
+  ///Time, in milliseconds, between two batches. If it is `0`, each message is sent as soon as it is received.
+  ///The default value is `500`.
+  int batchInterval;
+
+  ///Set to `false` to not send the messages to [WebView.onConsoleMessage], for example when they are only written to [logFilePath].
+  ///The default value is `true`.
+  bool sendToDart;
+
+  ///Path of the file where the messages are appended, from a background thread. If it is `null`, no file is written.
+  ///The default value is `null`.
+  String? logFilePath;
+
+  ///Size, in bytes, above which the log file is rotated: it is renamed `<logFilePath>.1`, and the previous ones are shifted.
+  ///The default value is `1048576`.
+  int logFileMaxSize;
+
+  ///Maximum number of log files kept, including the current one.
+  ///The default value is `3`.
+  int logFileMaxCount;
+
+  ConsoleMessagePipeline(
+      {this.minLevel,
+      this.sourcePattern,
+      this.collapseRepeated = false,
+      this.bufferSize = 500,
+      this.batchInterval = 500,
+      this.sendToDart = true,
+      this.logFilePath,
+      this.logFileMaxSize = 1048576,
+      this.logFileMaxCount = 3});
+
+  Map<String, dynamic> toMap() {
+    return {
+      "minLevel": minLevel?.toValue(),
+      "sourcePattern": sourcePattern,
+      "collapseRepeated": collapseRepeated,
+      "bufferSize": bufferSize,
+      "batchInterval": batchInterval,
+      "sendToDart": sendToDart,
+      "logFilePath": logFilePath,
+      "logFileMaxSize": logFileMaxSize,
+      "logFileMaxCount": logFileMaxCount
+    };
+  }
+
+  Map<String, dynamic> toJson() {
+    return this.toMap();
+  }
+
+  @override
+  String toString() {
+    return toMap().toString();
+  }
+
+  static ConsoleMessagePipeline? fromMap(Map<String, dynamic>? map) {
+    return map != null
+        ? ConsoleMessagePipeline(
+            minLevel: ConsoleMessageLevel.fromValue(map["minLevel"]),
+            sourcePattern: map["sourcePattern"],
+            collapseRepeated: map["collapseRepeated"],
+            bufferSize: map["bufferSize"],
+            batchInterval: map["batchInterval"],
+            sendToDart: map["sendToDart"],
+            logFilePath: map["logFilePath"],
+            logFileMaxSize: map["logFileMaxSize"],
+            logFileMaxCount: map["logFileMaxCount"])
+        : null;
+  }
+}
+
+///Class that represents a mapping used by [AndroidInAppWebViewOptions.resourceCustomSchemeMappings].
+///
+///The requests whose URL starts with [urlPrefix] are served natively from the Flutter assets, if [assetPath] is set,
+///or from the files of [directoryPath], without calling [WebView.onLoadResourceCustomScheme].
+class CustomSchemeResourceMapping {
+  ///Prefix of the mapped URLs, for example `myapp://assets/`. The rest of the URL, without its query and fragment,
+  ///is the path of the file. An empty path, or a path ending with `/`, is completed with `index.html`.
+  String urlPrefix;
+
+  ///Path of the Flutter asset folder, as declared in the `pubspec.yaml` file, for example `assets/web`.
+  String? assetPath;
+
+  ///Absolute path of the directory on disk. The files outside of this directory are never served.
+  String? directoryPath;
+
+  CustomSchemeResourceMapping(
+      {required this.urlPrefix, this.assetPath, this.directoryPath})
+      : assert(assetPath != null || directoryPath != null);
+
+  Map<String, dynamic> toMap() {
+    return {
+      "urlPrefix": urlPrefix,
+      "assetPath": assetPath,
+      "directoryPath": directoryPath
+    };
+  }
+
+  Map<String, dynamic> toJson() {
+    return this.toMap();
+  }
+
+  @override
+  String toString() {
+    return toMap().toString();
+  }
+
+  static CustomSchemeResourceMapping? fromMap(Map<String, dynamic>? map) {
+    return map != null
+        ? CustomSchemeResourceMapping(
+            urlPrefix: map["urlPrefix"],
+            assetPath: map["assetPath"],
+            directoryPath: map["directoryPath"])
+        : null;
+  }
+}
+
 ///Class that represents the action to take used by the [WebView.androidOnFormResubmission] event.
 class FormResubmissionAction {
   final int _value;
@@ -4708,6 +4988,66 @@ class AndroidOverScrollMode {
   int get hashCode => _value.hashCode;
 }
 
+///An Android-specific class used to set how the [WebView.onScrollChanged] and [WebView.onOverScrolled] events are sent.
+class AndroidScrollEventMode {
+  final int _value;
+
+  const AndroidScrollEventMode._internal(this._value);
+
+  static final Set<AndroidScrollEventMode> values = [
+    AndroidScrollEventMode.ALL,
+    AndroidScrollEventMode.THROTTLED,
+    AndroidScrollEventMode.FRAME,
+    AndroidScrollEventMode.SCROLL_STOPPED,
+  ].toSet();
+
+  static AndroidScrollEventMode? fromValue(int? value) {
+    if (value != null) {
+      try {
+        return AndroidScrollEventMode.values
+            .firstWhere((element) => element.toValue() == value);
+      } catch (e) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  int toValue() => _value;
+
+  @override
+  String toString() {
+    switch (_value) {
+      case 1:
+        return "THROTTLED";
+      case 2:
+        return "FRAME";
+      case 3:
+        return "SCROLL_STOPPED";
+      case 0:
+      default:
+        return "ALL";
+    }
+  }
+
+  ///Every scroll change is sent as soon as it happens.
+  static const ALL = const AndroidScrollEventMode._internal(0);
+
+  ///At most one event is sent every [AndroidInAppWebViewOptions.scrollEventThrottleInterval] milliseconds, with the latest position.
+  static const THROTTLED = const AndroidScrollEventMode._internal(1);
+
+  ///At most one event is sent for each frame rendered, with the latest position.
+  static const FRAME = const AndroidScrollEventMode._internal(2);
+
+  ///Only the final position is sent, when the scroll has stopped.
+  static const SCROLL_STOPPED = const AndroidScrollEventMode._internal(3);
+
+  bool operator ==(value) => value == _value;
+
+  @override
+  int get hashCode => _value.hashCode;
+}
+
 ///An Android-specific class used to configure the style of the scrollbars.
 ///The scrollbars can be overlaid or inset.
 ///When inset, they add to the padding of the view. And the scrollbars can be drawn inside the padding area or on the edge of the view.
@@ -5017,6 +5357,49 @@ class WebStorageType {
   int get hashCode => _value.hashCode;
 }
 
+///An Android-specific class used to set when the cookies of the WebView are written to disk.
+class AndroidCookiePersistencePolicy {
+  final String _value;
+
+  const AndroidCookiePersistencePolicy._internal(this._value);
+
+  static final Set<AndroidCookiePersistencePolicy> values = [
+    AndroidCookiePersistencePolicy.DEBOUNCED,
+    AndroidCookiePersistencePolicy.IMMEDIATE,
+  ].toSet();
+
+  static AndroidCookiePersistencePolicy? fromValue(String? value) {
+    if (value != null) {
+      try {
+        return AndroidCookiePersistencePolicy.values
+            .firstWhere((element) => element.toValue() == value);
+      } catch (e) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  String toValue() => _value;
+
+  @override
+  String toString() => _value;
+
+  ///The cookie changes are batched and written at most once per interval,
+  ///and also when the app goes to the background or a WebView is disposed.
+  static const DEBOUNCED =
+      const AndroidCookiePersistencePolicy._internal("DEBOUNCED");
+
+  ///Every cookie change is written right away, on a background thread.
+  static const IMMEDIATE =
+      const AndroidCookiePersistencePolicy._internal("IMMEDIATE");
+
+  bool operator ==(value) => value == _value;
+
+  @override
+  int get hashCode => _value.hashCode;
+}
+
 ///Class that represents the same site policy of a cookie. Used by the [Cookie] class.
 class HTTPCookieSameSitePolicy {
   final String _value;
@@ -5800,12 +6183,22 @@ class ScreenshotConfiguration {
   ///**NOTE for iOS**: available only on iOS. Available from iOS 13.0+.
   bool iosAfterScreenUpdates;
 
+  ///Set to `true` to copy the pixels already rendered on the screen with [PixelCopy](https://developer.android.com/reference/android/view/PixelCopy),
+  ///instead of drawing the WebView again on the UI thread. It also captures the content rendered by the GPU, like videos,
+  ///but also the views drawn over the WebView.
+  ///It is used only when the captured rect is entirely visible in an activity window, for example with [AndroidInAppWebViewOptions.useHybridComposition].
+  ///The default value is `false`.
+  ///
+  ///**NOTE**: available only on Android.
+  bool androidUsePixelCopy;
+
   ScreenshotConfiguration(
       {this.rect,
       this.snapshotWidth,
       this.compressFormat = CompressFormat.PNG,
       this.quality = 100,
-      this.iosAfterScreenUpdates = true}) {
+      this.iosAfterScreenUpdates = true,
+      this.androidUsePixelCopy = false}) {
     assert(this.quality >= 0);
   }
 
@@ -5815,7 +6208,8 @@ class ScreenshotConfiguration {
       "snapshotWidth": snapshotWidth,
       "compressFormat": compressFormat.toValue(),
       "quality": quality,
-      "iosAfterScreenUpdates": iosAfterScreenUpdates
+      "iosAfterScreenUpdates": iosAfterScreenUpdates,
+      "androidUsePixelCopy": androidUsePixelCopy
     };
   }
 